@@ -3,12 +3,14 @@ package com.payrolladvance.advanceservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for the Advance Service.
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class AdvanceServiceApplication {
     
     /**
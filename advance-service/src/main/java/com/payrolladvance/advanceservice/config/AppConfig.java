@@ -1,7 +1,10 @@
 package com.payrolladvance.advanceservice.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payrolladvance.kafka.common.metrics.StatusCounters;
 import com.payrolladvance.kafka.common.util.EventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
@@ -10,6 +13,8 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Application configuration.
@@ -18,17 +23,22 @@ import java.time.Duration;
 public class AppConfig {
     
     /**
-     * Creates a load-balanced RestTemplate bean.
+     * Creates a load-balanced RestTemplate bean, authenticated with the service account user-service expects.
      *
-     * @param builder the RestTemplateBuilder
+     * @param builder  the RestTemplateBuilder
+     * @param username the service account's username
+     * @param password the service account's password
      * @return the RestTemplate
      */
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${user.service.username}") String username,
+                                     @Value("${user.service.password}") String password) {
         return builder
                 .setConnectTimeout(Duration.ofSeconds(5))
                 .setReadTimeout(Duration.ofSeconds(5))
+                .basicAuthentication(username, password)
                 .build();
     }
     
@@ -43,4 +53,15 @@ public class AppConfig {
     public EventPublisher eventPublisher(KafkaTemplate<String, String> kafkaTemplate, ObjectMapper objectMapper) {
         return new EventPublisher(kafkaTemplate, objectMapper);
     }
+    
+    /**
+     * Creates the live advance request counts per status, published as the payroll.advance.requests gauges.
+     *
+     * @param meterRegistry the meter registry
+     * @return the status counters
+     */
+    @Bean
+    public StatusCounters advanceRequestStatusCounters(MeterRegistry meterRegistry) {
+        return new StatusCounters("payroll.advance.requests", meterRegistry, List.of(), Set.of());
+    }
 }
\ No newline at end of file
@@ -103,6 +103,16 @@ public class AdvanceRequestController {
         return ResponseEntity.ok(advanceRequests);
     }
     
+    /**
+     * Gets the live number of advance requests in each status.
+     *
+     * @return the counts keyed by status
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<Map<String, Long>> getStatusCounts() {
+        return ResponseEntity.ok(advanceRequestService.getStatusCounts());
+    }
+    
     /**
      * Updates an advance request status.
      *
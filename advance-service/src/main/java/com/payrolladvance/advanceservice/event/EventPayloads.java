@@ -0,0 +1,37 @@
+package com.payrolladvance.advanceservice.event;
+
+import com.payrolladvance.advanceservice.model.AdvanceRequest;
+import com.payrolladvance.kafka.common.events.AdvanceRequestPayload;
+
+/**
+ * Builds the payloads of published events from the entities they describe.
+ */
+public final class EventPayloads {
+    
+    private EventPayloads() {
+    }
+    
+    /**
+     * Builds the payload of an advance request event.
+     *
+     * @param advanceRequest the advance request
+     * @return the event payload
+     */
+    public static AdvanceRequestPayload advanceRequest(AdvanceRequest advanceRequest) {
+        return AdvanceRequestPayload.builder()
+                .id(advanceRequest.getId())
+                .employeeId(advanceRequest.getEmployeeId())
+                .employerId(advanceRequest.getEmployerId())
+                .amount(advanceRequest.getAmount())
+                .requestedDate(advanceRequest.getRequestedDate())
+                .status(advanceRequest.getStatus())
+                .reason(advanceRequest.getReason())
+                .approvedBy(advanceRequest.getApprovedBy())
+                .approvalDate(advanceRequest.getApprovalDate())
+                .rejectionReason(advanceRequest.getRejectionReason())
+                .expectedRepaymentDate(advanceRequest.getExpectedRepaymentDate())
+                .createdAt(advanceRequest.getCreatedAt())
+                .updatedAt(advanceRequest.getUpdatedAt())
+                .build();
+    }
+}
\ No newline at end of file
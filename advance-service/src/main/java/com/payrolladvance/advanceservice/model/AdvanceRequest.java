@@ -27,6 +27,9 @@ public class AdvanceRequest {
     @Column(name = "employee_id", nullable = false)
     private Long employeeId;
     
+    @Column(name = "employer_id")
+    private Long employerId; // Copied from the employee's profile when the request is created
+    
     @Column(nullable = false)
     private BigDecimal amount;
     
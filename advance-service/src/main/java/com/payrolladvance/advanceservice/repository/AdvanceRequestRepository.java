@@ -2,6 +2,7 @@ package com.payrolladvance.advanceservice.repository;
 
 import com.payrolladvance.advanceservice.model.AdvanceRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -35,4 +36,21 @@ public interface AdvanceRequestRepository extends JpaRepository<AdvanceRequest,
      * @return a list of advance requests
      */
     List<AdvanceRequest> findByApprovedByOrderByApprovalDateDesc(Long approvedBy);
+    
+    /**
+     * Counts advance requests per status.
+     *
+     * @return the counts
+     */
+    @Query("SELECT a.status AS status, COUNT(a) AS count FROM AdvanceRequest a GROUP BY a.status")
+    List<StatusGroupCount> countByStatus();
+    
+    /**
+     * Projection of the number of advance requests in a status.
+     */
+    interface StatusGroupCount {
+        String getStatus();
+        
+        long getCount();
+    }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.payrolladvance.advanceservice.dto.AdvanceRequestUpdateDto;
 import com.payrolladvance.advanceservice.model.AdvanceRequest;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for advance request operations.
@@ -51,4 +52,18 @@ public interface AdvanceRequestService {
      * @return the updated advance request
      */
     AdvanceRequest updateAdvanceRequestStatus(Long id, AdvanceRequestUpdateDto updateDto);
+    
+    /**
+     * Gets the live number of advance requests in each status.
+     *
+     * @return the counts keyed by status
+     */
+    Map<String, Long> getStatusCounts();
+    
+    /**
+     * Corrects the live status counts against the database.
+     *
+     * @return the number of counts that had drifted
+     */
+    int reconcileStatusCounts();
 }
\ No newline at end of file
@@ -2,19 +2,24 @@ package com.payrolladvance.advanceservice.service;
 
 import com.payrolladvance.advanceservice.dto.AdvanceRequestDto;
 import com.payrolladvance.advanceservice.dto.AdvanceRequestUpdateDto;
+import com.payrolladvance.advanceservice.event.EventPayloads;
 import com.payrolladvance.advanceservice.exception.ResourceNotFoundException;
 import com.payrolladvance.advanceservice.model.AdvanceRequest;
 import com.payrolladvance.advanceservice.repository.AdvanceRequestRepository;
 import com.payrolladvance.kafka.common.events.AdvanceRequestEvent;
 import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.metrics.StatusCount;
+import com.payrolladvance.kafka.common.metrics.StatusCounters;
 import com.payrolladvance.kafka.common.util.EventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the AdvanceRequestService interface.
@@ -26,6 +31,8 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
     
     private final AdvanceRequestRepository advanceRequestRepository;
     private final EventPublisher eventPublisher;
+    private final StatusCounters statusCounters;
+    private final EmployeeDirectoryService employeeDirectoryService;
     
     /**
      * {@inheritDoc}
@@ -37,6 +44,7 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
         
         AdvanceRequest advanceRequest = new AdvanceRequest();
         advanceRequest.setEmployeeId(advanceRequestDto.getEmployeeId());
+        advanceRequest.setEmployerId(employeeDirectoryService.getEmployerId(advanceRequestDto.getEmployeeId()));
         advanceRequest.setAmount(advanceRequestDto.getAmount());
         advanceRequest.setReason(advanceRequestDto.getReason());
         advanceRequest.setRequestedDate(LocalDateTime.now());
@@ -44,6 +52,7 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
         advanceRequest.setExpectedRepaymentDate(advanceRequestDto.getExpectedRepaymentDate());
         
         AdvanceRequest savedRequest = advanceRequestRepository.save(advanceRequest);
+        statusCounters.recordCreated(savedRequest.getStatus());
         
         // Publish advance request created event
         eventPublisher.publish(
@@ -51,7 +60,7 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
                 new AdvanceRequestEvent(
                         savedRequest.getId(),
                         EventType.ADVANCE_REQUEST_CREATED,
-                        savedRequest
+                        EventPayloads.advanceRequest(savedRequest)
                 )
         );
         
@@ -113,6 +122,7 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
         }
         
         AdvanceRequest updatedRequest = advanceRequestRepository.save(advanceRequest);
+        statusCounters.recordTransition(oldStatus, updatedRequest.getStatus());
         
         // Publish appropriate event based on the new status
         EventType eventType;
@@ -127,7 +137,7 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
                 new AdvanceRequestEvent(
                         updatedRequest.getId(),
                         eventType,
-                        updatedRequest
+                        EventPayloads.advanceRequest(updatedRequest)
                 )
         );
         
@@ -136,4 +146,25 @@ public class AdvanceRequestServiceImpl implements AdvanceRequestService {
         
         return updatedRequest;
     }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getStatusCounts() {
+        return statusCounters.getStatusCounts();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public int reconcileStatusCounts() {
+        List<StatusCount> counts = advanceRequestRepository.countByStatus().stream()
+                .map(group -> new StatusCount(group.getStatus(), List.of(), group.getCount()))
+                .toList();
+        return statusCounters.reconcile(counts);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.payrolladvance.advanceservice.service;
+
+/**
+ * Service interface for looking up employment details held by the user service.
+ */
+public interface EmployeeDirectoryService {
+    
+    /**
+     * Gets the employer of an employee from their employee profile.
+     *
+     * @param employeeId the employee ID
+     * @return the employer ID, or null if the employee has no profile or it could not be read
+     */
+    Long getEmployerId(Long employeeId);
+}
\ No newline at end of file
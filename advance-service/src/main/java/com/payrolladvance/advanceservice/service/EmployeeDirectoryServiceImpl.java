@@ -0,0 +1,50 @@
+package com.payrolladvance.advanceservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Implementation of the EmployeeDirectoryService interface.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmployeeDirectoryServiceImpl implements EmployeeDirectoryService {
+    
+    private final RestTemplate restTemplate;
+    
+    @Value("${user.service.url}")
+    private String userServiceUrl;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long getEmployerId(Long employeeId) {
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> profile = restTemplate.getForObject(
+                    userServiceUrl + "/api/users/{id}/employee-profile",
+                    Map.class,
+                    employeeId
+            );
+            
+            Object employerId = profile != null ? profile.get("employerId") : null;
+            if (employerId == null) {
+                log.warn("No employer on the profile of employee ID: {}", employeeId);
+                return null;
+            }
+            return ((Number) employerId).longValue();
+        } catch (RestClientException e) {
+            // Leave the employer unknown rather than refuse the request
+            log.warn("Could not look up the employer of employee ID: {}", employeeId, e);
+            return null;
+        }
+    }
+}
\ No newline at end of file
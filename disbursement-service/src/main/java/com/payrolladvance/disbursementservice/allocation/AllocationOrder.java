@@ -0,0 +1,10 @@
+package com.payrolladvance.disbursementservice.allocation;
+
+/**
+ * Order in which a lump-sum repayment is applied across an employee's open disbursements.
+ */
+public enum AllocationOrder {
+    
+    OLDEST_FIRST,      // Earliest disbursement first
+    HIGHEST_FEE_FIRST  // Largest fee first, then earliest
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.payrolladvance.disbursementservice.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and varint helpers shared by the columnar archive writer and reader.
+ * <p>
+ * File layout: magic, format version, column count, then per column its name and type, the row count,
+ * and the compressed length of each column block; followed by the column blocks in order.
+ * Each block is a deflated stream of one column's values, where every value is a presence byte
+ * followed, if present, by its encoding: longs and timestamps as zigzag varint deltas from the
+ * previous value in the column, decimals as a varint scale and zigzag varint unscaled value, and
+ * strings as modified UTF-8.
+ */
+final class ColumnarArchiveFormat {
+    
+    static final int MAGIC = 0x50414331; // "PAC1"
+    static final int VERSION = 1;
+    
+    static final byte LONG = 0;
+    static final byte DECIMAL = 1;
+    static final byte STRING = 2;
+    static final byte TIMESTAMP = 3; // Microseconds since the epoch, as local date-time
+    
+    private ColumnarArchiveFormat() {
+    }
+    
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+    
+    static long readVarLong(DataInput in) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
\ No newline at end of file
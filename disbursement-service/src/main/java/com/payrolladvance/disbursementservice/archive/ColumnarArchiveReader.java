@@ -0,0 +1,175 @@
+package com.payrolladvance.disbursementservice.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads rows back from a columnar archive file written by {@link ColumnarArchiveWriter}.
+ * Filter columns are decoded first to find the matching rows, and the remaining columns are then
+ * decoded keeping values for those rows only, so a selective query holds little more than its result.
+ */
+public final class ColumnarArchiveReader {
+    
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+    
+    private ColumnarArchiveReader() {
+    }
+    
+    /**
+     * Reads the rows of an archive whose columns equal the given values.
+     *
+     * @param file    the archive file
+     * @param filters column values that every returned row must have; null values are ignored
+     * @return the matching rows, keyed by column name, in archive order
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public static List<Map<String, Object>> read(Path file, Map<String, Object> filters) throws IOException {
+        Header header = readHeader(file);
+        int rowCount = Math.toIntExact(header.rowCount());
+        
+        BitSet matches = new BitSet(rowCount);
+        matches.set(0, rowCount);
+        for (Map.Entry<String, Object> filter : filters.entrySet()) {
+            if (filter.getValue() == null) {
+                continue;
+            }
+            int column = header.indexOf(filter.getKey());
+            if (column < 0) {
+                throw new IllegalArgumentException("Archive has no column " + filter.getKey());
+            }
+            Object expected = normalise(filter.getValue());
+            forEachValue(file, header, column, (row, value) -> {
+                if (!Objects.equals(expected, normalise(value))) {
+                    matches.clear(row);
+                }
+            });
+        }
+        
+        int[] rowIndex = new int[rowCount];
+        List<Map<String, Object>> rows = new ArrayList<>(matches.cardinality());
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            rowIndex[row] = rows.size();
+            rows.add(new LinkedHashMap<>());
+        }
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        
+        for (int column = 0; column < header.names().length; column++) {
+            String name = header.names()[column];
+            forEachValue(file, header, column, (row, value) -> {
+                if (matches.get(row)) {
+                    rows.get(rowIndex[row]).put(name, value);
+                }
+            });
+        }
+        return rows;
+    }
+    
+    /**
+     * Reads the number of rows in an archive without decoding any column.
+     *
+     * @param file the archive file
+     * @return the row count
+     * @throws IOException if the file cannot be read or is not an archive
+     */
+    public static long readRowCount(Path file) throws IOException {
+        return readHeader(file).rowCount();
+    }
+    
+    private static Header readHeader(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != ColumnarArchiveFormat.MAGIC || in.readInt() != ColumnarArchiveFormat.VERSION) {
+                throw new IOException("Not a columnar archive: " + file);
+            }
+            int columnCount = in.readInt();
+            String[] names = new String[columnCount];
+            byte[] types = new byte[columnCount];
+            long headerLength = 12;
+            for (int i = 0; i < columnCount; i++) {
+                names[i] = in.readUTF();
+                types[i] = in.readByte();
+                headerLength += 2 + names[i].getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+            long rowCount = in.readLong();
+            headerLength += 8 + 8L * columnCount;
+            
+            long[] offsets = new long[columnCount];
+            long offset = headerLength;
+            for (int i = 0; i < columnCount; i++) {
+                offsets[i] = offset;
+                offset += in.readLong();
+            }
+            return new Header(names, types, rowCount, offsets);
+        }
+    }
+    
+    private static void forEachValue(Path file, Header header, int column, ValueConsumer consumer) throws IOException {
+        try (InputStream raw = Files.newInputStream(file)) {
+            raw.skipNBytes(header.offsets()[column]);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(raw), 64 * 1024));
+            long previous = 0;
+            for (int row = 0; row < header.rowCount(); row++) {
+                if (!in.readBoolean()) {
+                    consumer.accept(row, null);
+                    continue;
+                }
+                Object value;
+                switch (header.types()[column]) {
+                    case ColumnarArchiveFormat.LONG -> {
+                        previous += ColumnarArchiveFormat.readVarLong(in);
+                        value = previous;
+                    }
+                    case ColumnarArchiveFormat.DECIMAL -> {
+                        int scale = (int) ColumnarArchiveFormat.readVarLong(in);
+                        value = BigDecimal.valueOf(ColumnarArchiveFormat.readVarLong(in), scale);
+                    }
+                    case ColumnarArchiveFormat.TIMESTAMP -> {
+                        previous += ColumnarArchiveFormat.readVarLong(in);
+                        value = EPOCH.plus(previous, ChronoUnit.MICROS);
+                    }
+                    default -> value = in.readUTF();
+                }
+                consumer.accept(row, value);
+            }
+        }
+    }
+    
+    private static Object normalise(Object value) {
+        return value instanceof Number number && !(value instanceof BigDecimal) ? number.longValue() : value;
+    }
+    
+    @FunctionalInterface
+    private interface ValueConsumer {
+        void accept(int row, Object value);
+    }
+    
+    private record Header(String[] names, byte[] types, long rowCount, long[] offsets) {
+        
+        int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
\ No newline at end of file
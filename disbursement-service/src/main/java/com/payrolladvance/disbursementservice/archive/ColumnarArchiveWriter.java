@@ -0,0 +1,182 @@
+package com.payrolladvance.disbursementservice.archive;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes rows streamed from a cursor into a compressed columnar archive file.
+ * Each column is deflated into its own temporary file while rows arrive, so memory use does not grow
+ * with the row count; {@link #finish()} then assembles the header and column blocks into the target
+ * file and moves it into place atomically.
+ */
+public final class ColumnarArchiveWriter implements RowCallbackHandler, AutoCloseable {
+    
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+    
+    private final Path target;
+    private String[] names;
+    private byte[] types;
+    private Path[] columnFiles;
+    private DataOutputStream[] columns;
+    private long[] previous;
+    private long rowCount;
+    
+    /**
+     * Creates a writer for an archive file.
+     *
+     * @param target the archive file to create
+     */
+    public ColumnarArchiveWriter(Path target) {
+        this.target = target;
+    }
+    
+    /**
+     * Appends the current row to every column.
+     */
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        try {
+            if (names == null) {
+                open(rs.getMetaData());
+            }
+            for (int i = 0; i < names.length; i++) {
+                writeValue(rs, i);
+            }
+            rowCount++;
+        } catch (IOException e) {
+            throw new SQLException("Failed to write archive column", e);
+        }
+    }
+    
+    /**
+     * Assembles the archive file from the column blocks.
+     *
+     * @return the number of rows archived
+     * @throws IOException if the file cannot be written
+     */
+    public long finish() throws IOException {
+        int columnCount = names != null ? names.length : 0;
+        for (int i = 0; i < columnCount; i++) {
+            columns[i].close();
+        }
+        
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(ColumnarArchiveFormat.MAGIC);
+            out.writeInt(ColumnarArchiveFormat.VERSION);
+            out.writeInt(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                out.writeUTF(names[i]);
+                out.writeByte(types[i]);
+            }
+            out.writeLong(rowCount);
+            for (int i = 0; i < columnCount; i++) {
+                out.writeLong(Files.size(columnFiles[i]));
+            }
+            for (int i = 0; i < columnCount; i++) {
+                Files.copy(columnFiles[i], out);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rowCount;
+    }
+    
+    /**
+     * Deletes the temporary column files.
+     */
+    @Override
+    public void close() throws IOException {
+        if (columnFiles == null) {
+            return;
+        }
+        for (int i = 0; i < columnFiles.length; i++) {
+            columns[i].close();
+            Files.deleteIfExists(columnFiles[i]);
+        }
+    }
+    
+    private void open(ResultSetMetaData metaData) throws SQLException, IOException {
+        int count = metaData.getColumnCount();
+        names = new String[count];
+        types = new byte[count];
+        columnFiles = new Path[count];
+        columns = new DataOutputStream[count];
+        previous = new long[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = metaData.getColumnLabel(i + 1);
+            types[i] = typeOf(metaData.getColumnType(i + 1));
+            columnFiles[i] = Files.createTempFile("archive-column-", ".bin");
+            OutputStream file = Files.newOutputStream(columnFiles[i]);
+            columns[i] = new DataOutputStream(new BufferedOutputStream(
+                    new DeflaterOutputStream(file, new Deflater(Deflater.BEST_COMPRESSION), 64 * 1024)));
+        }
+    }
+    
+    private void writeValue(ResultSet rs, int column) throws SQLException, IOException {
+        DataOutputStream out = columns[column];
+        switch (types[column]) {
+            case ColumnarArchiveFormat.LONG -> {
+                long value = rs.getLong(column + 1);
+                if (rs.wasNull()) {
+                    out.writeBoolean(false);
+                } else {
+                    out.writeBoolean(true);
+                    ColumnarArchiveFormat.writeVarLong(out, value - previous[column]);
+                    previous[column] = value;
+                }
+            }
+            case ColumnarArchiveFormat.DECIMAL -> {
+                BigDecimal value = rs.getBigDecimal(column + 1);
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    ColumnarArchiveFormat.writeVarLong(out, value.scale());
+                    ColumnarArchiveFormat.writeVarLong(out, value.unscaledValue().longValueExact());
+                }
+            }
+            case ColumnarArchiveFormat.TIMESTAMP -> {
+                Timestamp value = rs.getTimestamp(column + 1);
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    long micros = ChronoUnit.MICROS.between(EPOCH, value.toLocalDateTime());
+                    ColumnarArchiveFormat.writeVarLong(out, micros - previous[column]);
+                    previous[column] = micros;
+                }
+            }
+            default -> {
+                String value = rs.getString(column + 1);
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeUTF(value);
+                }
+            }
+        }
+    }
+    
+    private static byte typeOf(int sqlType) {
+        return switch (sqlType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> ColumnarArchiveFormat.LONG;
+            case Types.NUMERIC, Types.DECIMAL -> ColumnarArchiveFormat.DECIMAL;
+            case Types.TIMESTAMP -> ColumnarArchiveFormat.TIMESTAMP;
+            default -> ColumnarArchiveFormat.STRING;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.payrolladvance.disbursementservice.config;
+
+import com.payrolladvance.disbursementservice.dispatch.RailLane;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Payment rail settings from config-repo, keyed by payment method. Bound as properties rather than
+ * with @Value since they are a nested map.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.dispatch")
+public class DispatchProperties {
+    
+    private int maxInFlight = 16; // Gateway calls in progress at once across all rails
+    
+    private Rail defaultRail = new Rail(); // Used for payment methods without their own settings
+    
+    private Map<String, Rail> rails = new HashMap<>();
+    
+    /**
+     * Throughput settings for one payment rail.
+     */
+    @Data
+    public static class Rail {
+        
+        private RailLane lane = RailLane.BATCH;
+        
+        private double permitsPerSecond = 10; // Gateway calls per second allowed by the provider
+        
+        private int burst = 10; // Calls allowed back to back after an idle period
+        
+        private int bulkSize = 1; // Payouts per gateway call; above 1 payouts go out as bulk calls
+    }
+}
\ No newline at end of file
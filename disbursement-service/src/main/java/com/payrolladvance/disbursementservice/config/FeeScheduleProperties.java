@@ -0,0 +1,30 @@
+package com.payrolladvance.disbursementservice.config;
+
+import com.payrolladvance.disbursementservice.dto.FeeScheduleDto;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fee schedules from config-repo. Bound as properties rather than with @Value since they are nested lists,
+ * and rebound by Spring Cloud when the configuration is refreshed.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.fees")
+public class FeeScheduleProperties {
+    
+    private int repaymentTermDays = 30;
+    
+    // A flat 2% of the advance when nothing is configured
+    private FeeScheduleDto defaultSchedule = FeeScheduleDto.builder()
+            .tiers(List.of(FeeScheduleDto.Tier.builder().rateBps(200).flatFee(BigDecimal.ZERO).build()))
+            .build();
+    
+    private Map<Long, FeeScheduleDto> employers = new HashMap<>();
+}
\ No newline at end of file
@@ -1,18 +1,39 @@
 package com.payrolladvance.disbursementservice.config;
 
+import com.payrolladvance.disbursementservice.event.AdvanceRequestEventListener;
+import com.payrolladvance.kafka.common.codec.BinaryEventDeserializer;
+import com.payrolladvance.kafka.common.codec.BinaryEventSerializer;
+import com.payrolladvance.kafka.common.config.ProducerProfileProperties;
+import com.payrolladvance.kafka.common.config.ProducerProfiles;
+import com.payrolladvance.kafka.common.consumer.KeyOrderedDispatcher;
 import com.payrolladvance.kafka.common.events.BaseEvent;
+import com.payrolladvance.kafka.common.metrics.ListenerMetrics;
+import com.payrolladvance.kafka.common.retry.DeadLetterReplayer;
+import com.payrolladvance.kafka.common.retry.RetryTopicProperties;
+import com.payrolladvance.kafka.common.retry.RetryTopics;
 import com.payrolladvance.kafka.common.util.EventPublisher;
+import com.payrolladvance.kafka.common.util.RoutingKeyStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopicResolver;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.util.function.SingletonSupplier;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -32,6 +53,33 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
     
+    @Value("${app.kafka.schema-location:classpath:schemas}")
+    private String schemaLocation;
+    
+    @Value("${app.kafka.listener.concurrency:3}")
+    private int listenerConcurrency;
+    
+    @Value("${app.kafka.parallel-listener.max-in-flight:256}")
+    private int parallelMaxInFlight;
+    
+    @Value("${app.kafka.parallel-listener.max-attempts:3}")
+    private int parallelMaxAttempts;
+    
+    @Value("${app.kafka.parallel-listener.backoff-ms:500}")
+    private long parallelBackoffMillis;
+    
+    @Value("${app.kafka.batch-listener.enabled:false}")
+    private boolean batchListenerEnabled;
+    
+    @Value("${app.kafka.batch-listener.max-records:500}")
+    private int batchMaxRecords;
+    
+    @Value("${app.kafka.batch-listener.max-wait-ms:200}")
+    private int batchMaxWaitMillis;
+    
+    @Value("${app.kafka.batch-listener.min-bytes:65536}")
+    private int batchMinBytes;
+    
     /**
      * Creates the Kafka producer factory.
      *
@@ -39,13 +87,34 @@ public class KafkaConfig {
      */
     @Bean
     public ProducerFactory<String, BaseEvent<?>> producerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        Map<String, Object> props = producerProps();
+        ProducerProfileProperties profiles = producerProfileProperties();
+        props.putAll(profiles.producerProps(profiles.getDefaultProfile()));
         return new DefaultKafkaProducerFactory<>(props);
     }
     
+    /**
+     * Creates the producer profile selection and overrides bound from config-repo.
+     *
+     * @return the producer profile properties
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "app.kafka.producer")
+    public ProducerProfileProperties producerProfileProperties() {
+        return new ProducerProfileProperties();
+    }
+    
+    /**
+     * Creates one producer per producer profile.
+     *
+     * @param meterRegistry the registry for the producers' meters
+     * @return the producer profiles
+     */
+    @Bean
+    public ProducerProfiles producerProfiles(MeterRegistry meterRegistry) {
+        return new ProducerProfiles(producerProps(), producerProfileProperties(), meterRegistry);
+    }
+    
     /**
      * Creates the Kafka template.
      *
@@ -57,41 +126,198 @@ public class KafkaConfig {
     }
     
     /**
-     * Creates the event publisher.
+     * Creates the event publisher. Events are keyed by employee, so everything that happens to one
+     * employee's advances and disbursements is consumed in order from a single partition. Each topic is sent
+     * through the producer of its configured profile.
      *
+     * @param producerProfiles the producers of each profile
      * @return the event publisher
      */
     @Bean
-    public EventPublisher eventPublisher() {
-        return new EventPublisher(kafkaTemplate());
+    public EventPublisher eventPublisher(ProducerProfiles producerProfiles) {
+        return new EventPublisher(producerProfiles, RoutingKeyStrategy.byEmployee());
+    }
+    
+    /**
+     * Creates the listener meters: end-to-end event latency and processing time per topic and listener,
+     * and the Kafka client meters of every consumer, including lag per partition.
+     *
+     * @param meterRegistry the registry for the listener meters
+     * @return the listener metrics
+     */
+    @Bean
+    public ListenerMetrics listenerMetrics(MeterRegistry meterRegistry) {
+        return new ListenerMetrics(meterRegistry);
     }
     
     /**
      * Creates the Kafka consumer factory.
      *
+     * @param listenerMetrics registers the meters of every consumer
      * @return the consumer factory
      */
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, Object> consumerFactory(ListenerMetrics listenerMetrics) {
+        return listenerMetrics.instrument(new DefaultKafkaConsumerFactory<>(consumerProps()));
+    }
+    
+    /**
+     * Creates the Kafka listener container factory.
+     * Listeners on topics without retry topics, such as ordered topics, retry a failing record in place.
+     *
+     * @param consumerFactory the consumer factory
+     * @param listenerMetrics times the records of every listener
+     * @return the listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, ListenerMetrics listenerMetrics) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        factory.setCommonErrorHandler(RetryTopics.inPlaceErrorHandler(kafkaTemplate(), retryTopicProperties()));
+        return listenerMetrics.instrument(factory);
+    }
+    
+    /**
+     * Creates the Kafka listener container factory for listeners that hand records to the
+     * {@link KeyOrderedDispatcher}. Records are acknowledged manually as they complete, and async acks let
+     * them complete out of order while the container only commits each partition's contiguous completed range.
+     * The listener meters of these containers only time the hand-off; the dispatcher times the handling itself.
+     *
+     * @param consumerFactory the consumer factory
+     * @param listenerMetrics times the records of every listener
+     * @return the parallel listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> parallelKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, ListenerMetrics listenerMetrics) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return listenerMetrics.instrument(factory);
+    }
+    
+    /**
+     * Creates the dispatcher that handles records on virtual threads, in order per record key.
+     * A record that fails all its attempts on its lane joins the listener's retry topics, the same way
+     * a record thrown from a synchronous listener would. If the topic is ordered it goes straight to the
+     * dead-letter topic instead, since its lane retries already held back later records with its key.
+     *
+     * @param meterRegistry            the registry for the in-flight and lane gauges
+     * @param destinationTopicResolver resolves the retry topic or dead-letter topic a failed record goes to
+     * @return the key-ordered dispatcher
+     */
+    @Bean
+    public KeyOrderedDispatcher keyOrderedDispatcher(MeterRegistry meterRegistry,
+                                                     ObjectProvider<DestinationTopicResolver> destinationTopicResolver) {
+        RetryTopicProperties retryProperties = retryTopicProperties();
+        SingletonSupplier<ConsumerRecordRecoverer> recoverer = SingletonSupplier.of(() ->
+                retryProperties.getOrderedTopics().contains(AdvanceRequestEventListener.TOPIC)
+                        ? RetryTopics.deadLetterRecoverer(kafkaTemplate(), retryProperties)
+                        : new DeadLetterPublishingRecovererFactory(destinationTopicResolver.getObject())
+                                .create(AdvanceRequestEventListener.LISTENER_ID));
+        return new KeyOrderedDispatcher(parallelMaxInFlight, parallelMaxAttempts, parallelBackoffMillis,
+                (record, e) -> recoverer.obtain().accept(record, e))
+                .bindTo(meterRegistry, "disbursement-service");
+    }
+    
+    /**
+     * Creates the retry settings bound from config-repo.
+     *
+     * @return the retry topic properties
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "app.kafka.retry")
+    public RetryTopicProperties retryTopicProperties() {
+        return new RetryTopicProperties();
+    }
+    
+    /**
+     * Creates the retry-topic configuration for every listener. A failing record moves to a retry topic at
+     * once instead of holding up its partition, and ends on the dead-letter topic once its attempts are used up.
+     * This gives up per-key order for the failed record, so ordered topics are left out and retried in place.
+     * Batch listeners cannot use retry topics, so their topic is left out while batch listening is enabled.
+     *
+     * @return the retry topic configuration
+     */
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration() {
+        RetryTopicProperties properties = retryTopicProperties();
+        if (batchListenerEnabled && !properties.getExcludeTopics().contains(AdvanceRequestEventListener.TOPIC)) {
+            properties.getExcludeTopics().add(AdvanceRequestEventListener.TOPIC);
+        }
+        return RetryTopics.configuration(kafkaTemplate(), properties);
+    }
+    
+    /**
+     * Creates the replayer that moves dead-lettered records back onto their retry topics.
+     *
+     * @return the dead-letter replayer
+     */
+    @Bean
+    public DeadLetterReplayer deadLetterReplayer() {
+        return new DeadLetterReplayer(bootstrapServers, groupId, retryTopicProperties());
+    }
+    
+    /**
+     * Creates the Kafka listener container factory for batch listeners.
+     * Each poll delivers up to max-records records, and the broker holds a fetch for up to
+     * max-wait-ms while it accumulates min-bytes, trading a little latency for larger batches.
+     * A failing batch is retried twice in place, then its records go to the dead-letter topic.
+     *
+     * @param listenerMetrics registers the consumer meters and times every batch
+     * @return the batch listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            ListenerMetrics listenerMetrics) {
+        Map<String, Object> props = consumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMillis);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes);
+        
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(listenerMetrics.instrument(new DefaultKafkaConsumerFactory<>(props)));
+        factory.setBatchListener(true);
+        factory.setConcurrency(listenerConcurrency);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                RetryTopics.deadLetterRecoverer(kafkaTemplate(), retryTopicProperties()), new FixedBackOff(1000L, 2L)));
+        return listenerMetrics.instrument(factory);
+    }
+    
+    /**
+     * Builds the consumer properties shared by all listener container factories.
+     *
+     * @return the consumer properties
+     */
+    private Map<String, Object> consumerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        // Skip records of aborted event batches; without transactions this reads the same records as read_uncommitted
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BinaryEventDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.payrolladvance.*");
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(BinaryEventSerializer.SCHEMA_LOCATION_CONFIG, schemaLocation);
+        return props;
     }
     
     /**
-     * Creates the Kafka listener container factory.
+     * Builds the connection and serializer properties shared by all producers.
      *
-     * @return the listener container factory
+     * @return the producer properties
      */
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        return factory;
+    private Map<String, Object> producerProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class);
+        props.put(BinaryEventSerializer.SCHEMA_LOCATION_CONFIG, schemaLocation);
+        return props;
     }
 }
\ No newline at end of file
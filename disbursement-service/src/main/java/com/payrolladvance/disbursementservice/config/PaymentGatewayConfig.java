@@ -0,0 +1,58 @@
+package com.payrolladvance.disbursementservice.config;
+
+import com.payrolladvance.disbursementservice.gateway.LatencyDistribution;
+import com.payrolladvance.disbursementservice.gateway.PaymentGateway;
+import com.payrolladvance.disbursementservice.gateway.SimulatedPaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the payment gateway selected by {@code app.payment.gateway}.
+ */
+@Slf4j
+@Configuration
+public class PaymentGatewayConfig {
+    
+    @Value("${app.payment.gateway:SIMULATED}")
+    private String gateway;
+    
+    @Value("${app.payment.max-bulk-size:100}")
+    private int maxBulkSize;
+    
+    @Value("${app.payment.simulated.latency-distribution:EXPONENTIAL}")
+    private LatencyDistribution latencyDistribution;
+    
+    @Value("${app.payment.simulated.latency-mean-ms:150}")
+    private double latencyMeanMillis;
+    
+    @Value("${app.payment.simulated.latency-jitter-ms:50}")
+    private double latencyJitterMillis;
+    
+    @Value("${app.payment.simulated.latency-max-ms:2000}")
+    private double latencyMaxMillis;
+    
+    @Value("${app.payment.simulated.failure-rate:0.0}")
+    private double failureRate;
+    
+    @Value("${app.payment.simulated.requests-per-second:0}")
+    private double requestsPerSecond;
+    
+    /**
+     * Creates the payment gateway.
+     *
+     * @return the payment gateway
+     */
+    @Bean
+    public PaymentGateway paymentGateway() {
+        if (!SimulatedPaymentGateway.NAME.equalsIgnoreCase(gateway)) {
+            throw new IllegalStateException("Unsupported payment gateway: " + gateway);
+        }
+        
+        log.info("Using simulated payment gateway: {} latency, mean {} ms, failure rate {}, {} requests/s",
+                latencyDistribution, latencyMeanMillis, failureRate, requestsPerSecond);
+        return new SimulatedPaymentGateway(latencyDistribution, latencyMeanMillis, latencyJitterMillis,
+                latencyMaxMillis, failureRate, requestsPerSecond, maxBulkSize);
+    }
+}
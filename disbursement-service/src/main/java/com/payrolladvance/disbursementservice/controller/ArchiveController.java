@@ -0,0 +1,71 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.PartitionMaintenanceSummary;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.service.PartitionMaintenanceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * REST controller for table partitions and the months archived from them.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+    
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    
+    /**
+     * Runs partition maintenance now instead of waiting for the schedule.
+     *
+     * @return the maintenance summary
+     */
+    @PostMapping("/maintain")
+    public ResponseEntity<PartitionMaintenanceSummary> maintainPartitions() {
+        log.info("Received request to maintain partitions");
+        return ResponseEntity.ok(partitionMaintenanceService.maintainPartitions());
+    }
+    
+    /**
+     * Gets archived disbursements.
+     *
+     * @param month      the archived month, or every archived month if omitted
+     * @param employeeId the employee to include
+     * @param status     the status to include
+     * @return the archived disbursements
+     */
+    @GetMapping("/disbursements")
+    public ResponseEntity<List<Disbursement>> getArchivedDisbursements(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String status) {
+        log.info("Fetching archived disbursements for month: {}, employee ID: {}, status: {}", month, employeeId, status);
+        return ResponseEntity.ok(partitionMaintenanceService.findArchivedDisbursements(month, employeeId, status));
+    }
+    
+    /**
+     * Gets archived repayments.
+     *
+     * @param month      the archived month, or every archived month if omitted
+     * @param employeeId the employee to include
+     * @param status     the status to include
+     * @return the archived repayments
+     */
+    @GetMapping("/repayments")
+    public ResponseEntity<List<Repayment>> getArchivedRepayments(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String status) {
+        log.info("Fetching archived repayments for month: {}, employee ID: {}, status: {}", month, employeeId, status);
+        return ResponseEntity.ok(partitionMaintenanceService.findArchivedRepayments(month, employeeId, status));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.StatusDashboardDto;
+import com.payrolladvance.disbursementservice.service.StatusCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the operations dashboard.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+    
+    private final StatusCounterService statusCounterService;
+    
+    /**
+     * Gets the live disbursement and repayment counts per status.
+     *
+     * @return the dashboard
+     */
+    @GetMapping
+    public ResponseEntity<StatusDashboardDto> getDashboard() {
+        return ResponseEntity.ok(statusCounterService.getDashboard());
+    }
+    
+    /**
+     * Corrects the counters against the database immediately.
+     *
+     * @return the dashboard after reconciliation
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<StatusDashboardDto> reconcile() {
+        log.info("Received request to reconcile the status counters");
+        statusCounterService.reconcile();
+        return ResponseEntity.ok(statusCounterService.getDashboard());
+    }
+}
\ No newline at end of file
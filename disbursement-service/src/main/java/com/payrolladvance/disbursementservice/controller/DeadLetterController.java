@@ -0,0 +1,34 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.kafka.common.retry.DeadLetterReplayResult;
+import com.payrolladvance.kafka.common.retry.DeadLetterReplayer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for reprocessing dead-lettered Kafka records.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterController {
+    
+    private final DeadLetterReplayer deadLetterReplayer;
+    
+    /**
+     * Replays the dead-letter topic of a topic, sending its records through the retry topics again.
+     *
+     * @param topic      the main topic, e.g. advance-request-events
+     * @param maxRecords the maximum number of records to replay
+     * @return the number of records replayed and left on the dead-letter topic
+     */
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<DeadLetterReplayResult> replay(@PathVariable String topic,
+                                                         @RequestParam(defaultValue = "10000") long maxRecords) {
+        log.info("Received request to replay up to {} dead-lettered records of {}", maxRecords, topic);
+        return ResponseEntity.ok(deadLetterReplayer.replay(topic, maxRecords));
+    }
+}
\ No newline at end of file
@@ -1,15 +1,26 @@
 package com.payrolladvance.disbursementservice.controller;
 
+import com.payrolladvance.disbursementservice.dto.DisbursementBalanceDto;
 import com.payrolladvance.disbursementservice.dto.DisbursementDto;
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.export.ExportFormat;
 import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.service.DisbursementDispatcher;
 import com.payrolladvance.disbursementservice.service.DisbursementService;
+import com.payrolladvance.disbursementservice.service.ExportService;
+import com.payrolladvance.disbursementservice.service.LedgerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +34,9 @@ import java.util.Map;
 public class DisbursementController {
     
     private final DisbursementService disbursementService;
+    private final DisbursementDispatcher disbursementDispatcher;
+    private final LedgerService ledgerService;
+    private final ExportService exportService;
     
     /**
      * Creates a new disbursement.
@@ -50,6 +64,19 @@ public class DisbursementController {
         return ResponseEntity.ok(disbursement);
     }
     
+    /**
+     * Gets the outstanding balance of a disbursement.
+     *
+     * @param id the disbursement ID
+     * @return the outstanding balance
+     */
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<DisbursementBalanceDto> getOutstandingBalance(@PathVariable Long id) {
+        log.info("Fetching outstanding balance for disbursement ID: {}", id);
+        DisbursementBalanceDto balance = ledgerService.getOutstandingBalance(id);
+        return ResponseEntity.ok(balance);
+    }
+    
     /**
      * Gets a disbursement by advance request ID.
      *
@@ -98,15 +125,65 @@ public class DisbursementController {
     }
     
     /**
-     * Processes a disbursement payment.
+     * Queues a disbursement payment with the dispatcher, so it is paid within its rail's rate limit.
      *
      * @param id the disbursement ID
-     * @return the processed disbursement
+     * @return the disbursement as queued
      */
     @PostMapping("/{id}/process")
     public ResponseEntity<Disbursement> processDisbursement(@PathVariable Long id) {
         log.info("Processing disbursement with ID: {}", id);
-        Disbursement processedDisbursement = disbursementService.processDisbursement(id);
-        return ResponseEntity.ok(processedDisbursement);
+        disbursementDispatcher.enqueue(List.of(id));
+        return ResponseEntity.accepted().body(disbursementService.getDisbursementById(id));
+    }
+    
+    /**
+     * Queues the payments of several disbursements with the dispatcher in one request.
+     *
+     * @param ids the disbursement IDs
+     * @return the number of disbursements queued
+     */
+    @PostMapping("/process")
+    public ResponseEntity<Map<String, Object>> processDisbursements(@RequestBody List<Long> ids) {
+        log.info("Processing {} disbursements", ids.size());
+        int queued = disbursementDispatcher.enqueue(ids);
+        return ResponseEntity.accepted().body(Map.of("requested", ids.size(), "queued", queued));
+    }
+    
+    /**
+     * Exports the disbursements matching the given filters, streamed from the database as they are read.
+     *
+     * @param fromDate   the first creation date to include
+     * @param toDate     the last creation date to include
+     * @param status     the status to include
+     * @param employerId the employer to include
+     * @param format     the export format, csv or ndjson
+     * @param gzip       whether to gzip the export
+     * @return the streamed export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDisbursements(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long employerId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        ExportFormat exportFormat = ExportFormat.of(format);
+        ExportFilter filter = ExportFilter.builder()
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .status(status)
+                .employerId(employerId)
+                .build();
+        log.info("Exporting disbursements matching {} as {}", filter, exportFormat);
+        
+        String fileName = "disbursements." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.exportDisbursements(filter, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.DispatchDashboardDto;
+import com.payrolladvance.disbursementservice.service.DisbursementDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for rail-aware disbursement dispatch.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/dispatch")
+@RequiredArgsConstructor
+public class DispatchController {
+    
+    private final DisbursementDispatcher disbursementDispatcher;
+    
+    /**
+     * Queues PENDING disbursements for dispatch on their payment rails.
+     *
+     * @param ids the disbursement IDs
+     * @return the number of disbursements queued
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> enqueue(@RequestBody List<Long> ids) {
+        log.info("Received request to dispatch {} disbursements", ids.size());
+        int queued = disbursementDispatcher.enqueue(ids);
+        return ResponseEntity.accepted().body(Map.of("requested", ids.size(), "queued", queued));
+    }
+    
+    /**
+     * Gets queue depth and wait times per payment rail.
+     *
+     * @return the dispatch dashboard
+     */
+    @GetMapping("/rails")
+    public ResponseEntity<DispatchDashboardDto> getDashboard() {
+        return ResponseEntity.ok(disbursementDispatcher.getDashboard());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.FeeQuoteDto;
+import com.payrolladvance.disbursementservice.dto.FeeScheduleDto;
+import com.payrolladvance.disbursementservice.service.FeeScheduleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+/**
+ * REST controller for employer fee schedules.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/fee-schedules")
+@RequiredArgsConstructor
+public class FeeScheduleController {
+    
+    private final FeeScheduleService feeScheduleService;
+    
+    /**
+     * Quotes the fee charged to an employer's employees for an advance amount.
+     *
+     * @param employerId the employer ID
+     * @param amount     the advance amount
+     * @return the fee quote
+     */
+    @GetMapping("/{employerId}/quote")
+    public ResponseEntity<FeeQuoteDto> quote(@PathVariable Long employerId, @RequestParam BigDecimal amount) {
+        return ResponseEntity.ok(feeScheduleService.quote(employerId, amount));
+    }
+    
+    /**
+     * Stores an employer's fee schedule, taking effect immediately.
+     *
+     * @param employerId the employer ID
+     * @param schedule   the fee schedule
+     * @return no content
+     */
+    @PutMapping("/{employerId}")
+    public ResponseEntity<Void> saveEmployerSchedule(@PathVariable Long employerId,
+                                                     @Valid @RequestBody FeeScheduleDto schedule) {
+        log.info("Received request to save fee schedule for employer with ID: {}", employerId);
+        feeScheduleService.saveEmployerSchedule(employerId, schedule);
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Removes an employer's fee schedule.
+     *
+     * @param employerId the employer ID
+     * @return no content
+     */
+    @DeleteMapping("/{employerId}")
+    public ResponseEntity<Void> deleteEmployerSchedule(@PathVariable Long employerId) {
+        log.info("Received request to delete fee schedule for employer with ID: {}", employerId);
+        feeScheduleService.deleteEmployerSchedule(employerId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Recompiles all fee schedules from config-repo and employer data.
+     *
+     * @return no content
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Void> reload() {
+        log.info("Received request to reload fee schedules");
+        feeScheduleService.reload();
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
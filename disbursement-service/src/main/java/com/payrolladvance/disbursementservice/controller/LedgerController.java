@@ -0,0 +1,32 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.LedgerVerificationReport;
+import com.payrolladvance.disbursementservice.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the disbursement balance ledger.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+    
+    private final LedgerService ledgerService;
+    
+    /**
+     * Verifies the integrity of the whole ledger.
+     *
+     * @return the verification report
+     */
+    @PostMapping("/verify")
+    public ResponseEntity<LedgerVerificationReport> verifyLedger() {
+        log.info("Received request to verify the ledger");
+        LedgerVerificationReport report = ledgerService.verifyLedger();
+        return ResponseEntity.ok(report);
+    }
+}
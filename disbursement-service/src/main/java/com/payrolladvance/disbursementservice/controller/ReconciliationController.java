@@ -0,0 +1,35 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.ReconciliationReport;
+import com.payrolladvance.disbursementservice.dto.ReconciliationRequest;
+import com.payrolladvance.disbursementservice.service.ReconciliationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for settlement-file reconciliation.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/reconciliations")
+@RequiredArgsConstructor
+public class ReconciliationController {
+    
+    private final ReconciliationService reconciliationService;
+    
+    /**
+     * Reconciles a settlement file from the inbox against our payments.
+     *
+     * @param request the settlement file and date range
+     * @return the reconciliation summary
+     */
+    @PostMapping
+    public ResponseEntity<ReconciliationReport> reconcile(@Valid @RequestBody ReconciliationRequest request) {
+        log.info("Received request to reconcile settlement file: {}", request.getFileName());
+        ReconciliationReport report = reconciliationService.reconcile(request);
+        return ResponseEntity.ok(report);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.LumpSumRepaymentDto;
+import com.payrolladvance.disbursementservice.dto.RepaymentAllocationRequest;
+import com.payrolladvance.disbursementservice.dto.RepaymentAllocationSummary;
+import com.payrolladvance.disbursementservice.service.RepaymentAllocationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for allocating lump-sum repayments across open disbursements.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/repayment-allocations")
+@RequiredArgsConstructor
+public class RepaymentAllocationController {
+    
+    private final RepaymentAllocationService repaymentAllocationService;
+    
+    /**
+     * Allocates every deduction in a payroll file from the inbox.
+     *
+     * @param request the payroll file and allocation options
+     * @return a summary of the allocation
+     */
+    @PostMapping
+    public ResponseEntity<RepaymentAllocationSummary> allocateFile(@Valid @RequestBody RepaymentAllocationRequest request) {
+        log.info("Received request to allocate payroll file: {}", request.getFileName());
+        RepaymentAllocationSummary summary = repaymentAllocationService.allocateFile(request);
+        return ResponseEntity.ok(summary);
+    }
+    
+    /**
+     * Allocates a single lump sum across one employee's open disbursements.
+     *
+     * @param lumpSum the lump-sum repayment
+     * @return a summary of the allocation
+     */
+    @PostMapping("/lump-sum")
+    public ResponseEntity<RepaymentAllocationSummary> allocate(@Valid @RequestBody LumpSumRepaymentDto lumpSum) {
+        log.info("Received request to allocate a lump sum for employee ID: {}", lumpSum.getEmployeeId());
+        RepaymentAllocationSummary summary = repaymentAllocationService.allocate(lumpSum);
+        return ResponseEntity.ok(summary);
+    }
+}
\ No newline at end of file
@@ -1,15 +1,23 @@
 package com.payrolladvance.disbursementservice.controller;
 
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
 import com.payrolladvance.disbursementservice.dto.RepaymentDto;
+import com.payrolladvance.disbursementservice.export.ExportFormat;
 import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.service.ExportService;
 import com.payrolladvance.disbursementservice.service.RepaymentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +31,7 @@ import java.util.Map;
 public class RepaymentController {
     
     private final RepaymentService repaymentService;
+    private final ExportService exportService;
     
     /**
      * Creates a new repayment.
@@ -109,4 +118,41 @@ public class RepaymentController {
         Repayment processedRepayment = repaymentService.processRepayment(id);
         return ResponseEntity.ok(processedRepayment);
     }
+    
+    /**
+     * Exports the repayments matching the given filters, streamed from the database as they are read.
+     *
+     * @param fromDate   the first creation date to include
+     * @param toDate     the last creation date to include
+     * @param status     the status to include
+     * @param employerId the employer to include
+     * @param format     the export format, csv or ndjson
+     * @param gzip       whether to gzip the export
+     * @return the streamed export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRepayments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long employerId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        ExportFormat exportFormat = ExportFormat.of(format);
+        ExportFilter filter = ExportFilter.builder()
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .status(status)
+                .employerId(employerId)
+                .build();
+        log.info("Exporting repayments matching {} as {}", filter, exportFormat);
+        
+        String fileName = "repayments." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.exportRepayments(filter, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
 }
\ No newline at end of file
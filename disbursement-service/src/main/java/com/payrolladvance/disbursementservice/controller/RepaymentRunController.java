@@ -0,0 +1,37 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.RepaymentRunSummary;
+import com.payrolladvance.disbursementservice.service.RepaymentRunService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller for pay-cycle repayment runs.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/repayment-runs")
+@RequiredArgsConstructor
+public class RepaymentRunController {
+    
+    private final RepaymentRunService repaymentRunService;
+    
+    /**
+     * Runs, or resumes, the repayment run for a payroll date.
+     *
+     * @param payrollDate the payroll date
+     * @return a summary of the run
+     */
+    @PostMapping
+    public ResponseEntity<RepaymentRunSummary> runRepayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate payrollDate) {
+        log.info("Received request to run repayments for payroll date {}", payrollDate);
+        RepaymentRunSummary summary = repaymentRunService.runRepayments(payrollDate);
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -0,0 +1,85 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.SettlementFailureDto;
+import com.payrolladvance.disbursementservice.dto.SettlementWindowSummary;
+import com.payrolladvance.disbursementservice.model.SettlementBatch;
+import com.payrolladvance.disbursementservice.service.SettlementWindowService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for settlement windows and the batches they close into.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/settlement-batches")
+@RequiredArgsConstructor
+public class SettlementBatchController {
+    
+    private final SettlementWindowService settlementWindowService;
+    
+    /**
+     * Closes every open settlement window now instead of waiting for the cut-off.
+     *
+     * @return a summary of the batches closed
+     */
+    @PostMapping("/close")
+    public ResponseEntity<SettlementWindowSummary> closeAllWindows() {
+        log.info("Received request to close all settlement windows");
+        return ResponseEntity.ok(settlementWindowService.closeAllWindows());
+    }
+    
+    /**
+     * Gets a settlement batch by its batch reference.
+     *
+     * @param batchReference the batch reference
+     * @return the settlement batch
+     */
+    @GetMapping("/{batchReference}")
+    public ResponseEntity<SettlementBatch> getBatch(@PathVariable String batchReference) {
+        return ResponseEntity.ok(settlementWindowService.getBatch(batchReference));
+    }
+    
+    /**
+     * Gets all settlement batches with a specific status.
+     *
+     * @param status the status to filter by
+     * @return a list of settlement batches
+     */
+    @GetMapping
+    public ResponseEntity<List<SettlementBatch>> getBatchesByStatus(
+            @RequestParam(defaultValue = SettlementBatch.SUBMITTED) String status) {
+        return ResponseEntity.ok(settlementWindowService.getBatchesByStatus(status));
+    }
+    
+    /**
+     * Records that the bank settled a batch.
+     *
+     * @param batchReference the batch reference
+     * @return the settled batch
+     */
+    @PostMapping("/{batchReference}/settled")
+    public ResponseEntity<SettlementBatch> settleBatch(@PathVariable String batchReference) {
+        log.info("Received settlement of batch {}", batchReference);
+        return ResponseEntity.ok(settlementWindowService.settleBatch(batchReference));
+    }
+    
+    /**
+     * Records that the bank rejected a batch.
+     *
+     * @param batchReference the batch reference
+     * @param failure        the reason given by the bank
+     * @return the failed batch
+     */
+    @PostMapping("/{batchReference}/failed")
+    public ResponseEntity<SettlementBatch> failBatch(@PathVariable String batchReference,
+                                                     @Valid @RequestBody SettlementFailureDto failure) {
+        log.info("Received rejection of batch {}", batchReference);
+        return ResponseEntity.ok(settlementWindowService.failBatch(batchReference, failure.getFailureReason()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.payrolladvance.disbursementservice.controller;
+
+import com.payrolladvance.disbursementservice.dto.GatewayWebhookDto;
+import com.payrolladvance.disbursementservice.service.WebhookIngestionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller receiving payment status callbacks from the payment gateway.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/webhooks")
+@RequiredArgsConstructor
+public class WebhookController {
+    
+    private final WebhookIngestionService webhookIngestionService;
+    
+    /**
+     * Accepts a gateway callback for asynchronous processing.
+     * Answers 503 with Retry-After while the ingestion buffer is full so the gateway backs off and redelivers.
+     *
+     * @param webhook the callback
+     * @return 202 if the callback was queued
+     */
+    @PostMapping("/gateway")
+    public ResponseEntity<Void> receiveGatewayWebhook(@Valid @RequestBody GatewayWebhookDto webhook) {
+        if (!webhookIngestionService.submit(webhook)) {
+            log.warn("Webhook buffer full, refusing gateway callback {}", webhook.getEventId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
\ No newline at end of file
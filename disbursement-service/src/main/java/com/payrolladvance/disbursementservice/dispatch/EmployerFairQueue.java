@@ -0,0 +1,105 @@
+package com.payrolladvance.disbursementservice.dispatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of payouts for one rail that serves employers round robin.
+ * Each employer has its own FIFO queue; polling takes one payout from the employer at the head of
+ * the rotation and moves that employer to the back, so an employer with ten thousand queued payouts
+ * delays an employer with one by at most one payout per other waiting employer.
+ */
+public class EmployerFairQueue {
+    
+    private static final Long NO_EMPLOYER = -1L;
+    
+    private final Map<Long, ArrayDeque<QueuedPayout>> queues = new HashMap<>();
+    private final ArrayDeque<Long> rotation = new ArrayDeque<>();
+    private int size;
+    
+    /**
+     * Adds a payout to the back of its employer's queue.
+     *
+     * @param payout the payout
+     */
+    public synchronized void add(QueuedPayout payout) {
+        Long employerId = payout.employerId() != null ? payout.employerId() : NO_EMPLOYER;
+        ArrayDeque<QueuedPayout> queue = queues.get(employerId);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.put(employerId, queue);
+            rotation.addLast(employerId);
+        }
+        queue.addLast(payout);
+        size++;
+    }
+    
+    /**
+     * Takes up to the given number of payouts, one employer at a time in rotation.
+     *
+     * @param maxPayouts the maximum number of payouts
+     * @return the payouts, empty if the queue is empty
+     */
+    public synchronized List<QueuedPayout> poll(int maxPayouts) {
+        List<QueuedPayout> polled = new ArrayList<>(Math.min(maxPayouts, size));
+        while (polled.size() < maxPayouts && !rotation.isEmpty()) {
+            Long employerId = rotation.pollFirst();
+            ArrayDeque<QueuedPayout> queue = queues.get(employerId);
+            polled.add(queue.pollFirst());
+            size--;
+            if (queue.isEmpty()) {
+                queues.remove(employerId);
+            } else {
+                rotation.addLast(employerId);
+            }
+        }
+        return polled;
+    }
+    
+    /**
+     * Gets the number of queued payouts.
+     *
+     * @return the queue depth
+     */
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Gets the number of employers with queued payouts.
+     *
+     * @return the number of employers
+     */
+    public synchronized int employerCount() {
+        return queues.size();
+    }
+    
+    /**
+     * Gets the enqueue time of the longest-waiting payout.
+     *
+     * @return the enqueue time in {@link System#nanoTime()} units, or -1 if the queue is empty
+     */
+    public synchronized long oldestEnqueuedNanos() {
+        long oldest = -1;
+        for (ArrayDeque<QueuedPayout> queue : queues.values()) {
+            long enqueued = queue.peekFirst().enqueuedNanos();
+            if (oldest == -1 || enqueued - oldest < 0) {
+                oldest = enqueued;
+            }
+        }
+        return oldest;
+    }
+    
+    /**
+     * A disbursement waiting for its rail.
+     *
+     * @param disbursementId the disbursement ID
+     * @param employerId     the employer ID, null if unknown
+     * @param enqueuedNanos  when it was queued, in {@link System#nanoTime()} units
+     */
+    public record QueuedPayout(Long disbursementId, Long employerId, long enqueuedNanos) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.payrolladvance.disbursementservice.dispatch;
+
+/**
+ * Priority lane of a payment rail. Rails in an earlier lane are always offered a free dispatch slot first.
+ */
+public enum RailLane {
+    
+    INSTANT,  // Real-time rails the employee is waiting on
+    BATCH     // Rails that settle in scheduled batches anyway
+}
\ No newline at end of file
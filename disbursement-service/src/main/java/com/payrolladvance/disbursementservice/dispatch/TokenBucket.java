@@ -0,0 +1,53 @@
+package com.payrolladvance.disbursementservice.dispatch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single theoretical arrival time rather than a token count.
+ * Each permit pushes the arrival time one interval further; a permit is granted while the arrival
+ * time is no more than the burst allowance ahead of now, so refilling needs no timer.
+ */
+public class TokenBucket {
+    
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrivalNanos = new AtomicLong(System.nanoTime());
+    
+    /**
+     * Constructs a new TokenBucket.
+     *
+     * @param permitsPerSecond the sustained rate
+     * @param burst            the number of permits that can be taken at once after an idle period
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second must be positive: " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least one: " + burst);
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * (burst - 1);
+    }
+    
+    /**
+     * Takes a permit if one is available.
+     *
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = arrivalNanos.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivalNanos.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
\ No newline at end of file
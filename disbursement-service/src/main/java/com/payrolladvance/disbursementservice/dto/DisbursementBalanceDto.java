@@ -0,0 +1,24 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for the outstanding balance of a disbursement.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisbursementBalanceDto {
+    
+    private Long disbursementId;
+    
+    private BigDecimal outstandingBalance;
+    
+    private long lastSequenceNumber;
+}
@@ -26,6 +26,8 @@ public class DisbursementDto {
     @NotNull(message = "Employee ID is required")
     private Long employeeId;
     
+    private Long employerId;
+    
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
     private BigDecimal amount;
@@ -33,6 +35,8 @@ public class DisbursementDto {
     @NotBlank(message = "Payment method is required")
     private String paymentMethod;
     
+    private String bankCode;
+    
     private LocalDateTime expectedRepaymentDate;
     
     private BigDecimal feeAmount;
@@ -0,0 +1,53 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import com.payrolladvance.disbursementservice.dispatch.RailLane;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object showing queue depth and wait times per payment rail.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchDashboardDto {
+    
+    private int maxInFlight;
+    
+    private int inFlight;
+    
+    private List<Rail> rails; // Highest priority lane first
+    
+    /**
+     * The state of one payment rail.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rail {
+        
+        private String paymentMethod;
+        
+        private RailLane lane;
+        
+        private double permitsPerSecond;
+        
+        private int queueDepth;
+        
+        private int employersQueued;
+        
+        private long oldestWaitMillis; // Wait so far of the longest-queued payout
+        
+        private double meanWaitMillis; // Over every payout dispatched since startup
+        
+        private double maxWaitMillis; // Over the recent window
+        
+        private long dispatched;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object selecting the rows of a bulk export. Null fields do not filter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportFilter {
+    
+    private LocalDate fromDate; // Inclusive, on the creation date
+    
+    private LocalDate toDate;   // Inclusive, on the creation date
+    
+    private String status;
+    
+    private Long employerId;
+}
\ No newline at end of file
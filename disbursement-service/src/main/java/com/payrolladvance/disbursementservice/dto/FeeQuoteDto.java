@@ -0,0 +1,28 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object quoting the fee an employer's schedule charges for an advance amount.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeQuoteDto {
+    
+    private Long employerId;
+    
+    private BigDecimal amount;
+    
+    private BigDecimal feeAmount;
+    
+    private BigDecimal totalRepaymentAmount;
+    
+    private int repaymentTermDays;
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object describing a tiered fee schedule, as configured in config-repo or stored for an employer.
+ * The tier containing the advance amount sets the fee, which is then held between the minimum and maximum.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeScheduleDto {
+    
+    @Valid
+    @NotEmpty(message = "At least one tier is required")
+    @Builder.Default
+    private List<Tier> tiers = new ArrayList<>();
+    
+    @DecimalMin(value = "0.00", message = "Minimum fee must not be negative")
+    private BigDecimal minimumFee;
+    
+    @DecimalMin(value = "0.00", message = "Maximum fee must not be negative")
+    private BigDecimal maximumFee; // Null for no cap
+    
+    @Min(value = 1, message = "Repayment term must be at least one day")
+    private Integer repaymentTermDays; // Null for the configured default
+    
+    /**
+     * One band of a fee schedule.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+        
+        private BigDecimal upTo; // Inclusive upper bound on the advance amount, null for no bound
+        
+        @NotNull(message = "Rate is required")
+        @Min(value = 0, message = "Rate must not be negative")
+        private Integer rateBps; // Basis points of the advance amount
+        
+        @DecimalMin(value = "0.00", message = "Flat fee must not be negative")
+        private BigDecimal flatFee;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for a payment status callback from the payment gateway.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayWebhookDto {
+    
+    @NotBlank(message = "Event ID is required")
+    private String eventId; // Unique per callback; redeliveries repeat it
+    
+    @NotBlank(message = "Transaction reference is required")
+    private String transactionReference;
+    
+    @NotBlank(message = "Status is required")
+    @Pattern(regexp = "PROCESSING|COMPLETED|FAILED", message = "Status must be PROCESSING, COMPLETED or FAILED")
+    private String status;
+    
+    private LocalDateTime occurredAt; // When the gateway recorded the change; orders callbacks for one reference
+    
+    private String failureReason;
+}
\ No newline at end of file
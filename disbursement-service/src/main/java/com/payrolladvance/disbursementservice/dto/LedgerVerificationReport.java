@@ -0,0 +1,28 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object reporting the result of a ledger integrity check.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerVerificationReport {
+    
+    private long disbursementsChecked;
+    
+    private long entriesChecked;
+    
+    private long violationCount;
+    
+    private List<String> violations; // First violations found, capped
+    
+    private long durationMillis;
+}
@@ -0,0 +1,33 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import com.payrolladvance.disbursementservice.allocation.AllocationOrder;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for a single lump-sum repayment to be allocated across an employee's open disbursements.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LumpSumRepaymentDto {
+    
+    @NotNull(message = "Employee ID is required")
+    private Long employeeId;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
+    private BigDecimal amount;
+    
+    private AllocationOrder order; // Defaults to the configured order
+    
+    private LocalDateTime paymentDate; // Defaults to now
+}
\ No newline at end of file
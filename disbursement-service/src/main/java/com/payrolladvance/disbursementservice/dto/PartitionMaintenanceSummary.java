@@ -0,0 +1,28 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object summarising a partition maintenance run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionMaintenanceSummary {
+    
+    private List<String> partitionsCreated;
+    
+    private List<String> partitionsArchived;
+    
+    private List<String> partitionsSkipped; // Old enough to archive but still holding open rows
+    
+    private long rowsArchived;
+    
+    private long durationMillis;
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object summarising a settlement-file reconciliation.
+ * The individual rows of each category are written to CSV files in {@code reportDirectory}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport {
+    
+    private String fileName;
+    
+    private LocalDate fromDate;
+    
+    private LocalDate toDate;
+    
+    private long settlementLines;
+    
+    private long malformedLines;
+    
+    private long recordsScanned;
+    
+    private long matched;
+    
+    private long amountMismatches;
+    
+    private long missingFromSettlement; // Completed payments absent from the file
+    
+    private long missingFromRecords;    // File lines matching none of our payments
+    
+    private long duplicates;
+    
+    private String reportDirectory;
+    
+    private long durationMillis;
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object requesting reconciliation of a settlement file against our payments.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRequest {
+    
+    @NotBlank(message = "File name is required")
+    private String fileName; // Resolved within the settlement inbox directory
+    
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+    
+    @NotNull(message = "To date is required")
+    private LocalDate toDate; // Inclusive
+}
\ No newline at end of file
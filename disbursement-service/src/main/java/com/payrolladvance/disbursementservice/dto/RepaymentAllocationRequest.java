@@ -0,0 +1,27 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import com.payrolladvance.disbursementservice.allocation.AllocationOrder;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object requesting allocation of a payroll deduction file across open disbursements.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentAllocationRequest {
+    
+    @NotBlank(message = "File name is required")
+    private String fileName; // Resolved within the payroll inbox directory; lines of employee_id,amount
+    
+    private AllocationOrder order; // Defaults to the configured order
+    
+    private LocalDateTime paymentDate; // Defaults to now
+}
\ No newline at end of file
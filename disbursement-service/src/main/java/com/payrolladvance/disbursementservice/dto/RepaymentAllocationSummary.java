@@ -0,0 +1,38 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import com.payrolladvance.disbursementservice.allocation.AllocationOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Data Transfer Object summarising the allocation of lump-sum repayments.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentAllocationSummary {
+    
+    private String fileName;
+    
+    private AllocationOrder order;
+    
+    private long employees;
+    
+    private long malformedLines;
+    
+    private long repaymentsCreated;
+    
+    private BigDecimal amountAllocated;
+    
+    private BigDecimal amountUnallocated; // Paid in excess of the employees' open balances
+    
+    private Map<Long, BigDecimal> unallocatedByEmployee; // First employees left with a remainder, capped
+    
+    private long durationMillis;
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object summarising a pay-cycle repayment run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentRunSummary {
+    
+    private LocalDate payrollDate;
+    
+    private int partitions;
+    
+    private long repaymentsCreated;
+    
+    private long durationMillis;
+}
@@ -0,0 +1,20 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a settlement batch rejected by the bank.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementFailureDto {
+    
+    @NotBlank(message = "Failure reason is required")
+    private String failureReason;
+}
\ No newline at end of file
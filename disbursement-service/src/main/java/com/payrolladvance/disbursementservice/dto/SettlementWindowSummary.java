@@ -0,0 +1,31 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data Transfer Object summarising a pass over the open settlement windows.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementWindowSummary {
+    
+    private long windowsOpen;
+    
+    private long batchesClosed;
+    
+    private long disbursementsBatched;
+    
+    private BigDecimal amountBatched;
+    
+    private List<String> batchReferences;
+    
+    private long durationMillis;
+}
\ No newline at end of file
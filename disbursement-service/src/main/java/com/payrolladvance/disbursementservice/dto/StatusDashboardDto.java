@@ -0,0 +1,31 @@
+package com.payrolladvance.disbursementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Data Transfer Object with the live disbursement and repayment counts per status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusDashboardDto {
+    
+    private Map<String, Long> disbursementsByStatus;
+    
+    private Map<String, Map<String, Long>> disbursementsByPaymentMethod; // Payment method -> status -> count
+    
+    private Map<String, Map<String, Long>> disbursementsByEmployer; // Employer ID -> status -> count
+    
+    private Map<String, Long> repaymentsByStatus;
+    
+    private Map<String, Map<String, Long>> repaymentsByPaymentMethod;
+    
+    private LocalDateTime lastReconciledAt;
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.payrolladvance.disbursementservice.event;
+
+import com.payrolladvance.disbursementservice.dto.DisbursementDto;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.service.DisbursementService;
+import com.payrolladvance.disbursementservice.util.BoundedIdCache;
+import com.payrolladvance.kafka.common.events.AdvanceRequestEvent;
+import com.payrolladvance.kafka.common.events.EventType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch listener for advance request events, used instead of {@link AdvanceRequestEventListener}
+ * when {@code app.kafka.batch-listener.enabled} is true. Each poll's approvals become one
+ * bulk insert and one producer batch of created events, which keeps up with month-end bursts.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.kafka.batch-listener.enabled", havingValue = "true")
+public class AdvanceRequestBatchEventListener {
+    
+    private final DisbursementService disbursementService;
+    private final ApprovedAdvanceMapper approvedAdvanceMapper;
+    private final BoundedIdCache processedEventIds;
+    
+    /**
+     * Constructs a new AdvanceRequestBatchEventListener.
+     *
+     * @param disbursementService   the disbursement service
+     * @param approvedAdvanceMapper the mapper from approval events to disbursements
+     * @param seenEventCacheSize    the number of processed event IDs remembered
+     */
+    public AdvanceRequestBatchEventListener(DisbursementService disbursementService,
+                                            ApprovedAdvanceMapper approvedAdvanceMapper,
+                                            @Value("${app.disbursement.seen-event-cache-size:100000}") int seenEventCacheSize) {
+        this.disbursementService = disbursementService;
+        this.approvedAdvanceMapper = approvedAdvanceMapper;
+        this.processedEventIds = new BoundedIdCache(seenEventCacheSize);
+    }
+    
+    /**
+     * Listens for a poll's worth of advance request events and creates disbursements for all approvals at once.
+     * Failures are rethrown so the container retries the batch, then dead-letters its records.
+     *
+     * @param events the advance request events
+     */
+    @KafkaListener(topics = AdvanceRequestEventListener.TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+                   containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleAdvanceRequestEvents(List<AdvanceRequestEvent> events) {
+        log.info("Received batch of {} advance request events", events.size());
+        
+        // Keep one approval per advance request, dropping redeliveries already processed
+        Map<Long, DisbursementDto> approvals = new LinkedHashMap<>();
+        for (AdvanceRequestEvent event : events) {
+            if (event.getEventType() != EventType.ADVANCE_REQUEST_APPROVED) {
+                continue;
+            }
+            if (event.getEventId() != null && processedEventIds.contains(event.getEventId())) {
+                log.info("Ignoring redelivered event {} for advance request ID: {}", event.getEventId(), event.getEntityId());
+                continue;
+            }
+            approvals.putIfAbsent(event.getEntityId(), approvedAdvanceMapper.toDisbursementDto(event));
+        }
+        
+        if (!approvals.isEmpty()) {
+            List<Disbursement> created = disbursementService.createDisbursementsIfAbsent(List.copyOf(approvals.values()));
+            log.info("Created {} disbursements from {} approvals", created.size(), approvals.size());
+        }
+        
+        for (AdvanceRequestEvent event : events) {
+            if (event.getEventId() != null) {
+                processedEventIds.add(event.getEventId());
+            }
+        }
+    }
+}
\ No newline at end of file
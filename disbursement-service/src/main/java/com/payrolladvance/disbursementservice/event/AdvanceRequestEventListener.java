@@ -2,68 +2,112 @@ package com.payrolladvance.disbursementservice.event;
 
 import com.payrolladvance.disbursementservice.dto.DisbursementDto;
 import com.payrolladvance.disbursementservice.service.DisbursementService;
+import com.payrolladvance.disbursementservice.util.BoundedIdCache;
+import com.payrolladvance.kafka.common.consumer.KeyOrderedDispatcher;
 import com.payrolladvance.kafka.common.events.AdvanceRequestEvent;
 import com.payrolladvance.kafka.common.events.EventType;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-
 /**
  * Listener for advance request events.
+ * Disbursement creation is idempotent: redelivered events are dropped by a cache of recently
+ * processed event IDs, and anything that slips past it is absorbed by the unique advance request ID.
+ * Records are handled in parallel by the {@link KeyOrderedDispatcher}, in order per employee, so one slow
+ * database write no longer holds up the rest of its partition.
+ * Replaced by {@link AdvanceRequestBatchEventListener} when batch listening is enabled.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.kafka.batch-listener.enabled", havingValue = "false", matchIfMissing = true)
 public class AdvanceRequestEventListener {
     
+    /**
+     * The topic listened to.
+     */
+    public static final String TOPIC = "advance-request-events";
+    
+    /**
+     * The listener ID, which identifies the listener's retry topics.
+     */
+    public static final String LISTENER_ID = "disbursement-advance-request-listener";
+    
     private final DisbursementService disbursementService;
+    private final ApprovedAdvanceMapper approvedAdvanceMapper;
+    private final KeyOrderedDispatcher dispatcher;
+    private final BoundedIdCache processedEventIds;
     
     /**
-     * Listens for advance request events and triggers disbursement when an advance request is approved.
+     * Constructs a new AdvanceRequestEventListener.
+     *
+     * @param disbursementService   the disbursement service
+     * @param approvedAdvanceMapper the mapper from approval events to disbursements
+     * @param dispatcher            the dispatcher the records are handled on
+     * @param seenEventCacheSize    the number of processed event IDs remembered
+     */
+    public AdvanceRequestEventListener(DisbursementService disbursementService,
+                                       ApprovedAdvanceMapper approvedAdvanceMapper,
+                                       KeyOrderedDispatcher dispatcher,
+                                       @Value("${app.disbursement.seen-event-cache-size:100000}") int seenEventCacheSize) {
+        this.disbursementService = disbursementService;
+        this.approvedAdvanceMapper = approvedAdvanceMapper;
+        this.dispatcher = dispatcher;
+        this.processedEventIds = new BoundedIdCache(seenEventCacheSize);
+    }
+    
+    /**
+     * Listens for advance request events and queues them on the dispatcher. Each record is acknowledged
+     * once handled; a failing one is retried on its employee's lane before it moves to the retry topics,
+     * or straight to the dead-letter topic while the topic is configured as ordered.
+     * Records from the retry topics are handled inline, so a failure moves them on to the next retry topic.
+     *
+     * @param record         the advance request event record
+     * @param acknowledgment the record's acknowledgment
+     */
+    @KafkaListener(id = LISTENER_ID, topics = TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+                   containerFactory = "parallelKafkaListenerContainerFactory")
+    public void onAdvanceRequestEvent(ConsumerRecord<String, AdvanceRequestEvent> record, Acknowledgment acknowledgment) {
+        if (!TOPIC.equals(record.topic())) {
+            handleAdvanceRequestEvent(record.value());
+            acknowledgment.acknowledge();
+            return;
+        }
+        dispatcher.dispatch(record, acknowledgment, this::handleAdvanceRequestEvent);
+    }
+    
+    /**
+     * Triggers disbursement when an advance request is approved.
      *
      * @param event the advance request event
      */
-    @KafkaListener(topics = "advance-request-events", groupId = "${spring.kafka.consumer.group-id}")
     public void handleAdvanceRequestEvent(AdvanceRequestEvent event) {
         log.info("Received advance request event: {}", event);
         
-        if (event.getEventType() == EventType.ADVANCE_REQUEST_APPROVED) {
-            log.info("Processing approved advance request ID: {}", event.getEntityId());
-            
-            // Create disbursement for approved advance request
-            try {
-                // Extract advance request data from the event payload
-                Long advanceRequestId = event.getEntityId();
-                Long employeeId = (Long) event.getPayload().get("employeeId");
-                BigDecimal amount = new BigDecimal(event.getPayload().get("amount").toString());
-                
-                // Calculate fee (example: 2% of advance amount)
-                BigDecimal feeAmount = amount.multiply(new BigDecimal("0.02"));
-                
-                // Set expected repayment date (example: 30 days from now)
-                LocalDateTime expectedRepaymentDate = LocalDateTime.now().plusDays(30);
-                
-                // Create disbursement DTO
-                DisbursementDto disbursementDto = DisbursementDto.builder()
-                        .advanceRequestId(advanceRequestId)
-                        .employeeId(employeeId)
-                        .amount(amount)
-                        .feeAmount(feeAmount)
-                        .expectedRepaymentDate(expectedRepaymentDate)
-                        .paymentMethod("BANK_TRANSFER") // Default payment method
-                        .build();
-                
-                // Create and process the disbursement
-                disbursementService.createDisbursement(disbursementDto);
-                log.info("Disbursement created for advance request ID: {}", advanceRequestId);
-                
-            } catch (Exception e) {
-                log.error("Error creating disbursement for advance request ID: {}", event.getEntityId(), e);
-            }
+        if (event.getEventType() != EventType.ADVANCE_REQUEST_APPROVED) {
+            return;
+        }
+        
+        if (event.getEventId() != null && processedEventIds.contains(event.getEventId())) {
+            log.info("Ignoring redelivered event {} for advance request ID: {}", event.getEventId(), event.getEntityId());
+            return;
+        }
+        
+        log.info("Processing approved advance request ID: {}", event.getEntityId());
+        
+        DisbursementDto disbursementDto = approvedAdvanceMapper.toDisbursementDto(event);
+        Long advanceRequestId = disbursementDto.getAdvanceRequestId();
+        
+        // Create the disbursement unless this advance request already has one
+        disbursementService.createDisbursementIfAbsent(disbursementDto)
+                .ifPresent(disbursement -> log.info("Disbursement created for advance request ID: {}", advanceRequestId));
+        
+        if (event.getEventId() != null) {
+            processedEventIds.add(event.getEventId());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.payrolladvance.disbursementservice.event;
+
+import com.payrolladvance.disbursementservice.dto.DisbursementDto;
+import com.payrolladvance.disbursementservice.fee.FeeSchedule;
+import com.payrolladvance.disbursementservice.service.FeeScheduleService;
+import com.payrolladvance.kafka.common.events.AdvanceRequestEvent;
+import com.payrolladvance.kafka.common.events.AdvanceRequestPayload;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Maps approved advance request events to the disbursements they should create.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovedAdvanceMapper {
+    
+    private final FeeScheduleService feeScheduleService;
+    
+    /**
+     * Builds the disbursement for an approved advance request.
+     *
+     * @param event the advance request approved event
+     * @return the disbursement data
+     */
+    public DisbursementDto toDisbursementDto(AdvanceRequestEvent event) {
+        AdvanceRequestPayload advanceRequest = event.getPayload();
+        Long employerId = advanceRequest.employerId();
+        BigDecimal amount = advanceRequest.amount();
+        
+        // Calculate the fee and repayment date from the employer's fee schedule
+        FeeSchedule feeSchedule = feeScheduleService.getSchedule(employerId);
+        BigDecimal feeAmount = FeeSchedule.fromMinorUnits(feeSchedule.feeFor(FeeSchedule.toMinorUnits(amount)));
+        LocalDateTime expectedRepaymentDate = LocalDateTime.now().plusDays(feeSchedule.getRepaymentTermDays());
+        
+        return DisbursementDto.builder()
+                .advanceRequestId(event.getEntityId())
+                .employeeId(advanceRequest.employeeId())
+                .employerId(employerId)
+                .amount(amount)
+                .feeAmount(feeAmount)
+                .expectedRepaymentDate(expectedRepaymentDate)
+                .paymentMethod("BANK_TRANSFER") // Default payment method
+                .build();
+    }
+}
\ No newline at end of file
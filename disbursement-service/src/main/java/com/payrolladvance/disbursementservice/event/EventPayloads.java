@@ -0,0 +1,64 @@
+package com.payrolladvance.disbursementservice.event;
+
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.kafka.common.events.DisbursementPayload;
+import com.payrolladvance.kafka.common.events.RepaymentPayload;
+
+/**
+ * Builds the payloads of published events from the entities they describe.
+ */
+public final class EventPayloads {
+    
+    private EventPayloads() {
+    }
+    
+    /**
+     * Builds the payload of a disbursement event.
+     *
+     * @param disbursement the disbursement
+     * @return the event payload
+     */
+    public static DisbursementPayload disbursement(Disbursement disbursement) {
+        return DisbursementPayload.builder()
+                .id(disbursement.getId())
+                .advanceRequestId(disbursement.getAdvanceRequestId())
+                .employeeId(disbursement.getEmployeeId())
+                .employerId(disbursement.getEmployerId())
+                .amount(disbursement.getAmount())
+                .transactionReference(disbursement.getTransactionReference())
+                .status(disbursement.getStatus())
+                .paymentMethod(disbursement.getPaymentMethod())
+                .bankCode(disbursement.getBankCode())
+                .settlementBatchId(disbursement.getSettlementBatchId())
+                .expectedRepaymentDate(disbursement.getExpectedRepaymentDate())
+                .feeAmount(disbursement.getFeeAmount())
+                .totalRepaymentAmount(disbursement.getTotalRepaymentAmount())
+                .retryCount(disbursement.getRetryCount())
+                .nextAttemptAt(disbursement.getNextAttemptAt())
+                .createdAt(disbursement.getCreatedAt())
+                .updatedAt(disbursement.getUpdatedAt())
+                .build();
+    }
+    
+    /**
+     * Builds the payload of a repayment event.
+     *
+     * @param repayment the repayment
+     * @return the event payload
+     */
+    public static RepaymentPayload repayment(Repayment repayment) {
+        return RepaymentPayload.builder()
+                .id(repayment.getId())
+                .disbursementId(repayment.getDisbursementId())
+                .employeeId(repayment.getEmployeeId())
+                .amount(repayment.getAmount())
+                .transactionReference(repayment.getTransactionReference())
+                .status(repayment.getStatus())
+                .paymentMethod(repayment.getPaymentMethod())
+                .paymentDate(repayment.getPaymentDate())
+                .createdAt(repayment.getCreatedAt())
+                .updatedAt(repayment.getUpdatedAt())
+                .build();
+    }
+}
\ No newline at end of file
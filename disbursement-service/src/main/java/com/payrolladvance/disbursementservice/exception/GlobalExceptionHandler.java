@@ -2,6 +2,7 @@ package com.payrolladvance.disbursementservice.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -45,6 +46,44 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
     
+    /**
+     * Handles data integrity violations, such as a second disbursement for the same advance request.
+     *
+     * @param ex the exception
+     * @return the error response
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        log.error("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Conflict",
+                "The request conflicts with existing data.",
+                LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
+    /**
+     * Handles IllegalArgumentException raised for requests that are well-formed but not acceptable.
+     *
+     * @param ex the exception
+     * @return the error response
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+        log.error("Invalid request: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Bad Request",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+    
     /**
      * Handles validation exceptions.
      *
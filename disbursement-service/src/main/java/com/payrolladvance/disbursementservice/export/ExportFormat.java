@@ -0,0 +1,43 @@
+package com.payrolladvance.disbursementservice.export;
+
+import java.util.Locale;
+
+/**
+ * Output formats supported by the bulk export endpoints.
+ */
+public enum ExportFormat {
+    
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+    
+    private final String contentType;
+    private final String extension;
+    
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    /**
+     * Parses a format name, ignoring case.
+     *
+     * @param name the format name
+     * @return the format
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.payrolladvance.disbursementservice.export;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Writes each row of a cursor to an export as soon as it is fetched, so an export never holds more than one row.
+ * Column names are taken from the result set and converted to camelCase once, on the first row.
+ */
+public abstract class ExportRowWriter implements RowCallbackHandler {
+    
+    protected final Writer writer;
+    protected final StringBuilder line = new StringBuilder(256);
+    protected String[] names;
+    protected int[] types;
+    private long rowCount;
+    
+    protected ExportRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+    
+    /**
+     * Creates the row writer for a format.
+     *
+     * @param format the export format
+     * @param writer the destination, which the row writer does not close
+     * @return the row writer
+     */
+    public static ExportRowWriter forFormat(ExportFormat format, Writer writer) {
+        return switch (format) {
+            case CSV -> new CsvRowWriter(writer);
+            case NDJSON -> new NdjsonRowWriter(writer);
+        };
+    }
+    
+    /**
+     * Writes the current row.
+     */
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        if (names == null) {
+            readColumns(rs.getMetaData());
+        }
+        line.setLength(0);
+        appendRow(rs);
+        line.append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowCount++;
+    }
+    
+    /**
+     * Gets the number of rows written.
+     *
+     * @return the row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Appends the current row, without the line terminator, to {@link #line}.
+     */
+    protected abstract void appendRow(ResultSet rs) throws SQLException;
+    
+    /**
+     * Called once the column names are known, before the first row is appended.
+     */
+    protected void writeHeader() {
+    }
+    
+    /**
+     * Reads a column as text, or null for SQL NULL. Numbers are written in plain notation
+     * and timestamps in ISO-8601.
+     */
+    protected String readValue(ResultSet rs, int column) throws SQLException {
+        return switch (types[column]) {
+            case Types.NUMERIC, Types.DECIMAL -> {
+                BigDecimal value = rs.getBigDecimal(column + 1);
+                yield value != null ? value.toPlainString() : null;
+            }
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> {
+                Timestamp value = rs.getTimestamp(column + 1);
+                yield value != null ? value.toLocalDateTime().toString() : null;
+            }
+            default -> rs.getString(column + 1);
+        };
+    }
+    
+    protected boolean isNumeric(int column) {
+        return switch (types[column]) {
+            case Types.NUMERIC, Types.DECIMAL, Types.BIGINT, Types.INTEGER, Types.SMALLINT -> true;
+            default -> false;
+        };
+    }
+    
+    private void readColumns(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        names = new String[count];
+        types = new int[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = toCamelCase(metaData.getColumnLabel(i + 1));
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        writeHeader();
+    }
+    
+    private static String toCamelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+    
+    /**
+     * RFC 4180 CSV, with a header row.
+     */
+    private static final class CsvRowWriter extends ExportRowWriter {
+        
+        private CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+        
+        @Override
+        protected void writeHeader() {
+            try {
+                writer.write(String.join(",", names));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        protected void appendRow(ResultSet rs) throws SQLException {
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                String value = readValue(rs, i);
+                if (value == null) {
+                    continue;
+                }
+                if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                    line.append(value);
+                } else {
+                    line.append('"');
+                    for (int c = 0; c < value.length(); c++) {
+                        char ch = value.charAt(c);
+                        if (ch == '"') {
+                            line.append('"');
+                        }
+                        line.append(ch);
+                    }
+                    line.append('"');
+                }
+            }
+        }
+    }
+    
+    /**
+     * One JSON object per line.
+     */
+    private static final class NdjsonRowWriter extends ExportRowWriter {
+        
+        private NdjsonRowWriter(Writer writer) {
+            super(writer);
+        }
+        
+        @Override
+        protected void appendRow(ResultSet rs) throws SQLException {
+            line.append('{');
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append('"').append(names[i]).append("\":");
+                String value = readValue(rs, i);
+                if (value == null) {
+                    line.append("null");
+                } else if (isNumeric(i)) {
+                    line.append(value);
+                } else {
+                    appendJsonString(value);
+                }
+            }
+            line.append('}');
+        }
+        
+        private void appendJsonString(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.payrolladvance.disbursementservice.fee;
+
+import com.payrolladvance.disbursementservice.dto.FeeScheduleDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, precompiled form of a {@link FeeScheduleDto}.
+ * Tiers are flattened into parallel primitive arrays sorted by upper bound, and every amount is in
+ * minor units, so evaluating a fee is a short search and a few long multiplications.
+ */
+public final class FeeSchedule {
+    
+    private static final long BASIS_POINTS = 10_000;
+    
+    private final long[] upperBounds; // Inclusive, minor units; Long.MAX_VALUE for the unbounded tier
+    private final long[] rateBps;
+    private final long[] flatFees;
+    private final long minimumFee;
+    private final long maximumFee;
+    private final int repaymentTermDays;
+    
+    private FeeSchedule(long[] upperBounds, long[] rateBps, long[] flatFees, long minimumFee, long maximumFee,
+                        int repaymentTermDays) {
+        this.upperBounds = upperBounds;
+        this.rateBps = rateBps;
+        this.flatFees = flatFees;
+        this.minimumFee = minimumFee;
+        this.maximumFee = maximumFee;
+        this.repaymentTermDays = repaymentTermDays;
+    }
+    
+    /**
+     * Compiles a fee schedule.
+     *
+     * @param schedule          the schedule
+     * @param defaultTermDays   the repayment term used when the schedule does not set one
+     * @return the compiled schedule
+     * @throws IllegalArgumentException if the schedule is inconsistent
+     */
+    public static FeeSchedule compile(FeeScheduleDto schedule, int defaultTermDays) {
+        if (schedule.getTiers() == null || schedule.getTiers().isEmpty()) {
+            throw new IllegalArgumentException("A fee schedule needs at least one tier");
+        }
+        
+        List<FeeScheduleDto.Tier> tiers = new ArrayList<>(schedule.getTiers());
+        tiers.sort(Comparator.comparing(tier -> tier.getUpTo() != null ? toMinorUnits(tier.getUpTo()) : Long.MAX_VALUE));
+        
+        int size = tiers.size();
+        long[] upperBounds = new long[size];
+        long[] rateBps = new long[size];
+        long[] flatFees = new long[size];
+        for (int i = 0; i < size; i++) {
+            FeeScheduleDto.Tier tier = tiers.get(i);
+            if (tier.getRateBps() == null || tier.getRateBps() < 0) {
+                throw new IllegalArgumentException("Every fee tier needs a non-negative rate");
+            }
+            upperBounds[i] = tier.getUpTo() != null ? toMinorUnits(tier.getUpTo()) : Long.MAX_VALUE;
+            rateBps[i] = tier.getRateBps();
+            flatFees[i] = tier.getFlatFee() != null ? toMinorUnits(tier.getFlatFee()) : 0;
+            if (i > 0 && upperBounds[i] == upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Fee tiers must have distinct upper bounds");
+            }
+        }
+        
+        long minimumFee = schedule.getMinimumFee() != null ? toMinorUnits(schedule.getMinimumFee()) : 0;
+        long maximumFee = schedule.getMaximumFee() != null ? toMinorUnits(schedule.getMaximumFee()) : Long.MAX_VALUE;
+        if (minimumFee > maximumFee) {
+            throw new IllegalArgumentException("Minimum fee must not exceed the maximum fee");
+        }
+        int termDays = schedule.getRepaymentTermDays() != null ? schedule.getRepaymentTermDays() : defaultTermDays;
+        if (termDays < 1) {
+            throw new IllegalArgumentException("Repayment term must be at least one day");
+        }
+        
+        return new FeeSchedule(upperBounds, rateBps, flatFees, minimumFee, maximumFee, termDays);
+    }
+    
+    /**
+     * Calculates the fee for an advance, rounding half up to the minor unit.
+     * Amounts above the highest bounded tier use the last tier.
+     *
+     * @param amountMinor the advance amount in minor units
+     * @return the fee in minor units
+     */
+    public long feeFor(long amountMinor) {
+        int tier = 0;
+        while (tier < upperBounds.length - 1 && amountMinor > upperBounds[tier]) {
+            tier++;
+        }
+        long fee = flatFees[tier] + (Math.multiplyExact(amountMinor, rateBps[tier]) + BASIS_POINTS / 2) / BASIS_POINTS;
+        return Math.min(Math.max(fee, minimumFee), maximumFee);
+    }
+    
+    /**
+     * Gets the number of days after disbursement that repayment is expected.
+     *
+     * @return the repayment term in days
+     */
+    public int getRepaymentTermDays() {
+        return repaymentTermDays;
+    }
+    
+    /**
+     * Converts an amount to minor units, rounding half up.
+     *
+     * @param amount the amount in major units
+     * @return the amount in minor units
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    /**
+     * Converts an amount in minor units back to major units.
+     *
+     * @param amountMinor the amount in minor units
+     * @return the amount in major units, with a scale of two
+     */
+    public static BigDecimal fromMinorUnits(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, 2);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.payrolladvance.disbursementservice.gateway;
+
+/**
+ * Shapes of response latency the simulated gateway can produce.
+ */
+public enum LatencyDistribution {
+    FIXED,        // Always the mean latency
+    UNIFORM,      // Evenly spread across mean +/- jitter
+    EXPONENTIAL   // Long-tailed around the mean, like most real providers
+}
@@ -0,0 +1,41 @@
+package com.payrolladvance.disbursementservice.gateway;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SPI for payment providers that pay out disbursements.
+ * Implementations must not block the calling thread; results are delivered through the returned futures.
+ */
+public interface PaymentGateway {
+    
+    /**
+     * Gets the name of the gateway, matching the {@code app.payment.gateway} setting.
+     *
+     * @return the gateway name
+     */
+    String getName();
+    
+    /**
+     * Gets the maximum number of payouts accepted by a single bulk submission.
+     *
+     * @return the maximum bulk size
+     */
+    int getMaxBulkSize();
+    
+    /**
+     * Submits a single payout.
+     *
+     * @param request the payout request
+     * @return a future completed with the payout result
+     */
+    CompletableFuture<PayoutResult> submitPayout(PayoutRequest request);
+    
+    /**
+     * Submits several payouts in one gateway call.
+     *
+     * @param requests the payout requests, at most {@link #getMaxBulkSize()}
+     * @return a future completed with one result per request, in request order
+     */
+    CompletableFuture<List<PayoutResult>> submitBulkPayout(List<PayoutRequest> requests);
+}
@@ -0,0 +1,14 @@
+package com.payrolladvance.disbursementservice.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * A single payout instruction submitted to a payment gateway.
+ *
+ * @param disbursementId the disbursement being paid out
+ * @param employeeId     the employee receiving the funds
+ * @param amount         the amount to pay out
+ * @param paymentMethod  the payment rail to use
+ */
+public record PayoutRequest(Long disbursementId, Long employeeId, BigDecimal amount, String paymentMethod) {
+}
@@ -0,0 +1,34 @@
+package com.payrolladvance.disbursementservice.gateway;
+
+/**
+ * Outcome of a payout reported by a payment gateway.
+ *
+ * @param disbursementId       the disbursement the payout belongs to
+ * @param successful           whether the gateway accepted the payout
+ * @param transactionReference the gateway's transaction reference, if successful
+ * @param failureReason        the gateway's failure reason, if unsuccessful
+ */
+public record PayoutResult(Long disbursementId, boolean successful, String transactionReference, String failureReason) {
+    
+    /**
+     * Creates a successful payout result.
+     *
+     * @param disbursementId       the disbursement ID
+     * @param transactionReference the gateway's transaction reference
+     * @return the payout result
+     */
+    public static PayoutResult success(Long disbursementId, String transactionReference) {
+        return new PayoutResult(disbursementId, true, transactionReference, null);
+    }
+    
+    /**
+     * Creates a failed payout result.
+     *
+     * @param disbursementId the disbursement ID
+     * @param failureReason  the reason reported by the gateway
+     * @return the payout result
+     */
+    public static PayoutResult failure(Long disbursementId, String failureReason) {
+        return new PayoutResult(disbursementId, false, null, failureReason);
+    }
+}
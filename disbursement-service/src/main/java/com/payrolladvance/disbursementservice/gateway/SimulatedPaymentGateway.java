@@ -0,0 +1,184 @@
+package com.payrolladvance.disbursementservice.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Payment gateway that simulates a remote provider without any network calls.
+ * Each call is delayed by a sampled latency plus any wait imposed by the rate limit,
+ * and fails with the configured probability. Futures are completed from a small
+ * scheduler so callers can keep thousands of payouts in flight at once.
+ */
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway, AutoCloseable {
+    
+    public static final String NAME = "SIMULATED";
+    
+    private final LatencyDistribution latencyDistribution;
+    private final double latencyMeanMillis;
+    private final double latencyJitterMillis;
+    private final double latencyMaxMillis;
+    private final double failureRate;
+    private final long permitIntervalNanos;
+    private final int maxBulkSize;
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+    private final ScheduledExecutorService scheduler;
+    
+    /**
+     * Constructs a new SimulatedPaymentGateway.
+     *
+     * @param latencyDistribution the latency distribution
+     * @param latencyMeanMillis   the mean latency per call in milliseconds
+     * @param latencyJitterMillis the jitter around the mean for uniform latency, in milliseconds
+     * @param latencyMaxMillis    the latency cap in milliseconds
+     * @param failureRate         the probability of a payout being rejected, between 0 and 1
+     * @param requestsPerSecond   the maximum calls per second, or 0 for no limit
+     * @param maxBulkSize         the maximum payouts per bulk call
+     */
+    public SimulatedPaymentGateway(LatencyDistribution latencyDistribution, double latencyMeanMillis,
+                                   double latencyJitterMillis, double latencyMaxMillis, double failureRate,
+                                   double requestsPerSecond, int maxBulkSize) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1: " + failureRate);
+        }
+        if (maxBulkSize < 1) {
+            throw new IllegalArgumentException("Max bulk size must be positive: " + maxBulkSize);
+        }
+        this.latencyDistribution = latencyDistribution;
+        this.latencyMeanMillis = latencyMeanMillis;
+        this.latencyJitterMillis = latencyJitterMillis;
+        this.latencyMaxMillis = latencyMaxMillis;
+        this.failureRate = failureRate;
+        this.permitIntervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+        this.maxBulkSize = maxBulkSize;
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "simulated-payment-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return NAME;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMaxBulkSize() {
+        return maxBulkSize;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<PayoutResult> submitPayout(PayoutRequest request) {
+        CompletableFuture<PayoutResult> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(settle(request)), nextDelayNanos(), TimeUnit.NANOSECONDS);
+        return future;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<PayoutResult>> submitBulkPayout(List<PayoutRequest> requests) {
+        if (requests.size() > maxBulkSize) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Bulk payout of " + requests.size() + " exceeds gateway limit of " + maxBulkSize));
+        }
+        
+        // A bulk call consumes a single rate-limit permit and a single round trip
+        CompletableFuture<List<PayoutResult>> future = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            List<PayoutResult> results = new ArrayList<>(requests.size());
+            for (PayoutRequest request : requests) {
+                results.add(settle(request));
+            }
+            future.complete(results);
+        }, nextDelayNanos(), TimeUnit.NANOSECONDS);
+        return future;
+    }
+    
+    /**
+     * Stops the completion scheduler. Payouts still in flight are abandoned.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * Decides the outcome of a single payout.
+     *
+     * @param request the payout request
+     * @return the payout result
+     */
+    private PayoutResult settle(PayoutRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < failureRate) {
+            return PayoutResult.failure(request.disbursementId(), "Simulated gateway rejection");
+        }
+        // Avoid UUID.randomUUID() so the shared SecureRandom doesn't limit benchmark throughput
+        String transactionReference = "SIM-" + new UUID(random.nextLong(), random.nextLong());
+        return PayoutResult.success(request.disbursementId(), transactionReference);
+    }
+    
+    /**
+     * Computes how long the next call takes: the wait for a rate-limit permit plus the sampled latency.
+     *
+     * @return the delay in nanoseconds
+     */
+    private long nextDelayNanos() {
+        return reservePermitNanos() + (long) (sampleLatencyMillis() * 1_000_000);
+    }
+    
+    /**
+     * Reserves the next free rate-limit slot without locking.
+     *
+     * @return the wait until the reserved slot in nanoseconds
+     */
+    private long reservePermitNanos() {
+        if (permitIntervalNanos == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long next = nextPermitNanos.get();
+            long slot = Math.max(now, next);
+            if (nextPermitNanos.compareAndSet(next, slot + permitIntervalNanos)) {
+                return slot - now;
+            }
+        }
+    }
+    
+    /**
+     * Samples a call latency from the configured distribution.
+     *
+     * @return the latency in milliseconds
+     */
+    private double sampleLatencyMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latency = switch (latencyDistribution) {
+            case FIXED -> latencyMeanMillis;
+            case UNIFORM -> latencyMeanMillis - latencyJitterMillis + random.nextDouble() * 2 * latencyJitterMillis;
+            case EXPONENTIAL -> -latencyMeanMillis * Math.log(1.0 - random.nextDouble());
+        };
+        return Math.min(Math.max(latency, 0), latencyMaxMillis);
+    }
+}
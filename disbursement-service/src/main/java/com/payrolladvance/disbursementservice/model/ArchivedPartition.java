@@ -0,0 +1,43 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording a monthly partition that was moved to a columnar archive file and dropped from the database.
+ */
+@Data
+@Entity
+@Table(name = "archived_partitions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archived_partitions_table_month", columnNames = {"table_name", "partition_month"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedPartition {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "table_name", nullable = false)
+    private String tableName; // disbursements, repayments
+    
+    @Column(name = "partition_month", nullable = false)
+    private LocalDate partitionMonth; // First day of the month
+    
+    @Column(name = "file_path", nullable = false, length = 1024)
+    private String filePath;
+    
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+    
+    @CreationTimestamp
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+}
\ No newline at end of file
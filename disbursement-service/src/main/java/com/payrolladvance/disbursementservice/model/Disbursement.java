@@ -12,10 +12,21 @@ import java.time.LocalDateTime;
 
 /**
  * Entity representing a disbursement in the system.
+ * The table is range-partitioned by month of {@code created_at} and managed by Flyway migrations;
+ * one disbursement per advance request is enforced through the {@code disbursement_advance_requests} claim table.
  */
 @Data
 @Entity
-@Table(name = "disbursements")
+@Table(name = "disbursements", indexes = {
+        @Index(name = "idx_disbursements_advance_request_id", columnList = "advance_request_id"),
+        @Index(name = "idx_disbursements_employee_created", columnList = "employee_id, created_at"),
+        @Index(name = "idx_disbursements_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_disbursements_next_attempt_at", columnList = "next_attempt_at"),
+        @Index(name = "idx_disbursements_status_expected_repayment", columnList = "status, expected_repayment_date"),
+        @Index(name = "idx_disbursements_transaction_reference", columnList = "transaction_reference"),
+        @Index(name = "idx_disbursements_settlement_batch_id", columnList = "settlement_batch_id"),
+        @Index(name = "idx_disbursements_status_payment_method", columnList = "status, payment_method, bank_code")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Disbursement {
@@ -30,6 +41,9 @@ public class Disbursement {
     @Column(name = "employee_id", nullable = false)
     private Long employeeId;
     
+    @Column(name = "employer_id")
+    private Long employerId;
+    
     @Column(nullable = false)
     private BigDecimal amount;
     
@@ -42,6 +56,12 @@ public class Disbursement {
     @Column(name = "payment_method", nullable = false)
     private String paymentMethod;
     
+    @Column(name = "bank_code")
+    private String bankCode; // Receiving bank, groups disbursements into settlement batches
+    
+    @Column(name = "settlement_batch_id")
+    private Long settlementBatchId; // The settlement batch that paid the disbursement out, if any
+    
     @Column(name = "expected_repayment_date")
     private LocalDateTime expectedRepaymentDate;
     
@@ -51,6 +71,12 @@ public class Disbursement {
     @Column(name = "total_repayment_amount")
     private BigDecimal totalRepaymentAmount;
     
+    @Column(name = "retry_count", nullable = false, columnDefinition = "integer not null default 0")
+    private int retryCount;
+    
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt; // Set while a FAILED disbursement awaits a retry
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
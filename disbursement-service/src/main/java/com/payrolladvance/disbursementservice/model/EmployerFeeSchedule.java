@@ -0,0 +1,45 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity holding an employer's negotiated fee schedule, which takes precedence over config-repo.
+ */
+@Data
+@Entity
+@Table(name = "employer_fee_schedules")
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployerFeeSchedule {
+    
+    @Id
+    @Column(name = "employer_id")
+    private Long employerId;
+    
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "employer_fee_tiers", joinColumns = @JoinColumn(name = "employer_id"))
+    @OrderColumn(name = "tier_index")
+    private List<EmployerFeeTier> tiers = new ArrayList<>();
+    
+    @Column(name = "minimum_fee")
+    private BigDecimal minimumFee;
+    
+    @Column(name = "maximum_fee")
+    private BigDecimal maximumFee;
+    
+    @Column(name = "repayment_term_days")
+    private Integer repaymentTermDays;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One band of an employer's fee schedule.
+ */
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployerFeeTier {
+    
+    @Column(name = "up_to")
+    private BigDecimal upTo; // Null for no upper bound
+    
+    @Column(name = "rate_bps", nullable = false)
+    private int rateBps;
+    
+    @Column(name = "flat_fee", nullable = false)
+    private BigDecimal flatFee;
+}
\ No newline at end of file
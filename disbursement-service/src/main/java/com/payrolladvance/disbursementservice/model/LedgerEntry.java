@@ -0,0 +1,53 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing one balance-changing entry in a disbursement's append-only ledger.
+ * Entries are never updated or deleted; corrections are recorded as new entries.
+ */
+@Data
+@Entity
+@Table(name = "disbursement_ledger_entries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_entries_disbursement_sequence",
+                columnNames = {"disbursement_id", "sequence_number"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+    
+    public static final String DISBURSED = "DISBURSED";
+    public static final String REPAYMENT = "REPAYMENT";
+    public static final String REPAYMENT_REVERSAL = "REPAYMENT_REVERSAL";
+    public static final String DISBURSEMENT_REVERSAL = "DISBURSEMENT_REVERSAL";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "disbursement_id", nullable = false, updatable = false)
+    private Long disbursementId;
+    
+    @Column(name = "sequence_number", nullable = false, updatable = false)
+    private long sequenceNumber; // 1-based and contiguous per disbursement
+    
+    @Column(name = "entry_type", nullable = false, updatable = false)
+    private String entryType; // DISBURSED, REPAYMENT, REPAYMENT_REVERSAL, DISBURSEMENT_REVERSAL
+    
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount; // Positive increases the balance owed, negative reduces it
+    
+    @Column(name = "repayment_id", updatable = false)
+    private Long repaymentId;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
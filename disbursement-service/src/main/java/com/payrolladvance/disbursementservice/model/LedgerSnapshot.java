@@ -0,0 +1,42 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the balance of a disbursement's ledger as of a given entry.
+ * Written every few entries so a balance read never has to sum more than a short tail.
+ */
+@Data
+@Entity
+@Table(name = "disbursement_ledger_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_snapshots_disbursement_sequence",
+                columnNames = {"disbursement_id", "sequence_number"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "disbursement_id", nullable = false, updatable = false)
+    private Long disbursementId;
+    
+    @Column(name = "sequence_number", nullable = false, updatable = false)
+    private long sequenceNumber; // Last ledger entry included in the balance
+    
+    @Column(nullable = false, updatable = false)
+    private BigDecimal balance;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,10 +12,15 @@ import java.time.LocalDateTime;
 
 /**
  * Entity representing a repayment in the system.
+ * The table is range-partitioned by month of {@code created_at} and managed by Flyway migrations.
  */
 @Data
 @Entity
-@Table(name = "repayments")
+@Table(name = "repayments", indexes = {
+        @Index(name = "idx_repayments_disbursement_id", columnList = "disbursement_id"),
+        @Index(name = "idx_repayments_employee_created", columnList = "employee_id, created_at"),
+        @Index(name = "idx_repayments_transaction_reference", columnList = "transaction_reference")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Repayment {
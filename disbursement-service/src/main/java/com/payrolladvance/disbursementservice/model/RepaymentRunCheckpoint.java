@@ -0,0 +1,57 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording how far a repayment run has progressed through one employee partition.
+ * Updated in the same transaction as each chunk of repayments, so an interrupted run resumes
+ * after the last committed disbursement.
+ */
+@Data
+@Entity
+@Table(name = "repayment_run_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_repayment_run_checkpoints_partition",
+                columnNames = {"payroll_date", "partition_count", "partition_number"})
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentRunCheckpoint {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "payroll_date", nullable = false)
+    private LocalDate payrollDate;
+    
+    @Column(name = "partition_count", nullable = false)
+    private int partitionCount;
+    
+    @Column(name = "partition_number", nullable = false)
+    private int partitionNumber;
+    
+    @Column(name = "last_disbursement_id", nullable = false)
+    private long lastDisbursementId;
+    
+    @Column(name = "repayments_created", nullable = false)
+    private long repaymentsCreated;
+    
+    @Column(name = "status", nullable = false)
+    private String status; // RUNNING, COMPLETED
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,70 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a settlement batch: the PENDING disbursements of one payment method and bank
+ * collected in a settlement window and sent to the bank as a single file under one batch reference.
+ */
+@Data
+@Entity
+@Table(name = "settlement_batches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_settlement_batches_batch_reference", columnNames = "batch_reference")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementBatch {
+    
+    public static final String SUBMITTED = "SUBMITTED";
+    public static final String SETTLED = "SETTLED";
+    public static final String FAILED = "FAILED";
+    
+    public static final String CUT_OFF = "CUT_OFF";
+    public static final String SIZE_THRESHOLD = "SIZE_THRESHOLD";
+    public static final String MANUAL = "MANUAL";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "batch_reference", nullable = false)
+    private String batchReference;
+    
+    @Column(name = "payment_method", nullable = false)
+    private String paymentMethod;
+    
+    @Column(name = "bank_code")
+    private String bankCode;
+    
+    @Column(name = "status", nullable = false)
+    private String status; // SUBMITTED, SETTLED, FAILED
+    
+    @Column(name = "close_reason", nullable = false)
+    private String closeReason; // CUT_OFF, SIZE_THRESHOLD, MANUAL
+    
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+    
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "file_path", length = 1024)
+    private String filePath;
+    
+    @Column(name = "failure_reason", length = 1024)
+    private String failureReason;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "settled_at")
+    private LocalDateTime settledAt;
+}
\ No newline at end of file
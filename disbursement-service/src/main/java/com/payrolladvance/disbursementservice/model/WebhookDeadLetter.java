@@ -0,0 +1,44 @@
+package com.payrolladvance.disbursementservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a gateway callback that could not be applied, even on its own, and was set aside
+ * so the rest of its batch could go through.
+ */
+@Data
+@Entity
+@Table(name = "webhook_dead_letters")
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDeadLetter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_id")
+    private String eventId;
+    
+    @Column(name = "transaction_reference")
+    private String transactionReference;
+    
+    @Column(name = "status")
+    private String status;
+    
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+    
+    @Column(name = "failure_reason", length = 1024)
+    private String failureReason;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
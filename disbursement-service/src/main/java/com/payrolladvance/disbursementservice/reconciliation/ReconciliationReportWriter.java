@@ -0,0 +1,157 @@
+package com.payrolladvance.disbursementservice.reconciliation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams the outcome of a reconciliation into one CSV file per category and counts each category.
+ * Rows are written as they are found, so a report over millions of payments never sits in memory.
+ */
+public final class ReconciliationReportWriter implements AutoCloseable {
+    
+    public static final String MATCHED_FILE = "matched.csv";
+    public static final String AMOUNT_MISMATCH_FILE = "amount-mismatch.csv";
+    public static final String MISSING_FROM_SETTLEMENT_FILE = "missing-from-settlement.csv";
+    public static final String MISSING_FROM_RECORDS_FILE = "missing-from-records.csv";
+    public static final String DUPLICATE_FILE = "duplicates.csv";
+    
+    private final Writer matched;
+    private final Writer amountMismatches;
+    private final Writer missingFromSettlement;
+    private final Writer missingFromRecords;
+    private final Writer duplicates;
+    
+    private long matchedCount;
+    private long amountMismatchCount;
+    private long missingFromSettlementCount;
+    private long missingFromRecordsCount;
+    private long duplicateCount;
+    
+    /**
+     * Creates the report files in the given directory.
+     *
+     * @param directory the report directory, which must exist
+     * @throws IOException if a report file cannot be created
+     */
+    public ReconciliationReportWriter(Path directory) throws IOException {
+        this.matched = open(directory.resolve(MATCHED_FILE), "type,id,transaction_reference,amount");
+        this.amountMismatches = open(directory.resolve(AMOUNT_MISMATCH_FILE),
+                "type,id,transaction_reference,recorded_amount,settled_amount");
+        this.missingFromSettlement = open(directory.resolve(MISSING_FROM_SETTLEMENT_FILE),
+                "type,id,transaction_reference,amount");
+        this.missingFromRecords = open(directory.resolve(MISSING_FROM_RECORDS_FILE), "transaction_reference,settled_amount");
+        this.duplicates = open(directory.resolve(DUPLICATE_FILE), "source,type,id,transaction_reference,amount");
+    }
+    
+    /**
+     * Reports a payment settled for the recorded amount.
+     */
+    public void matched(String type, long id, String reference, long amountMinor) {
+        write(matched, type + ',' + id + ',' + reference + ',' + format(amountMinor));
+        matchedCount++;
+    }
+    
+    /**
+     * Reports a payment settled for a different amount than recorded.
+     */
+    public void amountMismatch(String type, long id, String reference, long recordedMinor, long settledMinor) {
+        write(amountMismatches, type + ',' + id + ',' + reference + ',' + format(recordedMinor) + ',' + format(settledMinor));
+        amountMismatchCount++;
+    }
+    
+    /**
+     * Reports a completed payment that does not appear in the settlement file.
+     */
+    public void missingFromSettlement(String type, long id, String reference, long amountMinor) {
+        write(missingFromSettlement, type + ',' + id + ',' + reference + ',' + format(amountMinor));
+        missingFromSettlementCount++;
+    }
+    
+    /**
+     * Reports a settlement line that matches none of our payments.
+     */
+    public void missingFromRecords(String reference, long settledMinor) {
+        write(missingFromRecords, reference + ',' + format(settledMinor));
+        missingFromRecordsCount++;
+    }
+    
+    /**
+     * Reports a settlement line repeating the reference of an earlier line.
+     */
+    public void duplicateInSettlement(String reference, long settledMinor) {
+        write(duplicates, "SETTLEMENT,,," + reference + ',' + format(settledMinor));
+        duplicateCount++;
+    }
+    
+    /**
+     * Reports a payment sharing its transaction reference with another of our payments.
+     */
+    public void duplicateInRecords(String type, long id, String reference, long amountMinor) {
+        write(duplicates, "RECORDS," + type + ',' + id + ',' + reference + ',' + format(amountMinor));
+        duplicateCount++;
+    }
+    
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+    
+    public long getAmountMismatchCount() {
+        return amountMismatchCount;
+    }
+    
+    public long getMissingFromSettlementCount() {
+        return missingFromSettlementCount;
+    }
+    
+    public long getMissingFromRecordsCount() {
+        return missingFromRecordsCount;
+    }
+    
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+    
+    /**
+     * Flushes and closes every report file.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Writer writer : new Writer[] {matched, amountMismatches, missingFromSettlement, missingFromRecords, duplicates}) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    private static Writer open(Path file, String header) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(header);
+        writer.newLine();
+        return writer;
+    }
+    
+    private static void write(Writer writer, String row) {
+        try {
+            writer.write(row);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String format(long amountMinor) {
+        long abs = Math.abs(amountMinor);
+        return (amountMinor < 0 ? "-" : "") + abs / 100 + '.' + (abs % 100 < 10 ? "0" : "") + abs % 100;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,457 @@
+package com.payrolladvance.disbursementservice.reconciliation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory hash index over a gateway settlement file.
+ * <p>
+ * The file is memory-mapped and parsed straight from the mapped bytes, so no String is created per line.
+ * Each line costs three primitive slots on the heap (its position, its amount and a hash table slot);
+ * references are compared against the mapped bytes when looked up.
+ * <p>
+ * Lines are CSV: {@code transaction_reference,amount[,...]}, with the amount in major units and at most
+ * two decimals. Further columns are ignored, a header line is skipped, and malformed lines are counted.
+ */
+public final class SettlementFileIndex implements AutoCloseable {
+    
+    private static final long MAX_WINDOW_SIZE = 256L << 20;
+    private static final int LENGTH_BITS = 24;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> windows = new ArrayList<>();
+    private long[] windowStarts = new long[4];
+    private long[] lines = new long[1024];   // Reference offset << LENGTH_BITS | reference length
+    private long[] amounts = new long[1024]; // Settled amount in minor units
+    private int lineCount;
+    private long malformedLines;
+    private int[] table;                     // Line index + 1, or 0 for an empty slot
+    private int tableMask;
+    private final BitSet matched = new BitSet();
+    private final BitSet duplicates = new BitSet();
+    
+    private SettlementFileIndex(FileChannel channel) {
+        this.channel = channel;
+    }
+    
+    /**
+     * Maps, parses and indexes a settlement file.
+     *
+     * @param path the settlement file
+     * @return the index, which keeps the file mapped until closed
+     * @throws IOException if the file cannot be read or has a line longer than a mapping window
+     */
+    public static SettlementFileIndex load(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        SettlementFileIndex index = new SettlementFileIndex(channel);
+        try {
+            index.parse();
+            index.buildTable();
+            return index;
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Gets the number of well-formed lines in the file.
+     *
+     * @return the number of lines
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+    
+    /**
+     * Gets the number of lines that could not be parsed.
+     *
+     * @return the number of malformed lines
+     */
+    public long getMalformedLines() {
+        return malformedLines;
+    }
+    
+    /**
+     * Finds the first line with the given transaction reference.
+     *
+     * @param reference the transaction reference
+     * @return the line index, or -1 if the file has no such reference
+     */
+    public int find(String reference) {
+        for (int i = 0; i < reference.length(); i++) {
+            if (reference.charAt(i) > 0x7F) {
+                return find(reference.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < reference.length(); i++) {
+            hash = (hash ^ reference.charAt(i)) * FNV_PRIME;
+        }
+        for (int slot = slot(hash); table[slot] != 0; slot = (slot + 1) & tableMask) {
+            int line = table[slot] - 1;
+            if (referenceEquals(line, reference)) {
+                return line;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the settled amount of a line.
+     *
+     * @param line the line index
+     * @return the amount in minor units
+     */
+    public long getAmount(int line) {
+        return amounts[line];
+    }
+    
+    /**
+     * Decodes the transaction reference of a line. Allocates, so meant for reporting only.
+     *
+     * @param line the line index
+     * @return the transaction reference
+     */
+    public String getReference(int line) {
+        byte[] bytes = new byte[(int) (lines[line] & LENGTH_MASK)];
+        long offset = lines[line] >>> LENGTH_BITS;
+        int window = windowOf(offset);
+        windows.get(window).get((int) (offset - windowStarts[window]), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Marks a line as matched to one of our records.
+     *
+     * @param line the line index
+     */
+    public void markMatched(int line) {
+        matched.set(line);
+    }
+    
+    /**
+     * Checks whether a line has been matched to one of our records.
+     *
+     * @param line the line index
+     * @return true if the line has been matched
+     */
+    public boolean isMatched(int line) {
+        return matched.get(line);
+    }
+    
+    /**
+     * Applies an action to every line that repeats the reference of an earlier line.
+     *
+     * @param action the action, given the line index
+     */
+    public void forEachDuplicate(IntConsumer action) {
+        duplicates.stream().forEach(action);
+    }
+    
+    /**
+     * Applies an action to every line that is neither matched nor a duplicate.
+     *
+     * @param action the action, given the line index
+     */
+    public void forEachUnmatched(IntConsumer action) {
+        for (int line = 0; line < lineCount; line++) {
+            if (!matched.get(line) && !duplicates.get(line)) {
+                action.accept(line);
+            }
+        }
+    }
+    
+    /**
+     * Unmaps the file by releasing the mappings and closing the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        windows.clear();
+        channel.close();
+    }
+    
+    /**
+     * Maps the file window by window, each window starting on a line boundary, and records every line.
+     */
+    private void parse() throws IOException {
+        long size = channel.size();
+        long start = 0;
+        while (start < size) {
+            long length = Math.min(MAX_WINDOW_SIZE, size - start);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            boolean lastWindow = start + length == size;
+            
+            int consumed = parseWindow(window, start, lastWindow);
+            if (consumed == 0) {
+                throw new IOException("Settlement file has a line longer than " + MAX_WINDOW_SIZE + " bytes at offset " + start);
+            }
+            
+            if (windows.size() == windowStarts.length) {
+                windowStarts = Arrays.copyOf(windowStarts, windowStarts.length * 2);
+            }
+            windowStarts[windows.size()] = start;
+            windows.add(window);
+            start += consumed;
+        }
+    }
+    
+    /**
+     * Parses the complete lines of a window.
+     *
+     * @param window      the mapped window
+     * @param windowStart the file offset of the window
+     * @param lastWindow  whether the window ends at the end of the file
+     * @return the number of bytes consumed, up to the end of the last complete line
+     */
+    private int parseWindow(MappedByteBuffer window, long windowStart, boolean lastWindow) {
+        int limit = window.limit();
+        int position = 0;
+        while (position < limit) {
+            int end = position;
+            while (end < limit && window.get(end) != '\n') {
+                end++;
+            }
+            if (end == limit && !lastWindow) {
+                break;
+            }
+            
+            int lineEnd = end > position && window.get(end - 1) == '\r' ? end - 1 : end;
+            parseLine(window, windowStart, position, lineEnd);
+            position = end + 1;
+        }
+        return Math.min(position, limit);
+    }
+    
+    /**
+     * Parses one line into the reference position and amount arrays.
+     *
+     * @param window      the mapped window
+     * @param windowStart the file offset of the window
+     * @param from        the start of the line within the window
+     * @param to          the end of the line within the window, exclusive
+     */
+    private void parseLine(MappedByteBuffer window, long windowStart, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        
+        int comma = from;
+        while (comma < to && window.get(comma) != ',') {
+            comma++;
+        }
+        int amountEnd = comma + 1;
+        while (amountEnd < to && window.get(amountEnd) != ',') {
+            amountEnd++;
+        }
+        
+        int referenceStart = trimStart(window, from, comma);
+        int referenceEnd = trimEnd(window, referenceStart, comma);
+        long amount = comma < to ? parseMinorUnits(window, comma + 1, amountEnd) : Long.MIN_VALUE;
+        if (amount == Long.MIN_VALUE || referenceStart == referenceEnd || referenceEnd - referenceStart > LENGTH_MASK) {
+            // The first line is a header unless it parses
+            if (windowStart != 0 || from != 0) {
+                malformedLines++;
+            }
+            return;
+        }
+        
+        if (lineCount == lines.length) {
+            lines = Arrays.copyOf(lines, lineCount * 2);
+            amounts = Arrays.copyOf(amounts, lineCount * 2);
+        }
+        lines[lineCount] = (windowStart + referenceStart) << LENGTH_BITS | (referenceEnd - referenceStart);
+        amounts[lineCount] = amount;
+        lineCount++;
+    }
+    
+    /**
+     * Builds the open-addressing hash table over all lines, flagging repeated references as duplicates.
+     */
+    private void buildTable() {
+        int capacity = Integer.highestOneBit(Math.max(lineCount, 1) * 2 - 1) << 1;
+        table = new int[capacity];
+        tableMask = capacity - 1;
+        
+        for (int line = 0; line < lineCount; line++) {
+            long hash = FNV_OFFSET_BASIS;
+            long offset = lines[line] >>> LENGTH_BITS;
+            int length = (int) (lines[line] & LENGTH_MASK);
+            int window = windowOf(offset);
+            MappedByteBuffer buffer = windows.get(window);
+            int start = (int) (offset - windowStarts[window]);
+            for (int i = start; i < start + length; i++) {
+                hash = (hash ^ (buffer.get(i) & 0xFF)) * FNV_PRIME;
+            }
+            
+            int slot = slot(hash);
+            boolean duplicate = false;
+            while (table[slot] != 0) {
+                if (referenceEquals(table[slot] - 1, line)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & tableMask;
+            }
+            if (duplicate) {
+                duplicates.set(line);
+            } else {
+                table[slot] = line + 1;
+            }
+        }
+    }
+    
+    private int find(byte[] reference) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : reference) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        for (int slot = slot(hash); table[slot] != 0; slot = (slot + 1) & tableMask) {
+            int line = table[slot] - 1;
+            if (referenceEquals(line, reference)) {
+                return line;
+            }
+        }
+        return -1;
+    }
+    
+    private int slot(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & tableMask;
+    }
+    
+    private int windowOf(long offset) {
+        int index = Arrays.binarySearch(windowStarts, 0, windows.size(), offset);
+        return index >= 0 ? index : -index - 2;
+    }
+    
+    private boolean referenceEquals(int line, String reference) {
+        int length = (int) (lines[line] & LENGTH_MASK);
+        if (length != reference.length()) {
+            return false;
+        }
+        long offset = lines[line] >>> LENGTH_BITS;
+        int window = windowOf(offset);
+        MappedByteBuffer buffer = windows.get(window);
+        int start = (int) (offset - windowStarts[window]);
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != reference.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean referenceEquals(int line, byte[] reference) {
+        int length = (int) (lines[line] & LENGTH_MASK);
+        if (length != reference.length) {
+            return false;
+        }
+        long offset = lines[line] >>> LENGTH_BITS;
+        int window = windowOf(offset);
+        MappedByteBuffer buffer = windows.get(window);
+        int start = (int) (offset - windowStarts[window]);
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != reference[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean referenceEquals(int line, int otherLine) {
+        int length = (int) (lines[line] & LENGTH_MASK);
+        if (length != (int) (lines[otherLine] & LENGTH_MASK)) {
+            return false;
+        }
+        long offset = lines[line] >>> LENGTH_BITS;
+        long otherOffset = lines[otherLine] >>> LENGTH_BITS;
+        int window = windowOf(offset);
+        int otherWindow = windowOf(otherOffset);
+        MappedByteBuffer buffer = windows.get(window);
+        MappedByteBuffer otherBuffer = windows.get(otherWindow);
+        int start = (int) (offset - windowStarts[window]);
+        int otherStart = (int) (otherOffset - windowStarts[otherWindow]);
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != otherBuffer.get(otherStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Skips leading spaces and an opening quote.
+     */
+    private static int trimStart(MappedByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) == ' ' || buffer.get(from) == '"')) {
+            from++;
+        }
+        return from;
+    }
+    
+    /**
+     * Drops trailing spaces and a closing quote.
+     */
+    private static int trimEnd(MappedByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) == ' ' || buffer.get(to - 1) == '"')) {
+            to--;
+        }
+        return to;
+    }
+    
+    /**
+     * Parses a decimal amount with at most two decimals into minor units.
+     *
+     * @return the amount in minor units, or {@link Long#MIN_VALUE} if the field is not a valid amount
+     */
+    private static long parseMinorUnits(MappedByteBuffer buffer, int from, int to) {
+        from = trimStart(buffer, from, to);
+        to = trimEnd(buffer, from, to);
+        
+        boolean negative = from < to && buffer.get(from) == '-';
+        if (negative) {
+            from++;
+        }
+        
+        long units = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b >= '0' && b <= '9' && decimals < 2 && digits < 17) {
+                units = units * 10 + (b - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return Long.MIN_VALUE;
+            }
+        }
+        if (digits == 0) {
+            return Long.MIN_VALUE;
+        }
+        for (int scale = Math.max(decimals, 0); scale < 2; scale++) {
+            units *= 10;
+        }
+        return negative ? -units : units;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.model.ArchivedPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ArchivedPartition entity, with the partition management fragment.
+ */
+@Repository
+public interface ArchivedPartitionRepository extends JpaRepository<ArchivedPartition, Long>, PartitionManagementRepository {
+    
+    /**
+     * Finds the archive of one monthly partition.
+     *
+     * @param tableName      the partitioned table
+     * @param partitionMonth the first day of the month
+     * @return an Optional containing the archive if the month has been archived
+     */
+    Optional<ArchivedPartition> findByTableNameAndPartitionMonth(String tableName, LocalDate partitionMonth);
+    
+    /**
+     * Finds every archive of a table, oldest month first.
+     *
+     * @param tableName the partitioned table
+     * @return the archives
+     */
+    List<ArchivedPartition> findByTableNameOrderByPartitionMonth(String tableName);
+}
\ No newline at end of file
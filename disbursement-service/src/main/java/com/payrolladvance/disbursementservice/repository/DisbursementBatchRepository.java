@@ -0,0 +1,198 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.allocation.AllocationOrder;
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Custom repository fragment for set-based disbursement writes that bypass the persistence context.
+ */
+public interface DisbursementBatchRepository {
+    
+    /**
+     * Inserts PENDING disbursements in JDBC batches, skipping any whose advance request already has one.
+     *
+     * @param disbursements the disbursements to insert
+     * @return the advance request IDs whose disbursements were inserted
+     */
+    List<Long> insertAllIfAbsent(List<Disbursement> disbursements);
+    
+    /**
+     * Streams the COMPLETED disbursements of one employee partition that are due by the given time
+     * and still have an outstanding balance, in ID order, through a forward-only cursor.
+     * Must be called inside a transaction so the driver can fetch rows incrementally.
+     *
+     * @param dueBy            the exclusive upper bound on the expected repayment date
+     * @param partitionCount   the number of employee partitions
+     * @param partitionNumber  the partition to stream
+     * @param afterId          only disbursements with a greater ID are streamed
+     * @param fetchSize        the number of rows fetched per round trip
+     * @param action           the action applied to each due disbursement
+     */
+    void forEachDueForRepayment(LocalDateTime dueBy, int partitionCount, int partitionNumber, long afterId,
+                                int fetchSize, Consumer<DueRepayment> action);
+    
+    /**
+     * Streams the COMPLETED disbursements created in the given range that carry a transaction reference,
+     * through a forward-only cursor. Must be called inside a transaction so the driver can fetch rows incrementally.
+     *
+     * @param from      the inclusive lower bound on the creation time
+     * @param to        the exclusive upper bound on the creation time
+     * @param fetchSize the number of rows fetched per round trip
+     * @param action    the action applied to each disbursement
+     */
+    void forEachTransactionReference(LocalDateTime from, LocalDateTime to, int fetchSize,
+                                     Consumer<TransactionReference> action);
+    
+    /**
+     * Streams the disbursements selected by an export filter in ID order through a forward-only cursor,
+     * handing each row to the handler as it is fetched. Must be called inside a transaction so the driver
+     * can fetch rows incrementally.
+     *
+     * @param filter    the export filter
+     * @param fetchSize the number of rows fetched per round trip
+     * @param handler   the handler applied to each row
+     */
+    void forEachExportRow(ExportFilter filter, int fetchSize, RowCallbackHandler handler);
+    
+    /**
+     * Finds the COMPLETED disbursements of the given employees that still have an outstanding balance,
+     * grouped by employee and in allocation order within each employee, in a single query.
+     * The disbursements stay locked until the transaction ends so concurrent allocations cannot
+     * both claim the same balance.
+     *
+     * @param employeeIds the employee IDs
+     * @param order       the allocation order
+     * @return the open disbursements
+     */
+    List<OpenDisbursement> findOpenForAllocation(Collection<Long> employeeIds, AllocationOrder order);
+    
+    /**
+     * A disbursement due for repayment and the balance still owed on it.
+     *
+     * @param disbursementId    the disbursement ID
+     * @param employeeId        the employee ID
+     * @param outstandingAmount the amount not yet covered by non-failed repayments
+     */
+    record DueRepayment(Long disbursementId, Long employeeId, BigDecimal outstandingAmount) {
+    }
+    
+    /**
+     * An open disbursement that a repayment can be allocated to.
+     *
+     * @param disbursementId    the disbursement ID
+     * @param employeeId        the employee ID
+     * @param outstandingAmount the amount not yet covered by non-failed repayments
+     */
+    record OpenDisbursement(Long disbursementId, Long employeeId, BigDecimal outstandingAmount) {
+    }
+    
+    /**
+     * Claims PENDING disbursements for an individual gateway payout by moving them to PROCESSING in one statement.
+     * Disbursements another payout or a settlement batch has already claimed are left alone, and so are
+     * those paid through settlement batches, so each disbursement is paid at most once.
+     *
+     * @param ids                    the disbursement IDs
+     * @param excludedPaymentMethods the payment methods paid only through settlement batches
+     * @return the IDs of the disbursements claimed
+     */
+    List<Long> claimForPayout(Collection<Long> ids, Collection<String> excludedPaymentMethods);
+    
+    /**
+     * Fails the individual payouts that have been PROCESSING since before the given time in one statement,
+     * e.g. because the instance paying them stopped before recording the gateway's answer. Disbursements
+     * held by a settlement batch are left to the batch.
+     *
+     * @param claimedBefore the time before which a payout is considered abandoned
+     * @return the IDs of the disbursements failed
+     */
+    List<Long> failStalePayouts(LocalDateTime claimedBefore);
+    
+    /**
+     * Applies gateway status updates to the disbursements carrying the given transaction references in one
+     * statement, skipping any already in the target status. An update the gateway recorded before the
+     * current status is skipped, and one without a time cannot move a payment out of COMPLETED or FAILED.
+     *
+     * @param references  the transaction references
+     * @param statuses    the new status for each reference, in the same order
+     * @param occurredAts when the gateway recorded each status, in the same order; entries may be null
+     * @return the disbursements whose status changed
+     */
+    List<StatusChange> updateStatusesByReference(List<String> references, List<String> statuses,
+                                                 List<LocalDateTime> occurredAts);
+    
+    /**
+     * Groups the PENDING disbursements not yet in a settlement batch into one open settlement window
+     * per payment method and bank.
+     *
+     * @param paymentMethods the payment methods settled in batches
+     * @return the open windows
+     */
+    List<SettlementWindow> findOpenSettlementWindows(Collection<String> paymentMethods);
+    
+    /**
+     * Moves up to the given number of the oldest PENDING disbursements of one payment method and bank into a
+     * settlement batch in one statement, marking them PROCESSING and giving each a transaction reference
+     * derived from the batch reference. Rows locked by a concurrent batch are skipped.
+     *
+     * @param batchId        the settlement batch ID
+     * @param batchReference the settlement batch reference
+     * @param paymentMethod  the payment method
+     * @param bankCode       the bank code, or null for disbursements without one
+     * @param limit          the maximum number of disbursements to add
+     * @return the disbursements added to the batch
+     */
+    List<BatchedDisbursement> assignToSettlementBatch(long batchId, String batchReference, String paymentMethod,
+                                                      String bankCode, int limit);
+    
+    /**
+     * Moves every PROCESSING disbursement of a settlement batch to the given status in one statement.
+     *
+     * @param batchId the settlement batch ID
+     * @param status  the new status
+     * @return the IDs of the disbursements updated
+     */
+    List<Long> updateSettlementBatchStatus(long batchId, String status);
+    
+    /**
+     * Fails every PROCESSING disbursement of a rejected settlement batch in one statement and releases it from
+     * the batch, clearing the batch's transaction reference, so a retry can place it in a new batch.
+     *
+     * @param batchId the settlement batch ID
+     * @return the IDs of the disbursements failed
+     */
+    List<Long> failSettlementBatch(long batchId);
+    
+    /**
+     * The PENDING disbursements of one payment method and bank waiting for a settlement batch.
+     *
+     * @param paymentMethod   the payment method
+     * @param bankCode        the bank code, or null for disbursements without one
+     * @param itemCount       the number of disbursements waiting
+     * @param totalAmount     the total amount waiting
+     * @param oldestCreatedAt when the oldest waiting disbursement was created
+     */
+    record SettlementWindow(String paymentMethod, String bankCode, long itemCount, BigDecimal totalAmount,
+                            LocalDateTime oldestCreatedAt) {
+    }
+    
+    /**
+     * A disbursement added to a settlement batch.
+     *
+     * @param disbursementId       the disbursement ID
+     * @param employeeId           the employee ID
+     * @param employerId           the employer ID
+     * @param amount               the amount paid out
+     * @param transactionReference the transaction reference of the disbursement within the batch
+     */
+    record BatchedDisbursement(Long disbursementId, Long employeeId, Long employerId, BigDecimal amount,
+                               String transactionReference) {
+    }
+}
\ No newline at end of file
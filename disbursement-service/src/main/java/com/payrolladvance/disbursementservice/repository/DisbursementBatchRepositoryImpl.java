@@ -0,0 +1,343 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.allocation.AllocationOrder;
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link DisbursementBatchRepository}.
+ */
+@RequiredArgsConstructor
+public class DisbursementBatchRepositoryImpl implements DisbursementBatchRepository {
+    
+    private static final String INSERT_IF_ABSENT_SQL =
+            "WITH claimed AS (" +
+            "  INSERT INTO disbursement_advance_requests (advance_request_id) VALUES (?) " +
+            "  ON CONFLICT DO NOTHING RETURNING advance_request_id) " +
+            "INSERT INTO disbursements (advance_request_id, employee_id, employer_id, amount, status, payment_method, " +
+            "bank_code, expected_repayment_date, fee_amount, total_repayment_amount, retry_count, created_at, updated_at) " +
+            "SELECT advance_request_id, CAST(? AS bigint), CAST(? AS bigint), CAST(? AS numeric), 'PENDING', " +
+            "CAST(? AS varchar), CAST(? AS varchar), CAST(? AS timestamp), CAST(? AS numeric), CAST(? AS numeric), 0, " +
+            "now(), now() " +
+            "FROM claimed";
+    
+    private static final String DUE_FOR_REPAYMENT_SQL =
+            "SELECT id, employee_id, outstanding FROM (" +
+            "  SELECT d.id, d.employee_id, d.total_repayment_amount - (" +
+            "    SELECT COALESCE(SUM(r.amount), 0) FROM repayments r " +
+            "    WHERE r.disbursement_id = d.id AND r.status <> 'FAILED') AS outstanding " +
+            "  FROM disbursements d " +
+            "  WHERE d.status = 'COMPLETED' AND d.expected_repayment_date < ? AND d.id > ? " +
+            "  AND mod(d.employee_id, ?) = ?" +
+            ") due WHERE outstanding > 0 ORDER BY id";
+    
+    private static final String TRANSACTION_REFERENCE_SQL =
+            "SELECT id, transaction_reference, amount FROM disbursements " +
+            "WHERE status = 'COMPLETED' AND transaction_reference IS NOT NULL AND created_at >= ? AND created_at < ?";
+    
+    private static final String EXPORT_SQL =
+            "SELECT d.id, d.advance_request_id, d.employee_id, d.employer_id, d.amount, d.fee_amount, " +
+            "d.total_repayment_amount, d.status, d.payment_method, d.transaction_reference, " +
+            "d.expected_repayment_date, d.retry_count, d.created_at, d.updated_at " +
+            "FROM disbursements d WHERE 1 = 1";
+    
+    private static final String OPEN_FOR_ALLOCATION_SQL =
+            "SELECT d.id, d.employee_id, d.total_repayment_amount - (" +
+            "  SELECT COALESCE(SUM(r.amount), 0) FROM repayments r " +
+            "  WHERE r.disbursement_id = d.id AND r.status <> 'FAILED') AS outstanding " +
+            "FROM disbursements d WHERE d.status = 'COMPLETED' AND d.employee_id = ANY (?) " +
+            "ORDER BY d.employee_id, %s FOR UPDATE OF d";
+    
+    // Joining the table to itself exposes each row's status from before the update to RETURNING
+    private static final String UPDATE_STATUS_BY_REFERENCE_SQL =
+            "UPDATE disbursements d SET status = i.status, status_occurred_at = COALESCE(i.occurred_at, d.status_occurred_at), " +
+            "updated_at = now() " +
+            "FROM unnest(CAST(? AS varchar[]), CAST(? AS varchar[]), CAST(? AS timestamp[])) " +
+            "AS i(reference, status, occurred_at), disbursements prior " +
+            "WHERE d.transaction_reference = i.reference AND d.status <> i.status " +
+            "AND CASE WHEN i.occurred_at IS NULL THEN d.status NOT IN ('COMPLETED', 'FAILED') " +
+            "  ELSE d.status_occurred_at IS NULL OR d.status_occurred_at <= i.occurred_at END " +
+            "AND prior.id = d.id AND prior.created_at = d.created_at " +
+            "RETURNING d.id, d.transaction_reference, prior.status AS old_status";
+    
+    private static final String CLAIM_FOR_PAYOUT_SQL =
+            "UPDATE disbursements SET status = 'PROCESSING', updated_at = now() " +
+            "WHERE id = ANY (?) AND status = 'PENDING' AND settlement_batch_id IS NULL " +
+            "AND (payment_method IS NULL OR NOT (payment_method = ANY (?))) RETURNING id";
+    
+    private static final String FAIL_STALE_PAYOUTS_SQL =
+            "UPDATE disbursements SET status = 'FAILED', updated_at = now() " +
+            "WHERE status = 'PROCESSING' AND settlement_batch_id IS NULL AND updated_at < ? RETURNING id";
+    
+    private static final String OPEN_SETTLEMENT_WINDOWS_SQL =
+            "SELECT payment_method, bank_code, COUNT(*) AS item_count, SUM(amount) AS total_amount, " +
+            "MIN(created_at) AS oldest_created_at FROM disbursements " +
+            "WHERE status = 'PENDING' AND settlement_batch_id IS NULL AND payment_method = ANY (?) " +
+            "GROUP BY payment_method, bank_code";
+    
+    private static final String ASSIGN_TO_SETTLEMENT_BATCH_SQL =
+            "UPDATE disbursements d SET status = 'PROCESSING', settlement_batch_id = ?, " +
+            "transaction_reference = CAST(? AS varchar) || '-' || d.id, updated_at = now() " +
+            "FROM (SELECT id, created_at FROM disbursements " +
+            "  WHERE status = 'PENDING' AND settlement_batch_id IS NULL AND payment_method = ? " +
+            "  AND bank_code IS NOT DISTINCT FROM CAST(? AS varchar) " +
+            "  ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED) picked " +
+            "WHERE d.id = picked.id AND d.created_at = picked.created_at " +
+            "RETURNING d.id, d.employee_id, d.employer_id, d.amount, d.transaction_reference";
+    
+    private static final String UPDATE_SETTLEMENT_BATCH_STATUS_SQL =
+            "UPDATE disbursements SET status = ?, updated_at = now() " +
+            "WHERE settlement_batch_id = ? AND status = 'PROCESSING' RETURNING id";
+    
+    private static final String FAIL_SETTLEMENT_BATCH_SQL =
+            "UPDATE disbursements SET status = 'FAILED', settlement_batch_id = NULL, transaction_reference = NULL, " +
+            "updated_at = now() WHERE settlement_batch_id = ? AND status = 'PROCESSING' RETURNING id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> insertAllIfAbsent(List<Disbursement> disbursements) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, disbursements, disbursements.size(),
+                (ps, disbursement) -> {
+                    ps.setLong(1, disbursement.getAdvanceRequestId());
+                    ps.setLong(2, disbursement.getEmployeeId());
+                    ps.setObject(3, disbursement.getEmployerId(), Types.BIGINT);
+                    ps.setBigDecimal(4, disbursement.getAmount());
+                    ps.setString(5, disbursement.getPaymentMethod());
+                    ps.setString(6, disbursement.getBankCode());
+                    ps.setTimestamp(7, disbursement.getExpectedRepaymentDate() != null
+                            ? Timestamp.valueOf(disbursement.getExpectedRepaymentDate()) : null);
+                    ps.setBigDecimal(8, disbursement.getFeeAmount());
+                    ps.setBigDecimal(9, disbursement.getTotalRepaymentAmount());
+                });
+        
+        // A skipped duplicate claims nothing and so inserts 0 rows
+        List<Long> inserted = new ArrayList<>(disbursements.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    inserted.add(disbursements.get(index).getAdvanceRequestId());
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachDueForRepayment(LocalDateTime dueBy, int partitionCount, int partitionNumber, long afterId,
+                                       int fetchSize, Consumer<DueRepayment> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DUE_FOR_REPAYMENT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(dueBy));
+            ps.setLong(2, afterId);
+            ps.setInt(3, partitionCount);
+            ps.setInt(4, partitionNumber);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new DueRepayment(
+                rs.getLong("id"),
+                rs.getLong("employee_id"),
+                rs.getBigDecimal("outstanding"))));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachTransactionReference(LocalDateTime from, LocalDateTime to, int fetchSize,
+                                            Consumer<TransactionReference> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(TRANSACTION_REFERENCE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new TransactionReference(
+                rs.getLong("id"),
+                rs.getString("transaction_reference"),
+                rs.getBigDecimal("amount"))));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachExportRow(ExportFilter filter, int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> params = new ArrayList<>();
+        if (filter.getFromDate() != null) {
+            sql.append(" AND d.created_at >= ?");
+            params.add(Timestamp.valueOf(filter.getFromDate().atStartOfDay()));
+        }
+        if (filter.getToDate() != null) {
+            sql.append(" AND d.created_at < ?");
+            params.add(Timestamp.valueOf(filter.getToDate().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND d.status = ?");
+            params.add(filter.getStatus());
+        }
+        if (filter.getEmployerId() != null) {
+            sql.append(" AND d.employer_id = ?");
+            params.add(filter.getEmployerId());
+        }
+        sql.append(" ORDER BY d.id");
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<OpenDisbursement> findOpenForAllocation(Collection<Long> employeeIds, AllocationOrder order) {
+        String orderBy = switch (order) {
+            case OLDEST_FIRST -> "d.created_at, d.id";
+            case HIGHEST_FEE_FIRST -> "COALESCE(d.fee_amount, 0) DESC, d.created_at, d.id";
+        };
+        
+        List<OpenDisbursement> open = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(OPEN_FOR_ALLOCATION_SQL.formatted(orderBy));
+            ps.setArray(1, connection.createArrayOf("bigint", employeeIds.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            // Fully repaid disbursements are locked too, but have nothing to allocate to
+            BigDecimal outstanding = rs.getBigDecimal("outstanding");
+            if (outstanding.signum() > 0) {
+                open.add(new OpenDisbursement(rs.getLong("id"), rs.getLong("employee_id"), outstanding));
+            }
+        });
+        return open;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatusChange> updateStatusesByReference(List<String> references, List<String> statuses,
+                                                        List<LocalDateTime> occurredAts) {
+        if (references.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_STATUS_BY_REFERENCE_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", references.toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", statuses.toArray()));
+            ps.setArray(3, connection.createArrayOf("timestamp", occurredAts.stream()
+                    .map(occurredAt -> occurredAt != null ? Timestamp.valueOf(occurredAt) : null)
+                    .toArray()));
+            return ps;
+        }, (rs, rowNum) -> new StatusChange(
+                rs.getLong("id"),
+                rs.getString("transaction_reference"),
+                rs.getString("old_status")));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> claimForPayout(Collection<Long> ids, Collection<String> excludedPaymentMethods) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLAIM_FOR_PAYOUT_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", excludedPaymentMethods.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong("id"));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> failStalePayouts(LocalDateTime claimedBefore) {
+        return jdbcTemplate.queryForList(FAIL_STALE_PAYOUTS_SQL, Long.class, Timestamp.valueOf(claimedBefore));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<SettlementWindow> findOpenSettlementWindows(Collection<String> paymentMethods) {
+        if (paymentMethods.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(OPEN_SETTLEMENT_WINDOWS_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", paymentMethods.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new SettlementWindow(
+                rs.getString("payment_method"),
+                rs.getString("bank_code"),
+                rs.getLong("item_count"),
+                rs.getBigDecimal("total_amount"),
+                rs.getTimestamp("oldest_created_at").toLocalDateTime()));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchedDisbursement> assignToSettlementBatch(long batchId, String batchReference, String paymentMethod,
+                                                             String bankCode, int limit) {
+        return jdbcTemplate.query(ASSIGN_TO_SETTLEMENT_BATCH_SQL, (rs, rowNum) -> new BatchedDisbursement(
+                        rs.getLong("id"),
+                        rs.getLong("employee_id"),
+                        rs.getObject("employer_id", Long.class),
+                        rs.getBigDecimal("amount"),
+                        rs.getString("transaction_reference")),
+                batchId, batchReference, paymentMethod, bankCode, limit);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> updateSettlementBatchStatus(long batchId, String status) {
+        return jdbcTemplate.queryForList(UPDATE_SETTLEMENT_BATCH_STATUS_SQL, Long.class, status, batchId);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> failSettlementBatch(long batchId) {
+        return jdbcTemplate.queryForList(FAIL_SETTLEMENT_BATCH_SQL, Long.class, batchId);
+    }
+}
\ No newline at end of file
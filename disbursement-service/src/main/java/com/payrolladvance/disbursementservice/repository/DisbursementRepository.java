@@ -1,9 +1,17 @@
 package com.payrolladvance.disbursementservice.repository;
 
 import com.payrolladvance.disbursementservice.model.Disbursement;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +19,7 @@ import java.util.Optional;
  * Repository interface for Disbursement entity.
  */
 @Repository
-public interface DisbursementRepository extends JpaRepository<Disbursement, Long> {
+public interface DisbursementRepository extends JpaRepository<Disbursement, Long>, DisbursementBatchRepository {
     
     /**
      * Finds a disbursement by advance request ID.
@@ -21,6 +29,34 @@ public interface DisbursementRepository extends JpaRepository<Disbursement, Long
      */
     Optional<Disbursement> findByAdvanceRequestId(Long advanceRequestId);
     
+    /**
+     * Finds a disbursement by ID and locks its row until the end of the transaction.
+     *
+     * @param id the disbursement ID
+     * @return an Optional containing the disbursement if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Disbursement d WHERE d.id = :id")
+    Optional<Disbursement> findByIdForUpdate(@Param("id") Long id);
+    
+    /**
+     * Finds disbursements by ID and locks their rows until the end of the transaction.
+     *
+     * @param ids the disbursement IDs
+     * @return the disbursements found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Disbursement d WHERE d.id IN :ids")
+    List<Disbursement> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Finds the disbursements for several advance requests.
+     *
+     * @param advanceRequestIds the advance request IDs
+     * @return a list of disbursements
+     */
+    List<Disbursement> findByAdvanceRequestIdIn(Collection<Long> advanceRequestIds);
+    
     /**
      * Finds all disbursements for a specific employee.
      *
@@ -36,4 +72,106 @@ public interface DisbursementRepository extends JpaRepository<Disbursement, Long
      * @return a list of disbursements
      */
     List<Disbursement> findByStatusOrderByCreatedAtDesc(String status);
+    
+    /**
+     * Inserts a PENDING disbursement unless one already exists for the advance request.
+     * The advance request is claimed in the same statement, so concurrent inserts cannot both succeed.
+     *
+     * @param advanceRequestId      the advance request ID
+     * @param employeeId            the employee ID
+     * @param employerId            the employer ID
+     * @param amount                the amount
+     * @param paymentMethod         the payment method
+     * @param bankCode              the receiving bank, if known
+     * @param expectedRepaymentDate the expected repayment date
+     * @param feeAmount             the fee amount
+     * @param totalRepaymentAmount  the total repayment amount
+     * @return 1 if the disbursement was inserted, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = "WITH claimed AS (" +
+                   "  INSERT INTO disbursement_advance_requests (advance_request_id) VALUES (:advanceRequestId) " +
+                   "  ON CONFLICT DO NOTHING RETURNING advance_request_id) " +
+                   "INSERT INTO disbursements (advance_request_id, employee_id, employer_id, amount, status, payment_method, " +
+                   "bank_code, expected_repayment_date, fee_amount, total_repayment_amount, retry_count, created_at, " +
+                   "updated_at) " +
+                   "SELECT advance_request_id, CAST(:employeeId AS bigint), CAST(:employerId AS bigint), " +
+                   "CAST(:amount AS numeric), 'PENDING', CAST(:paymentMethod AS varchar), CAST(:bankCode AS varchar), " +
+                   "CAST(:expectedRepaymentDate AS timestamp), CAST(:feeAmount AS numeric), " +
+                   "CAST(:totalRepaymentAmount AS numeric), 0, now(), now() FROM claimed",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("advanceRequestId") Long advanceRequestId,
+                       @Param("employeeId") Long employeeId,
+                       @Param("employerId") Long employerId,
+                       @Param("amount") BigDecimal amount,
+                       @Param("paymentMethod") String paymentMethod,
+                       @Param("bankCode") String bankCode,
+                       @Param("expectedRepaymentDate") LocalDateTime expectedRepaymentDate,
+                       @Param("feeAmount") BigDecimal feeAmount,
+                       @Param("totalRepaymentAmount") BigDecimal totalRepaymentAmount);
+    
+    /**
+     * Claims an advance request for a disbursement. Disbursements are partitioned by creation month,
+     * so uniqueness of the advance request is enforced by this claim rather than by the disbursements table.
+     *
+     * @param advanceRequestId the advance request ID
+     * @return 1 if the advance request was claimed, 0 if it already has a disbursement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO disbursement_advance_requests (advance_request_id) VALUES (:advanceRequestId) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int claimAdvanceRequest(@Param("advanceRequestId") Long advanceRequestId);
+    
+    /**
+     * Finds all disbursements with a specific status that are waiting for a retry attempt.
+     *
+     * @param status the status to filter by
+     * @return the pending retries, soonest first
+     */
+    @Query("SELECT d.id AS id, d.nextAttemptAt AS nextAttemptAt FROM Disbursement d " +
+           "WHERE d.status = :status AND d.nextAttemptAt IS NOT NULL ORDER BY d.nextAttemptAt")
+    List<PendingRetry> findPendingRetries(@Param("status") String status);
+    
+    /**
+     * Finds the PENDING disbursements paid out individually, i.e. not held by a settlement batch
+     * and not paid through one.
+     *
+     * @param excludedPaymentMethods the payment methods paid only through settlement batches
+     * @return the disbursement IDs, oldest first
+     */
+    @Query("SELECT d.id FROM Disbursement d WHERE d.status = 'PENDING' AND d.settlementBatchId IS NULL " +
+           "AND (d.paymentMethod IS NULL OR d.paymentMethod NOT IN :excludedPaymentMethods) ORDER BY d.id")
+    List<Long> findPendingPayoutIds(@Param("excludedPaymentMethods") Collection<String> excludedPaymentMethods);
+    
+    /**
+     * Counts disbursements per combination of status, payment method and employer.
+     *
+     * @return the counts
+     */
+    @Query("SELECT d.status AS status, d.paymentMethod AS paymentMethod, d.employerId AS employerId, " +
+           "COUNT(d) AS count FROM Disbursement d GROUP BY d.status, d.paymentMethod, d.employerId")
+    List<StatusGroupCount> countByStatusGroups();
+    
+    /**
+     * Projection of a disbursement awaiting a retry attempt.
+     */
+    interface PendingRetry {
+        Long getId();
+        
+        LocalDateTime getNextAttemptAt();
+    }
+    
+    /**
+     * Projection of the number of disbursements sharing a status, payment method and employer.
+     */
+    interface StatusGroupCount {
+        String getStatus();
+        
+        String getPaymentMethod();
+        
+        Long getEmployerId();
+        
+        long getCount();
+    }
 }
\ No newline at end of file
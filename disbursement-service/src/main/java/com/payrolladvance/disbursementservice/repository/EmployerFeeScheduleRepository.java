@@ -0,0 +1,12 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.model.EmployerFeeSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for EmployerFeeSchedule entity.
+ */
+@Repository
+public interface EmployerFeeScheduleRepository extends JpaRepository<EmployerFeeSchedule, Long> {
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for LedgerEntry entity.
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long>, LedgerEntryScanRepository {
+    
+    /**
+     * Finds the entries of a disbursement's ledger after a given sequence number.
+     *
+     * @param disbursementId the disbursement ID
+     * @param sequenceNumber the sequence number to start after
+     * @return the entries in sequence order
+     */
+    List<LedgerEntry> findByDisbursementIdAndSequenceNumberGreaterThanOrderBySequenceNumber(
+            Long disbursementId, long sequenceNumber);
+    
+    /**
+     * Counts the entries of a given type on a disbursement's ledger.
+     *
+     * @param disbursementId the disbursement ID
+     * @param entryType      the entry type
+     * @return the number of such entries
+     */
+    long countByDisbursementIdAndEntryType(Long disbursementId, String entryType);
+}
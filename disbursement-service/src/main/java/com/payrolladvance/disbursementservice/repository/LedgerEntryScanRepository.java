@@ -0,0 +1,33 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * Custom repository fragment for full scans of the disbursement ledger.
+ */
+public interface LedgerEntryScanRepository {
+    
+    /**
+     * Streams the ledger entries of one disbursement partition, ordered by disbursement and sequence number,
+     * each with the snapshot balance recorded at that entry if there is one.
+     * Must be called inside a transaction so the driver can fetch rows incrementally.
+     *
+     * @param partitionCount  the number of disbursement partitions
+     * @param partitionNumber the partition to stream
+     * @param fetchSize       the number of rows fetched per round trip
+     * @param action          the action applied to each entry
+     */
+    void forEachEntry(int partitionCount, int partitionNumber, int fetchSize, Consumer<ScannedEntry> action);
+    
+    /**
+     * A ledger entry as seen by a scan.
+     *
+     * @param disbursementId  the disbursement ID
+     * @param sequenceNumber  the entry's sequence number
+     * @param amount          the entry's signed amount
+     * @param snapshotBalance the snapshot balance at this entry, or null if no snapshot was taken here
+     */
+    record ScannedEntry(Long disbursementId, long sequenceNumber, BigDecimal amount, BigDecimal snapshotBalance) {
+    }
+}
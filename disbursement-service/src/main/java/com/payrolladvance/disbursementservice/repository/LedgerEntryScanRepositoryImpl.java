@@ -0,0 +1,45 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link LedgerEntryScanRepository}.
+ */
+@RequiredArgsConstructor
+public class LedgerEntryScanRepositoryImpl implements LedgerEntryScanRepository {
+    
+    private static final String SCAN_SQL =
+            "SELECT e.disbursement_id, e.sequence_number, e.amount, s.balance AS snapshot_balance " +
+            "FROM disbursement_ledger_entries e " +
+            "LEFT JOIN disbursement_ledger_snapshots s " +
+            "ON s.disbursement_id = e.disbursement_id AND s.sequence_number = e.sequence_number " +
+            "WHERE mod(e.disbursement_id, ?) = ? " +
+            "ORDER BY e.disbursement_id, e.sequence_number";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachEntry(int partitionCount, int partitionNumber, int fetchSize, Consumer<ScannedEntry> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, partitionCount);
+            ps.setInt(2, partitionNumber);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new ScannedEntry(
+                rs.getLong("disbursement_id"),
+                rs.getLong("sequence_number"),
+                rs.getBigDecimal("amount"),
+                rs.getBigDecimal("snapshot_balance"))));
+    }
+}
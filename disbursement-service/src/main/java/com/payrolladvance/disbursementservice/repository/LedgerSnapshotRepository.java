@@ -0,0 +1,22 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.model.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for LedgerSnapshot entity.
+ */
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+    
+    /**
+     * Finds the most recent snapshot of a disbursement's ledger.
+     *
+     * @param disbursementId the disbursement ID
+     * @return an Optional containing the latest snapshot if one exists
+     */
+    Optional<LedgerSnapshot> findTopByDisbursementIdOrderBySequenceNumberDesc(Long disbursementId);
+}
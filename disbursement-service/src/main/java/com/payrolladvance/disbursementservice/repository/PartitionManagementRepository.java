@@ -0,0 +1,71 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Custom repository fragment managing the monthly partitions of the disbursements and repayments tables.
+ * Table names are checked against the partitioned tables before being used in DDL.
+ */
+public interface PartitionManagementRepository {
+    
+    /**
+     * Lists the monthly partitions currently attached to a table, oldest first. The default partition is not included.
+     *
+     * @param table the partitioned table
+     * @return the months that have a partition
+     */
+    List<YearMonth> findMonthlyPartitions(String table);
+    
+    /**
+     * Creates the partition of a table for a month unless it already exists. Rows of that month already in
+     * the default partition are moved into the new partition. Must be called inside a transaction.
+     *
+     * @param table the partitioned table
+     * @param month the month
+     * @return true if the partition was created
+     */
+    boolean createMonthlyPartition(String table, YearMonth month);
+    
+    /**
+     * Checks whether a monthly partition still holds rows that may change or are still counted, and so must
+     * not be archived. Repayments stay until the disbursements they were collected against are archived.
+     *
+     * @param table the partitioned table
+     * @param month the month
+     * @return true if the partition has open rows
+     */
+    boolean hasOpenRows(String table, YearMonth month);
+    
+    /**
+     * Streams every row of a monthly partition in ID order through a forward-only cursor.
+     * Must be called inside a transaction so the driver can fetch rows incrementally.
+     *
+     * @param table     the partitioned table
+     * @param month     the month
+     * @param fetchSize the number of rows fetched per round trip
+     * @param handler   the handler applied to each row
+     */
+    void forEachPartitionRow(String table, YearMonth month, int fetchSize, RowCallbackHandler handler);
+    
+    /**
+     * Detaches a monthly partition from its table and drops it.
+     *
+     * @param table the partitioned table
+     * @param month the month
+     */
+    void dropMonthlyPartition(String table, YearMonth month);
+    
+    /**
+     * Builds the name of a monthly partition.
+     *
+     * @param table the partitioned table
+     * @param month the month
+     * @return the partition name
+     */
+    static String partitionName(String table, YearMonth month) {
+        return String.format("%s_p%04d_%02d", table, month.getYear(), month.getMonthValue());
+    }
+}
\ No newline at end of file
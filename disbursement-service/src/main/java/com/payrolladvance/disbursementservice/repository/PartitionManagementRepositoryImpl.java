@@ -0,0 +1,131 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC implementation of {@link PartitionManagementRepository} for PostgreSQL declarative partitioning.
+ */
+@RequiredArgsConstructor
+public class PartitionManagementRepositoryImpl implements PartitionManagementRepository {
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile(".*_p(\\d{4})_(\\d{2})");
+    
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace ORDER BY c.relname";
+    
+    // Rows a later transition or repayment run may still touch. Repayments count towards the outstanding
+    // balance of their disbursement for as long as it is on the table, so they stay until it is archived.
+    private static final Map<String, String> OPEN_ROWS_SQL = Map.of(
+            "disbursements",
+            "SELECT EXISTS (SELECT 1 FROM %s d WHERE d.status IN ('PENDING', 'PROCESSING') " +
+            "OR (d.status = 'FAILED' AND d.next_attempt_at IS NOT NULL) " +
+            "OR (d.status = 'COMPLETED' AND d.total_repayment_amount > (" +
+            "  SELECT COALESCE(SUM(r.amount), 0) FROM repayments r " +
+            "  WHERE r.disbursement_id = d.id AND r.status <> 'FAILED')))",
+            "repayments",
+            "SELECT EXISTS (SELECT 1 FROM %s r WHERE r.status IN ('PENDING', 'PROCESSING') " +
+            "OR EXISTS (SELECT 1 FROM disbursements d WHERE d.id = r.disbursement_id))");
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<YearMonth> findMonthlyPartitions(String table) {
+        checkTable(table);
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                .toList();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean createMonthlyPartition(String table, YearMonth month) {
+        checkTable(table);
+        String partition = PartitionManagementRepository.partitionName(table, month);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        if (Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+        String defaultPartition = table + "_default";
+        String monthRows = String.format("created_at >= '%s' AND created_at < '%s'",
+                month.atDay(1), month.plusMonths(1).atDay(1));
+        String createPartition = String.format("CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partition, table, month.atDay(1), month.plusMonths(1).atDay(1));
+        
+        Boolean defaultHasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + defaultPartition + " WHERE " + monthRows + ")", Boolean.class);
+        if (!Boolean.TRUE.equals(defaultHasRows)) {
+            jdbcTemplate.execute(createPartition);
+            return true;
+        }
+        
+        // The new partition cannot be created while the default partition holds rows of its month,
+        // so the default partition is set aside while they are moved across
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + defaultPartition);
+        jdbcTemplate.execute(createPartition);
+        jdbcTemplate.execute("INSERT INTO " + partition + " SELECT * FROM " + defaultPartition + " WHERE " + monthRows);
+        jdbcTemplate.execute("DELETE FROM " + defaultPartition + " WHERE " + monthRows);
+        jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + defaultPartition + " DEFAULT");
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasOpenRows(String table, YearMonth month) {
+        checkTable(table);
+        String sql = String.format(OPEN_ROWS_SQL.get(table), PartitionManagementRepository.partitionName(table, month));
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachPartitionRow(String table, YearMonth month, int fetchSize, RowCallbackHandler handler) {
+        checkTable(table);
+        String sql = "SELECT * FROM " + PartitionManagementRepository.partitionName(table, month) + " ORDER BY id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, handler);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void dropMonthlyPartition(String table, YearMonth month) {
+        checkTable(table);
+        String partition = PartitionManagementRepository.partitionName(table, month);
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+    }
+    
+    private static void checkTable(String table) {
+        if (!OPEN_ROWS_SQL.containsKey(table)) {
+            throw new IllegalArgumentException("Not a partitioned table: " + table);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Custom repository fragment for set-based repayment writes that bypass the persistence context.
+ */
+public interface RepaymentBatchRepository {
+    
+    /**
+     * Inserts repayments in one JDBC batch and assigns their generated IDs.
+     *
+     * @param repayments the repayments to insert
+     */
+    void insertAll(List<Repayment> repayments);
+    
+    /**
+     * Streams the COMPLETED repayments created in the given range that carry a transaction reference,
+     * through a forward-only cursor. Must be called inside a transaction so the driver can fetch rows incrementally.
+     *
+     * @param from      the inclusive lower bound on the creation time
+     * @param to        the exclusive upper bound on the creation time
+     * @param fetchSize the number of rows fetched per round trip
+     * @param action    the action applied to each repayment
+     */
+    void forEachTransactionReference(LocalDateTime from, LocalDateTime to, int fetchSize,
+                                     Consumer<TransactionReference> action);
+    
+    /**
+     * Streams the repayments selected by an export filter in ID order through a forward-only cursor,
+     * handing each row to the handler as it is fetched. Must be called inside a transaction so the driver
+     * can fetch rows incrementally.
+     *
+     * @param filter    the export filter
+     * @param fetchSize the number of rows fetched per round trip
+     * @param handler   the handler applied to each row
+     */
+    void forEachExportRow(ExportFilter filter, int fetchSize, RowCallbackHandler handler);
+    
+    /**
+     * Applies gateway status updates to the repayments carrying the given transaction references in one
+     * statement, skipping any already in the target status. An update the gateway recorded before the
+     * current status is skipped, and one without a time cannot move a payment out of COMPLETED or FAILED.
+     *
+     * @param references  the transaction references
+     * @param statuses    the new status for each reference, in the same order
+     * @param occurredAts when the gateway recorded each status, in the same order; entries may be null
+     * @return the repayments whose status changed
+     */
+    List<StatusChange> updateStatusesByReference(List<String> references, List<String> statuses,
+                                                 List<LocalDateTime> occurredAts);
+}
\ No newline at end of file
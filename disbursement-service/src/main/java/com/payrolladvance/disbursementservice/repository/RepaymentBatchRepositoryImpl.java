@@ -0,0 +1,161 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link RepaymentBatchRepository}.
+ */
+@RequiredArgsConstructor
+public class RepaymentBatchRepositoryImpl implements RepaymentBatchRepository {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO repayments (disbursement_id, employee_id, amount, status, payment_method, " +
+            "payment_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, now(), now())";
+    
+    private static final String TRANSACTION_REFERENCE_SQL =
+            "SELECT id, transaction_reference, amount FROM repayments " +
+            "WHERE status = 'COMPLETED' AND transaction_reference IS NOT NULL AND created_at >= ? AND created_at < ?";
+    
+    private static final String EXPORT_SQL =
+            "SELECT r.id, r.disbursement_id, r.employee_id, d.employer_id, r.amount, r.status, r.payment_method, " +
+            "r.transaction_reference, r.payment_date, r.created_at, r.updated_at " +
+            "FROM repayments r JOIN disbursements d ON d.id = r.disbursement_id WHERE 1 = 1";
+    
+    // Joining the table to itself exposes each row's status from before the update to RETURNING
+    private static final String UPDATE_STATUS_BY_REFERENCE_SQL =
+            "UPDATE repayments r SET status = i.status, status_occurred_at = COALESCE(i.occurred_at, r.status_occurred_at), " +
+            "updated_at = now() " +
+            "FROM unnest(CAST(? AS varchar[]), CAST(? AS varchar[]), CAST(? AS timestamp[])) " +
+            "AS i(reference, status, occurred_at), repayments prior " +
+            "WHERE r.transaction_reference = i.reference AND r.status <> i.status " +
+            "AND CASE WHEN i.occurred_at IS NULL THEN r.status NOT IN ('COMPLETED', 'FAILED') " +
+            "  ELSE r.status_occurred_at IS NULL OR r.status_occurred_at <= i.occurred_at END " +
+            "AND prior.id = r.id AND prior.created_at = r.created_at " +
+            "RETURNING r.id, r.transaction_reference, prior.status AS old_status";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insertAll(List<Repayment> repayments) {
+        if (repayments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] {"id"})) {
+                for (Repayment repayment : repayments) {
+                    ps.setLong(1, repayment.getDisbursementId());
+                    ps.setLong(2, repayment.getEmployeeId());
+                    ps.setBigDecimal(3, repayment.getAmount());
+                    ps.setString(4, repayment.getStatus());
+                    ps.setString(5, repayment.getPaymentMethod());
+                    ps.setTimestamp(6, repayment.getPaymentDate() != null
+                            ? Timestamp.valueOf(repayment.getPaymentDate()) : null);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next()) {
+                        repayments.get(index++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachTransactionReference(LocalDateTime from, LocalDateTime to, int fetchSize,
+                                            Consumer<TransactionReference> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(TRANSACTION_REFERENCE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new TransactionReference(
+                rs.getLong("id"),
+                rs.getString("transaction_reference"),
+                rs.getBigDecimal("amount"))));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachExportRow(ExportFilter filter, int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> params = new ArrayList<>();
+        if (filter.getFromDate() != null) {
+            sql.append(" AND r.created_at >= ?");
+            params.add(Timestamp.valueOf(filter.getFromDate().atStartOfDay()));
+        }
+        if (filter.getToDate() != null) {
+            sql.append(" AND r.created_at < ?");
+            params.add(Timestamp.valueOf(filter.getToDate().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND r.status = ?");
+            params.add(filter.getStatus());
+        }
+        if (filter.getEmployerId() != null) {
+            sql.append(" AND d.employer_id = ?");
+            params.add(filter.getEmployerId());
+        }
+        sql.append(" ORDER BY r.id");
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatusChange> updateStatusesByReference(List<String> references, List<String> statuses,
+                                                        List<LocalDateTime> occurredAts) {
+        if (references.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_STATUS_BY_REFERENCE_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", references.toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", statuses.toArray()));
+            ps.setArray(3, connection.createArrayOf("timestamp", occurredAts.stream()
+                    .map(occurredAt -> occurredAt != null ? Timestamp.valueOf(occurredAt) : null)
+                    .toArray()));
+            return ps;
+        }, (rs, rowNum) -> new StatusChange(
+                rs.getLong("id"),
+                rs.getString("transaction_reference"),
+                rs.getString("old_status")));
+    }
+}
\ No newline at end of file
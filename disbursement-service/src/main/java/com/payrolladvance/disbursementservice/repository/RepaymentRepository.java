@@ -2,6 +2,7 @@ package com.payrolladvance.disbursementservice.repository;
 
 import com.payrolladvance.disbursementservice.model.Repayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +11,7 @@ import java.util.List;
  * Repository interface for Repayment entity.
  */
 @Repository
-public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
+public interface RepaymentRepository extends JpaRepository<Repayment, Long>, RepaymentBatchRepository {
     
     /**
      * Finds all repayments for a specific disbursement.
@@ -35,4 +36,24 @@ public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
      * @return a list of repayments
      */
     List<Repayment> findByStatusOrderByCreatedAtDesc(String status);
+    
+    /**
+     * Counts repayments per combination of status and payment method.
+     *
+     * @return the counts
+     */
+    @Query("SELECT r.status AS status, r.paymentMethod AS paymentMethod, COUNT(r) AS count " +
+           "FROM Repayment r GROUP BY r.status, r.paymentMethod")
+    List<StatusGroupCount> countByStatusGroups();
+    
+    /**
+     * Projection of the number of repayments sharing a status and payment method.
+     */
+    interface StatusGroupCount {
+        String getStatus();
+        
+        String getPaymentMethod();
+        
+        long getCount();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.model.RepaymentRunCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repository interface for RepaymentRunCheckpoint entity.
+ */
+@Repository
+public interface RepaymentRunCheckpointRepository extends JpaRepository<RepaymentRunCheckpoint, Long> {
+    
+    /**
+     * Finds the checkpoint of one partition of a repayment run.
+     *
+     * @param payrollDate     the payroll date of the run
+     * @param partitionCount  the number of partitions the run is split into
+     * @param partitionNumber the partition number
+     * @return an Optional containing the checkpoint if the partition has started
+     */
+    Optional<RepaymentRunCheckpoint> findByPayrollDateAndPartitionCountAndPartitionNumber(
+            LocalDate payrollDate, int partitionCount, int partitionNumber);
+    
+    /**
+     * Claims one partition of a repayment run for the current transaction, so no other instance can run it
+     * until the transaction ends. Does not wait if another transaction already holds the partition.
+     *
+     * @param payrollDay      the payroll date of the run, as a day number
+     * @param partitionNumber the partition number
+     * @return true if the partition was claimed, false if another transaction holds it
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:payrollDay, :partitionNumber)", nativeQuery = true)
+    boolean tryLockPartition(@Param("payrollDay") int payrollDay, @Param("partitionNumber") int partitionNumber);
+}
\ No newline at end of file
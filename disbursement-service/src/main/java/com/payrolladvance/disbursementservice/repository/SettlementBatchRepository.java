@@ -0,0 +1,45 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import com.payrolladvance.disbursementservice.model.SettlementBatch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for SettlementBatch entity.
+ */
+@Repository
+public interface SettlementBatchRepository extends JpaRepository<SettlementBatch, Long> {
+    
+    /**
+     * Finds a settlement batch by its batch reference.
+     *
+     * @param batchReference the batch reference
+     * @return an Optional containing the batch if found
+     */
+    Optional<SettlementBatch> findByBatchReference(String batchReference);
+    
+    /**
+     * Finds a settlement batch by its batch reference and locks its row until the end of the transaction.
+     *
+     * @param batchReference the batch reference
+     * @return an Optional containing the batch if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM SettlementBatch b WHERE b.batchReference = :batchReference")
+    Optional<SettlementBatch> findByBatchReferenceForUpdate(@Param("batchReference") String batchReference);
+    
+    /**
+     * Finds all settlement batches with a specific status.
+     *
+     * @param status the status to filter by
+     * @return a list of settlement batches, newest first
+     */
+    List<SettlementBatch> findByStatusOrderByCreatedAtDesc(String status);
+}
\ No newline at end of file
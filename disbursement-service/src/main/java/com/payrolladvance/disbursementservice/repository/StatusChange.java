@@ -0,0 +1,11 @@
+package com.payrolladvance.disbursementservice.repository;
+
+/**
+ * A payment whose status was changed by a set-based update.
+ *
+ * @param id                   the disbursement or repayment ID
+ * @param transactionReference the gateway transaction reference
+ * @param oldStatus            the status before the update
+ */
+public record StatusChange(Long id, String transactionReference, String oldStatus) {
+}
\ No newline at end of file
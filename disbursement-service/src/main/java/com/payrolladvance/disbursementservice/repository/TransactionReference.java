@@ -0,0 +1,13 @@
+package com.payrolladvance.disbursementservice.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * A completed payment and the gateway reference it settled under, as streamed for reconciliation.
+ *
+ * @param id                   the disbursement or repayment ID
+ * @param transactionReference the gateway transaction reference
+ * @param amount               the amount recorded for the payment
+ */
+public record TransactionReference(Long id, String transactionReference, BigDecimal amount) {
+}
\ No newline at end of file
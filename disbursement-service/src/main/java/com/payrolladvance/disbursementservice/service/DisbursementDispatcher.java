@@ -0,0 +1,29 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.DispatchDashboardDto;
+
+import java.util.List;
+
+/**
+ * Service interface for dispatching PENDING disbursements to the gateway through per-rail queues.
+ * Every individual payout, including retries and manual processing, goes through it, so the rail
+ * rate limits hold for all gateway traffic.
+ */
+public interface DisbursementDispatcher {
+    
+    /**
+     * Queues PENDING disbursements on the rails of their payment methods.
+     * Disbursements that are not PENDING, are already queued or are paid through settlement batches are skipped.
+     *
+     * @param ids the disbursement IDs
+     * @return the number of disbursements queued
+     */
+    int enqueue(List<Long> ids);
+    
+    /**
+     * Gets queue depth and wait times per rail.
+     *
+     * @return the dispatch dashboard
+     */
+    DispatchDashboardDto getDashboard();
+}
\ No newline at end of file
@@ -0,0 +1,281 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.config.DispatchProperties;
+import com.payrolladvance.disbursementservice.dispatch.EmployerFairQueue;
+import com.payrolladvance.disbursementservice.dispatch.EmployerFairQueue.QueuedPayout;
+import com.payrolladvance.disbursementservice.dispatch.TokenBucket;
+import com.payrolladvance.disbursementservice.dto.DispatchDashboardDto;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Implementation of the DisbursementDispatcher interface.
+ * Each payment method has its own rail: a token bucket sized to the provider's rate limit and a queue
+ * that serves employers round robin. A single dispatcher thread hands free gateway slots to rails in lane
+ * order, so instant rails are always served before batch rails, and a throttled rail never holds a slot
+ * another rail could use. Payouts run on virtual threads, bounded by the in-flight limit.
+ * The queues live only in memory, so PENDING disbursements are queued again from the database on startup.
+ */
+@Slf4j
+@Service
+public class DisbursementDispatcherImpl implements DisbursementDispatcher {
+    
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    private static final String UNKNOWN_PAYMENT_METHOD = "UNKNOWN";
+    
+    private static final int REQUEUE_CHUNK_SIZE = 1000;
+    
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+    
+    private final DisbursementRepository disbursementRepository;
+    private final DisbursementService disbursementService;
+    private final DispatchProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Rail> rails = new ConcurrentHashMap<>();
+    private final Set<Long> queuedIds = ConcurrentHashMap.newKeySet();
+    private final Semaphore inFlight;
+    private final ExecutorService payoutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread worker;
+    private volatile List<Rail> railsByLane = List.of();
+    private volatile boolean running = true;
+    
+    @Value("${app.settlement.payment-methods:}")
+    private List<String> settlementPaymentMethods;
+    
+    /**
+     * Constructs a new DisbursementDispatcherImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param disbursementService    the disbursement service that performs the payouts
+     * @param properties             the rail settings
+     * @param meterRegistry          the registry for queue depth and wait time meters
+     */
+    public DisbursementDispatcherImpl(DisbursementRepository disbursementRepository,
+                                      DisbursementService disbursementService,
+                                      DispatchProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.disbursementRepository = disbursementRepository;
+        this.disbursementService = disbursementService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+        this.worker = new Thread(this::dispatch, "disbursement-dispatcher");
+        this.worker.setDaemon(true);
+    }
+    
+    /**
+     * Starts the dispatcher thread.
+     */
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+    
+    /**
+     * Queues the PENDING disbursements left in the database, e.g. by an instance that stopped with payouts
+     * still queued, once the application is ready. Another instance queueing the same disbursements is
+     * harmless, since each payout claims its disbursements before paying them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeuePending() {
+        List<Long> ids = disbursementRepository.findPendingPayoutIds(settlementPaymentMethods);
+        int queued = 0;
+        for (int from = 0; from < ids.size(); from += REQUEUE_CHUNK_SIZE) {
+            queued += enqueue(ids.subList(from, Math.min(from + REQUEUE_CHUNK_SIZE, ids.size())));
+        }
+        log.info("Requeued {} PENDING disbursements on startup", queued);
+    }
+    
+    /**
+     * Stops dispatching and waits for the payouts in flight to record their results; queued payouts
+     * stay PENDING and are queued again after a restart.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_WAIT_SECONDS));
+        payoutExecutor.shutdown();
+        if (!payoutExecutor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Payouts still in flight after {} seconds; their disbursements stay PROCESSING until the stale "
+                    + "payout sweep fails them", SHUTDOWN_WAIT_SECONDS);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int enqueue(List<Long> ids) {
+        long now = System.nanoTime();
+        int queued = 0;
+        for (Disbursement disbursement : disbursementRepository.findAllById(ids)) {
+            if (!"PENDING".equals(disbursement.getStatus())
+                    || settlementPaymentMethods.contains(disbursement.getPaymentMethod())
+                    || !queuedIds.add(disbursement.getId())) {
+                continue;
+            }
+            rail(disbursement.getPaymentMethod()).queue.add(
+                    new QueuedPayout(disbursement.getId(), disbursement.getEmployerId(), now));
+            queued++;
+        }
+        
+        LockSupport.unpark(worker);
+        log.info("Queued {} of {} disbursements for dispatch", queued, ids.size());
+        return queued;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DispatchDashboardDto getDashboard() {
+        long now = System.nanoTime();
+        List<DispatchDashboardDto.Rail> railStats = railsByLane.stream()
+                .map(rail -> {
+                    long oldest = rail.queue.oldestEnqueuedNanos();
+                    return DispatchDashboardDto.Rail.builder()
+                            .paymentMethod(rail.paymentMethod)
+                            .lane(rail.settings.getLane())
+                            .permitsPerSecond(rail.settings.getPermitsPerSecond())
+                            .queueDepth(rail.queue.size())
+                            .employersQueued(rail.queue.employerCount())
+                            .oldestWaitMillis(oldest == -1 ? 0 : TimeUnit.NANOSECONDS.toMillis(now - oldest))
+                            .meanWaitMillis(rail.waitTimer.mean(TimeUnit.MILLISECONDS))
+                            .maxWaitMillis(rail.waitTimer.max(TimeUnit.MILLISECONDS))
+                            .dispatched(rail.waitTimer.count())
+                            .build();
+                })
+                .toList();
+        
+        return DispatchDashboardDto.builder()
+                .maxInFlight(properties.getMaxInFlight())
+                .inFlight(properties.getMaxInFlight() - inFlight.availablePermits())
+                .rails(railStats)
+                .build();
+    }
+    
+    /**
+     * Dispatcher loop. After every dispatch the rails are scanned again from the highest lane,
+     * so a slot freed while a batch rail was being served goes to an instant rail first.
+     */
+    private void dispatch() {
+        while (running) {
+            long waitNanos = IDLE_WAIT_NANOS;
+            boolean dispatched = false;
+            for (Rail rail : railsByLane) {
+                if (rail.queue.size() == 0) {
+                    continue;
+                }
+                if (!inFlight.tryAcquire()) {
+                    // Every slot is busy; a finishing payout wakes the dispatcher
+                    break;
+                }
+                long throttledNanos = rail.bucket.tryAcquire();
+                if (throttledNanos > 0) {
+                    inFlight.release();
+                    waitNanos = Math.min(waitNanos, throttledNanos);
+                    continue;
+                }
+                
+                List<QueuedPayout> payouts = rail.queue.poll(rail.settings.getBulkSize());
+                long now = System.nanoTime();
+                payouts.forEach(payout -> rail.waitTimer.record(now - payout.enqueuedNanos(), TimeUnit.NANOSECONDS));
+                payoutExecutor.execute(() -> pay(payouts));
+                dispatched = true;
+                break;
+            }
+            if (!dispatched) {
+                LockSupport.parkNanos(waitNanos);
+            }
+        }
+    }
+    
+    /**
+     * Pays out one dispatch, individually or as a bulk gateway call, then frees its slot.
+     */
+    private void pay(List<QueuedPayout> payouts) {
+        List<Long> ids = payouts.stream().map(QueuedPayout::disbursementId).toList();
+        try {
+            if (ids.size() == 1) {
+                disbursementService.processDisbursement(ids.get(0));
+            } else {
+                disbursementService.processDisbursements(ids);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to dispatch disbursements {}", ids, e);
+        } finally {
+            ids.forEach(queuedIds::remove);
+            inFlight.release();
+            LockSupport.unpark(worker);
+        }
+    }
+    
+    /**
+     * Gets the rail for a payment method, creating it from the configured settings on first use.
+     */
+    private Rail rail(String paymentMethod) {
+        String method = paymentMethod != null ? paymentMethod : UNKNOWN_PAYMENT_METHOD;
+        Rail rail = rails.get(method);
+        if (rail != null) {
+            return rail;
+        }
+        synchronized (rails) {
+            rail = rails.get(method);
+            if (rail == null) {
+                rail = new Rail(method, properties.getRails().getOrDefault(method, properties.getDefaultRail()));
+                Gauge.builder("payroll.dispatch.queued", rail.queue, EmployerFairQueue::size)
+                        .tag("rail", method)
+                        .register(meterRegistry);
+                rails.put(method, rail);
+                railsByLane = rails.values().stream()
+                        .sorted(Comparator.comparing((Rail existing) -> existing.settings.getLane()))
+                        .toList();
+            }
+            return rail;
+        }
+    }
+    
+    /**
+     * The queue, rate limit and wait timer of one payment method.
+     */
+    private final class Rail {
+        
+        private final String paymentMethod;
+        private final DispatchProperties.Rail settings;
+        private final TokenBucket bucket;
+        private final EmployerFairQueue queue = new EmployerFairQueue();
+        private final Timer waitTimer;
+        
+        private Rail(String paymentMethod, DispatchProperties.Rail settings) {
+            this.paymentMethod = paymentMethod;
+            this.settings = settings;
+            this.bucket = new TokenBucket(settings.getPermitsPerSecond(), settings.getBurst());
+            this.waitTimer = Timer.builder("payroll.dispatch.wait")
+                    .tag("rail", paymentMethod)
+                    .register(meterRegistry);
+        }
+    }
+}
\ No newline at end of file
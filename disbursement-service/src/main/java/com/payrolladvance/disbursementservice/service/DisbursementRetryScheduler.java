@@ -0,0 +1,167 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.util.HashedTimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules retries of FAILED disbursements with exponential backoff and jitter.
+ * The next attempt time is persisted on the disbursement so retries survive restarts;
+ * in memory they sit in a hashed timing wheel and cost nothing until they are due.
+ */
+@Slf4j
+@Component
+public class DisbursementRetryScheduler {
+    
+    private final DisbursementRepository disbursementRepository;
+    private final DisbursementService disbursementService;
+    private final int maxRetryAttempts;
+    private final long retryDelaySeconds;
+    private final long retryMaxDelaySeconds;
+    private final ExecutorService retryExecutor;
+    private final HashedTimingWheel timingWheel;
+    private final Map<Long, HashedTimingWheel.Timeout> scheduledRetries = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructs a new DisbursementRetryScheduler.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param disbursementService    the disbursement service, resolved lazily since it schedules retries itself
+     * @param maxRetryAttempts       the maximum number of retries per disbursement
+     * @param retryDelaySeconds      the delay before the first retry
+     * @param retryMaxDelaySeconds   the cap on the backoff delay
+     * @param tickMillis             the timing wheel tick
+     * @param wheelSize              the number of timing wheel buckets
+     * @param concurrency            the number of retries run at once
+     */
+    public DisbursementRetryScheduler(DisbursementRepository disbursementRepository,
+                                      @Lazy DisbursementService disbursementService,
+                                      @Value("${app.disbursement.max-retry-attempts:3}") int maxRetryAttempts,
+                                      @Value("${app.disbursement.retry-delay-seconds:60}") long retryDelaySeconds,
+                                      @Value("${app.disbursement.retry-max-delay-seconds:3600}") long retryMaxDelaySeconds,
+                                      @Value("${app.disbursement.retry-tick-millis:100}") long tickMillis,
+                                      @Value("${app.disbursement.retry-wheel-size:512}") int wheelSize,
+                                      @Value("${app.disbursement.retry-concurrency:4}") int concurrency) {
+        this.disbursementRepository = disbursementRepository;
+        this.disbursementService = disbursementService;
+        this.maxRetryAttempts = maxRetryAttempts;
+        this.retryDelaySeconds = retryDelaySeconds;
+        this.retryMaxDelaySeconds = retryMaxDelaySeconds;
+        this.retryExecutor = Executors.newFixedThreadPool(concurrency);
+        this.timingWheel = new HashedTimingWheel("disbursement-retry-wheel", tickMillis, TimeUnit.MILLISECONDS,
+                wheelSize, retryExecutor);
+    }
+    
+    /**
+     * Reloads pending retries from the database once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadPendingRetries() {
+        List<DisbursementRepository.PendingRetry> pendingRetries = disbursementRepository.findPendingRetries("FAILED");
+        pendingRetries.forEach(retry -> register(retry.getId(), retry.getNextAttemptAt()));
+        log.info("Reloaded {} pending disbursement retries", pendingRetries.size());
+    }
+    
+    /**
+     * Schedules the next retry of a failed disbursement, or gives up once retries are exhausted.
+     * Sets the disbursement's next attempt time; the caller is responsible for saving it.
+     *
+     * @param disbursement the failed disbursement
+     * @return true if a retry was scheduled
+     */
+    public boolean scheduleRetry(Disbursement disbursement) {
+        if (disbursement.getRetryCount() >= maxRetryAttempts) {
+            log.warn("Disbursement with ID: {} failed after {} retries, giving up",
+                    disbursement.getId(), disbursement.getRetryCount());
+            disbursement.setNextAttemptAt(null);
+            return false;
+        }
+        
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(disbursement.getRetryCount()));
+        disbursement.setNextAttemptAt(nextAttemptAt);
+        register(disbursement.getId(), nextAttemptAt);
+        
+        log.info("Scheduled retry {} of {} for disbursement with ID: {} at {}",
+                disbursement.getRetryCount() + 1, maxRetryAttempts, disbursement.getId(), nextAttemptAt);
+        return true;
+    }
+    
+    /**
+     * Gets the number of retries waiting in memory.
+     *
+     * @return the number of pending retries
+     */
+    public int getPendingRetryCount() {
+        return timingWheel.getPendingTimeouts();
+    }
+    
+    /**
+     * Stops the timing wheel and the retry workers.
+     */
+    @PreDestroy
+    public void shutdown() {
+        timingWheel.close();
+        retryExecutor.shutdown();
+    }
+    
+    /**
+     * Computes the backoff before a retry: the base delay doubled per previous retry, capped,
+     * with the upper half randomised so retries of a failed batch don't all land on the same tick.
+     *
+     * @param retryCount the number of retries already made
+     * @return the backoff delay
+     */
+    private Duration backoff(int retryCount) {
+        long delaySeconds = Math.min(retryDelaySeconds << Math.min(retryCount, 30), retryMaxDelaySeconds);
+        long delayMillis = TimeUnit.SECONDS.toMillis(delaySeconds);
+        long halfMillis = delayMillis / 2;
+        return Duration.ofMillis(halfMillis + ThreadLocalRandom.current().nextLong(halfMillis + 1));
+    }
+    
+    /**
+     * Places a retry in the timing wheel, replacing any retry already scheduled for the disbursement.
+     *
+     * @param disbursementId the disbursement ID
+     * @param nextAttemptAt  when the retry is due
+     */
+    private void register(Long disbursementId, LocalDateTime nextAttemptAt) {
+        long delayMillis = Math.max(Duration.between(LocalDateTime.now(), nextAttemptAt).toMillis(), 0);
+        HashedTimingWheel.Timeout timeout = timingWheel.schedule(
+                () -> retry(disbursementId), delayMillis, TimeUnit.MILLISECONDS);
+        HashedTimingWheel.Timeout previous = scheduledRetries.put(disbursementId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+    
+    /**
+     * Runs a due retry.
+     *
+     * @param disbursementId the disbursement ID
+     */
+    private void retry(Long disbursementId) {
+        scheduledRetries.remove(disbursementId);
+        try {
+            disbursementService.retryDisbursement(disbursementId);
+        } catch (Exception e) {
+            log.error("Error retrying disbursement with ID: {}", disbursementId, e);
+        }
+    }
+}
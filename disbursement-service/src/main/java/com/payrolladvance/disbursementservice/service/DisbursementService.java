@@ -4,6 +4,7 @@ import com.payrolladvance.disbursementservice.dto.DisbursementDto;
 import com.payrolladvance.disbursementservice.model.Disbursement;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service interface for disbursement operations.
@@ -18,6 +19,22 @@ public interface DisbursementService {
      */
     Disbursement createDisbursement(DisbursementDto disbursementDto);
     
+    /**
+     * Creates a new disbursement unless one already exists for the same advance request.
+     *
+     * @param disbursementDto the disbursement data
+     * @return the created disbursement, or empty if it was a duplicate
+     */
+    Optional<Disbursement> createDisbursementIfAbsent(DisbursementDto disbursementDto);
+    
+    /**
+     * Creates disbursements in bulk, skipping advance requests that already have one.
+     *
+     * @param disbursementDtos the disbursement data
+     * @return the created disbursements
+     */
+    List<Disbursement> createDisbursementsIfAbsent(List<DisbursementDto> disbursementDtos);
+    
     /**
      * Gets a disbursement by ID.
      *
@@ -52,10 +69,40 @@ public interface DisbursementService {
     Disbursement updateDisbursementStatus(Long id, String status);
     
     /**
-     * Processes a disbursement payment.
+     * Processes a disbursement payment. A disbursement whose payment method is settled in batches
+     * is left PENDING for its settlement batch. Calls the gateway directly, so payouts should go through
+     * {@link DisbursementDispatcher} to stay within the rail rate limits.
      *
      * @param id the disbursement ID
      * @return the processed disbursement
      */
     Disbursement processDisbursement(Long id);
+    
+    /**
+     * Processes the payments of several disbursements, pipelining them through the payment gateway.
+     * Disbursements that are not PENDING, or whose payment method is settled in batches, are skipped.
+     * Calls the gateway directly, so payouts should go through {@link DisbursementDispatcher}.
+     *
+     * @param ids the disbursement IDs
+     * @return the processed disbursements
+     */
+    List<Disbursement> processDisbursements(List<Long> ids);
+    
+    /**
+     * Retries the payment of a FAILED disbursement whose retry has come due by moving it back to PENDING
+     * and queueing it with the dispatcher.
+     *
+     * @param id the disbursement ID
+     * @return the disbursement
+     */
+    Disbursement retryDisbursement(Long id);
+    
+    /**
+     * Fails the individual payouts left PROCESSING for longer than the configured limit, e.g. by an instance
+     * that stopped mid-payout, and schedules their retries. The gateway offers no status lookup, so the limit
+     * must comfortably exceed the gateway's timeout.
+     *
+     * @return the number of disbursements failed
+     */
+    int failStalePayouts();
 }
\ No newline at end of file
@@ -1,32 +1,95 @@
 package com.payrolladvance.disbursementservice.service;
 
 import com.payrolladvance.disbursementservice.dto.DisbursementDto;
+import com.payrolladvance.disbursementservice.event.EventPayloads;
 import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.gateway.PaymentGateway;
+import com.payrolladvance.disbursementservice.gateway.PayoutRequest;
+import com.payrolladvance.disbursementservice.gateway.PayoutResult;
 import com.payrolladvance.disbursementservice.model.Disbursement;
 import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
 import com.payrolladvance.kafka.common.events.DisbursementEvent;
 import com.payrolladvance.kafka.common.events.EventType;
 import com.payrolladvance.kafka.common.util.EventPublisher;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the DisbursementService interface.
+ * A payout runs in three steps: a short transaction claims the PENDING disbursements by committing them as
+ * PROCESSING, the gateway is called with no transaction or connection held, and a second short transaction
+ * records the results. A disbursement whose claim is lost to another payout is skipped, and disbursements
+ * whose payment method is settled in batches are never paid individually. Payouts whose results are never
+ * recorded, e.g. because the instance stopped mid-call, are failed by a periodic sweep once they go stale.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DisbursementServiceImpl implements DisbursementService {
     
     private final DisbursementRepository disbursementRepository;
     private final EventPublisher eventPublisher;
+    private final PaymentGateway paymentGateway;
+    private final DisbursementRetryScheduler retryScheduler;
+    private final LedgerService ledgerService;
+    private final StatusCounterService statusCounterService;
+    private final DisbursementDispatcher dispatcher;
+    private final TransactionTemplate payoutTransaction;
+    
+    @Value("${app.settlement.payment-methods:}")
+    private List<String> settlementPaymentMethods;
+    
+    @Value("${app.disbursement.stale-payout-after:PT15M}")
+    private Duration stalePayoutAfter;
+    
+    /**
+     * Constructs a new DisbursementServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param eventPublisher         the event publisher
+     * @param paymentGateway         the payment gateway
+     * @param retryScheduler         the retry scheduler for failed payouts
+     * @param ledgerService          the ledger service
+     * @param statusCounterService   the status counter service
+     * @param dispatcher             the dispatcher retries are queued with, resolved lazily since it pays through this service
+     * @param transactionManager     the transaction manager
+     */
+    public DisbursementServiceImpl(DisbursementRepository disbursementRepository,
+                                   EventPublisher eventPublisher,
+                                   PaymentGateway paymentGateway,
+                                   DisbursementRetryScheduler retryScheduler,
+                                   LedgerService ledgerService,
+                                   StatusCounterService statusCounterService,
+                                   @Lazy DisbursementDispatcher dispatcher,
+                                   PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.eventPublisher = eventPublisher;
+        this.paymentGateway = paymentGateway;
+        this.retryScheduler = retryScheduler;
+        this.ledgerService = ledgerService;
+        this.statusCounterService = statusCounterService;
+        this.dispatcher = dispatcher;
+        this.payoutTransaction = new TransactionTemplate(transactionManager);
+    }
     
     /**
      * {@inheritDoc}
@@ -36,11 +99,18 @@ public class DisbursementServiceImpl implements DisbursementService {
     public Disbursement createDisbursement(DisbursementDto disbursementDto) {
         log.info("Creating new disbursement for advance request ID: {}", disbursementDto.getAdvanceRequestId());
         
+        if (disbursementRepository.claimAdvanceRequest(disbursementDto.getAdvanceRequestId()) == 0) {
+            throw new DataIntegrityViolationException(
+                    "Disbursement already exists for advance request ID: " + disbursementDto.getAdvanceRequestId());
+        }
+        
         Disbursement disbursement = new Disbursement();
         disbursement.setAdvanceRequestId(disbursementDto.getAdvanceRequestId());
         disbursement.setEmployeeId(disbursementDto.getEmployeeId());
+        disbursement.setEmployerId(disbursementDto.getEmployerId());
         disbursement.setAmount(disbursementDto.getAmount());
         disbursement.setPaymentMethod(disbursementDto.getPaymentMethod());
+        disbursement.setBankCode(disbursementDto.getBankCode());
         disbursement.setExpectedRepaymentDate(disbursementDto.getExpectedRepaymentDate());
         disbursement.setFeeAmount(disbursementDto.getFeeAmount() != null ? disbursementDto.getFeeAmount() : BigDecimal.ZERO);
         
@@ -53,6 +123,7 @@ public class DisbursementServiceImpl implements DisbursementService {
         disbursement.setStatus("PENDING");
         
         Disbursement savedDisbursement = disbursementRepository.save(disbursement);
+        recordCreated(savedDisbursement);
         
         // Publish disbursement created event
         eventPublisher.publish(
@@ -60,7 +131,7 @@ public class DisbursementServiceImpl implements DisbursementService {
                 new DisbursementEvent(
                         savedDisbursement.getId(),
                         EventType.DISBURSEMENT_CREATED,
-                        savedDisbursement
+                        EventPayloads.disbursement(savedDisbursement)
                 )
         );
         
@@ -68,6 +139,84 @@ public class DisbursementServiceImpl implements DisbursementService {
         return savedDisbursement;
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public Optional<Disbursement> createDisbursementIfAbsent(DisbursementDto disbursementDto) {
+        BigDecimal feeAmount = disbursementDto.getFeeAmount() != null ? disbursementDto.getFeeAmount() : BigDecimal.ZERO;
+        
+        int inserted = disbursementRepository.insertIfAbsent(
+                disbursementDto.getAdvanceRequestId(),
+                disbursementDto.getEmployeeId(),
+                disbursementDto.getEmployerId(),
+                disbursementDto.getAmount(),
+                disbursementDto.getPaymentMethod(),
+                disbursementDto.getBankCode(),
+                disbursementDto.getExpectedRepaymentDate(),
+                feeAmount,
+                disbursementDto.getAmount().add(feeAmount)
+        );
+        
+        if (inserted == 0) {
+            log.info("Disbursement already exists for advance request ID: {}", disbursementDto.getAdvanceRequestId());
+            return Optional.empty();
+        }
+        
+        Disbursement savedDisbursement = getDisbursementByAdvanceRequestId(disbursementDto.getAdvanceRequestId());
+        recordCreated(savedDisbursement);
+        
+        // Publish the created event only once the transaction commits, so a rollback cannot leave it behind
+        eventPublisher.publishAllAfterCommit(
+                "disbursement-events", 
+                List.of(new DisbursementEvent(
+                        savedDisbursement.getId(),
+                        EventType.DISBURSEMENT_CREATED,
+                        EventPayloads.disbursement(savedDisbursement)
+                ))
+        );
+        
+        log.info("Created disbursement with ID: {}", savedDisbursement.getId());
+        return Optional.of(savedDisbursement);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public List<Disbursement> createDisbursementsIfAbsent(List<DisbursementDto> disbursementDtos) {
+        log.info("Creating {} disbursements in bulk", disbursementDtos.size());
+        
+        List<Disbursement> disbursements = disbursementDtos.stream()
+                .map(this::toPendingDisbursement)
+                .toList();
+        List<Long> insertedAdvanceRequestIds = disbursementRepository.insertAllIfAbsent(disbursements);
+        if (insertedAdvanceRequestIds.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Disbursement> savedDisbursements = disbursementRepository.findByAdvanceRequestIdIn(insertedAdvanceRequestIds);
+        savedDisbursements.forEach(this::recordCreated);
+        
+        // Publish all created events as one producer batch once the transaction commits
+        eventPublisher.publishAllAfterCommit(
+                "disbursement-events", 
+                savedDisbursements.stream()
+                        .map(savedDisbursement -> new DisbursementEvent(
+                                savedDisbursement.getId(),
+                                EventType.DISBURSEMENT_CREATED,
+                                EventPayloads.disbursement(savedDisbursement)
+                        ))
+                        .toList()
+        );
+        
+        log.info("Created {} disbursements, skipped {} duplicates",
+                savedDisbursements.size(), disbursementDtos.size() - savedDisbursements.size());
+        return savedDisbursements;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -106,8 +255,14 @@ public class DisbursementServiceImpl implements DisbursementService {
         log.info("Updating disbursement status for ID: {} to {}", id, status);
         
         Disbursement disbursement = getDisbursementById(id);
+        String oldStatus = disbursement.getStatus();
         disbursement.setStatus(status);
         Disbursement updatedDisbursement = disbursementRepository.save(disbursement);
+        recordTransition(updatedDisbursement, oldStatus);
+        
+        if ("COMPLETED".equals(status) && !"COMPLETED".equals(oldStatus)) {
+            ledgerService.recordDisbursed(updatedDisbursement);
+        }
         
         // Publish disbursement updated event
         eventPublisher.publish(
@@ -115,7 +270,7 @@ public class DisbursementServiceImpl implements DisbursementService {
                 new DisbursementEvent(
                         updatedDisbursement.getId(),
                         EventType.DISBURSEMENT_UPDATED,
-                        updatedDisbursement
+                        EventPayloads.disbursement(updatedDisbursement)
                 )
         );
         
@@ -126,62 +281,281 @@ public class DisbursementServiceImpl implements DisbursementService {
      * {@inheritDoc}
      */
     @Override
-    @Transactional
     public Disbursement processDisbursement(Long id) {
         log.info("Processing disbursement with ID: {}", id);
         
-        Disbursement disbursement = getDisbursementById(id);
-        
-        // Don't process if not in PENDING state
-        if (!"PENDING".equals(disbursement.getStatus())) {
-            log.warn("Cannot process disbursement that is not in PENDING state. Current state: {}", disbursement.getStatus());
+        List<Disbursement> claimed = claimForPayout(List.of(id));
+        if (claimed.isEmpty()) {
+            Disbursement disbursement = getDisbursementById(id);
+            if ("PENDING".equals(disbursement.getStatus())) {
+                log.info("Leaving disbursement with ID: {} to its {} settlement batch", id, disbursement.getPaymentMethod());
+            } else {
+                log.warn("Cannot process disbursement that is not in PENDING state. Current state: {}", disbursement.getStatus());
+            }
             return disbursement;
         }
         
+        PayoutResult result;
         try {
-            // Update status to PROCESSING
-            disbursement.setStatus("PROCESSING");
-            disbursementRepository.save(disbursement);
-            
-            // Simulate payment processing
-            // In a real system, we would integrate with a payment provider here
-            String transactionReference = UUID.randomUUID().toString();
-            disbursement.setTransactionReference(transactionReference);
-            
-            // Update status to COMPLETED
-            disbursement.setStatus("COMPLETED");
-            Disbursement completedDisbursement = disbursementRepository.save(disbursement);
-            
-            // Publish disbursement completed event
-            eventPublisher.publish(
-                    "disbursement-events", 
-                    new DisbursementEvent(
-                            completedDisbursement.getId(),
-                            EventType.DISBURSEMENT_COMPLETED,
-                            completedDisbursement
-                    )
-            );
-            
-            log.info("Successfully processed disbursement with ID: {}", id);
-            return completedDisbursement;
+            result = paymentGateway.submitPayout(toPayoutRequest(claimed.get(0))).join();
         } catch (Exception e) {
             log.error("Error processing disbursement with ID: {}", id, e);
+            result = PayoutResult.failure(id, e.getMessage());
+        }
+        
+        List<Disbursement> processed = recordPayoutResults(List.of(result));
+        return processed.isEmpty() ? getDisbursementById(id) : processed.get(0);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Disbursement> processDisbursements(List<Long> ids) {
+        log.info("Processing {} disbursements", ids.size());
+        
+        List<Disbursement> claimed = claimForPayout(ids);
+        
+        // Submit every bulk call before waiting on any of them so the gateway round trips overlap
+        int bulkSize = paymentGateway.getMaxBulkSize();
+        List<CompletableFuture<List<PayoutResult>>> futures = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += bulkSize) {
+            List<PayoutRequest> requests = claimed.subList(from, Math.min(from + bulkSize, claimed.size())).stream()
+                    .map(this::toPayoutRequest)
+                    .toList();
+            futures.add(paymentGateway.submitBulkPayout(requests)
+                    .exceptionally(ex -> requests.stream()
+                            .map(request -> PayoutResult.failure(request.disbursementId(), ex.getMessage()))
+                            .toList()));
+        }
+        
+        List<PayoutResult> results = new ArrayList<>(claimed.size());
+        futures.forEach(future -> results.addAll(future.join()));
+        
+        // A claimed disbursement the gateway left out of its response would otherwise stay PROCESSING
+        Set<Long> answered = results.stream().map(PayoutResult::disbursementId).collect(Collectors.toSet());
+        claimed.stream()
+                .filter(disbursement -> !answered.contains(disbursement.getId()))
+                .forEach(disbursement -> results.add(
+                        PayoutResult.failure(disbursement.getId(), "No result returned by the gateway")));
+        List<Disbursement> processedDisbursements = recordPayoutResults(results);
+        
+        log.info("Processed {} of {} requested disbursements", processedDisbursements.size(), ids.size());
+        return processedDisbursements;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Disbursement retryDisbursement(Long id) {
+        boolean due = Boolean.TRUE.equals(payoutTransaction.execute(status -> {
+            Disbursement disbursement = disbursementRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Disbursement not found with ID: " + id));
             
-            // Update status to FAILED
-            disbursement.setStatus("FAILED");
-            Disbursement failedDisbursement = disbursementRepository.save(disbursement);
+            // The retry may have been superseded by a manual status change since it was scheduled
+            if (!"FAILED".equals(disbursement.getStatus()) || disbursement.getNextAttemptAt() == null) {
+                log.info("Skipping retry of disbursement with ID: {} in state {}", id, disbursement.getStatus());
+                return false;
+            }
             
-            // Publish disbursement failed event
-            eventPublisher.publish(
-                    "disbursement-events", 
-                    new DisbursementEvent(
-                            failedDisbursement.getId(),
-                            EventType.DISBURSEMENT_FAILED,
-                            failedDisbursement
-                    )
+            log.info("Retrying disbursement with ID: {}, attempt {}", id, disbursement.getRetryCount() + 1);
+            disbursement.setRetryCount(disbursement.getRetryCount() + 1);
+            disbursement.setNextAttemptAt(null);
+            disbursement.setStatus("PENDING");
+            disbursementRepository.save(disbursement);
+            recordTransition(disbursement, "FAILED");
+            return true;
+        }));
+        
+        if (due) {
+            // Queued like any other payout so retries stay within the rail's rate limit
+            dispatcher.enqueue(List.of(id));
+        }
+        return getDisbursementById(id);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.disbursement.stale-payout-check-interval-ms:60000}")
+    public int failStalePayouts() {
+        List<Disbursement> failed = payoutTransaction.execute(status -> {
+            List<Disbursement> stale = disbursementRepository.findAllById(
+                    disbursementRepository.failStalePayouts(LocalDateTime.now().minus(stalePayoutAfter)));
+            for (Disbursement disbursement : stale) {
+                log.warn("Failing disbursement with ID: {} left PROCESSING for over {}",
+                        disbursement.getId(), stalePayoutAfter);
+                retryScheduler.scheduleRetry(disbursement);
+                recordTransition(disbursement, "PROCESSING");
+            }
+            List<Disbursement> saved = disbursementRepository.saveAll(stale);
+            eventPublisher.publishAllAfterCommit(
+                    "disbursement-events",
+                    saved.stream()
+                            .map(disbursement -> new DisbursementEvent(
+                                    disbursement.getId(),
+                                    EventType.DISBURSEMENT_FAILED,
+                                    EventPayloads.disbursement(disbursement)
+                            ))
+                            .toList()
             );
+            return saved;
+        });
+        return failed.size();
+    }
+    
+    /**
+     * Claims PENDING disbursements for a payout and commits them as PROCESSING, so no other payout
+     * can pick them up while the gateway call is in flight.
+     *
+     * @param ids the disbursement IDs
+     * @return the disbursements claimed
+     */
+    private List<Disbursement> claimForPayout(Collection<Long> ids) {
+        return payoutTransaction.execute(status -> {
+            List<Long> claimedIds = disbursementRepository.claimForPayout(ids, settlementPaymentMethods);
+            if (claimedIds.isEmpty()) {
+                return List.<Disbursement>of();
+            }
+            List<Disbursement> claimed = disbursementRepository.findAllById(claimedIds);
+            claimed.forEach(disbursement -> recordTransition(disbursement, "PENDING"));
+            return claimed;
+        });
+    }
+    
+    /**
+     * Records the gateway results of claimed disbursements in one transaction and publishes their events.
+     * A disbursement that has left PROCESSING since it was claimed, e.g. through a manual status change,
+     * keeps its new status.
+     *
+     * @param results the gateway results
+     * @return the disbursements moved to COMPLETED or FAILED
+     */
+    private List<Disbursement> recordPayoutResults(List<PayoutResult> results) {
+        if (results.isEmpty()) {
+            return List.of();
+        }
+        return payoutTransaction.execute(status -> {
+            Map<Long, Disbursement> claimed = disbursementRepository.findAllByIdForUpdate(
+                            results.stream().map(PayoutResult::disbursementId).toList()).stream()
+                    .collect(Collectors.toMap(Disbursement::getId, Function.identity()));
+            
+            List<Disbursement> processed = new ArrayList<>(results.size());
+            for (PayoutResult result : results) {
+                Disbursement disbursement = claimed.get(result.disbursementId());
+                if (disbursement == null || !"PROCESSING".equals(disbursement.getStatus())) {
+                    log.warn("Discarding payout result for disbursement with ID: {} that is no longer PROCESSING",
+                            result.disbursementId());
+                    continue;
+                }
+                applyPayoutResult(disbursement, result);
+                processed.add(disbursement);
+            }
             
-            return failedDisbursement;
+            List<Disbursement> processedDisbursements = disbursementRepository.saveAll(processed);
+            processedDisbursements.forEach(disbursement -> recordTransition(disbursement, "PROCESSING"));
+            processedDisbursements.forEach(this::publishPayoutEvent);
+            return processedDisbursements;
+        });
+    }
+    
+    /**
+     * Builds a new PENDING disbursement from the disbursement data.
+     *
+     * @param disbursementDto the disbursement data
+     * @return the disbursement, not yet saved
+     */
+    private Disbursement toPendingDisbursement(DisbursementDto disbursementDto) {
+        BigDecimal feeAmount = disbursementDto.getFeeAmount() != null ? disbursementDto.getFeeAmount() : BigDecimal.ZERO;
+        
+        Disbursement disbursement = new Disbursement();
+        disbursement.setAdvanceRequestId(disbursementDto.getAdvanceRequestId());
+        disbursement.setEmployeeId(disbursementDto.getEmployeeId());
+        disbursement.setEmployerId(disbursementDto.getEmployerId());
+        disbursement.setAmount(disbursementDto.getAmount());
+        disbursement.setPaymentMethod(disbursementDto.getPaymentMethod());
+        disbursement.setBankCode(disbursementDto.getBankCode());
+        disbursement.setExpectedRepaymentDate(disbursementDto.getExpectedRepaymentDate());
+        disbursement.setFeeAmount(feeAmount);
+        disbursement.setTotalRepaymentAmount(disbursementDto.getAmount().add(feeAmount));
+        disbursement.setStatus("PENDING");
+        return disbursement;
+    }
+    
+    /**
+     * Counts a newly created disbursement once the transaction commits.
+     *
+     * @param disbursement the created disbursement
+     */
+    private void recordCreated(Disbursement disbursement) {
+        statusCounterService.getDisbursementCounters().recordCreated(
+                disbursement.getStatus(), disbursement.getPaymentMethod(), disbursement.getEmployerId());
+    }
+    
+    /**
+     * Moves a disbursement between status counters once the transaction commits.
+     *
+     * @param disbursement the disbursement in its new status
+     * @param oldStatus    the status it had when the transaction read it
+     */
+    private void recordTransition(Disbursement disbursement, String oldStatus) {
+        statusCounterService.getDisbursementCounters().recordTransition(
+                oldStatus, disbursement.getStatus(), disbursement.getPaymentMethod(), disbursement.getEmployerId());
+    }
+    
+    /**
+     * Builds the gateway payout request for a disbursement.
+     *
+     * @param disbursement the disbursement
+     * @return the payout request
+     */
+    private PayoutRequest toPayoutRequest(Disbursement disbursement) {
+        return new PayoutRequest(
+                disbursement.getId(),
+                disbursement.getEmployeeId(),
+                disbursement.getAmount(),
+                disbursement.getPaymentMethod()
+        );
+    }
+    
+    /**
+     * Moves a disbursement to COMPLETED or FAILED according to the gateway result.
+     *
+     * @param disbursement the disbursement
+     * @param result       the gateway result
+     */
+    private void applyPayoutResult(Disbursement disbursement, PayoutResult result) {
+        if (result.successful()) {
+            disbursement.setTransactionReference(result.transactionReference());
+            disbursement.setStatus("COMPLETED");
+            ledgerService.recordDisbursed(disbursement);
+            log.info("Successfully processed disbursement with ID: {}", disbursement.getId());
+        } else {
+            disbursement.setStatus("FAILED");
+            log.warn("Payout failed for disbursement with ID: {}: {}", disbursement.getId(), result.failureReason());
+            retryScheduler.scheduleRetry(disbursement);
         }
     }
+    
+    /**
+     * Publishes the completed or failed event for a processed disbursement.
+     *
+     * @param disbursement the processed disbursement
+     */
+    private void publishPayoutEvent(Disbursement disbursement) {
+        EventType eventType = "COMPLETED".equals(disbursement.getStatus())
+                ? EventType.DISBURSEMENT_COMPLETED
+                : EventType.DISBURSEMENT_FAILED;
+        
+        eventPublisher.publish(
+                "disbursement-events", 
+                new DisbursementEvent(
+                        disbursement.getId(),
+                        eventType,
+                        EventPayloads.disbursement(disbursement)
+                )
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for bulk exports of disbursements and repayments.
+ */
+public interface ExportService {
+    
+    /**
+     * Streams the disbursements selected by a filter to an output stream.
+     *
+     * @param filter the export filter
+     * @param format the export format
+     * @param gzip   whether to gzip the output
+     * @param out    the output stream, which is not closed
+     * @throws IOException if writing fails
+     */
+    void exportDisbursements(ExportFilter filter, ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+    
+    /**
+     * Streams the repayments selected by a filter to an output stream.
+     *
+     * @param filter the export filter
+     * @param format the export format
+     * @param gzip   whether to gzip the output
+     * @param out    the output stream, which is not closed
+     * @throws IOException if writing fails
+     */
+    void exportRepayments(ExportFilter filter, ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+}
\ No newline at end of file
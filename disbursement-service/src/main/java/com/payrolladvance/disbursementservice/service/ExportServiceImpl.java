@@ -0,0 +1,108 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.ExportFilter;
+import com.payrolladvance.disbursementservice.export.ExportFormat;
+import com.payrolladvance.disbursementservice.export.ExportRowWriter;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of the ExportService interface.
+ * Rows go from a forward-only cursor through a buffered writer straight to the response,
+ * so memory use does not depend on how many rows are exported.
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final DisbursementRepository disbursementRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final TransactionTemplate exportTransaction;
+    
+    @Value("${app.export.fetch-size:5000}")
+    private int fetchSize;
+    
+    /**
+     * Constructs a new ExportServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param repaymentRepository    the repayment repository
+     * @param transactionManager     the transaction manager
+     */
+    public ExportServiceImpl(DisbursementRepository disbursementRepository,
+                             RepaymentRepository repaymentRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exportDisbursements(ExportFilter filter, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        export("disbursements", filter, format, gzip, out,
+                (exportFilter, handler) -> disbursementRepository.forEachExportRow(exportFilter, fetchSize, handler));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exportRepayments(ExportFilter filter, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        export("repayments", filter, format, gzip, out,
+                (exportFilter, handler) -> repaymentRepository.forEachExportRow(exportFilter, fetchSize, handler));
+    }
+    
+    private void export(String name, ExportFilter filter, ExportFormat format, boolean gzip, OutputStream out,
+                        BiConsumer<ExportFilter, RowCallbackHandler> query) throws IOException {
+        long startNanos = System.nanoTime();
+        
+        // Closing the writer finishes the gzip trailer but must leave the response stream open
+        OutputStream target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+            
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        if (gzip) {
+            target = new GZIPOutputStream(target, BUFFER_SIZE);
+        }
+        
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            ExportRowWriter rowWriter = ExportRowWriter.forFormat(format, writer);
+            exportTransaction.executeWithoutResult(status -> query.accept(filter, rowWriter));
+            log.info("Exported {} {} as {} in {} ms", rowWriter.getRowCount(), name, format,
+                    (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (UncheckedIOException e) {
+            // The client went away mid-export
+            throw e.getCause();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.FeeQuoteDto;
+import com.payrolladvance.disbursementservice.dto.FeeScheduleDto;
+import com.payrolladvance.disbursementservice.fee.FeeSchedule;
+
+import java.math.BigDecimal;
+
+/**
+ * Service interface for employer fee schedules.
+ */
+public interface FeeScheduleService {
+    
+    /**
+     * Gets the compiled fee schedule that applies to an employer. Never blocks or touches the database.
+     *
+     * @param employerId the employer ID, or null if unknown
+     * @return the employer's schedule, or the default schedule
+     */
+    FeeSchedule getSchedule(Long employerId);
+    
+    /**
+     * Quotes the fee an employer's schedule charges for an advance amount.
+     *
+     * @param employerId the employer ID, or null for the default schedule
+     * @param amount     the advance amount
+     * @return the fee quote
+     */
+    FeeQuoteDto quote(Long employerId, BigDecimal amount);
+    
+    /**
+     * Stores an employer's fee schedule and swaps it in.
+     *
+     * @param employerId the employer ID
+     * @param schedule   the fee schedule
+     */
+    void saveEmployerSchedule(Long employerId, FeeScheduleDto schedule);
+    
+    /**
+     * Removes an employer's stored fee schedule, falling back to config-repo.
+     *
+     * @param employerId the employer ID
+     */
+    void deleteEmployerSchedule(Long employerId);
+    
+    /**
+     * Recompiles every schedule from config-repo and employer data and swaps them in at once.
+     * If any schedule is invalid the current schedules stay in place.
+     */
+    void reload();
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.config.FeeScheduleProperties;
+import com.payrolladvance.disbursementservice.dto.FeeQuoteDto;
+import com.payrolladvance.disbursementservice.dto.FeeScheduleDto;
+import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.fee.FeeSchedule;
+import com.payrolladvance.disbursementservice.model.EmployerFeeSchedule;
+import com.payrolladvance.disbursementservice.model.EmployerFeeTier;
+import com.payrolladvance.disbursementservice.repository.EmployerFeeScheduleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of the FeeScheduleService interface.
+ * Schedules are compiled into an immutable snapshot that is published through a single volatile field,
+ * so the consumer hot path reads a consistent set of tables without locking while a reload swaps in the next.
+ * Employer data takes precedence over per-employer config, which takes precedence over the default schedule.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeeScheduleServiceImpl implements FeeScheduleService {
+    
+    private final FeeScheduleProperties properties;
+    private final EmployerFeeScheduleRepository employerFeeScheduleRepository;
+    
+    private volatile FeeTables tables;
+    
+    /**
+     * Compiles the initial schedules before any consumer can ask for them.
+     */
+    @PostConstruct
+    public void init() {
+        tables = compile();
+        log.info("Loaded default fee schedule and {} employer fee schedules", tables.employers().size());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FeeSchedule getSchedule(Long employerId) {
+        FeeTables current = tables;
+        if (employerId != null) {
+            FeeSchedule schedule = current.employers().get(employerId);
+            if (schedule != null) {
+                return schedule;
+            }
+        }
+        return current.defaultSchedule();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FeeQuoteDto quote(Long employerId, BigDecimal amount) {
+        FeeSchedule schedule = getSchedule(employerId);
+        long amountMinor = FeeSchedule.toMinorUnits(amount);
+        long feeMinor = schedule.feeFor(amountMinor);
+        return FeeQuoteDto.builder()
+                .employerId(employerId)
+                .amount(FeeSchedule.fromMinorUnits(amountMinor))
+                .feeAmount(FeeSchedule.fromMinorUnits(feeMinor))
+                .totalRepaymentAmount(FeeSchedule.fromMinorUnits(amountMinor + feeMinor))
+                .repaymentTermDays(schedule.getRepaymentTermDays())
+                .build();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void saveEmployerSchedule(Long employerId, FeeScheduleDto schedule) {
+        // Reject the schedule before storing it
+        FeeSchedule.compile(schedule, properties.getRepaymentTermDays());
+        
+        EmployerFeeSchedule entity = employerFeeScheduleRepository.findById(employerId)
+                .orElseGet(EmployerFeeSchedule::new);
+        entity.setEmployerId(employerId);
+        entity.getTiers().clear();
+        schedule.getTiers().forEach(tier -> entity.getTiers().add(new EmployerFeeTier(
+                tier.getUpTo(),
+                tier.getRateBps(),
+                tier.getFlatFee() != null ? tier.getFlatFee() : BigDecimal.ZERO)));
+        entity.setMinimumFee(schedule.getMinimumFee());
+        entity.setMaximumFee(schedule.getMaximumFee());
+        entity.setRepaymentTermDays(schedule.getRepaymentTermDays());
+        employerFeeScheduleRepository.save(entity);
+        
+        log.info("Saved fee schedule for employer with ID: {}", employerId);
+        reload();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void deleteEmployerSchedule(Long employerId) {
+        if (!employerFeeScheduleRepository.existsById(employerId)) {
+            throw new ResourceNotFoundException("Fee schedule not found for employer with ID: " + employerId);
+        }
+        employerFeeScheduleRepository.deleteById(employerId);
+        
+        log.info("Deleted fee schedule for employer with ID: {}", employerId);
+        reload();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.fees.reload-interval-ms:60000}",
+            initialDelayString = "${app.fees.reload-interval-ms:60000}")
+    public void reload() {
+        try {
+            FeeTables next = compile();
+            tables = next;
+            log.debug("Reloaded default fee schedule and {} employer fee schedules", next.employers().size());
+        } catch (RuntimeException e) {
+            log.error("Failed to reload fee schedules, keeping the current ones", e);
+        }
+    }
+    
+    /**
+     * Reloads the schedules once config-repo changes have been rebound after a refresh.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        log.info("Configuration refreshed, reloading fee schedules");
+        reload();
+    }
+    
+    private FeeTables compile() {
+        int defaultTermDays = properties.getRepaymentTermDays();
+        FeeSchedule defaultSchedule = FeeSchedule.compile(properties.getDefaultSchedule(), defaultTermDays);
+        
+        Map<Long, FeeSchedule> employers = new HashMap<>();
+        properties.getEmployers().forEach((employerId, schedule) ->
+                employers.put(employerId, FeeSchedule.compile(schedule, defaultTermDays)));
+        for (EmployerFeeSchedule schedule : employerFeeScheduleRepository.findAll()) {
+            employers.put(schedule.getEmployerId(), FeeSchedule.compile(toDto(schedule), defaultTermDays));
+        }
+        return new FeeTables(defaultSchedule, Map.copyOf(employers));
+    }
+    
+    private FeeScheduleDto toDto(EmployerFeeSchedule schedule) {
+        return FeeScheduleDto.builder()
+                .tiers(schedule.getTiers().stream()
+                        .map(tier -> FeeScheduleDto.Tier.builder()
+                                .upTo(tier.getUpTo())
+                                .rateBps(tier.getRateBps())
+                                .flatFee(tier.getFlatFee())
+                                .build())
+                        .toList())
+                .minimumFee(schedule.getMinimumFee())
+                .maximumFee(schedule.getMaximumFee())
+                .repaymentTermDays(schedule.getRepaymentTermDays())
+                .build();
+    }
+    
+    /**
+     * An immutable set of compiled schedules, swapped in as a whole.
+     */
+    private record FeeTables(FeeSchedule defaultSchedule, Map<Long, FeeSchedule> employers) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.DisbursementBalanceDto;
+import com.payrolladvance.disbursementservice.dto.LedgerVerificationReport;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.Repayment;
+
+/**
+ * Service interface for the append-only disbursement balance ledger.
+ */
+public interface LedgerService {
+    
+    /**
+     * Records that a disbursement has been paid out, making its total repayment amount owed.
+     * Does nothing if the disbursement is already on the ledger and has not been reversed since.
+     *
+     * @param disbursement the completed disbursement
+     */
+    void recordDisbursed(Disbursement disbursement);
+    
+    /**
+     * Records that the gateway reversed a disbursement it had paid out, so its total repayment amount
+     * is no longer owed. Does nothing unless the disbursement is on the ledger and not yet reversed.
+     *
+     * @param disbursement the disbursement that left the COMPLETED state
+     */
+    void recordDisbursementReversal(Disbursement disbursement);
+    
+    /**
+     * Records a completed repayment against its disbursement.
+     *
+     * @param repayment the completed repayment
+     */
+    void recordRepayment(Repayment repayment);
+    
+    /**
+     * Records that a previously completed repayment no longer counts against its disbursement.
+     *
+     * @param repayment the repayment that left the COMPLETED state
+     */
+    void recordRepaymentReversal(Repayment repayment);
+    
+    /**
+     * Gets the outstanding balance of a disbursement from its latest snapshot plus the entries after it.
+     *
+     * @param disbursementId the disbursement ID
+     * @return the outstanding balance
+     */
+    DisbursementBalanceDto getOutstandingBalance(Long disbursementId);
+    
+    /**
+     * Re-scans the whole ledger in parallel, checking that every disbursement's entries are
+     * contiguous and that every snapshot matches the balance recomputed from the entries.
+     *
+     * @return the verification report
+     */
+    LedgerVerificationReport verifyLedger();
+}
@@ -0,0 +1,326 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.DisbursementBalanceDto;
+import com.payrolladvance.disbursementservice.dto.LedgerVerificationReport;
+import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.LedgerEntry;
+import com.payrolladvance.disbursementservice.model.LedgerSnapshot;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.LedgerEntryRepository;
+import com.payrolladvance.disbursementservice.repository.LedgerEntryScanRepository.ScannedEntry;
+import com.payrolladvance.disbursementservice.repository.LedgerSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the LedgerService interface.
+ * Appends are serialised per disbursement by locking its row. Every {@code snapshot-interval}
+ * entries a snapshot is written, so a balance read sums at most that many entries however
+ * many partial repayments the disbursement has had.
+ */
+@Slf4j
+@Service
+public class LedgerServiceImpl implements LedgerService {
+    
+    private static final int MAX_REPORTED_VIOLATIONS = 100;
+    
+    private final DisbursementRepository disbursementRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerSnapshotRepository ledgerSnapshotRepository;
+    private final TransactionTemplate scanTransaction;
+    
+    @Value("${app.ledger.snapshot-interval:16}")
+    private int snapshotInterval;
+    
+    @Value("${app.ledger.verify-partitions:4}")
+    private int verifyPartitions;
+    
+    @Value("${app.ledger.verify-fetch-size:5000}")
+    private int verifyFetchSize;
+    
+    /**
+     * Constructs a new LedgerServiceImpl.
+     *
+     * @param disbursementRepository   the disbursement repository
+     * @param ledgerEntryRepository    the ledger entry repository
+     * @param ledgerSnapshotRepository the ledger snapshot repository
+     * @param transactionManager       the transaction manager
+     */
+    public LedgerServiceImpl(DisbursementRepository disbursementRepository,
+                             LedgerEntryRepository ledgerEntryRepository,
+                             LedgerSnapshotRepository ledgerSnapshotRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerSnapshotRepository = ledgerSnapshotRepository;
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.scanTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void recordDisbursed(Disbursement disbursement) {
+        lock(disbursement.getId());
+        if (isDisbursed(disbursement.getId())) {
+            log.info("Disbursement with ID: {} is already on the ledger", disbursement.getId());
+            return;
+        }
+        append(disbursement.getId(), LedgerEntry.DISBURSED, disbursement.getTotalRepaymentAmount(), null);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void recordDisbursementReversal(Disbursement disbursement) {
+        lock(disbursement.getId());
+        if (!isDisbursed(disbursement.getId())) {
+            log.info("Disbursement with ID: {} has no payout on the ledger to reverse", disbursement.getId());
+            return;
+        }
+        append(disbursement.getId(), LedgerEntry.DISBURSEMENT_REVERSAL,
+                disbursement.getTotalRepaymentAmount().negate(), null);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void recordRepayment(Repayment repayment) {
+        lock(repayment.getDisbursementId());
+        append(repayment.getDisbursementId(), LedgerEntry.REPAYMENT, repayment.getAmount().negate(), repayment.getId());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void recordRepaymentReversal(Repayment repayment) {
+        lock(repayment.getDisbursementId());
+        append(repayment.getDisbursementId(), LedgerEntry.REPAYMENT_REVERSAL, repayment.getAmount(), repayment.getId());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DisbursementBalanceDto getOutstandingBalance(Long disbursementId) {
+        if (!disbursementRepository.existsById(disbursementId)) {
+            throw new ResourceNotFoundException("Disbursement not found with ID: " + disbursementId);
+        }
+        
+        BalanceTail balanceTail = readBalanceTail(disbursementId);
+        return DisbursementBalanceDto.builder()
+                .disbursementId(disbursementId)
+                .outstandingBalance(balanceTail.balance())
+                .lastSequenceNumber(balanceTail.lastSequenceNumber())
+                .build();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LedgerVerificationReport verifyLedger() {
+        log.info("Verifying ledger across {} partitions", verifyPartitions);
+        long start = System.currentTimeMillis();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(verifyPartitions);
+        try {
+            List<CompletableFuture<LedgerScan>> futures = IntStream.range(0, verifyPartitions)
+                    .mapToObj(partition -> CompletableFuture.supplyAsync(() -> scanPartition(partition), executor))
+                    .toList();
+            
+            LedgerScan total = new LedgerScan();
+            futures.stream().map(CompletableFuture::join).forEach(total::merge);
+            
+            long durationMillis = System.currentTimeMillis() - start;
+            log.info("Ledger verification checked {} entries of {} disbursements in {} ms, found {} violations",
+                    total.entries, total.disbursements, durationMillis, total.violationCount);
+            return LedgerVerificationReport.builder()
+                    .disbursementsChecked(total.disbursements)
+                    .entriesChecked(total.entries)
+                    .violationCount(total.violationCount)
+                    .violations(total.violations)
+                    .durationMillis(durationMillis)
+                    .build();
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Locks a disbursement's row so concurrent appends to its ledger are serialised.
+     *
+     * @param disbursementId the disbursement ID
+     */
+    private void lock(Long disbursementId) {
+        disbursementRepository.findByIdForUpdate(disbursementId)
+                .orElseThrow(() -> new ResourceNotFoundException("Disbursement not found with ID: " + disbursementId));
+    }
+    
+    /**
+     * Checks whether a disbursement's payout is on its ledger, counting each reversal against one payout.
+     * The caller must hold the disbursement's lock.
+     *
+     * @param disbursementId the disbursement ID
+     * @return true if the payout is on the ledger and not reversed
+     */
+    private boolean isDisbursed(Long disbursementId) {
+        long payouts = ledgerEntryRepository.countByDisbursementIdAndEntryType(disbursementId, LedgerEntry.DISBURSED);
+        long reversals = ledgerEntryRepository.countByDisbursementIdAndEntryType(
+                disbursementId, LedgerEntry.DISBURSEMENT_REVERSAL);
+        return payouts > reversals;
+    }
+    
+    /**
+     * Appends an entry to a disbursement's ledger, taking a snapshot when the tail reaches the snapshot interval.
+     * The caller must hold the disbursement's lock.
+     *
+     * @param disbursementId the disbursement ID
+     * @param entryType      the entry type
+     * @param amount         the signed amount
+     * @param repaymentId    the related repayment ID, if any
+     */
+    private void append(Long disbursementId, String entryType, BigDecimal amount, Long repaymentId) {
+        BalanceTail balanceTail = readBalanceTail(disbursementId);
+        long sequenceNumber = balanceTail.lastSequenceNumber() + 1;
+        BigDecimal balance = balanceTail.balance().add(amount);
+        
+        LedgerEntry entry = new LedgerEntry();
+        entry.setDisbursementId(disbursementId);
+        entry.setSequenceNumber(sequenceNumber);
+        entry.setEntryType(entryType);
+        entry.setAmount(amount);
+        entry.setRepaymentId(repaymentId);
+        ledgerEntryRepository.save(entry);
+        
+        if (balanceTail.tailLength() + 1 >= snapshotInterval) {
+            LedgerSnapshot snapshot = new LedgerSnapshot();
+            snapshot.setDisbursementId(disbursementId);
+            snapshot.setSequenceNumber(sequenceNumber);
+            snapshot.setBalance(balance);
+            ledgerSnapshotRepository.save(snapshot);
+        }
+        
+        log.info("Recorded {} of {} on ledger of disbursement ID: {}, balance now {}",
+                entryType, amount, disbursementId, balance);
+    }
+    
+    /**
+     * Reads the balance of a disbursement's ledger from its latest snapshot plus the entries after it.
+     *
+     * @param disbursementId the disbursement ID
+     * @return the balance and the position of the last entry
+     */
+    private BalanceTail readBalanceTail(Long disbursementId) {
+        LedgerSnapshot snapshot = ledgerSnapshotRepository
+                .findTopByDisbursementIdOrderBySequenceNumberDesc(disbursementId)
+                .orElse(null);
+        long snapshotSequence = snapshot != null ? snapshot.getSequenceNumber() : 0;
+        BigDecimal balance = snapshot != null ? snapshot.getBalance() : BigDecimal.ZERO;
+        
+        List<LedgerEntry> tail = ledgerEntryRepository
+                .findByDisbursementIdAndSequenceNumberGreaterThanOrderBySequenceNumber(disbursementId, snapshotSequence);
+        for (LedgerEntry entry : tail) {
+            balance = balance.add(entry.getAmount());
+        }
+        return new BalanceTail(balance, snapshotSequence + tail.size(), tail.size());
+    }
+    
+    /**
+     * Scans one partition of the ledger.
+     *
+     * @param partitionNumber the partition number
+     * @return the scan result
+     */
+    private LedgerScan scanPartition(int partitionNumber) {
+        LedgerScan scan = new LedgerScan();
+        scanTransaction.executeWithoutResult(status -> ledgerEntryRepository.forEachEntry(
+                verifyPartitions, partitionNumber, verifyFetchSize, scan::accept));
+        return scan;
+    }
+    
+    /**
+     * Balance of a ledger and where it ends.
+     *
+     * @param balance            the balance after the last entry
+     * @param lastSequenceNumber the sequence number of the last entry
+     * @param tailLength         the number of entries after the latest snapshot
+     */
+    private record BalanceTail(BigDecimal balance, long lastSequenceNumber, int tailLength) {
+    }
+    
+    /**
+     * Running state of a ledger scan over entries ordered by disbursement and sequence number.
+     */
+    private static final class LedgerScan {
+        
+        private long disbursements;
+        private long entries;
+        private long violationCount;
+        private final List<String> violations = new ArrayList<>();
+        private Long currentDisbursementId;
+        private long expectedSequenceNumber;
+        private BigDecimal balance = BigDecimal.ZERO;
+        
+        private void accept(ScannedEntry entry) {
+            entries++;
+            if (!entry.disbursementId().equals(currentDisbursementId)) {
+                currentDisbursementId = entry.disbursementId();
+                expectedSequenceNumber = 1;
+                balance = BigDecimal.ZERO;
+                disbursements++;
+            }
+            
+            if (entry.sequenceNumber() != expectedSequenceNumber) {
+                violation("Disbursement " + currentDisbursementId + ": expected entry " + expectedSequenceNumber
+                        + " but found " + entry.sequenceNumber());
+            }
+            expectedSequenceNumber = entry.sequenceNumber() + 1;
+            balance = balance.add(entry.amount());
+            
+            if (entry.snapshotBalance() != null && entry.snapshotBalance().compareTo(balance) != 0) {
+                violation("Disbursement " + currentDisbursementId + ": snapshot at entry " + entry.sequenceNumber()
+                        + " has balance " + entry.snapshotBalance() + " but entries sum to " + balance);
+            }
+        }
+        
+        private void violation(String description) {
+            violationCount++;
+            if (violations.size() < MAX_REPORTED_VIOLATIONS) {
+                violations.add(description);
+            }
+        }
+        
+        private void merge(LedgerScan other) {
+            disbursements += other.disbursements;
+            entries += other.entries;
+            violationCount += other.violationCount;
+            other.violations.stream()
+                    .limit(MAX_REPORTED_VIOLATIONS - violations.size())
+                    .forEach(violations::add);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.PartitionMaintenanceSummary;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.Repayment;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Service interface for the monthly partitions of disbursements and repayments and their archives.
+ */
+public interface PartitionMaintenanceService {
+    
+    /**
+     * Creates the partitions for the coming months and archives closed partitions past the retention period.
+     *
+     * @return the maintenance summary
+     */
+    PartitionMaintenanceSummary maintainPartitions();
+    
+    /**
+     * Reads disbursements back from archived months.
+     *
+     * @param month      the archived month, or null for every archived month
+     * @param employeeId the employee to include, or null for all
+     * @param status     the status to include, or null for all
+     * @return the archived disbursements
+     */
+    List<Disbursement> findArchivedDisbursements(YearMonth month, Long employeeId, String status);
+    
+    /**
+     * Reads repayments back from archived months.
+     *
+     * @param month      the archived month, or null for every archived month
+     * @param employeeId the employee to include, or null for all
+     * @param status     the status to include, or null for all
+     * @return the archived repayments
+     */
+    List<Repayment> findArchivedRepayments(YearMonth month, Long employeeId, String status);
+}
\ No newline at end of file
@@ -0,0 +1,237 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.archive.ColumnarArchiveReader;
+import com.payrolladvance.disbursementservice.archive.ColumnarArchiveWriter;
+import com.payrolladvance.disbursementservice.dto.PartitionMaintenanceSummary;
+import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.model.ArchivedPartition;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.repository.ArchivedPartitionRepository;
+import com.payrolladvance.disbursementservice.repository.PartitionManagementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Implementation of the PartitionMaintenanceService interface.
+ * A month is archived by streaming its partition into a columnar file, recording the file in the
+ * archive catalogue and dropping the partition in one transaction, so a failure before the drop
+ * leaves the rows in the database and the next run simply archives them again.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceServiceImpl implements PartitionMaintenanceService {
+    
+    private static final List<String> TABLES = List.of("disbursements", "repayments");
+    
+    private final ArchivedPartitionRepository archivedPartitionRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    
+    @Value("${app.partitioning.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${app.partitioning.archive-after-months:12}")
+    private int archiveAfterMonths;
+    
+    @Value("${app.partitioning.archive-dir:archive}")
+    private String archiveDir;
+    
+    @Value("${app.partitioning.fetch-size:5000}")
+    private int fetchSize;
+    
+    /**
+     * Constructs a new PartitionMaintenanceServiceImpl.
+     *
+     * @param archivedPartitionRepository the archived partition repository
+     * @param transactionManager          the transaction manager
+     */
+    public PartitionMaintenanceServiceImpl(ArchivedPartitionRepository archivedPartitionRepository,
+                                           PlatformTransactionManager transactionManager) {
+        this.archivedPartitionRepository = archivedPartitionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(cron = "${app.partitioning.cron:0 30 0 * * *}")
+    public PartitionMaintenanceSummary maintainPartitions() {
+        long startNanos = System.nanoTime();
+        List<String> created = new ArrayList<>();
+        List<String> archived = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        long rowsArchived = 0;
+        
+        YearMonth currentMonth = YearMonth.now();
+        YearMonth archiveBefore = currentMonth.minusMonths(archiveAfterMonths);
+        for (String table : TABLES) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = currentMonth.plusMonths(i);
+                Boolean partitionCreated = writeTransaction.execute(status ->
+                        archivedPartitionRepository.createMonthlyPartition(table, month));
+                if (Boolean.TRUE.equals(partitionCreated)) {
+                    created.add(PartitionManagementRepository.partitionName(table, month));
+                }
+            }
+            
+            for (YearMonth month : archivedPartitionRepository.findMonthlyPartitions(table)) {
+                if (!month.isBefore(archiveBefore)) {
+                    continue;
+                }
+                String partition = PartitionManagementRepository.partitionName(table, month);
+                if (Boolean.TRUE.equals(readTransaction.execute(status -> archivedPartitionRepository.hasOpenRows(table, month)))) {
+                    log.warn("Partition {} is past retention but still has open rows, not archiving", partition);
+                    skipped.add(partition);
+                    continue;
+                }
+                rowsArchived += archive(table, month);
+                archived.add(partition);
+            }
+        }
+        
+        PartitionMaintenanceSummary summary = PartitionMaintenanceSummary.builder()
+                .partitionsCreated(created)
+                .partitionsArchived(archived)
+                .partitionsSkipped(skipped)
+                .rowsArchived(rowsArchived)
+                .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                .build();
+        log.info("Partition maintenance created {}, archived {} ({} rows), skipped {}",
+                created, archived, rowsArchived, skipped);
+        return summary;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Disbursement> findArchivedDisbursements(YearMonth month, Long employeeId, String status) {
+        return readArchived("disbursements", month, employeeId, status, this::toDisbursement);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Repayment> findArchivedRepayments(YearMonth month, Long employeeId, String status) {
+        return readArchived("repayments", month, employeeId, status, this::toRepayment);
+    }
+    
+    /**
+     * Writes a partition to its archive file, then records the archive and drops the partition.
+     *
+     * @return the number of rows archived
+     */
+    private long archive(String table, YearMonth month) {
+        String partition = PartitionManagementRepository.partitionName(table, month);
+        Path file = Paths.get(archiveDir, table, partition + ".pac").toAbsolutePath();
+        
+        long rowCount;
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+            readTransaction.executeWithoutResult(status ->
+                    archivedPartitionRepository.forEachPartitionRow(table, month, fetchSize, writer));
+            rowCount = writer.finish();
+            if (ColumnarArchiveReader.readRowCount(file) != rowCount) {
+                throw new IOException("Archive " + file + " does not hold the " + rowCount + " rows written");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive partition " + partition, e);
+        }
+        
+        writeTransaction.executeWithoutResult(status -> {
+            ArchivedPartition archivedPartition = archivedPartitionRepository
+                    .findByTableNameAndPartitionMonth(table, month.atDay(1))
+                    .orElseGet(ArchivedPartition::new);
+            archivedPartition.setTableName(table);
+            archivedPartition.setPartitionMonth(month.atDay(1));
+            archivedPartition.setFilePath(file.toString());
+            archivedPartition.setRowCount(rowCount);
+            archivedPartitionRepository.save(archivedPartition);
+            archivedPartitionRepository.dropMonthlyPartition(table, month);
+        });
+        
+        log.info("Archived {} rows of partition {} to {}", rowCount, partition, file);
+        return rowCount;
+    }
+    
+    private <T> List<T> readArchived(String table, YearMonth month, Long employeeId, String status,
+                                     Function<Map<String, Object>, T> mapper) {
+        List<ArchivedPartition> archives;
+        if (month != null) {
+            archives = List.of(archivedPartitionRepository.findByTableNameAndPartitionMonth(table, month.atDay(1))
+                    .orElseThrow(() -> new ResourceNotFoundException("No archive of " + table + " for " + month)));
+        } else {
+            archives = archivedPartitionRepository.findByTableNameOrderByPartitionMonth(table);
+        }
+        
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("employee_id", employeeId);
+        filters.put("status", status);
+        
+        List<T> results = new ArrayList<>();
+        for (ArchivedPartition archive : archives) {
+            try {
+                ColumnarArchiveReader.read(Paths.get(archive.getFilePath()), filters).forEach(row -> results.add(mapper.apply(row)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive " + archive.getFilePath(), e);
+            }
+        }
+        return results;
+    }
+    
+    private Disbursement toDisbursement(Map<String, Object> row) {
+        Disbursement disbursement = new Disbursement();
+        disbursement.setId((Long) row.get("id"));
+        disbursement.setAdvanceRequestId((Long) row.get("advance_request_id"));
+        disbursement.setEmployeeId((Long) row.get("employee_id"));
+        disbursement.setEmployerId((Long) row.get("employer_id"));
+        disbursement.setAmount((BigDecimal) row.get("amount"));
+        disbursement.setTransactionReference((String) row.get("transaction_reference"));
+        disbursement.setStatus((String) row.get("status"));
+        disbursement.setPaymentMethod((String) row.get("payment_method"));
+        disbursement.setExpectedRepaymentDate((LocalDateTime) row.get("expected_repayment_date"));
+        disbursement.setFeeAmount((BigDecimal) row.get("fee_amount"));
+        disbursement.setTotalRepaymentAmount((BigDecimal) row.get("total_repayment_amount"));
+        disbursement.setRetryCount(row.get("retry_count") instanceof Long retryCount ? retryCount.intValue() : 0);
+        disbursement.setNextAttemptAt((LocalDateTime) row.get("next_attempt_at"));
+        disbursement.setCreatedAt((LocalDateTime) row.get("created_at"));
+        disbursement.setUpdatedAt((LocalDateTime) row.get("updated_at"));
+        return disbursement;
+    }
+    
+    private Repayment toRepayment(Map<String, Object> row) {
+        Repayment repayment = new Repayment();
+        repayment.setId((Long) row.get("id"));
+        repayment.setDisbursementId((Long) row.get("disbursement_id"));
+        repayment.setEmployeeId((Long) row.get("employee_id"));
+        repayment.setAmount((BigDecimal) row.get("amount"));
+        repayment.setTransactionReference((String) row.get("transaction_reference"));
+        repayment.setStatus((String) row.get("status"));
+        repayment.setPaymentMethod((String) row.get("payment_method"));
+        repayment.setPaymentDate((LocalDateTime) row.get("payment_date"));
+        repayment.setCreatedAt((LocalDateTime) row.get("created_at"));
+        repayment.setUpdatedAt((LocalDateTime) row.get("updated_at"));
+        return repayment;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.ReconciliationReport;
+import com.payrolladvance.disbursementservice.dto.ReconciliationRequest;
+
+/**
+ * Service interface for reconciling gateway settlement files against disbursements and repayments.
+ */
+public interface ReconciliationService {
+    
+    /**
+     * Reconciles a settlement file against the completed disbursements and repayments created in the requested range.
+     *
+     * @param request the settlement file and date range
+     * @return the reconciliation summary
+     */
+    ReconciliationReport reconcile(ReconciliationRequest request);
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.ReconciliationReport;
+import com.payrolladvance.disbursementservice.dto.ReconciliationRequest;
+import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.reconciliation.ReconciliationReportWriter;
+import com.payrolladvance.disbursementservice.reconciliation.SettlementFileIndex;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
+import com.payrolladvance.disbursementservice.repository.TransactionReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Implementation of the ReconciliationService interface.
+ * The settlement file is indexed first, then our completed payments are streamed through a cursor
+ * and probed against the index, so neither side is ever materialised as entities.
+ */
+@Slf4j
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+    
+    private static final String DISBURSEMENT = "DISBURSEMENT";
+    private static final String REPAYMENT = "REPAYMENT";
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    
+    private final DisbursementRepository disbursementRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final TransactionTemplate scanTransaction;
+    
+    @Value("${app.reconciliation.inbox-dir:settlements/inbox}")
+    private String inboxDir;
+    
+    @Value("${app.reconciliation.report-dir:settlements/reports}")
+    private String reportDir;
+    
+    @Value("${app.reconciliation.fetch-size:5000}")
+    private int fetchSize;
+    
+    /**
+     * Constructs a new ReconciliationServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param repaymentRepository    the repayment repository
+     * @param transactionManager     the transaction manager
+     */
+    public ReconciliationServiceImpl(DisbursementRepository disbursementRepository,
+                                     RepaymentRepository repaymentRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.scanTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ReconciliationReport reconcile(ReconciliationRequest request) {
+        if (request.getToDate().isBefore(request.getFromDate())) {
+            throw new IllegalArgumentException("To date must not be before from date");
+        }
+        Path file = resolveSettlementFile(request.getFileName());
+        LocalDateTime from = request.getFromDate().atStartOfDay();
+        LocalDateTime to = request.getToDate().plusDays(1).atStartOfDay();
+        
+        long startNanos = System.nanoTime();
+        log.info("Reconciling settlement file {} against payments created from {} to {}",
+                file.getFileName(), request.getFromDate(), request.getToDate());
+        
+        try {
+            Path reportPath = Paths.get(reportDir)
+                    .resolve(file.getFileName() + "-" + LocalDateTime.now().format(RUN_FORMAT));
+            Files.createDirectories(reportPath);
+            
+            try (SettlementFileIndex index = SettlementFileIndex.load(file);
+                 ReconciliationReportWriter writer = new ReconciliationReportWriter(reportPath)) {
+                index.forEachDuplicate(line -> writer.duplicateInSettlement(index.getReference(line), index.getAmount(line)));
+                
+                long[] recordsScanned = new long[1];
+                scanTransaction.executeWithoutResult(status -> {
+                    disbursementRepository.forEachTransactionReference(from, to, fetchSize, payment -> {
+                        match(index, writer, DISBURSEMENT, payment);
+                        recordsScanned[0]++;
+                    });
+                    repaymentRepository.forEachTransactionReference(from, to, fetchSize, payment -> {
+                        match(index, writer, REPAYMENT, payment);
+                        recordsScanned[0]++;
+                    });
+                });
+                
+                index.forEachUnmatched(line -> writer.missingFromRecords(index.getReference(line), index.getAmount(line)));
+                
+                ReconciliationReport report = ReconciliationReport.builder()
+                        .fileName(request.getFileName())
+                        .fromDate(request.getFromDate())
+                        .toDate(request.getToDate())
+                        .settlementLines(index.getLineCount())
+                        .malformedLines(index.getMalformedLines())
+                        .recordsScanned(recordsScanned[0])
+                        .matched(writer.getMatchedCount())
+                        .amountMismatches(writer.getAmountMismatchCount())
+                        .missingFromSettlement(writer.getMissingFromSettlementCount())
+                        .missingFromRecords(writer.getMissingFromRecordsCount())
+                        .duplicates(writer.getDuplicateCount())
+                        .reportDirectory(reportPath.toAbsolutePath().toString())
+                        .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                        .build();
+                log.info("Reconciled {} settlement lines against {} payments in {} ms: {} matched, {} amount mismatches, " +
+                                "{} missing from settlement, {} missing from records, {} duplicates",
+                        report.getSettlementLines(), report.getRecordsScanned(), report.getDurationMillis(),
+                        report.getMatched(), report.getAmountMismatches(), report.getMissingFromSettlement(),
+                        report.getMissingFromRecords(), report.getDuplicates());
+                return report;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reconcile settlement file " + request.getFileName(), e);
+        }
+    }
+    
+    /**
+     * Probes one of our payments against the settlement index and reports the outcome.
+     */
+    private void match(SettlementFileIndex index, ReconciliationReportWriter writer, String type, TransactionReference payment) {
+        long recorded = payment.amount().movePointRight(2).longValue();
+        int line = index.find(payment.transactionReference());
+        if (line < 0) {
+            writer.missingFromSettlement(type, payment.id(), payment.transactionReference(), recorded);
+        } else if (index.isMatched(line)) {
+            writer.duplicateInRecords(type, payment.id(), payment.transactionReference(), recorded);
+        } else {
+            index.markMatched(line);
+            long settled = index.getAmount(line);
+            if (settled == recorded) {
+                writer.matched(type, payment.id(), payment.transactionReference(), recorded);
+            } else {
+                writer.amountMismatch(type, payment.id(), payment.transactionReference(), recorded, settled);
+            }
+        }
+    }
+    
+    /**
+     * Resolves a settlement file name within the inbox, refusing names that escape it.
+     */
+    private Path resolveSettlementFile(String fileName) {
+        Path inbox = Paths.get(inboxDir).toAbsolutePath().normalize();
+        Path file = inbox.resolve(fileName).normalize();
+        if (!file.startsWith(inbox) || file.equals(inbox)) {
+            throw new IllegalArgumentException("Settlement file must be inside the settlement inbox");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Settlement file not found: " + fileName);
+        }
+        return file;
+    }
+}
\ No newline at end of file
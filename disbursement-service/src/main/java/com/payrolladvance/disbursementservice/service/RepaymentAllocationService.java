@@ -0,0 +1,27 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.LumpSumRepaymentDto;
+import com.payrolladvance.disbursementservice.dto.RepaymentAllocationRequest;
+import com.payrolladvance.disbursementservice.dto.RepaymentAllocationSummary;
+
+/**
+ * Service interface for allocating lump-sum repayments across employees' open disbursements.
+ */
+public interface RepaymentAllocationService {
+    
+    /**
+     * Allocates every deduction in a payroll file, creating one PENDING repayment per disbursement paid.
+     *
+     * @param request the payroll file and allocation options
+     * @return a summary of the allocation
+     */
+    RepaymentAllocationSummary allocateFile(RepaymentAllocationRequest request);
+    
+    /**
+     * Allocates a single lump sum across one employee's open disbursements.
+     *
+     * @param lumpSum the lump-sum repayment
+     * @return a summary of the allocation
+     */
+    RepaymentAllocationSummary allocate(LumpSumRepaymentDto lumpSum);
+}
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.allocation.AllocationOrder;
+import com.payrolladvance.disbursementservice.dto.LumpSumRepaymentDto;
+import com.payrolladvance.disbursementservice.dto.RepaymentAllocationRequest;
+import com.payrolladvance.disbursementservice.dto.RepaymentAllocationSummary;
+import com.payrolladvance.disbursementservice.event.EventPayloads;
+import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.repository.DisbursementBatchRepository.OpenDisbursement;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
+import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.events.RepaymentEvent;
+import com.payrolladvance.kafka.common.util.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the RepaymentAllocationService interface.
+ * Deductions are summed per employee, then allocated in chunks of employees: each chunk reads and locks
+ * all of its employees' open disbursements with one query, walks them in allocation order in memory and
+ * writes the resulting repayments in one JDBC batch, so no disbursement is ever loaded as an entity.
+ */
+@Slf4j
+@Service
+public class RepaymentAllocationServiceImpl implements RepaymentAllocationService {
+    
+    private static final int MAX_REPORTED_REMAINDERS = 100;
+    
+    private final DisbursementRepository disbursementRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final EventPublisher eventPublisher;
+    private final StatusCounterService statusCounterService;
+    private final TransactionTemplate chunkTransaction;
+    
+    @Value("${app.allocation.inbox-dir:payroll/inbox}")
+    private String inboxDir;
+    
+    @Value("${app.allocation.default-order:OLDEST_FIRST}")
+    private AllocationOrder defaultOrder;
+    
+    @Value("${app.allocation.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${app.allocation.payment-method:PAYROLL_DEDUCTION}")
+    private String paymentMethod;
+    
+    /**
+     * Constructs a new RepaymentAllocationServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param repaymentRepository    the repayment repository
+     * @param eventPublisher         the event publisher
+     * @param statusCounterService   the status counter service
+     * @param transactionManager     the transaction manager
+     */
+    public RepaymentAllocationServiceImpl(DisbursementRepository disbursementRepository,
+                                          RepaymentRepository repaymentRepository,
+                                          EventPublisher eventPublisher,
+                                          StatusCounterService statusCounterService,
+                                          PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.eventPublisher = eventPublisher;
+        this.statusCounterService = statusCounterService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RepaymentAllocationSummary allocateFile(RepaymentAllocationRequest request) {
+        Path file = resolvePayrollFile(request.getFileName());
+        AllocationOrder order = request.getOrder() != null ? request.getOrder() : defaultOrder;
+        LocalDateTime paymentDate = request.getPaymentDate() != null ? request.getPaymentDate() : LocalDateTime.now();
+        
+        long startNanos = System.nanoTime();
+        log.info("Allocating payroll file {} {}", file.getFileName(), order);
+        
+        RepaymentAllocationSummary summary = newSummary(order);
+        summary.setFileName(request.getFileName());
+        Map<Long, BigDecimal> lumpSums = readPayrollFile(file, summary);
+        
+        Map<Long, BigDecimal> chunk = new LinkedHashMap<>();
+        for (Map.Entry<Long, BigDecimal> lumpSum : lumpSums.entrySet()) {
+            chunk.put(lumpSum.getKey(), lumpSum.getValue());
+            if (chunk.size() == chunkSize) {
+                allocateChunk(chunk, order, paymentDate, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            allocateChunk(chunk, order, paymentDate, summary);
+        }
+        
+        summary.setDurationMillis((System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Allocated payroll file {} for {} employees in {} ms: {} repayments, {} allocated, {} unallocated, " +
+                        "{} malformed lines",
+                file.getFileName(), summary.getEmployees(), summary.getDurationMillis(), summary.getRepaymentsCreated(),
+                summary.getAmountAllocated(), summary.getAmountUnallocated(), summary.getMalformedLines());
+        return summary;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RepaymentAllocationSummary allocate(LumpSumRepaymentDto lumpSum) {
+        AllocationOrder order = lumpSum.getOrder() != null ? lumpSum.getOrder() : defaultOrder;
+        LocalDateTime paymentDate = lumpSum.getPaymentDate() != null ? lumpSum.getPaymentDate() : LocalDateTime.now();
+        
+        long startNanos = System.nanoTime();
+        log.info("Allocating lump sum of {} for employee ID: {} {}", lumpSum.getAmount(), lumpSum.getEmployeeId(), order);
+        
+        RepaymentAllocationSummary summary = newSummary(order);
+        summary.setEmployees(1);
+        allocateChunk(Map.of(lumpSum.getEmployeeId(), lumpSum.getAmount()), order, paymentDate, summary);
+        summary.setDurationMillis((System.nanoTime() - startNanos) / 1_000_000);
+        return summary;
+    }
+    
+    /**
+     * Allocates the lump sums of one chunk of employees in a single transaction.
+     * The open disbursements arrive grouped by employee and in allocation order, so each lump sum
+     * simply pays them off one after another until it runs out.
+     */
+    private void allocateChunk(Map<Long, BigDecimal> lumpSums, AllocationOrder order, LocalDateTime paymentDate,
+                               RepaymentAllocationSummary summary) {
+        List<Repayment> repayments = chunkTransaction.execute(status -> {
+            Map<Long, BigDecimal> remaining = new HashMap<>(lumpSums);
+            List<Repayment> allocated = new ArrayList<>();
+            for (OpenDisbursement open : disbursementRepository.findOpenForAllocation(lumpSums.keySet(), order)) {
+                BigDecimal left = remaining.get(open.employeeId());
+                if (left.signum() <= 0) {
+                    continue;
+                }
+                BigDecimal applied = left.min(open.outstandingAmount());
+                allocated.add(toRepayment(open, applied, paymentDate));
+                remaining.put(open.employeeId(), left.subtract(applied));
+            }
+            
+            repaymentRepository.insertAll(allocated);
+            allocated.forEach(repayment -> statusCounterService.getRepaymentCounters().recordCreated(
+                    repayment.getStatus(), repayment.getPaymentMethod()));
+            
+            // Publish repayment created events for the chunk as one producer batch once it commits
+            eventPublisher.publishAllAfterCommit(
+                    "repayment-events", 
+                    allocated.stream()
+                            .map(repayment -> new RepaymentEvent(
+                                    repayment.getId(),
+                                    EventType.REPAYMENT_CREATED,
+                                    EventPayloads.repayment(repayment)
+                            ))
+                            .toList()
+            );
+            
+            remaining.forEach((employeeId, left) -> {
+                if (left.signum() > 0) {
+                    summary.setAmountUnallocated(summary.getAmountUnallocated().add(left));
+                    if (summary.getUnallocatedByEmployee().size() < MAX_REPORTED_REMAINDERS) {
+                        summary.getUnallocatedByEmployee().put(employeeId, left);
+                    }
+                }
+            });
+            return allocated;
+        });
+        
+        summary.setRepaymentsCreated(summary.getRepaymentsCreated() + repayments.size());
+        for (Repayment repayment : repayments) {
+            summary.setAmountAllocated(summary.getAmountAllocated().add(repayment.getAmount()));
+        }
+    }
+    
+    /**
+     * Reads a payroll file of employee_id,amount lines, summing the deductions of each employee.
+     * Any further columns, such as a payroll reference, are ignored.
+     * A header line is skipped; any other line that does not parse is counted as malformed.
+     */
+    private Map<Long, BigDecimal> readPayrollFile(Path file, RepaymentAllocationSummary summary) {
+        Map<Long, BigDecimal> lumpSums = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    long employeeId = Long.parseLong(fields[0].trim());
+                    BigDecimal amount = new BigDecimal(fields[1].trim());
+                    if (amount.signum() <= 0) {
+                        summary.setMalformedLines(summary.getMalformedLines() + 1);
+                    } else {
+                        lumpSums.merge(employeeId, amount, BigDecimal::add);
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    if (!first) {
+                        summary.setMalformedLines(summary.getMalformedLines() + 1);
+                    }
+                }
+                first = false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read payroll file " + file.getFileName(), e);
+        }
+        
+        summary.setEmployees(lumpSums.size());
+        return lumpSums;
+    }
+    
+    /**
+     * Resolves a payroll file name within the inbox, refusing names that escape it.
+     */
+    private Path resolvePayrollFile(String fileName) {
+        Path inbox = Paths.get(inboxDir).toAbsolutePath().normalize();
+        Path file = inbox.resolve(fileName).normalize();
+        if (!file.startsWith(inbox) || file.equals(inbox)) {
+            throw new IllegalArgumentException("Payroll file must be inside the payroll inbox");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Payroll file not found: " + fileName);
+        }
+        return file;
+    }
+    
+    /**
+     * Creates an empty summary for an allocation.
+     */
+    private RepaymentAllocationSummary newSummary(AllocationOrder order) {
+        return RepaymentAllocationSummary.builder()
+                .order(order)
+                .amountAllocated(BigDecimal.ZERO)
+                .amountUnallocated(BigDecimal.ZERO)
+                .unallocatedByEmployee(new LinkedHashMap<>())
+                .build();
+    }
+    
+    /**
+     * Builds the PENDING repayment that applies part of a lump sum to an open disbursement.
+     */
+    private Repayment toRepayment(OpenDisbursement open, BigDecimal amount, LocalDateTime paymentDate) {
+        Repayment repayment = new Repayment();
+        repayment.setDisbursementId(open.disbursementId());
+        repayment.setEmployeeId(open.employeeId());
+        repayment.setAmount(amount);
+        repayment.setPaymentMethod(paymentMethod);
+        repayment.setPaymentDate(paymentDate);
+        repayment.setStatus("PENDING");
+        return repayment;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.RepaymentRunSummary;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for pay-cycle repayment runs.
+ */
+public interface RepaymentRunService {
+    
+    /**
+     * Creates PENDING payroll-deduction repayments for every COMPLETED disbursement due on or
+     * before the payroll date. Resumes from its checkpoints if a run for the same date was interrupted.
+     *
+     * @param payrollDate the payroll date
+     * @return a summary of the run
+     */
+    RepaymentRunSummary runRepayments(LocalDate payrollDate);
+}
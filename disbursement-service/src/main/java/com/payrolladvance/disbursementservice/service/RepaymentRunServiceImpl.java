@@ -0,0 +1,275 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.RepaymentRunSummary;
+import com.payrolladvance.disbursementservice.event.EventPayloads;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.model.RepaymentRunCheckpoint;
+import com.payrolladvance.disbursementservice.repository.DisbursementBatchRepository.DueRepayment;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRunCheckpointRepository;
+import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.events.RepaymentEvent;
+import com.payrolladvance.kafka.common.util.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the RepaymentRunService interface.
+ * Disbursements are split into partitions by employee ID that run in parallel. Each partition streams its
+ * due disbursements through a database cursor and writes repayments in chunks, committing its
+ * checkpoint with every chunk, so memory use stays flat and an interrupted run picks up where it stopped.
+ * Each partition is claimed with a database lock while it runs, so scheduled runs on several instances
+ * split the partitions between them rather than repeating them.
+ */
+@Slf4j
+@Service
+public class RepaymentRunServiceImpl implements RepaymentRunService {
+    
+    private final DisbursementRepository disbursementRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final RepaymentRunCheckpointRepository checkpointRepository;
+    private final EventPublisher eventPublisher;
+    private final StatusCounterService statusCounterService;
+    private final TransactionTemplate cursorTransaction;
+    private final TransactionTemplate chunkTransaction;
+    private final Set<LocalDate> activeRuns = ConcurrentHashMap.newKeySet();
+    
+    @Value("${app.repayment-run.partitions:4}")
+    private int partitions;
+    
+    @Value("${app.repayment-run.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${app.repayment-run.fetch-size:1000}")
+    private int fetchSize;
+    
+    @Value("${app.repayment-run.payment-method:PAYROLL_DEDUCTION}")
+    private String paymentMethod;
+    
+    /**
+     * Constructs a new RepaymentRunServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param repaymentRepository    the repayment repository
+     * @param checkpointRepository   the repayment run checkpoint repository
+     * @param eventPublisher         the event publisher
+     * @param statusCounterService   the status counter service
+     * @param transactionManager     the transaction manager
+     */
+    public RepaymentRunServiceImpl(DisbursementRepository disbursementRepository,
+                                   RepaymentRepository repaymentRepository,
+                                   RepaymentRunCheckpointRepository checkpointRepository,
+                                   EventPublisher eventPublisher,
+                                   StatusCounterService statusCounterService,
+                                   PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.statusCounterService = statusCounterService;
+        
+        this.cursorTransaction = new TransactionTemplate(transactionManager);
+        this.cursorTransaction.setReadOnly(true);
+        
+        // Chunks commit on their own while the cursor's transaction stays open
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Runs the repayment run for today's payroll on the configured schedule.
+     */
+    @Scheduled(cron = "${app.repayment-run.cron:-}")
+    public void runScheduledRepayments() {
+        runRepayments(LocalDate.now());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RepaymentRunSummary runRepayments(LocalDate payrollDate) {
+        if (!activeRuns.add(payrollDate)) {
+            throw new IllegalStateException("Repayment run already in progress for payroll date " + payrollDate);
+        }
+        
+        log.info("Starting repayment run for payroll date {} across {} partitions", payrollDate, partitions);
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            List<CompletableFuture<Long>> futures = IntStream.range(0, partitions)
+                    .mapToObj(partition -> CompletableFuture.supplyAsync(
+                            () -> runPartition(payrollDate, partition), executor))
+                    .toList();
+            
+            long repaymentsCreated = futures.stream().mapToLong(CompletableFuture::join).sum();
+            long durationMillis = System.currentTimeMillis() - start;
+            
+            log.info("Repayment run for payroll date {} created {} repayments in {} ms",
+                    payrollDate, repaymentsCreated, durationMillis);
+            return RepaymentRunSummary.builder()
+                    .payrollDate(payrollDate)
+                    .partitions(partitions)
+                    .repaymentsCreated(repaymentsCreated)
+                    .durationMillis(durationMillis)
+                    .build();
+        } finally {
+            executor.shutdown();
+            activeRuns.remove(payrollDate);
+        }
+    }
+    
+    /**
+     * Runs one employee partition from its checkpoint to the end. The partition is claimed in the database for
+     * as long as its cursor is open, so a run of the same payroll date on another instance skips it instead of
+     * writing its repayments a second time.
+     *
+     * @param payrollDate     the payroll date
+     * @param partitionNumber the partition number
+     * @return the number of repayments created by this invocation
+     */
+    private long runPartition(LocalDate payrollDate, int partitionNumber) {
+        return cursorTransaction.execute(status -> {
+            if (!checkpointRepository.tryLockPartition((int) payrollDate.toEpochDay(), partitionNumber)) {
+                log.info("Partition {} of repayment run {} is being run by another instance",
+                        partitionNumber, payrollDate);
+                return 0L;
+            }
+            
+            RepaymentRunCheckpoint checkpoint = checkpointRepository
+                    .findByPayrollDateAndPartitionCountAndPartitionNumber(payrollDate, partitions, partitionNumber)
+                    .orElseGet(() -> newCheckpoint(payrollDate, partitionNumber));
+            
+            if ("COMPLETED".equals(checkpoint.getStatus())) {
+                log.info("Partition {} of repayment run {} already completed", partitionNumber, payrollDate);
+                return 0L;
+            }
+            
+            long resumedFrom = checkpoint.getRepaymentsCreated();
+            if (checkpoint.getLastDisbursementId() > 0) {
+                log.info("Resuming partition {} of repayment run {} after disbursement ID: {}",
+                        partitionNumber, payrollDate, checkpoint.getLastDisbursementId());
+            }
+            
+            RepaymentRunCheckpoint[] current = {saveCheckpoint(checkpoint)};
+            LocalDateTime dueBy = payrollDate.plusDays(1).atStartOfDay();
+            LocalDateTime paymentDate = payrollDate.atStartOfDay();
+            List<DueRepayment> chunk = new ArrayList<>(chunkSize);
+            
+            disbursementRepository.forEachDueForRepayment(
+                    dueBy, partitions, partitionNumber, current[0].getLastDisbursementId(), fetchSize, due -> {
+                        chunk.add(due);
+                        if (chunk.size() == chunkSize) {
+                            current[0] = writeChunk(current[0], chunk, paymentDate);
+                            chunk.clear();
+                        }
+                    });
+            if (!chunk.isEmpty()) {
+                current[0] = writeChunk(current[0], chunk, paymentDate);
+            }
+            
+            current[0].setStatus("COMPLETED");
+            saveCheckpoint(current[0]);
+            return current[0].getRepaymentsCreated() - resumedFrom;
+        });
+    }
+    
+    /**
+     * Saves a checkpoint in its own transaction, since the cursor's transaction is read-only.
+     *
+     * @param checkpoint the checkpoint
+     * @return the saved checkpoint
+     */
+    private RepaymentRunCheckpoint saveCheckpoint(RepaymentRunCheckpoint checkpoint) {
+        return chunkTransaction.execute(status -> checkpointRepository.save(checkpoint));
+    }
+    
+    /**
+     * Writes one chunk of repayments and advances the checkpoint in a single transaction.
+     *
+     * @param checkpoint  the partition checkpoint
+     * @param chunk       the due disbursements in the chunk
+     * @param paymentDate the payment date of the repayments
+     * @return the saved checkpoint
+     */
+    private RepaymentRunCheckpoint writeChunk(RepaymentRunCheckpoint checkpoint, List<DueRepayment> chunk,
+                                              LocalDateTime paymentDate) {
+        return chunkTransaction.execute(status -> {
+            List<Repayment> repayments = chunk.stream()
+                    .map(due -> toRepayment(due, paymentDate))
+                    .toList();
+            repaymentRepository.insertAll(repayments);
+            repayments.forEach(repayment -> statusCounterService.getRepaymentCounters().recordCreated(
+                    repayment.getStatus(), repayment.getPaymentMethod()));
+            
+            checkpoint.setLastDisbursementId(chunk.get(chunk.size() - 1).disbursementId());
+            checkpoint.setRepaymentsCreated(checkpoint.getRepaymentsCreated() + repayments.size());
+            RepaymentRunCheckpoint savedCheckpoint = checkpointRepository.save(checkpoint);
+            
+            // Publish repayment created events for the chunk as one producer batch once it commits
+            eventPublisher.publishAllAfterCommit(
+                    "repayment-events", 
+                    repayments.stream()
+                            .map(repayment -> new RepaymentEvent(
+                                    repayment.getId(),
+                                    EventType.REPAYMENT_CREATED,
+                                    EventPayloads.repayment(repayment)
+                            ))
+                            .toList()
+            );
+            
+            return savedCheckpoint;
+        });
+    }
+    
+    /**
+     * Creates the checkpoint for a partition that has not started yet.
+     *
+     * @param payrollDate     the payroll date
+     * @param partitionNumber the partition number
+     * @return the new checkpoint, not yet saved
+     */
+    private RepaymentRunCheckpoint newCheckpoint(LocalDate payrollDate, int partitionNumber) {
+        RepaymentRunCheckpoint checkpoint = new RepaymentRunCheckpoint();
+        checkpoint.setPayrollDate(payrollDate);
+        checkpoint.setPartitionCount(partitions);
+        checkpoint.setPartitionNumber(partitionNumber);
+        checkpoint.setStatus("RUNNING");
+        return checkpoint;
+    }
+    
+    /**
+     * Builds the PENDING repayment that collects a disbursement's outstanding balance.
+     *
+     * @param due         the due disbursement
+     * @param paymentDate the payment date
+     * @return the repayment, not yet saved
+     */
+    private Repayment toRepayment(DueRepayment due, LocalDateTime paymentDate) {
+        Repayment repayment = new Repayment();
+        repayment.setDisbursementId(due.disbursementId());
+        repayment.setEmployeeId(due.employeeId());
+        repayment.setAmount(due.outstandingAmount());
+        repayment.setPaymentMethod(paymentMethod);
+        repayment.setPaymentDate(paymentDate);
+        repayment.setStatus("PENDING");
+        return repayment;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.payrolladvance.disbursementservice.service;
 
 import com.payrolladvance.disbursementservice.dto.RepaymentDto;
+import com.payrolladvance.disbursementservice.event.EventPayloads;
 import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
 import com.payrolladvance.disbursementservice.model.Repayment;
 import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
@@ -26,6 +27,8 @@ public class RepaymentServiceImpl implements RepaymentService {
     
     private final RepaymentRepository repaymentRepository;
     private final EventPublisher eventPublisher;
+    private final LedgerService ledgerService;
+    private final StatusCounterService statusCounterService;
     
     /**
      * {@inheritDoc}
@@ -46,6 +49,8 @@ public class RepaymentServiceImpl implements RepaymentService {
         repayment.setStatus("PENDING");
         
         Repayment savedRepayment = repaymentRepository.save(repayment);
+        statusCounterService.getRepaymentCounters().recordCreated(
+                savedRepayment.getStatus(), savedRepayment.getPaymentMethod());
         
         // Publish repayment created event
         eventPublisher.publish(
@@ -53,7 +58,7 @@ public class RepaymentServiceImpl implements RepaymentService {
                 new RepaymentEvent(
                         savedRepayment.getId(),
                         EventType.REPAYMENT_CREATED,
-                        savedRepayment
+                        EventPayloads.repayment(savedRepayment)
                 )
         );
         
@@ -98,8 +103,18 @@ public class RepaymentServiceImpl implements RepaymentService {
         log.info("Updating repayment status for ID: {} to {}", id, status);
         
         Repayment repayment = getRepaymentById(id);
+        String oldStatus = repayment.getStatus();
         repayment.setStatus(status);
         Repayment updatedRepayment = repaymentRepository.save(repayment);
+        statusCounterService.getRepaymentCounters().recordTransition(
+                oldStatus, updatedRepayment.getStatus(), updatedRepayment.getPaymentMethod());
+        
+        // Keep the balance ledger in step with repayments entering or leaving COMPLETED
+        if ("COMPLETED".equals(status) && !"COMPLETED".equals(oldStatus)) {
+            ledgerService.recordRepayment(updatedRepayment);
+        } else if ("COMPLETED".equals(oldStatus) && !"COMPLETED".equals(status)) {
+            ledgerService.recordRepaymentReversal(updatedRepayment);
+        }
         
         // Publish repayment updated event
         eventPublisher.publish(
@@ -107,7 +122,7 @@ public class RepaymentServiceImpl implements RepaymentService {
                 new RepaymentEvent(
                         updatedRepayment.getId(),
                         EventType.REPAYMENT_UPDATED,
-                        updatedRepayment
+                        EventPayloads.repayment(updatedRepayment)
                 )
         );
         
@@ -139,29 +154,14 @@ public class RepaymentServiceImpl implements RepaymentService {
             // In a real system, we would integrate with a payment provider here
             String transactionReference = UUID.randomUUID().toString();
             repayment.setTransactionReference(transactionReference);
-            
-            // Update status to COMPLETED
-            repayment.setStatus("COMPLETED");
-            Repayment completedRepayment = repaymentRepository.save(repayment);
-            
-            // Publish repayment completed event
-            eventPublisher.publish(
-                    "repayment-events", 
-                    new RepaymentEvent(
-                            completedRepayment.getId(),
-                            EventType.REPAYMENT_COMPLETED,
-                            completedRepayment
-                    )
-            );
-            
-            log.info("Successfully processed repayment with ID: {}", id);
-            return completedRepayment;
         } catch (Exception e) {
             log.error("Error processing repayment with ID: {}", id, e);
             
             // Update status to FAILED
             repayment.setStatus("FAILED");
             Repayment failedRepayment = repaymentRepository.save(repayment);
+            statusCounterService.getRepaymentCounters().recordTransition(
+                    "PENDING", failedRepayment.getStatus(), failedRepayment.getPaymentMethod());
             
             // Publish repayment failed event
             eventPublisher.publish(
@@ -169,11 +169,32 @@ public class RepaymentServiceImpl implements RepaymentService {
                     new RepaymentEvent(
                             failedRepayment.getId(),
                             EventType.REPAYMENT_FAILED,
-                            failedRepayment
+                            EventPayloads.repayment(failedRepayment)
                     )
             );
             
             return failedRepayment;
         }
+        
+        // Kept out of the try block: a failed ledger append marks the transaction rollback-only,
+        // so it must roll the whole repayment back rather than be saved as FAILED
+        repayment.setStatus("COMPLETED");
+        Repayment completedRepayment = repaymentRepository.save(repayment);
+        ledgerService.recordRepayment(completedRepayment);
+        statusCounterService.getRepaymentCounters().recordTransition(
+                "PENDING", completedRepayment.getStatus(), completedRepayment.getPaymentMethod());
+        
+        // Publish repayment completed event
+        eventPublisher.publish(
+                "repayment-events", 
+                new RepaymentEvent(
+                        completedRepayment.getId(),
+                        EventType.REPAYMENT_COMPLETED,
+                        EventPayloads.repayment(completedRepayment)
+                )
+        );
+        
+        log.info("Successfully processed repayment with ID: {}", id);
+        return completedRepayment;
     }
 }
\ No newline at end of file
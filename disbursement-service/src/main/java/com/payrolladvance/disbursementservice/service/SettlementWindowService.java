@@ -0,0 +1,63 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.SettlementWindowSummary;
+import com.payrolladvance.disbursementservice.model.SettlementBatch;
+
+import java.util.List;
+
+/**
+ * Service interface for settling disbursements in batches. PENDING disbursements of the batch-settled
+ * payment methods collect in one settlement window per payment method and bank; a window closes into a
+ * settlement batch when it reaches the size threshold or its oldest disbursement reaches the cut-off,
+ * and each batch is sent to the bank as a single file under one batch reference.
+ */
+public interface SettlementWindowService {
+    
+    /**
+     * Closes every window that has reached the size threshold or the cut-off.
+     *
+     * @return a summary of the batches closed
+     */
+    SettlementWindowSummary closeDueWindows();
+    
+    /**
+     * Closes every open window now, regardless of size or age.
+     *
+     * @return a summary of the batches closed
+     */
+    SettlementWindowSummary closeAllWindows();
+    
+    /**
+     * Gets a settlement batch by its batch reference.
+     *
+     * @param batchReference the batch reference
+     * @return the settlement batch
+     */
+    SettlementBatch getBatch(String batchReference);
+    
+    /**
+     * Gets all settlement batches with a specific status.
+     *
+     * @param status the status to filter by
+     * @return a list of settlement batches, newest first
+     */
+    List<SettlementBatch> getBatchesByStatus(String status);
+    
+    /**
+     * Records that the bank settled a batch, completing all of its disbursements in one update.
+     *
+     * @param batchReference the batch reference
+     * @return the settled batch
+     */
+    SettlementBatch settleBatch(String batchReference);
+    
+    /**
+     * Records that the bank rejected a batch, failing all of its disbursements in one update, releasing
+     * them from the batch and scheduling each for a retry in a later batch.
+     *
+     * @param batchReference the batch reference
+     * @param failureReason  the reason given by the bank
+     * @return the failed batch
+     */
+    SettlementBatch failBatch(String batchReference, String failureReason);
+}
\ No newline at end of file
@@ -0,0 +1,365 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.SettlementWindowSummary;
+import com.payrolladvance.disbursementservice.event.EventPayloads;
+import com.payrolladvance.disbursementservice.exception.ResourceNotFoundException;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.SettlementBatch;
+import com.payrolladvance.disbursementservice.repository.DisbursementBatchRepository.BatchedDisbursement;
+import com.payrolladvance.disbursementservice.repository.DisbursementBatchRepository.SettlementWindow;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.SettlementBatchRepository;
+import com.payrolladvance.kafka.common.events.DisbursementEvent;
+import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.metrics.StatusCounters;
+import com.payrolladvance.kafka.common.util.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation of the SettlementWindowService interface.
+ * Each batch is closed in its own transaction: the batch row is inserted, its disbursements are claimed
+ * with one set-based update that skips rows locked by a concurrent close, and the batch file is staged,
+ * so a failure leaves the disbursements PENDING for the next pass. The file is released to the outbox
+ * only after the commit, so the bank never receives a batch the database does not know about.
+ * A rejected batch releases its disbursements, so once retried they join the next window's batch.
+ */
+@Slf4j
+@Service
+public class SettlementWindowServiceImpl implements SettlementWindowService {
+    
+    private final DisbursementRepository disbursementRepository;
+    private final SettlementBatchRepository settlementBatchRepository;
+    private final LedgerService ledgerService;
+    private final DisbursementRetryScheduler retryScheduler;
+    private final StatusCounterService statusCounterService;
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.settlement.payment-methods:}")
+    private List<String> paymentMethods;
+    
+    @Value("${app.settlement.cut-off:PT30M}")
+    private Duration cutOff;
+    
+    @Value("${app.settlement.max-batch-size:1000}")
+    private int maxBatchSize;
+    
+    @Value("${app.settlement.outbox-dir:settlements/outbox}")
+    private String outboxDir;
+    
+    /**
+     * Constructs a new SettlementWindowServiceImpl.
+     *
+     * @param disbursementRepository    the disbursement repository
+     * @param settlementBatchRepository the settlement batch repository
+     * @param ledgerService             the ledger service
+     * @param retryScheduler            the scheduler for retries of disbursements in rejected batches
+     * @param statusCounterService      the live status counters
+     * @param eventPublisher            the event publisher
+     * @param transactionManager        the transaction manager
+     */
+    public SettlementWindowServiceImpl(DisbursementRepository disbursementRepository,
+                                       SettlementBatchRepository settlementBatchRepository,
+                                       LedgerService ledgerService,
+                                       DisbursementRetryScheduler retryScheduler,
+                                       StatusCounterService statusCounterService,
+                                       EventPublisher eventPublisher,
+                                       PlatformTransactionManager transactionManager) {
+        this.disbursementRepository = disbursementRepository;
+        this.settlementBatchRepository = settlementBatchRepository;
+        this.ledgerService = ledgerService;
+        this.retryScheduler = retryScheduler;
+        this.statusCounterService = statusCounterService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${app.settlement.check-interval-ms:60000}")
+    public SettlementWindowSummary closeDueWindows() {
+        return closeWindows(false);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SettlementWindowSummary closeAllWindows() {
+        return closeWindows(true);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SettlementBatch getBatch(String batchReference) {
+        return settlementBatchRepository.findByBatchReference(batchReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Settlement batch not found: " + batchReference));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<SettlementBatch> getBatchesByStatus(String status) {
+        return settlementBatchRepository.findByStatusOrderByCreatedAtDesc(status);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public SettlementBatch settleBatch(String batchReference) {
+        SettlementBatch batch = getBatchForUpdate(batchReference);
+        if (!SettlementBatch.SUBMITTED.equals(batch.getStatus())) {
+            log.warn("Settlement batch {} is already {}", batchReference, batch.getStatus());
+            return batch;
+        }
+        
+        List<Disbursement> settled = disbursementRepository.findAllById(
+                disbursementRepository.updateSettlementBatchStatus(batch.getId(), "COMPLETED"));
+        StatusCounters counters = statusCounterService.getDisbursementCounters();
+        for (Disbursement disbursement : settled) {
+            ledgerService.recordDisbursed(disbursement);
+            counters.recordTransition("PROCESSING", disbursement.getStatus(),
+                    disbursement.getPaymentMethod(), disbursement.getEmployerId());
+            publish(disbursement, EventType.DISBURSEMENT_COMPLETED);
+        }
+        eventPublisher.flush();
+        
+        batch.setStatus(SettlementBatch.SETTLED);
+        batch.setSettledAt(LocalDateTime.now());
+        log.info("Settlement batch {} settled, completing {} disbursements", batchReference, settled.size());
+        return settlementBatchRepository.save(batch);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public SettlementBatch failBatch(String batchReference, String failureReason) {
+        SettlementBatch batch = getBatchForUpdate(batchReference);
+        if (!SettlementBatch.SUBMITTED.equals(batch.getStatus())) {
+            log.warn("Settlement batch {} is already {}", batchReference, batch.getStatus());
+            return batch;
+        }
+        
+        List<Disbursement> failed = disbursementRepository.findAllById(
+                disbursementRepository.failSettlementBatch(batch.getId()));
+        StatusCounters counters = statusCounterService.getDisbursementCounters();
+        for (Disbursement disbursement : failed) {
+            retryScheduler.scheduleRetry(disbursement);
+            counters.recordTransition("PROCESSING", disbursement.getStatus(),
+                    disbursement.getPaymentMethod(), disbursement.getEmployerId());
+            publish(disbursement, EventType.DISBURSEMENT_FAILED);
+        }
+        disbursementRepository.saveAll(failed);
+        eventPublisher.flush();
+        
+        batch.setStatus(SettlementBatch.FAILED);
+        batch.setFailureReason(failureReason);
+        log.warn("Settlement batch {} rejected: {}; {} disbursements failed", batchReference, failureReason, failed.size());
+        return settlementBatchRepository.save(batch);
+    }
+    
+    /**
+     * Closes the open windows into settlement batches. Full batches close as soon as they fill;
+     * the remainder of a window closes once its oldest disbursement reaches the cut-off, or when forced.
+     *
+     * @param force whether to close every window regardless of size or age
+     * @return a summary of the batches closed
+     */
+    private SettlementWindowSummary closeWindows(boolean force) {
+        long startNanos = System.nanoTime();
+        List<SettlementWindow> windows = disbursementRepository.findOpenSettlementWindows(paymentMethods);
+        LocalDateTime dueBefore = LocalDateTime.now().minus(cutOff);
+        
+        List<String> batchReferences = new ArrayList<>();
+        long disbursementsBatched = 0;
+        BigDecimal amountBatched = BigDecimal.ZERO;
+        for (SettlementWindow window : windows) {
+            boolean due = force || !window.oldestCreatedAt().isAfter(dueBefore);
+            long remaining = window.itemCount();
+            while (remaining >= maxBatchSize || (due && remaining > 0)) {
+                String closeReason = remaining >= maxBatchSize ? SettlementBatch.SIZE_THRESHOLD
+                        : force ? SettlementBatch.MANUAL : SettlementBatch.CUT_OFF;
+                SettlementBatch batch = transactionTemplate.execute(status -> closeBatch(window, closeReason, status));
+                if (batch == null) {
+                    // Another pass claimed the rest of the window
+                    break;
+                }
+                releaseBatchFile(batch);
+                batchReferences.add(batch.getBatchReference());
+                disbursementsBatched += batch.getItemCount();
+                amountBatched = amountBatched.add(batch.getTotalAmount());
+                remaining -= batch.getItemCount();
+            }
+        }
+        
+        if (!batchReferences.isEmpty()) {
+            log.info("Closed {} settlement batches with {} disbursements totalling {}",
+                    batchReferences.size(), disbursementsBatched, amountBatched);
+        }
+        return SettlementWindowSummary.builder()
+                .windowsOpen(windows.size())
+                .batchesClosed(batchReferences.size())
+                .disbursementsBatched(disbursementsBatched)
+                .amountBatched(amountBatched)
+                .batchReferences(batchReferences)
+                .durationMillis(Duration.ofNanos(System.nanoTime() - startNanos).toMillis())
+                .build();
+    }
+    
+    /**
+     * Closes one settlement batch from a window. Must be called inside a transaction.
+     *
+     * @param window      the window
+     * @param closeReason why the batch closed
+     * @param status      the transaction, rolled back if no disbursements were left to claim
+     * @return the batch, or null if no disbursements were left to claim
+     */
+    private SettlementBatch closeBatch(SettlementWindow window, String closeReason, TransactionStatus status) {
+        SettlementBatch batch = new SettlementBatch();
+        batch.setBatchReference("STL-" + UUID.randomUUID());
+        batch.setPaymentMethod(window.paymentMethod());
+        batch.setBankCode(window.bankCode());
+        batch.setStatus(SettlementBatch.SUBMITTED);
+        batch.setCloseReason(closeReason);
+        batch.setTotalAmount(BigDecimal.ZERO);
+        settlementBatchRepository.save(batch);
+        
+        List<BatchedDisbursement> items = new ArrayList<>(disbursementRepository.assignToSettlementBatch(
+                batch.getId(), batch.getBatchReference(), window.paymentMethod(), window.bankCode(), maxBatchSize));
+        if (items.isEmpty()) {
+            status.setRollbackOnly();
+            return null;
+        }
+        items.sort(Comparator.comparing(BatchedDisbursement::disbursementId));
+        
+        BigDecimal totalAmount = items.stream()
+                .map(BatchedDisbursement::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        batch.setItemCount(items.size());
+        batch.setTotalAmount(totalAmount);
+        batch.setFilePath(writeBatchFile(batch, items).toString());
+        
+        StatusCounters counters = statusCounterService.getDisbursementCounters();
+        items.forEach(item -> counters.recordTransition("PENDING", "PROCESSING", window.paymentMethod(), item.employerId()));
+        return batch;
+    }
+    
+    /**
+     * Stages the bank file of a settlement batch: a header with the batch totals, one detail line per
+     * disbursement and a trailer repeating the totals.
+     *
+     * @param batch the batch
+     * @param items the disbursements in the batch
+     * @return the path the file is released to
+     */
+    private Path writeBatchFile(SettlementBatch batch, List<BatchedDisbursement> items) {
+        Path file = Paths.get(outboxDir).resolve(batch.getBatchReference() + ".csv");
+        Path staged = stagedPath(file);
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(staged, StandardCharsets.UTF_8)) {
+                writer.write(String.join(",", "H", batch.getBatchReference(), batch.getPaymentMethod(),
+                        batch.getBankCode() != null ? batch.getBankCode() : "",
+                        String.valueOf(batch.getItemCount()), batch.getTotalAmount().toPlainString()));
+                writer.newLine();
+                for (BatchedDisbursement item : items) {
+                    writer.write(String.join(",", "D", item.transactionReference(),
+                            String.valueOf(item.disbursementId()), String.valueOf(item.employeeId()),
+                            item.amount().toPlainString()));
+                    writer.newLine();
+                }
+                writer.write(String.join(",", "T", String.valueOf(batch.getItemCount()),
+                        batch.getTotalAmount().toPlainString()));
+                writer.newLine();
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write settlement batch file " + file, e);
+        }
+    }
+    
+    /**
+     * Moves the staged file of a committed batch into the outbox in one step, so the bank never picks up
+     * a partial file. A batch whose file cannot be released stays SUBMITTED and is logged for an operator.
+     *
+     * @param batch the committed batch
+     */
+    private void releaseBatchFile(SettlementBatch batch) {
+        Path file = Paths.get(batch.getFilePath());
+        try {
+            Files.move(stagedPath(file), file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to release file of settlement batch {}", batch.getBatchReference(), e);
+        }
+    }
+    
+    /**
+     * Gets the path a batch file is staged at until its batch commits.
+     *
+     * @param file the path the file is released to
+     * @return the staging path
+     */
+    private static Path stagedPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+    
+    /**
+     * Gets a settlement batch and locks it, so the bank's answer is applied only once.
+     *
+     * @param batchReference the batch reference
+     * @return the settlement batch
+     */
+    private SettlementBatch getBatchForUpdate(String batchReference) {
+        return settlementBatchRepository.findByBatchReferenceForUpdate(batchReference)
+                .orElseThrow(() -> new ResourceNotFoundException("Settlement batch not found: " + batchReference));
+    }
+    
+    /**
+     * Publishes a disbursement event.
+     *
+     * @param disbursement the disbursement
+     * @param eventType    the event type
+     */
+    private void publish(Disbursement disbursement, EventType eventType) {
+        eventPublisher.publish(
+                "disbursement-events",
+                new DisbursementEvent(
+                        disbursement.getId(),
+                        eventType,
+                        EventPayloads.disbursement(disbursement)
+                )
+        );
+    }
+}
\ No newline at end of file
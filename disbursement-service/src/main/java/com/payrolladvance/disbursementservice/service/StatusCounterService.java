@@ -0,0 +1,38 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.StatusDashboardDto;
+import com.payrolladvance.kafka.common.metrics.StatusCounters;
+
+/**
+ * Service interface for the live disbursement and repayment status counters.
+ */
+public interface StatusCounterService {
+    
+    /**
+     * Gets the disbursement counters, keyed by payment method and employer ID in that order.
+     *
+     * @return the disbursement counters
+     */
+    StatusCounters getDisbursementCounters();
+    
+    /**
+     * Gets the repayment counters, keyed by payment method.
+     *
+     * @return the repayment counters
+     */
+    StatusCounters getRepaymentCounters();
+    
+    /**
+     * Gets the current counts for the operations dashboard.
+     *
+     * @return the dashboard
+     */
+    StatusDashboardDto getDashboard();
+    
+    /**
+     * Corrects the counters against the database.
+     *
+     * @return the number of counters that had drifted
+     */
+    int reconcile();
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.StatusDashboardDto;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
+import com.payrolladvance.kafka.common.metrics.StatusCount;
+import com.payrolladvance.kafka.common.metrics.StatusCounters;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of the StatusCounterService interface.
+ * The counters are seeded by the first reconciliation at startup and kept current by the services
+ * that change statuses; later reconciliations only correct drift.
+ */
+@Slf4j
+@Service
+public class StatusCounterServiceImpl implements StatusCounterService {
+    
+    private static final String PAYMENT_METHOD = "payment.method";
+    
+    private static final String EMPLOYER = "employer";
+    
+    private final DisbursementRepository disbursementRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final StatusCounters disbursementCounters;
+    private final StatusCounters repaymentCounters;
+    
+    private volatile LocalDateTime lastReconciledAt;
+    
+    /**
+     * Constructs a new StatusCounterServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param repaymentRepository    the repayment repository
+     * @param meterRegistry          the registry the counter gauges are published to
+     */
+    public StatusCounterServiceImpl(DisbursementRepository disbursementRepository,
+                                    RepaymentRepository repaymentRepository,
+                                    MeterRegistry meterRegistry) {
+        this.disbursementRepository = disbursementRepository;
+        this.repaymentRepository = repaymentRepository;
+        // Employer IDs are unbounded, so they are kept off the gauges and only shown on the dashboard
+        this.disbursementCounters = new StatusCounters("payroll.disbursements", meterRegistry,
+                List.of(PAYMENT_METHOD, EMPLOYER), Set.of(PAYMENT_METHOD));
+        this.repaymentCounters = new StatusCounters("payroll.repayments", meterRegistry,
+                List.of(PAYMENT_METHOD), Set.of(PAYMENT_METHOD));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StatusCounters getDisbursementCounters() {
+        return disbursementCounters;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StatusCounters getRepaymentCounters() {
+        return repaymentCounters;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public StatusDashboardDto getDashboard() {
+        return StatusDashboardDto.builder()
+                .disbursementsByStatus(disbursementCounters.getStatusCounts())
+                .disbursementsByPaymentMethod(disbursementCounters.getCounts(PAYMENT_METHOD))
+                .disbursementsByEmployer(disbursementCounters.getCounts(EMPLOYER))
+                .repaymentsByStatus(repaymentCounters.getStatusCounts())
+                .repaymentsByPaymentMethod(repaymentCounters.getCounts(PAYMENT_METHOD))
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public int reconcile() {
+        List<StatusCount> disbursementCounts = disbursementRepository.countByStatusGroups().stream()
+                .map(group -> new StatusCount(group.getStatus(),
+                        Arrays.asList(group.getPaymentMethod(), group.getEmployerId()), group.getCount()))
+                .toList();
+        List<StatusCount> repaymentCounts = repaymentRepository.countByStatusGroups().stream()
+                .map(group -> new StatusCount(group.getStatus(),
+                        Arrays.asList(group.getPaymentMethod()), group.getCount()))
+                .toList();
+        
+        int drifted = disbursementCounters.reconcile(disbursementCounts) + repaymentCounters.reconcile(repaymentCounts);
+        lastReconciledAt = LocalDateTime.now();
+        log.debug("Reconciled status counters, {} had drifted", drifted);
+        return drifted;
+    }
+}
\ No newline at end of file
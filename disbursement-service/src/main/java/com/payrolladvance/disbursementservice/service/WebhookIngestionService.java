@@ -0,0 +1,17 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.GatewayWebhookDto;
+
+/**
+ * Service interface for ingesting payment gateway status callbacks.
+ */
+public interface WebhookIngestionService {
+    
+    /**
+     * Queues a callback to be applied asynchronously.
+     *
+     * @param webhook the callback
+     * @return true if the callback was queued, false if the buffer is full and the gateway should retry later
+     */
+    boolean submit(GatewayWebhookDto webhook);
+}
\ No newline at end of file
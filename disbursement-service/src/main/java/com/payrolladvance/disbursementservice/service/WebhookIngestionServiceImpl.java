@@ -0,0 +1,386 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.GatewayWebhookDto;
+import com.payrolladvance.disbursementservice.event.EventPayloads;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.Repayment;
+import com.payrolladvance.disbursementservice.model.WebhookDeadLetter;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.disbursementservice.repository.RepaymentRepository;
+import com.payrolladvance.disbursementservice.repository.StatusChange;
+import com.payrolladvance.disbursementservice.repository.WebhookDeadLetterRepository;
+import com.payrolladvance.disbursementservice.util.BoundedIdCache;
+import com.payrolladvance.disbursementservice.util.MpscRingBuffer;
+import com.payrolladvance.kafka.common.events.DisbursementEvent;
+import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.events.RepaymentEvent;
+import com.payrolladvance.kafka.common.util.EventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the WebhookIngestionService interface.
+ * Request threads only place callbacks in a bounded lock-free ring buffer. A single worker drains it
+ * in batches, drops redelivered callbacks, keeps the latest callback per transaction reference and applies
+ * the whole batch with one set-based update per table, so callbacks for one reference are applied in
+ * order and a settlement burst costs a handful of statements instead of a read and a write per callback.
+ * Each payment remembers when the gateway recorded its status, so a callback delayed past a newer one
+ * is ignored even when the two arrive in different batches.
+ */
+@Slf4j
+@Service
+public class WebhookIngestionServiceImpl implements WebhookIngestionService {
+    
+    private final DisbursementRepository disbursementRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final WebhookDeadLetterRepository deadLetterRepository;
+    private final EventPublisher eventPublisher;
+    private final LedgerService ledgerService;
+    private final DisbursementRetryScheduler retryScheduler;
+    private final StatusCounterService statusCounterService;
+    private final TransactionTemplate batchTransaction;
+    private final MpscRingBuffer<GatewayWebhookDto> buffer;
+    private final BoundedIdCache appliedEventIds;
+    private final Counter rejectedWebhooks;
+    private final Counter deadLetteredWebhooks;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final int maxApplyAttempts;
+    private final Thread worker;
+    private volatile boolean running = true;
+    
+    /**
+     * Constructs a new WebhookIngestionServiceImpl.
+     *
+     * @param disbursementRepository the disbursement repository
+     * @param repaymentRepository    the repayment repository
+     * @param deadLetterRepository   the repository of callbacks that could not be applied
+     * @param eventPublisher         the event publisher
+     * @param ledgerService          the ledger service
+     * @param retryScheduler         the disbursement retry scheduler
+     * @param statusCounterService   the status counter service
+     * @param transactionManager     the transaction manager
+     * @param meterRegistry          the meter registry
+     * @param bufferCapacity         the number of callbacks buffered before new ones are refused
+     * @param batchSize              the maximum number of callbacks applied per batch
+     * @param maxWaitMillis          how long the worker sleeps when the buffer is empty
+     * @param maxApplyAttempts       the number of times a failing batch is attempted before it is split up
+     * @param seenEventCacheSize     the number of applied callback IDs remembered
+     */
+    public WebhookIngestionServiceImpl(DisbursementRepository disbursementRepository,
+                                       RepaymentRepository repaymentRepository,
+                                       WebhookDeadLetterRepository deadLetterRepository,
+                                       EventPublisher eventPublisher,
+                                       LedgerService ledgerService,
+                                       DisbursementRetryScheduler retryScheduler,
+                                       StatusCounterService statusCounterService,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.webhooks.buffer-capacity:65536}") int bufferCapacity,
+                                       @Value("${app.webhooks.batch-size:500}") int batchSize,
+                                       @Value("${app.webhooks.max-wait-ms:10}") long maxWaitMillis,
+                                       @Value("${app.webhooks.max-apply-attempts:3}") int maxApplyAttempts,
+                                       @Value("${app.webhooks.seen-event-cache-size:100000}") int seenEventCacheSize) {
+        this.disbursementRepository = disbursementRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.eventPublisher = eventPublisher;
+        this.ledgerService = ledgerService;
+        this.retryScheduler = retryScheduler;
+        this.statusCounterService = statusCounterService;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.appliedEventIds = new BoundedIdCache(seenEventCacheSize);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.maxApplyAttempts = maxApplyAttempts;
+        this.worker = new Thread(this::drain, "webhook-ingestion");
+        this.worker.setDaemon(true);
+        
+        Gauge.builder("payroll.webhooks.buffered", buffer, MpscRingBuffer::size).register(meterRegistry);
+        this.rejectedWebhooks = Counter.builder("payroll.webhooks.rejected").register(meterRegistry);
+        this.deadLetteredWebhooks = Counter.builder("payroll.webhooks.dead-lettered").register(meterRegistry);
+    }
+    
+    /**
+     * Starts the worker that applies buffered callbacks.
+     */
+    @PostConstruct
+    public void start() {
+        worker.start();
+    }
+    
+    /**
+     * Stops accepting callbacks and applies those still buffered.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean submit(GatewayWebhookDto webhook) {
+        if (!running || !buffer.offer(webhook)) {
+            rejectedWebhooks.increment();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Worker loop: drains the buffer in batches until shutdown, then empties it.
+     */
+    private void drain() {
+        List<GatewayWebhookDto> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(maxWaitNanos);
+                continue;
+            }
+            applyWithRetries(batch);
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Applies a batch, retrying with a short backoff. Meanwhile the buffer fills and pushes back on the gateway.
+     * A batch that still fails is split up so one bad callback cannot hold back the rest.
+     */
+    private void applyWithRetries(List<GatewayWebhookDto> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                apply(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxApplyAttempts) {
+                    log.error("Failed to apply {} gateway callbacks after {} attempts, splitting the batch",
+                            batch.size(), attempt, e);
+                    isolate(batch, e);
+                    return;
+                }
+                log.warn("Failed to apply {} gateway callbacks, attempt {} of {}", batch.size(), attempt, maxApplyAttempts, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempt));
+            }
+        }
+    }
+    
+    /**
+     * Applies the halves of a failing batch separately, splitting again until the callbacks that fail on
+     * their own are found and dead-lettered. Halves keep the order the callbacks arrived in, and the
+     * recorded status times stop an earlier callback in a later half from undoing a newer status.
+     */
+    private void isolate(List<GatewayWebhookDto> batch, RuntimeException failure) {
+        if (batch.size() == 1) {
+            deadLetter(batch.get(0), failure);
+            return;
+        }
+        int middle = batch.size() / 2;
+        for (List<GatewayWebhookDto> half : List.of(batch.subList(0, middle), batch.subList(middle, batch.size()))) {
+            try {
+                apply(half);
+            } catch (RuntimeException e) {
+                isolate(half, e);
+            }
+        }
+    }
+    
+    /**
+     * Sets aside a callback that cannot be applied. If even that fails, the callback is logged in full.
+     */
+    private void deadLetter(GatewayWebhookDto webhook, RuntimeException failure) {
+        String reason = String.valueOf(failure.getMessage());
+        WebhookDeadLetter deadLetter = new WebhookDeadLetter();
+        deadLetter.setEventId(webhook.getEventId());
+        deadLetter.setTransactionReference(webhook.getTransactionReference());
+        deadLetter.setStatus(webhook.getStatus());
+        deadLetter.setOccurredAt(webhook.getOccurredAt());
+        deadLetter.setFailureReason(reason.length() > 1024 ? reason.substring(0, 1024) : reason);
+        try {
+            deadLetterRepository.save(deadLetter);
+            deadLetteredWebhooks.increment();
+            log.error("Dead-lettered gateway callback {} for reference {}",
+                    webhook.getEventId(), webhook.getTransactionReference(), failure);
+        } catch (RuntimeException e) {
+            log.error("Dropping gateway callback {}, which could not be applied or dead-lettered: {}",
+                    webhook.getEventId(), webhook, e);
+        }
+    }
+    
+    /**
+     * Applies one batch of callbacks in a single transaction.
+     */
+    private void apply(List<GatewayWebhookDto> batch) {
+        Map<String, GatewayWebhookDto> latest = latestPerReference(batch);
+        if (latest.isEmpty()) {
+            return;
+        }
+        
+        int[] changed = new int[2];
+        batchTransaction.executeWithoutResult(status -> {
+            List<StatusChange> disbursementChanges = disbursementRepository.updateStatusesByReference(
+                    new ArrayList<>(latest.keySet()), statuses(latest.values()), occurredAts(latest.values()));
+            
+            // References are unique across payouts and collections, so whatever is left belongs to repayments
+            Map<String, GatewayWebhookDto> remaining = new LinkedHashMap<>(latest);
+            disbursementChanges.forEach(change -> remaining.remove(change.transactionReference()));
+            List<StatusChange> repaymentChanges = repaymentRepository.updateStatusesByReference(
+                    new ArrayList<>(remaining.keySet()), statuses(remaining.values()), occurredAts(remaining.values()));
+            
+            // Published once the batch commits, so a batch that rolls back and is retried publishes only once
+            eventPublisher.publishAllAfterCommit("disbursement-events", afterDisbursementChanges(disbursementChanges));
+            eventPublisher.publishAllAfterCommit("repayment-events", afterRepaymentChanges(repaymentChanges));
+            
+            changed[0] = disbursementChanges.size();
+            changed[1] = repaymentChanges.size();
+        });
+        
+        batch.forEach(webhook -> appliedEventIds.add(webhook.getEventId()));
+        log.info("Applied {} gateway callbacks: {} disbursements and {} repayments changed status",
+                batch.size(), changed[0], changed[1]);
+    }
+    
+    /**
+     * Drops redelivered callbacks and keeps the latest callback for each reference.
+     * Callbacks arrive in the order they were received; a callback the gateway recorded earlier than
+     * the one already kept does not replace it.
+     */
+    private Map<String, GatewayWebhookDto> latestPerReference(List<GatewayWebhookDto> batch) {
+        Map<String, GatewayWebhookDto> latest = new LinkedHashMap<>();
+        Set<String> eventIds = new HashSet<>();
+        for (GatewayWebhookDto webhook : batch) {
+            if (appliedEventIds.contains(webhook.getEventId()) || !eventIds.add(webhook.getEventId())) {
+                log.debug("Ignoring redelivered gateway callback {}", webhook.getEventId());
+                continue;
+            }
+            latest.merge(webhook.getTransactionReference(), webhook, (kept, next) ->
+                    kept.getOccurredAt() != null && next.getOccurredAt() != null
+                            && next.getOccurredAt().isBefore(kept.getOccurredAt()) ? kept : next);
+        }
+        return latest;
+    }
+    
+    /**
+     * Gets the status reported by each callback.
+     */
+    private static List<String> statuses(Collection<GatewayWebhookDto> webhooks) {
+        return webhooks.stream().map(GatewayWebhookDto::getStatus).toList();
+    }
+    
+    /**
+     * Gets when the gateway recorded each callback's status.
+     */
+    private static List<LocalDateTime> occurredAts(Collection<GatewayWebhookDto> webhooks) {
+        return webhooks.stream().map(GatewayWebhookDto::getOccurredAt).toList();
+    }
+    
+    /**
+     * Brings the ledger, retries and counters in line with the disbursements a batch changed.
+     * A payout the gateway reverses after completing is taken off the ledger and not retried, since the
+     * employee may already hold the money; paying it again is left to an operator.
+     *
+     * @return the events to publish for the changes
+     */
+    private List<DisbursementEvent> afterDisbursementChanges(List<StatusChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> oldStatuses = changes.stream()
+                .collect(Collectors.toMap(StatusChange::id, StatusChange::oldStatus));
+        
+        List<Disbursement> failed = new ArrayList<>();
+        List<DisbursementEvent> events = new ArrayList<>(changes.size());
+        for (Disbursement disbursement : disbursementRepository.findAllById(oldStatuses.keySet())) {
+            String oldStatus = oldStatuses.get(disbursement.getId());
+            if ("COMPLETED".equals(disbursement.getStatus())) {
+                ledgerService.recordDisbursed(disbursement);
+            } else if ("COMPLETED".equals(oldStatus)) {
+                ledgerService.recordDisbursementReversal(disbursement);
+                log.warn("Gateway reversed completed disbursement with ID: {}, now {}; not retrying",
+                        disbursement.getId(), disbursement.getStatus());
+            } else if ("FAILED".equals(disbursement.getStatus())) {
+                retryScheduler.scheduleRetry(disbursement);
+                failed.add(disbursement);
+            }
+            statusCounterService.getDisbursementCounters().recordTransition(
+                    oldStatus, disbursement.getStatus(), disbursement.getPaymentMethod(), disbursement.getEmployerId());
+            events.add(new DisbursementEvent(
+                    disbursement.getId(),
+                    eventType(disbursement.getStatus(), EventType.DISBURSEMENT_COMPLETED,
+                            EventType.DISBURSEMENT_FAILED, EventType.DISBURSEMENT_UPDATED),
+                    EventPayloads.disbursement(disbursement)
+            ));
+        }
+        
+        // Persist the next attempt times set by the retry scheduler
+        disbursementRepository.saveAll(failed);
+        return events;
+    }
+    
+    /**
+     * Brings the ledger and counters in line with the repayments a batch changed.
+     *
+     * @return the events to publish for the changes
+     */
+    private List<RepaymentEvent> afterRepaymentChanges(List<StatusChange> changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> oldStatuses = changes.stream()
+                .collect(Collectors.toMap(StatusChange::id, StatusChange::oldStatus));
+        
+        List<RepaymentEvent> events = new ArrayList<>(changes.size());
+        for (Repayment repayment : repaymentRepository.findAllById(oldStatuses.keySet())) {
+            String oldStatus = oldStatuses.get(repayment.getId());
+            if ("COMPLETED".equals(repayment.getStatus())) {
+                ledgerService.recordRepayment(repayment);
+            } else if ("COMPLETED".equals(oldStatus)) {
+                ledgerService.recordRepaymentReversal(repayment);
+            }
+            statusCounterService.getRepaymentCounters().recordTransition(
+                    oldStatus, repayment.getStatus(), repayment.getPaymentMethod());
+            events.add(new RepaymentEvent(
+                    repayment.getId(),
+                    eventType(repayment.getStatus(), EventType.REPAYMENT_COMPLETED,
+                            EventType.REPAYMENT_FAILED, EventType.REPAYMENT_UPDATED),
+                    EventPayloads.repayment(repayment)
+            ));
+        }
+        return events;
+    }
+    
+    /**
+     * Picks the event type published for a status reported by the gateway.
+     */
+    private static EventType eventType(String status, EventType completed, EventType failed, EventType updated) {
+        return switch (status) {
+            case "COMPLETED" -> completed;
+            case "FAILED" -> failed;
+            default -> updated;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.payrolladvance.disbursementservice.util;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, thread-safe set of recently seen IDs.
+ * Once the capacity is reached the oldest IDs are forgotten first, so the cache
+ * catches redeliveries that arrive close together without growing without bound.
+ */
+public class BoundedIdCache {
+    
+    private final int capacity;
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    
+    /**
+     * Constructs a new BoundedIdCache.
+     *
+     * @param capacity the maximum number of IDs remembered
+     */
+    public BoundedIdCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Checks whether an ID has been seen recently.
+     *
+     * @param id the ID
+     * @return true if the ID is in the cache
+     */
+    public boolean contains(String id) {
+        return ids.contains(id);
+    }
+    
+    /**
+     * Records an ID as seen, evicting the oldest IDs if the cache is full.
+     *
+     * @param id the ID
+     * @return true if the ID was not already in the cache
+     */
+    public boolean add(String id) {
+        if (!ids.add(id)) {
+            return false;
+        }
+        insertionOrder.add(id);
+        if (size.incrementAndGet() > capacity) {
+            String eldest = insertionOrder.poll();
+            if (eldest != null) {
+                ids.remove(eldest);
+                size.decrementAndGet();
+            }
+        }
+        return true;
+    }
+}
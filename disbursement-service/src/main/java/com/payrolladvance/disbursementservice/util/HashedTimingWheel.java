@@ -0,0 +1,206 @@
+package com.payrolladvance.disbursementservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained timers.
+ * Scheduling and cancelling are O(1) and lock-free; a single worker thread advances the wheel
+ * once per tick and hands expired tasks to the supplied executor. Timers are accurate to one tick.
+ */
+@Slf4j
+public class HashedTimingWheel implements AutoCloseable {
+    
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimeouts = new AtomicInteger();
+    private final Executor taskExecutor;
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+    
+    /**
+     * Constructs and starts a new HashedTimingWheel.
+     *
+     * @param name         the name of the worker thread
+     * @param tickDuration the duration of one tick
+     * @param unit         the unit of the tick duration
+     * @param wheelSize    the number of buckets, rounded up to a power of two
+     * @param taskExecutor the executor that runs expired tasks
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30: " + wheelSize);
+        }
+        int buckets = 1;
+        while (buckets < wheelSize) {
+            buckets <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = buckets - 1;
+        this.wheel = new ArrayDeque[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.taskExecutor = taskExecutor;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task  the task
+     * @param delay the delay
+     * @param unit  the unit of the delay
+     * @return a handle that can cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(unit.toNanos(delay), 0);
+        Timeout timeout = new Timeout(task, deadline);
+        pendingTimeouts.incrementAndGet();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Gets the number of timers that have neither expired nor been cancelled.
+     *
+     * @return the number of pending timers
+     */
+    public int getPendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+    
+    /**
+     * Stops the worker thread. Pending timers never fire.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+    
+    /**
+     * Worker loop: waits for each tick, files newly scheduled timers into their buckets and expires the current bucket.
+     */
+    private void run() {
+        while (running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            
+            transferNewTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+    
+    /**
+     * Moves timers scheduled since the last tick into the bucket and round they expire in.
+     */
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long expiryTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            
+            // Timers already overdue go into the current bucket
+            long bucketTick = Math.max(expiryTick, tick);
+            wheel[(int) (bucketTick & mask)].add(timeout);
+        }
+    }
+    
+    /**
+     * Runs the timers in a bucket whose last round has come and counts down the others.
+     *
+     * @param bucket the bucket for the current tick
+     */
+    private void expireTimeouts(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                if (timeout.expire()) {
+                    pendingTimeouts.decrementAndGet();
+                    try {
+                        taskExecutor.execute(timeout.task);
+                    } catch (RuntimeException e) {
+                        log.error("Failed to dispatch expired timer", e);
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+    
+    /**
+     * Handle for a scheduled task.
+     */
+    public final class Timeout {
+        
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+        private final AtomicInteger state = new AtomicInteger();
+        
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+        
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled by this call
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(0, 1)) {
+                cancelled = true;
+                pendingTimeouts.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+        
+        private boolean expire() {
+            return state.compareAndSet(0, 2);
+        }
+    }
+}
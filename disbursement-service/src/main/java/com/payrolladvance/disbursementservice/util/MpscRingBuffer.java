@@ -0,0 +1,130 @@
+package com.payrolladvance.disbursementservice.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer for many producer threads and a single consumer thread.
+ * Each slot carries a sequence number that tells producers whether it is free for the lap they
+ * claimed and tells the consumer whether it has been published, so neither side ever blocks;
+ * a producer that finds the buffer full is refused instead of waiting.
+ *
+ * @param <E> the element type
+ */
+public class MpscRingBuffer<E> {
+    
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    
+    /**
+     * Constructs a new MpscRingBuffer.
+     *
+     * @param capacity the maximum number of buffered elements, rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Adds an element if there is room. Safe to call from any number of threads.
+     *
+     * @param element the element
+     * @return true if the element was added, false if the buffer is full
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("Element must not be null");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    // Publishing the sequence makes the element visible to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // The slot still holds an element from the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    /**
+     * Moves up to the given number of elements into a collection, oldest first.
+     * Must only be called from the single consumer thread.
+     *
+     * @param sink        the collection to add to
+     * @param maxElements the maximum number of elements to move
+     * @return the number of elements moved
+     */
+    public int drainTo(Collection<? super E> sink, int maxElements) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            sink.add(slots.get(index));
+            slots.lazySet(index, null);
+            // Hand the slot back to producers for the next lap
+            sequences.set(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+    
+    /**
+     * Gets the approximate number of buffered elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+    
+    /**
+     * Checks whether the buffer is approximately empty.
+     *
+     * @return true if no elements are buffered
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    /**
+     * Gets the capacity of the buffer.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
\ No newline at end of file
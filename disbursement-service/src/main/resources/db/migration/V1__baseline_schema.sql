@@ -0,0 +1,83 @@
+-- Schema as previously generated by Hibernate. IF NOT EXISTS keeps this a no-op on existing databases.
+
+CREATE TABLE IF NOT EXISTS disbursements (
+    id                      bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    advance_request_id      bigint         NOT NULL,
+    employee_id             bigint         NOT NULL,
+    employer_id             bigint,
+    amount                  numeric(38, 2) NOT NULL,
+    transaction_reference   varchar(255),
+    status                  varchar(255)   NOT NULL,
+    payment_method          varchar(255)   NOT NULL,
+    expected_repayment_date timestamp(6),
+    fee_amount              numeric(38, 2),
+    total_repayment_amount  numeric(38, 2),
+    retry_count             integer        NOT NULL DEFAULT 0,
+    next_attempt_at         timestamp(6),
+    created_at              timestamp(6)   NOT NULL,
+    updated_at              timestamp(6)   NOT NULL,
+    CONSTRAINT uk_disbursements_advance_request_id UNIQUE (advance_request_id)
+);
+
+CREATE TABLE IF NOT EXISTS repayments (
+    id                    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    disbursement_id       bigint         NOT NULL,
+    employee_id           bigint         NOT NULL,
+    amount                numeric(38, 2) NOT NULL,
+    transaction_reference varchar(255),
+    status                varchar(255)   NOT NULL,
+    payment_method        varchar(255)   NOT NULL,
+    payment_date          timestamp(6),
+    created_at            timestamp(6)   NOT NULL,
+    updated_at            timestamp(6)   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS repayment_run_checkpoints (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    payroll_date         date         NOT NULL,
+    partition_count      integer      NOT NULL,
+    partition_number     integer      NOT NULL,
+    last_disbursement_id bigint       NOT NULL,
+    repayments_created   bigint       NOT NULL,
+    status               varchar(255) NOT NULL,
+    created_at           timestamp(6) NOT NULL,
+    updated_at           timestamp(6) NOT NULL,
+    CONSTRAINT uk_repayment_run_checkpoints_partition UNIQUE (payroll_date, partition_count, partition_number)
+);
+
+CREATE TABLE IF NOT EXISTS disbursement_ledger_entries (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    disbursement_id bigint         NOT NULL,
+    sequence_number bigint         NOT NULL,
+    entry_type      varchar(255)   NOT NULL,
+    amount          numeric(38, 2) NOT NULL,
+    repayment_id    bigint,
+    created_at      timestamp(6)   NOT NULL,
+    CONSTRAINT uk_ledger_entries_disbursement_sequence UNIQUE (disbursement_id, sequence_number)
+);
+
+CREATE TABLE IF NOT EXISTS disbursement_ledger_snapshots (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    disbursement_id bigint         NOT NULL,
+    sequence_number bigint         NOT NULL,
+    balance         numeric(38, 2) NOT NULL,
+    created_at      timestamp(6)   NOT NULL,
+    CONSTRAINT uk_ledger_snapshots_disbursement_sequence UNIQUE (disbursement_id, sequence_number)
+);
+
+CREATE TABLE IF NOT EXISTS employer_fee_schedules (
+    employer_id         bigint PRIMARY KEY,
+    minimum_fee         numeric(38, 2),
+    maximum_fee         numeric(38, 2),
+    repayment_term_days integer,
+    updated_at          timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS employer_fee_tiers (
+    employer_id bigint         NOT NULL REFERENCES employer_fee_schedules (employer_id),
+    tier_index  integer        NOT NULL,
+    up_to       numeric(38, 2),
+    rate_bps    integer        NOT NULL,
+    flat_fee    numeric(38, 2) NOT NULL,
+    PRIMARY KEY (employer_id, tier_index)
+);
@@ -0,0 +1,109 @@
+-- Range-partitions disbursements and repayments by month of created_at.
+-- Partitions are named <table>_pYYYY_MM; PartitionMaintenanceService creates future months and archives old ones.
+
+-- A unique key on a partitioned table must include the partition key, so the one-disbursement-per-advance-request
+-- rule moves to a claim table that inserts go through.
+CREATE TABLE disbursement_advance_requests (
+    advance_request_id bigint PRIMARY KEY
+);
+
+INSERT INTO disbursement_advance_requests (advance_request_id)
+SELECT advance_request_id FROM disbursements;
+
+-- Catalogue of partitions moved to archive files
+CREATE TABLE archived_partitions (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    table_name      varchar(255)  NOT NULL,
+    partition_month date          NOT NULL,
+    file_path       varchar(1024) NOT NULL,
+    row_count       bigint        NOT NULL,
+    archived_at     timestamp(6)  NOT NULL,
+    CONSTRAINT uk_archived_partitions_table_month UNIQUE (table_name, partition_month)
+);
+
+CREATE TABLE disbursements_partitioned (
+    id                      bigint         NOT NULL,
+    advance_request_id      bigint         NOT NULL,
+    employee_id             bigint         NOT NULL,
+    employer_id             bigint,
+    amount                  numeric(38, 2) NOT NULL,
+    transaction_reference   varchar(255),
+    status                  varchar(255)   NOT NULL,
+    payment_method          varchar(255)   NOT NULL,
+    expected_repayment_date timestamp(6),
+    fee_amount              numeric(38, 2),
+    total_repayment_amount  numeric(38, 2),
+    retry_count             integer        NOT NULL DEFAULT 0,
+    next_attempt_at         timestamp(6),
+    created_at              timestamp(6)   NOT NULL,
+    updated_at              timestamp(6)   NOT NULL,
+    CONSTRAINT pk_disbursements PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE repayments_partitioned (
+    id                    bigint         NOT NULL,
+    disbursement_id       bigint         NOT NULL,
+    employee_id           bigint         NOT NULL,
+    amount                numeric(38, 2) NOT NULL,
+    transaction_reference varchar(255),
+    status                varchar(255)   NOT NULL,
+    payment_method        varchar(255)   NOT NULL,
+    payment_date          timestamp(6),
+    created_at            timestamp(6)   NOT NULL,
+    updated_at            timestamp(6)   NOT NULL,
+    CONSTRAINT pk_repayments PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Monthly partitions covering existing rows and the next three months, plus a default partition as a safety net
+DO $$
+DECLARE
+    target text;
+    first_month date;
+    month date;
+BEGIN
+    FOREACH target IN ARRAY ARRAY['disbursements', 'repayments'] LOOP
+        EXECUTE format('SELECT date_trunc(''month'', COALESCE(min(created_at), now()))::date FROM %I', target)
+            INTO first_month;
+        month := first_month;
+        WHILE month <= (date_trunc('month', now()) + interval '3 months')::date LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    target || '_p' || to_char(month, 'YYYY_MM'), target || '_partitioned',
+                    month, (month + interval '1 month')::date);
+            month := (month + interval '1 month')::date;
+        END LOOP;
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', target || '_default', target || '_partitioned');
+    END LOOP;
+END $$;
+
+INSERT INTO disbursements_partitioned SELECT
+    id, advance_request_id, employee_id, employer_id, amount, transaction_reference, status, payment_method,
+    expected_repayment_date, fee_amount, total_repayment_amount, retry_count, next_attempt_at, created_at, updated_at
+FROM disbursements;
+
+INSERT INTO repayments_partitioned SELECT
+    id, disbursement_id, employee_id, amount, transaction_reference, status, payment_method, payment_date,
+    created_at, updated_at
+FROM repayments;
+
+-- Dropping the old tables also drops their identity sequences, whose names the new sequences reuse
+DROP TABLE disbursements;
+DROP TABLE repayments;
+ALTER TABLE disbursements_partitioned RENAME TO disbursements;
+ALTER TABLE repayments_partitioned RENAME TO repayments;
+
+CREATE SEQUENCE disbursements_id_seq OWNED BY disbursements.id;
+SELECT setval('disbursements_id_seq', COALESCE((SELECT max(id) FROM disbursements), 0) + 1, false);
+ALTER TABLE disbursements ALTER COLUMN id SET DEFAULT nextval('disbursements_id_seq');
+
+CREATE SEQUENCE repayments_id_seq OWNED BY repayments.id;
+SELECT setval('repayments_id_seq', COALESCE((SELECT max(id) FROM repayments), 0) + 1, false);
+ALTER TABLE repayments ALTER COLUMN id SET DEFAULT nextval('repayments_id_seq');
+
+-- Indexes on the parent are created on every partition, present and future
+CREATE INDEX idx_disbursements_advance_request_id ON disbursements (advance_request_id);
+CREATE INDEX idx_disbursements_employee_created ON disbursements (employee_id, created_at);
+CREATE INDEX idx_disbursements_status_created ON disbursements (status, created_at);
+CREATE INDEX idx_disbursements_next_attempt_at ON disbursements (next_attempt_at);
+CREATE INDEX idx_disbursements_status_expected_repayment ON disbursements (status, expected_repayment_date);
+CREATE INDEX idx_repayments_disbursement_id ON repayments (disbursement_id);
+CREATE INDEX idx_repayments_employee_created ON repayments (employee_id, created_at);
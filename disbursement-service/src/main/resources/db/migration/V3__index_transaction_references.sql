@@ -0,0 +1,3 @@
+-- Gateway webhooks and settlement files identify payments by their transaction reference.
+CREATE INDEX IF NOT EXISTS idx_disbursements_transaction_reference ON disbursements (transaction_reference);
+CREATE INDEX IF NOT EXISTS idx_repayments_transaction_reference ON repayments (transaction_reference);
\ No newline at end of file
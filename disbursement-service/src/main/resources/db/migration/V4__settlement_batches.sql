@@ -0,0 +1,22 @@
+-- Settlement windows net PENDING disbursements per payment method and bank into batches sent to the bank as one file.
+CREATE TABLE settlement_batches (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    batch_reference varchar(255)   NOT NULL,
+    payment_method  varchar(255)   NOT NULL,
+    bank_code       varchar(255),
+    status          varchar(255)   NOT NULL,
+    close_reason    varchar(255)   NOT NULL,
+    item_count      integer        NOT NULL,
+    total_amount    numeric(38, 2) NOT NULL,
+    file_path       varchar(1024),
+    failure_reason  varchar(1024),
+    created_at      timestamp(6)   NOT NULL,
+    settled_at      timestamp(6),
+    CONSTRAINT uk_settlement_batches_batch_reference UNIQUE (batch_reference)
+);
+
+ALTER TABLE disbursements ADD COLUMN bank_code varchar(255);
+ALTER TABLE disbursements ADD COLUMN settlement_batch_id bigint;
+
+CREATE INDEX IF NOT EXISTS idx_disbursements_settlement_batch_id ON disbursements (settlement_batch_id);
+CREATE INDEX IF NOT EXISTS idx_disbursements_status_payment_method ON disbursements (status, payment_method, bank_code);
\ No newline at end of file
@@ -0,0 +1,3 @@
+-- When the gateway recorded the status a payment is in, so a late callback cannot overwrite a newer status.
+ALTER TABLE disbursements ADD COLUMN status_occurred_at timestamp(6);
+ALTER TABLE repayments ADD COLUMN status_occurred_at timestamp(6);
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- Gateway callbacks that failed to apply on their own, kept for inspection and replay instead of being dropped.
+CREATE TABLE webhook_dead_letters (
+    id                    bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id              varchar(255),
+    transaction_reference varchar(255),
+    status                varchar(255),
+    occurred_at           timestamp(6),
+    failure_reason        varchar(1024),
+    created_at            timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_dead_letters_transaction_reference ON webhook_dead_letters (transaction_reference);
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.payrolladvance.disbursementservice.service;
+
+import com.payrolladvance.disbursementservice.dto.SettlementWindowSummary;
+import com.payrolladvance.disbursementservice.gateway.PaymentGateway;
+import com.payrolladvance.disbursementservice.model.Disbursement;
+import com.payrolladvance.disbursementservice.model.SettlementBatch;
+import com.payrolladvance.disbursementservice.repository.DisbursementRepository;
+import com.payrolladvance.kafka.common.util.EventPublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs settlement batches against PostgreSQL with the Flyway schema, since the window and batch
+ * statements rely on PostgreSQL features. Each call commits on its own, as it does in the service.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "app.settlement.payment-methods=BANK_TRANSFER"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+@Import({SettlementWindowServiceImpl.class, DisbursementServiceImpl.class})
+class SettlementWindowServiceImplTest {
+    
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @TempDir
+    static Path outboxDir;
+    
+    @Autowired
+    private SettlementWindowService settlementWindowService;
+    
+    @Autowired
+    private DisbursementService disbursementService;
+    
+    @Autowired
+    private DisbursementRepository disbursementRepository;
+    
+    @MockBean
+    private DisbursementRetryScheduler retryScheduler;
+    
+    @MockBean
+    private DisbursementDispatcher dispatcher;
+    
+    @MockBean
+    private LedgerService ledgerService;
+    
+    @MockBean
+    private PaymentGateway paymentGateway;
+    
+    @MockBean
+    private EventPublisher eventPublisher;
+    
+    @MockBean(answer = Answers.RETURNS_DEEP_STUBS)
+    private StatusCounterService statusCounterService;
+    
+    @DynamicPropertySource
+    static void settlementProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.settlement.outbox-dir", () -> outboxDir.toString());
+    }
+    
+    @Test
+    void retriedDisbursementsOfRejectedBatchJoinNextBatch() {
+        when(retryScheduler.scheduleRetry(any())).thenAnswer(invocation -> {
+            invocation.<Disbursement>getArgument(0).setNextAttemptAt(LocalDateTime.now());
+            return true;
+        });
+        Disbursement disbursement = disbursementRepository.save(pendingDisbursement());
+        
+        List<String> closed = settlementWindowService.closeAllWindows().getBatchReferences();
+        assertThat(closed).hasSize(1);
+        String rejectedReference = closed.get(0);
+        settlementWindowService.failBatch(rejectedReference, "Receiving bank offline");
+        
+        Disbursement failed = disbursementRepository.findById(disbursement.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getSettlementBatchId()).isNull();
+        assertThat(failed.getTransactionReference()).isNull();
+        
+        disbursementService.retryDisbursement(disbursement.getId());
+        verify(dispatcher).enqueue(List.of(disbursement.getId()));
+        
+        SettlementWindowSummary summary = settlementWindowService.closeAllWindows();
+        assertThat(summary.getBatchReferences()).hasSize(1).doesNotContain(rejectedReference);
+        
+        SettlementBatch batch = settlementWindowService.getBatch(summary.getBatchReferences().get(0));
+        Disbursement rebatched = disbursementRepository.findById(disbursement.getId()).orElseThrow();
+        assertThat(batch.getItemCount()).isEqualTo(1);
+        assertThat(rebatched.getStatus()).isEqualTo("PROCESSING");
+        assertThat(rebatched.getRetryCount()).isEqualTo(1);
+        assertThat(rebatched.getSettlementBatchId()).isEqualTo(batch.getId());
+        assertThat(rebatched.getTransactionReference()).isEqualTo(batch.getBatchReference() + "-" + disbursement.getId());
+    }
+    
+    private static Disbursement pendingDisbursement() {
+        Disbursement disbursement = new Disbursement();
+        disbursement.setAdvanceRequestId(101L);
+        disbursement.setEmployeeId(2001L);
+        disbursement.setEmployerId(31L);
+        disbursement.setAmount(new BigDecimal("500.00"));
+        disbursement.setFeeAmount(new BigDecimal("10.00"));
+        disbursement.setTotalRepaymentAmount(new BigDecimal("510.00"));
+        disbursement.setPaymentMethod("BANK_TRANSFER");
+        disbursement.setBankCode("044");
+        disbursement.setStatus("PENDING");
+        return disbursement;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.payrolladvance.exposureservice;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+
+/**
+ * Main application class for the Exposure Service.
+ * This service keeps live per-employer exposure totals from the advance, disbursement and repayment events.
+ */
+@SpringBootApplication
+@EnableDiscoveryClient
+public class ExposureServiceApplication {
+    
+    /**
+     * Main method to start the application.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(ExposureServiceApplication.class, args);
+    }
+}
\ No newline at end of file
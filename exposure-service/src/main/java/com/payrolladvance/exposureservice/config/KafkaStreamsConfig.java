@@ -0,0 +1,151 @@
+package com.payrolladvance.exposureservice.config;
+
+import com.payrolladvance.exposureservice.topology.ExposureTopology;
+import com.payrolladvance.exposureservice.topology.ExposureTotals;
+import com.payrolladvance.exposureservice.topology.StateRestoreTracker;
+import com.payrolladvance.kafka.common.codec.BinaryEventDeserializer;
+import com.payrolladvance.kafka.common.codec.BinaryEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.KTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for the exposure stream topology.
+ * Each instance advertises its host and port as the application server, so any instance can tell which one
+ * owns an employer's totals and forward interactive queries to it.
+ */
+@Configuration
+@EnableKafkaStreams
+public class KafkaStreamsConfig {
+    
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+    
+    @Value("${app.exposure.application-id:exposure-service}")
+    private String applicationId;
+    
+    @Value("${app.exposure.advertised-host:${spring.cloud.client.ip-address:localhost}}")
+    private String advertisedHost;
+    
+    @Value("${server.port}")
+    private int serverPort;
+    
+    @Value("${app.exposure.state-dir:${java.io.tmpdir}/exposure-service}")
+    private String stateDir;
+    
+    @Value("${app.exposure.stream-threads:2}")
+    private int streamThreads;
+    
+    @Value("${app.exposure.standby-replicas:1}")
+    private int standbyReplicas;
+    
+    @Value("${app.exposure.grace-period:PT1H}")
+    private Duration gracePeriod;
+    
+    @Value("${app.exposure.window-retention:P7D}")
+    private Duration windowRetention;
+    
+    @Value("${app.kafka.schema-location:classpath:schemas}")
+    private String schemaLocation;
+    
+    /**
+     * Kafka Streams settings.
+     *
+     * @return the streams configuration
+     */
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.APPLICATION_SERVER_CONFIG, advertisedHost + ":" + serverPort);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, streamThreads);
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, standbyReplicas);
+        // A delta is applied to the stores and its input offset committed together, so a crash never counts twice
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, StreamsConfig.EXACTLY_ONCE_V2);
+        props.put(StreamsConfig.REPLICATION_FACTOR_CONFIG, -1);
+        return new KafkaStreamsConfiguration(props);
+    }
+    
+    /**
+     * Publishes the Kafka Streams metrics and tracks state restoration from the changelog topics.
+     *
+     * @param meterRegistry        the meter registry
+     * @param stateRestoreListener the listener tracking restoration
+     * @return the factory bean configurer
+     */
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer streamsBuilderFactoryBeanConfigurer(MeterRegistry meterRegistry,
+                                                                                   StateRestoreTracker stateRestoreListener) {
+        return factoryBean -> {
+            factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry));
+            factoryBean.setStateRestoreListener(stateRestoreListener);
+        };
+    }
+    
+    /**
+     * Tracks state restoration from the changelog topics.
+     *
+     * @param meterRegistry the meter registry
+     * @return the tracker
+     */
+    @Bean
+    public StateRestoreTracker stateRestoreTracker(MeterRegistry meterRegistry) {
+        return new StateRestoreTracker(meterRegistry);
+    }
+    
+    /**
+     * The exposure topology.
+     *
+     * @param streamsBuilder the builder of the application's topology
+     * @return the all-time totals per employer
+     */
+    @Bean
+    public KTable<String, ExposureTotals> employerExposure(StreamsBuilder streamsBuilder) {
+        return new ExposureTopology(eventSerde(), gracePeriod, windowRetention).build(streamsBuilder);
+    }
+    
+    /**
+     * Client for forwarding interactive queries to the instance that owns the key.
+     *
+     * @param builder the auto-configured builder
+     * @return the client
+     */
+    @Bean
+    public RestClient exposureRestClient(RestClient.Builder builder) {
+        return builder.build();
+    }
+    
+    /**
+     * Serde reading binary events, and JSON events written before the binary format.
+     * Serdes passed to the DSL are not configured by Kafka Streams, so it is configured here.
+     *
+     * @return the serde
+     */
+    private Serde<Object> eventSerde() {
+        Serde<Object> serde = Serdes.serdeFrom(new BinaryEventSerializer(), new BinaryEventDeserializer());
+        Map<String, Object> props = new HashMap<>();
+        props.put(BinaryEventSerializer.SCHEMA_LOCATION_CONFIG, schemaLocation);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.payrolladvance.*");
+        serde.configure(props, false);
+        return serde;
+    }
+}
\ No newline at end of file
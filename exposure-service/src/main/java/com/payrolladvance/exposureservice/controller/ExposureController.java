@@ -0,0 +1,64 @@
+package com.payrolladvance.exposureservice.controller;
+
+import com.payrolladvance.exposureservice.dto.EmployerExposureDto;
+import com.payrolladvance.exposureservice.service.ExposureQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for live per-employer exposure.
+ * The local endpoints answer from this instance's state stores only; other instances call them when
+ * forwarding a query.
+ */
+@RestController
+@RequestMapping("/api/exposure")
+@RequiredArgsConstructor
+public class ExposureController {
+    
+    private final ExposureQueryService exposureQueryService;
+    
+    /**
+     * Gets the exposure of every employer, largest outstanding amount first.
+     *
+     * @return the exposures
+     */
+    @GetMapping("/employers")
+    public ResponseEntity<List<EmployerExposureDto>> getExposures() {
+        return ResponseEntity.ok(exposureQueryService.getExposures());
+    }
+    
+    /**
+     * Gets the exposure of an employer.
+     *
+     * @param employerId the employer ID, or "unknown" for events without an employer
+     * @return the exposure
+     */
+    @GetMapping("/employers/{employerId}")
+    public ResponseEntity<EmployerExposureDto> getExposure(@PathVariable String employerId) {
+        return ResponseEntity.ok(exposureQueryService.getExposure(employerId));
+    }
+    
+    /**
+     * Gets the exposure of every employer held by this instance.
+     *
+     * @return the exposures
+     */
+    @GetMapping("/local/employers")
+    public ResponseEntity<List<EmployerExposureDto>> getLocalExposures() {
+        return ResponseEntity.ok(exposureQueryService.getLocalExposures());
+    }
+    
+    /**
+     * Gets the exposure of an employer from this instance's state stores.
+     *
+     * @param employerId the employer ID
+     * @return the exposure
+     */
+    @GetMapping("/local/employers/{employerId}")
+    public ResponseEntity<EmployerExposureDto> getLocalExposure(@PathVariable String employerId) {
+        return ResponseEntity.ok(exposureQueryService.getLocalExposure(employerId));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.payrolladvance.exposureservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object with the live exposure of one employer: the outstanding amount across all time,
+ * and today's payouts, collections and failure rates. Days are UTC days.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployerExposureDto {
+    
+    private String employerId; // "unknown" for events without an employer
+    
+    private BigDecimal outstandingAmount;
+    
+    private LocalDateTime dayStart; // UTC
+    
+    private BigDecimal disbursedToday;
+    
+    private long disbursementsToday;
+    
+    private double disbursementFailureRate; // Failed payout attempts out of all attempts today
+    
+    private BigDecimal repaidToday;
+    
+    private long repaymentsToday;
+    
+    private double repaymentFailureRate; // Failed collection attempts out of all attempts today
+    
+    private long advancesRequestedToday;
+    
+    private BigDecimal advanceAmountRequestedToday;
+}
\ No newline at end of file
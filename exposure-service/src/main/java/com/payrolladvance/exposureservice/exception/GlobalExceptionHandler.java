@@ -0,0 +1,85 @@
+package com.payrolladvance.exposureservice.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Global exception handler for the exposure service.
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+    
+    private static final String RETRY_AFTER_SECONDS = "5";
+    
+    /**
+     * Error response model.
+     */
+    public record ErrorResponse(String message, String details, LocalDateTime timestamp) {
+    }
+    
+    /**
+     * Handles ResourceNotFoundException.
+     *
+     * @param ex the exception
+     * @return the error response
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        log.error("Resource not found: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Resource Not Found",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+    
+    /**
+     * Handles StateStoreUnavailableException, asking the caller to retry once the stores are ready.
+     *
+     * @param ex the exception
+     * @return the error response
+     */
+    @ExceptionHandler(StateStoreUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleStateStoreUnavailableException(StateStoreUnavailableException ex) {
+        log.warn("State store unavailable: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Service Unavailable",
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(errorResponse);
+    }
+    
+    /**
+     * Handles all other exceptions.
+     *
+     * @param ex the exception
+     * @return the error response
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        log.error("Unexpected error: ", ex);
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Internal Server Error",
+                "An unexpected error occurred. Please try again later.",
+                LocalDateTime.now()
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.payrolladvance.exposureservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a requested resource is not found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ResourceNotFoundException extends RuntimeException {
+    
+    /**
+     * Constructs a new ResourceNotFoundException with the specified message.
+     *
+     * @param message the error message
+     */
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.payrolladvance.exposureservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the exposure totals cannot be queried yet, because the stream application is
+ * starting, rebalancing or restoring its state stores.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StateStoreUnavailableException extends RuntimeException {
+    
+    /**
+     * Constructs a new StateStoreUnavailableException with the specified message.
+     *
+     * @param message the error message
+     */
+    public StateStoreUnavailableException(String message) {
+        super(message);
+    }
+    
+    /**
+     * Constructs a new StateStoreUnavailableException with the specified message and cause.
+     *
+     * @param message the error message
+     * @param cause   the cause
+     */
+    public StateStoreUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
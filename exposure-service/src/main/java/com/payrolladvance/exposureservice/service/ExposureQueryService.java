@@ -0,0 +1,43 @@
+package com.payrolladvance.exposureservice.service;
+
+import com.payrolladvance.exposureservice.dto.EmployerExposureDto;
+
+import java.util.List;
+
+/**
+ * Service interface for querying the live exposure totals held in the stream application's state stores.
+ * Each instance holds the totals of the employers on its partitions; queries for other employers are
+ * forwarded to the instance that holds them.
+ */
+public interface ExposureQueryService {
+    
+    /**
+     * Gets the exposure of an employer, from whichever instance holds it.
+     *
+     * @param employerId the employer ID, or "unknown"
+     * @return the exposure
+     */
+    EmployerExposureDto getExposure(String employerId);
+    
+    /**
+     * Gets the exposure of every employer, gathered from all instances, largest outstanding amount first.
+     *
+     * @return the exposures
+     */
+    List<EmployerExposureDto> getExposures();
+    
+    /**
+     * Gets the exposure of an employer from this instance's stores only.
+     *
+     * @param employerId the employer ID, or "unknown"
+     * @return the exposure
+     */
+    EmployerExposureDto getLocalExposure(String employerId);
+    
+    /**
+     * Gets the exposure of every employer held by this instance.
+     *
+     * @return the exposures
+     */
+    List<EmployerExposureDto> getLocalExposures();
+}
\ No newline at end of file
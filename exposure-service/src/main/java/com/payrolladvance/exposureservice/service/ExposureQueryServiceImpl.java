@@ -0,0 +1,220 @@
+package com.payrolladvance.exposureservice.service;
+
+import com.payrolladvance.exposureservice.dto.EmployerExposureDto;
+import com.payrolladvance.exposureservice.exception.ResourceNotFoundException;
+import com.payrolladvance.exposureservice.exception.StateStoreUnavailableException;
+import com.payrolladvance.exposureservice.topology.ExposureTopology;
+import com.payrolladvance.exposureservice.topology.ExposureTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreType;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of the ExposureQueryService interface.
+ * Kafka Streams knows which instance is active for every partition of the exposure stores, so a key lookup
+ * goes to exactly one instance and a full listing asks every instance for its share.
+ */
+@Slf4j
+@Service
+public class ExposureQueryServiceImpl implements ExposureQueryService {
+    
+    private static final String LOCAL_EMPLOYERS_URL = "http://{host}:{port}/api/exposure/local/employers";
+    
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final RestClient exposureRestClient;
+    private final HostInfo self;
+    
+    /**
+     * Constructs a new ExposureQueryServiceImpl.
+     *
+     * @param streamsBuilderFactoryBean the factory bean running the exposure topology
+     * @param kafkaStreamsConfiguration the streams configuration, holding this instance's advertised endpoint
+     * @param exposureRestClient        the client queries for other instances are forwarded with
+     */
+    public ExposureQueryServiceImpl(StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+                                    KafkaStreamsConfiguration kafkaStreamsConfiguration,
+                                    RestClient exposureRestClient) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+        this.exposureRestClient = exposureRestClient;
+        this.self = HostInfo.buildFromEndpoint(
+                kafkaStreamsConfiguration.asProperties().getProperty(StreamsConfig.APPLICATION_SERVER_CONFIG));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployerExposureDto getExposure(String employerId) {
+        KeyQueryMetadata metadata = runningStreams().queryMetadataForKey(
+                ExposureTopology.EXPOSURE_STORE, employerId, Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new StateStoreUnavailableException("No instance holds the exposure of employer " + employerId + " yet");
+        }
+        if (self.equals(metadata.activeHost())) {
+            return getLocalExposure(employerId);
+        }
+        
+        HostInfo owner = metadata.activeHost();
+        log.debug("Forwarding exposure query for employer {} to {}", employerId, owner);
+        try {
+            return exposureRestClient.get()
+                    .uri(LOCAL_EMPLOYERS_URL + "/{employerId}", owner.host(), owner.port(), employerId)
+                    .retrieve()
+                    .body(EmployerExposureDto.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new ResourceNotFoundException("No exposure recorded for employer " + employerId);
+        } catch (RestClientException e) {
+            throw new StateStoreUnavailableException("Instance " + owner + " holding employer " + employerId
+                    + " did not answer", e);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<EmployerExposureDto> getExposures() {
+        List<EmployerExposureDto> exposures = new ArrayList<>();
+        for (StreamsMetadata instance : runningStreams().streamsMetadataForStore(ExposureTopology.EXPOSURE_STORE)) {
+            HostInfo host = instance.hostInfo();
+            if (self.equals(host)) {
+                exposures.addAll(getLocalExposures());
+                continue;
+            }
+            try {
+                List<EmployerExposureDto> remote = exposureRestClient.get()
+                        .uri(LOCAL_EMPLOYERS_URL, host.host(), host.port())
+                        .retrieve()
+                        .body(new ParameterizedTypeReference<List<EmployerExposureDto>>() {});
+                if (remote != null) {
+                    exposures.addAll(remote);
+                }
+            } catch (RestClientException e) {
+                // A partial listing would understate the exposure, so fail the whole query
+                throw new StateStoreUnavailableException("Instance " + host + " did not answer", e);
+            }
+        }
+        
+        exposures.sort(Comparator.comparing(EmployerExposureDto::getOutstandingAmount).reversed());
+        return exposures;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EmployerExposureDto getLocalExposure(String employerId) {
+        try {
+            ExposureTotals totals = exposureStore().get(employerId);
+            if (totals == null) {
+                throw new ResourceNotFoundException("No exposure recorded for employer " + employerId);
+            }
+            long dayStart = todayStart();
+            return toDto(employerId, totals, dailyActivityStore().fetch(employerId, dayStart), dayStart);
+        } catch (InvalidStateStoreException e) {
+            throw new StateStoreUnavailableException("Exposure stores are migrating: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<EmployerExposureDto> getLocalExposures() {
+        try {
+            ReadOnlyWindowStore<String, ExposureTotals> dailyActivity = dailyActivityStore();
+            long dayStart = todayStart();
+            List<EmployerExposureDto> exposures = new ArrayList<>();
+            try (KeyValueIterator<String, ExposureTotals> all = exposureStore().all()) {
+                while (all.hasNext()) {
+                    KeyValue<String, ExposureTotals> entry = all.next();
+                    exposures.add(toDto(entry.key, entry.value, dailyActivity.fetch(entry.key, dayStart), dayStart));
+                }
+            }
+            return exposures;
+        } catch (InvalidStateStoreException e) {
+            throw new StateStoreUnavailableException("Exposure stores are migrating: " + e.getMessage(), e);
+        }
+    }
+    
+    private ReadOnlyKeyValueStore<String, ExposureTotals> exposureStore() {
+        return store(ExposureTopology.EXPOSURE_STORE, QueryableStoreTypes.keyValueStore());
+    }
+    
+    private ReadOnlyWindowStore<String, ExposureTotals> dailyActivityStore() {
+        return store(ExposureTopology.DAILY_ACTIVITY_STORE, QueryableStoreTypes.windowStore());
+    }
+    
+    private <T> T store(String storeName, QueryableStoreType<T> storeType) {
+        return runningStreams().store(StoreQueryParameters.fromNameAndType(storeName, storeType));
+    }
+    
+    /**
+     * Gets the running streams; while they start, rebalance or restore, stores cannot be queried reliably.
+     */
+    private KafkaStreams runningStreams() {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (streams == null || streams.state() != KafkaStreams.State.RUNNING) {
+            throw new StateStoreUnavailableException("Exposure streams are "
+                    + (streams == null ? "not started" : streams.state()));
+        }
+        return streams;
+    }
+    
+    /**
+     * Gets the start of the current daily window; windows are aligned to the epoch, so to UTC midnight.
+     */
+    private static long todayStart() {
+        return Instant.now().truncatedTo(ChronoUnit.DAYS).toEpochMilli();
+    }
+    
+    private static EmployerExposureDto toDto(String employerId, ExposureTotals totals, ExposureTotals today,
+                                             long dayStart) {
+        ExposureTotals day = today != null ? today : ExposureTotals.ZERO;
+        return EmployerExposureDto.builder()
+                .employerId(employerId)
+                .outstandingAmount(totals.outstandingAmount())
+                .dayStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(dayStart), ZoneOffset.UTC))
+                .disbursedToday(day.disbursedAmount())
+                .disbursementsToday(day.disbursements())
+                .disbursementFailureRate(failureRate(day.disbursementFailures(), day.disbursements()))
+                .repaidToday(day.repaidAmount())
+                .repaymentsToday(day.repayments())
+                .repaymentFailureRate(failureRate(day.repaymentFailures(), day.repayments()))
+                .advancesRequestedToday(day.advancesRequested())
+                .advanceAmountRequestedToday(day.advanceAmountRequested())
+                .build();
+    }
+    
+    private static double failureRate(long failures, long successes) {
+        long attempts = failures + successes;
+        return attempts == 0 ? 0 : (double) failures / attempts;
+    }
+}
\ No newline at end of file
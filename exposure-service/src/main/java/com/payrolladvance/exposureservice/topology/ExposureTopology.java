@@ -0,0 +1,349 @@
+package com.payrolladvance.exposureservice.topology;
+
+import com.payrolladvance.kafka.common.events.AdvanceRequestEvent;
+import com.payrolladvance.kafka.common.events.AdvanceRequestPayload;
+import com.payrolladvance.kafka.common.events.DisbursementEvent;
+import com.payrolladvance.kafka.common.events.DisbursementPayload;
+import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.events.RepaymentEvent;
+import com.payrolladvance.kafka.common.events.RepaymentPayload;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Stream topology that folds the advance, disbursement and repayment topics into per-employer totals.
+ * <p>
+ * Every event is turned into an {@link ExposureTotals} delta keyed by employer and reduced twice: into an
+ * all-time table holding the outstanding exposure, and into daily windows holding the day's payouts,
+ * collections and failures. Repayments do not carry the employer, so they are attributed through a table
+ * of disbursement ID to employer built from the disbursement topic. Events without an employer are counted
+ * under {@link #UNKNOWN_EMPLOYER}.
+ * <p>
+ * Stores of the payouts counted as completed and the repayments counted as collected make disbursement and
+ * repayment deltas depend on what came before: a completion that later fails is reversed, restoring the
+ * outstanding amount, and a redelivered completion is counted once. A reversal lands in the daily window of
+ * the failure, not of the completion.
+ * <p>
+ * All five stores are backed by changelog topics, so an instance that takes over a partition restores its
+ * state from them, and standby replicas keep warm copies for a fast failover. Records are re-keyed through
+ * repartition topics, so instances can be added up to the partition count of those topics.
+ */
+public class ExposureTopology {
+    
+    public static final String ADVANCE_REQUEST_TOPIC = "advance-request-events";
+    public static final String DISBURSEMENT_TOPIC = "disbursement-events";
+    public static final String REPAYMENT_TOPIC = "repayment-events";
+    
+    /**
+     * All-time totals per employer.
+     */
+    public static final String EXPOSURE_STORE = "employer-exposure";
+    
+    /**
+     * Daily totals per employer, in UTC day windows.
+     */
+    public static final String DAILY_ACTIVITY_STORE = "employer-daily-activity";
+    
+    /**
+     * The employer of every disbursement, for attributing repayments.
+     */
+    public static final String DISBURSEMENT_EMPLOYER_STORE = "disbursement-employers";
+    
+    /**
+     * The delta counted for every completed payout, for reversing it if it fails later.
+     */
+    public static final String DISBURSEMENT_COMPLETED_STORE = "disbursement-completed";
+    
+    /**
+     * The amount counted as collected for every completed repayment, for reversing it if it fails later.
+     */
+    public static final String REPAYMENT_COLLECTED_STORE = "repayment-collected";
+    
+    public static final String UNKNOWN_EMPLOYER = "unknown";
+    
+    public static final Duration WINDOW_SIZE = Duration.ofDays(1);
+    
+    private final Serde<Object> eventSerde;
+    private final Serde<ExposureTotals> totalsSerde = new JsonSerde<>(ExposureTotals.class).noTypeInfo().ignoreTypeHeaders();
+    private final Serde<DisbursementChange> disbursementChangeSerde = new JsonSerde<>(DisbursementChange.class).noTypeInfo().ignoreTypeHeaders();
+    private final Serde<RepaymentChange> repaymentChangeSerde = new JsonSerde<>(RepaymentChange.class).noTypeInfo().ignoreTypeHeaders();
+    private final Duration gracePeriod;
+    private final Duration retention;
+    
+    /**
+     * Constructs a new ExposureTopology.
+     *
+     * @param eventSerde  the serde the event topics are read with
+     * @param gracePeriod how long after a day ends late events are still added to it
+     * @param retention   how long daily windows are kept; at least a day plus the grace period
+     */
+    public ExposureTopology(Serde<Object> eventSerde, Duration gracePeriod, Duration retention) {
+        if (retention.compareTo(WINDOW_SIZE.plus(gracePeriod)) < 0) {
+            throw new IllegalArgumentException("Retention " + retention + " is shorter than a day plus the grace period "
+                    + gracePeriod);
+        }
+        this.eventSerde = eventSerde;
+        this.gracePeriod = gracePeriod;
+        this.retention = retention;
+    }
+    
+    /**
+     * Adds the topology to a builder.
+     *
+     * @param builder the builder
+     * @return the all-time totals per employer
+     */
+    public KTable<String, ExposureTotals> build(StreamsBuilder builder) {
+        Consumed<String, Object> consumed = Consumed.with(Serdes.String(), eventSerde);
+        KStream<String, Object> advanceRequests = builder.stream(ADVANCE_REQUEST_TOPIC, consumed);
+        KStream<String, Object> disbursements = builder.stream(DISBURSEMENT_TOPIC, consumed);
+        KStream<String, Object> repayments = builder.stream(REPAYMENT_TOPIC, consumed);
+        
+        KStream<String, ExposureTotals> advanceDeltas = advanceRequests
+                .filter((key, event) -> event instanceof AdvanceRequestEvent advance
+                        && advance.getEventType() == EventType.ADVANCE_REQUEST_CREATED
+                        && advance.getPayload() != null && advance.getPayload().amount() != null)
+                .map((key, event) -> {
+                    AdvanceRequestPayload advanceRequest = ((AdvanceRequestEvent) event).getPayload();
+                    return KeyValue.pair(employerKey(advanceRequest.employerId()),
+                            ExposureTotals.advanceRequested(advanceRequest.amount()));
+                }, Named.as("advance-deltas"));
+        
+        KStream<String, DisbursementEvent> disbursementEvents = disbursements
+                .filter((key, event) -> event instanceof DisbursementEvent disbursement
+                        && disbursement.getEntityId() != null && disbursement.getPayload() != null)
+                .mapValues(event -> (DisbursementEvent) event);
+        
+        // Only the employer is kept, so the table stays small however wide the payload grows
+        KTable<String, String> disbursementEmployers = disbursementEvents
+                .map((key, disbursement) -> KeyValue.pair(disbursement.getEntityId().toString(),
+                        employerKey(disbursement.getPayload().employerId())), Named.as("disbursement-employer"))
+                .toTable(Named.as(DISBURSEMENT_EMPLOYER_STORE),
+                        Materialized.<String, String, KeyValueStore<Bytes, byte[]>>as(DISBURSEMENT_EMPLOYER_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(Serdes.String()));
+        
+        // Disbursement events are keyed by employee, so they are re-keyed for the completed store to be local
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(DISBURSEMENT_COMPLETED_STORE),
+                Serdes.String(), totalsSerde));
+        KStream<String, ExposureTotals> disbursementDeltas = disbursementEvents
+                .filter((key, disbursement) -> DisbursementChange.isRelevant(disbursement))
+                .map((key, disbursement) -> KeyValue.pair(disbursement.getEntityId().toString(),
+                        DisbursementChange.of(disbursement)), Named.as("disbursement-change-by-disbursement"))
+                .repartition(Repartitioned.<String, DisbursementChange>as("disbursement-changes-by-disbursement")
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(disbursementChangeSerde))
+                .processValues(DisbursementDeltaProcessor::new, Named.as("disbursement-deltas-by-disbursement"),
+                        DISBURSEMENT_COMPLETED_STORE)
+                .map((disbursementId, attributed) -> attributed, Named.as("disbursement-deltas"));
+        
+        // Every repayment of a disbursement lands on its partition, so the collected store can be local to it
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(REPAYMENT_COLLECTED_STORE),
+                Serdes.String(), Serdes.String()));
+        KStream<String, ExposureTotals> repaymentDeltas = repayments
+                .filter((key, event) -> event instanceof RepaymentEvent repayment && repayment.getEntityId() != null
+                        && repayment.getPayload() != null && repayment.getPayload().disbursementId() != null
+                        && RepaymentChange.isRelevant(repayment))
+                .map((key, event) -> KeyValue.pair(((RepaymentEvent) event).getPayload().disbursementId().toString(),
+                        RepaymentChange.of((RepaymentEvent) event)), Named.as("repayment-change-by-disbursement"))
+                .repartition(Repartitioned.<String, RepaymentChange>as("repayment-changes-by-disbursement")
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(repaymentChangeSerde))
+                .processValues(RepaymentDeltaProcessor::new, Named.as("repayment-deltas-by-disbursement"),
+                        REPAYMENT_COLLECTED_STORE)
+                // A repayment of a disbursement this topology has not seen is still counted
+                .leftJoin(disbursementEmployers, (delta, employer) -> KeyValue.pair(
+                        employer != null ? employer : UNKNOWN_EMPLOYER, delta))
+                .map((disbursementId, attributed) -> attributed, Named.as("repayment-deltas"));
+        
+        KGroupedStream<String, ExposureTotals> byEmployer = advanceDeltas
+                .merge(disbursementDeltas)
+                .merge(repaymentDeltas)
+                .groupByKey(Grouped.with("exposure-by-employer", Serdes.String(), totalsSerde));
+        
+        byEmployer.windowedBy(TimeWindows.ofSizeAndGrace(WINDOW_SIZE, gracePeriod))
+                .reduce(ExposureTotals::plus,
+                        Materialized.<String, ExposureTotals, WindowStore<Bytes, byte[]>>as(DAILY_ACTIVITY_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(totalsSerde)
+                                .withRetention(retention));
+        
+        return byEmployer.reduce(ExposureTotals::plus,
+                Materialized.<String, ExposureTotals, KeyValueStore<Bytes, byte[]>>as(EXPOSURE_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(totalsSerde));
+    }
+    
+    private static String employerKey(Long employerId) {
+        return employerId != null ? employerId.toString() : UNKNOWN_EMPLOYER;
+    }
+    
+    /**
+     * The part of a disbursement event the exposure depends on.
+     *
+     * @param employer  the employer key the change is counted under
+     * @param completed true if the payout completed, false if it failed
+     * @param amount    the principal paid out, or null for a failure
+     * @param exposure  the amount to be collected for it, fees included, or null for a failure
+     */
+    public record DisbursementChange(String employer, boolean completed, BigDecimal amount, BigDecimal exposure) {
+        
+        /**
+         * Checks whether a disbursement event changes the exposure.
+         *
+         * @param event the disbursement event
+         * @return true for completions with an amount and for failures
+         */
+        static boolean isRelevant(DisbursementEvent event) {
+            return (event.getEventType() == EventType.DISBURSEMENT_COMPLETED && event.getPayload().amount() != null)
+                    || event.getEventType() == EventType.DISBURSEMENT_FAILED;
+        }
+        
+        /**
+         * Takes the change from a disbursement event.
+         *
+         * @param event the disbursement event
+         * @return the change
+         */
+        static DisbursementChange of(DisbursementEvent event) {
+            DisbursementPayload disbursement = event.getPayload();
+            if (event.getEventType() != EventType.DISBURSEMENT_COMPLETED) {
+                return new DisbursementChange(employerKey(disbursement.employerId()), false, null, null);
+            }
+            BigDecimal exposure = disbursement.totalRepaymentAmount() != null
+                    ? disbursement.totalRepaymentAmount() : disbursement.amount();
+            return new DisbursementChange(employerKey(disbursement.employerId()), true, disbursement.amount(), exposure);
+        }
+    }
+    
+    /**
+     * Turns disbursement changes into deltas against the payouts already counted as completed.
+     */
+    private static final class DisbursementDeltaProcessor
+            implements FixedKeyProcessor<String, DisbursementChange, KeyValue<String, ExposureTotals>> {
+        
+        private FixedKeyProcessorContext<String, KeyValue<String, ExposureTotals>> context;
+        private KeyValueStore<String, ExposureTotals> completed;
+        
+        @Override
+        public void init(FixedKeyProcessorContext<String, KeyValue<String, ExposureTotals>> context) {
+            this.context = context;
+            this.completed = context.getStateStore(DISBURSEMENT_COMPLETED_STORE);
+        }
+        
+        @Override
+        public void process(FixedKeyRecord<String, DisbursementChange> record) {
+            DisbursementChange change = record.value();
+            ExposureTotals counted = completed.get(record.key());
+            
+            ExposureTotals delta;
+            if (change.completed()) {
+                if (counted != null) {
+                    // Already counted; a redelivered completion changes nothing
+                    return;
+                }
+                delta = ExposureTotals.disbursed(change.amount(), change.exposure());
+                completed.put(record.key(), delta);
+            } else if (counted != null) {
+                completed.delete(record.key());
+                delta = ExposureTotals.disbursementReversed(counted);
+            } else {
+                delta = ExposureTotals.disbursementFailed();
+            }
+            context.forward(record.withValue(KeyValue.pair(change.employer(), delta)));
+        }
+    }
+    
+    /**
+     * The part of a repayment event the exposure depends on.
+     *
+     * @param repaymentId the repayment ID
+     * @param completed   true if the repayment completed, false if it failed
+     * @param amount      the amount collected, or null if unknown
+     */
+    public record RepaymentChange(Long repaymentId, boolean completed, BigDecimal amount) {
+        
+        /**
+         * Checks whether a repayment event changes the exposure.
+         *
+         * @param event the repayment event
+         * @return true for completions with an amount and for failures
+         */
+        static boolean isRelevant(RepaymentEvent event) {
+            return (event.getEventType() == EventType.REPAYMENT_COMPLETED && event.getPayload().amount() != null)
+                    || event.getEventType() == EventType.REPAYMENT_FAILED;
+        }
+        
+        /**
+         * Takes the change from a repayment event.
+         *
+         * @param event the repayment event
+         * @return the change
+         */
+        static RepaymentChange of(RepaymentEvent event) {
+            RepaymentPayload repayment = event.getPayload();
+            return new RepaymentChange(event.getEntityId(),
+                    event.getEventType() == EventType.REPAYMENT_COMPLETED, repayment.amount());
+        }
+    }
+    
+    /**
+     * Turns repayment changes into deltas against the amounts already counted as collected.
+     */
+    private static final class RepaymentDeltaProcessor implements FixedKeyProcessor<String, RepaymentChange, ExposureTotals> {
+        
+        private FixedKeyProcessorContext<String, ExposureTotals> context;
+        private KeyValueStore<String, String> collected;
+        
+        @Override
+        public void init(FixedKeyProcessorContext<String, ExposureTotals> context) {
+            this.context = context;
+            this.collected = context.getStateStore(REPAYMENT_COLLECTED_STORE);
+        }
+        
+        @Override
+        public void process(FixedKeyRecord<String, RepaymentChange> record) {
+            RepaymentChange change = record.value();
+            String repaymentId = change.repaymentId().toString();
+            String counted = collected.get(repaymentId);
+            
+            ExposureTotals delta;
+            if (change.completed()) {
+                if (counted != null) {
+                    // Already counted; a redelivered completion changes nothing
+                    return;
+                }
+                collected.put(repaymentId, change.amount().toPlainString());
+                delta = ExposureTotals.repaid(change.amount());
+            } else if (counted != null) {
+                collected.delete(repaymentId);
+                delta = ExposureTotals.repaymentReversed(new BigDecimal(counted));
+            } else {
+                delta = ExposureTotals.repaymentFailed();
+            }
+            context.forward(record.withValue(delta));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.payrolladvance.exposureservice.topology;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of one employer's advances, payouts and collections, and also the change a single
+ * event makes to them. Totals are combined with {@link #plus(ExposureTotals)}, so the same record serves
+ * as the per-event delta, the all-time aggregate and the aggregate of one daily window.
+ *
+ * @param outstandingAmount      amount paid out and not yet collected, fees included
+ * @param disbursedAmount        principal paid out
+ * @param disbursements          payouts completed
+ * @param disbursementFailures   payout attempts failed
+ * @param repaidAmount           amount collected
+ * @param repayments             collections completed
+ * @param repaymentFailures      collection attempts failed
+ * @param advancesRequested      advance requests created
+ * @param advanceAmountRequested principal requested
+ */
+public record ExposureTotals(
+        BigDecimal outstandingAmount,
+        BigDecimal disbursedAmount,
+        long disbursements,
+        long disbursementFailures,
+        BigDecimal repaidAmount,
+        long repayments,
+        long repaymentFailures,
+        long advancesRequested,
+        BigDecimal advanceAmountRequested
+) {
+    
+    /**
+     * Totals with nothing in them.
+     */
+    public static final ExposureTotals ZERO = new ExposureTotals(
+            BigDecimal.ZERO, BigDecimal.ZERO, 0, 0, BigDecimal.ZERO, 0, 0, 0, BigDecimal.ZERO);
+    
+    /**
+     * The change made by a completed payout.
+     *
+     * @param amount   the principal paid out
+     * @param exposure the amount to be collected for it, fees included
+     * @return the delta
+     */
+    public static ExposureTotals disbursed(BigDecimal amount, BigDecimal exposure) {
+        return new ExposureTotals(exposure, amount, 1, 0, BigDecimal.ZERO, 0, 0, 0, BigDecimal.ZERO);
+    }
+    
+    /**
+     * The change made by a failed payout attempt.
+     *
+     * @return the delta
+     */
+    public static ExposureTotals disbursementFailed() {
+        return new ExposureTotals(BigDecimal.ZERO, BigDecimal.ZERO, 0, 1, BigDecimal.ZERO, 0, 0, 0, BigDecimal.ZERO);
+    }
+    
+    /**
+     * The change made by a completed payout that the gateway later reports as failed: the payout is taken
+     * back out of the totals and counts as a failure instead.
+     *
+     * @param counted the delta that had been counted for the completed payout
+     * @return the delta
+     */
+    public static ExposureTotals disbursementReversed(ExposureTotals counted) {
+        return new ExposureTotals(counted.outstandingAmount.negate(), counted.disbursedAmount.negate(),
+                -counted.disbursements, 1, BigDecimal.ZERO, 0, 0, 0, BigDecimal.ZERO);
+    }
+    
+    /**
+     * The change made by a completed collection.
+     *
+     * @param amount the amount collected
+     * @return the delta
+     */
+    public static ExposureTotals repaid(BigDecimal amount) {
+        return new ExposureTotals(amount.negate(), BigDecimal.ZERO, 0, 0, amount, 1, 0, 0, BigDecimal.ZERO);
+    }
+    
+    /**
+     * The change made by a completed collection that the gateway later reports as failed: the amount is
+     * owed again, and the collection counts as a failure instead of a repayment.
+     *
+     * @param amount the amount that had been counted as collected
+     * @return the delta
+     */
+    public static ExposureTotals repaymentReversed(BigDecimal amount) {
+        return new ExposureTotals(amount, BigDecimal.ZERO, 0, 0, amount.negate(), -1, 1, 0, BigDecimal.ZERO);
+    }
+    
+    /**
+     * The change made by a failed collection attempt.
+     *
+     * @return the delta
+     */
+    public static ExposureTotals repaymentFailed() {
+        return new ExposureTotals(BigDecimal.ZERO, BigDecimal.ZERO, 0, 0, BigDecimal.ZERO, 0, 1, 0, BigDecimal.ZERO);
+    }
+    
+    /**
+     * The change made by a new advance request.
+     *
+     * @param amount the principal requested
+     * @return the delta
+     */
+    public static ExposureTotals advanceRequested(BigDecimal amount) {
+        return new ExposureTotals(BigDecimal.ZERO, BigDecimal.ZERO, 0, 0, BigDecimal.ZERO, 0, 0, 1, amount);
+    }
+    
+    /**
+     * Adds two sets of totals.
+     *
+     * @param other the totals to add
+     * @return the sum
+     */
+    public ExposureTotals plus(ExposureTotals other) {
+        return new ExposureTotals(
+                outstandingAmount.add(other.outstandingAmount),
+                disbursedAmount.add(other.disbursedAmount),
+                disbursements + other.disbursements,
+                disbursementFailures + other.disbursementFailures,
+                repaidAmount.add(other.repaidAmount),
+                repayments + other.repayments,
+                repaymentFailures + other.repaymentFailures,
+                advancesRequested + other.advancesRequested,
+                advanceAmountRequested.add(other.advanceAmountRequested));
+    }
+}
\ No newline at end of file
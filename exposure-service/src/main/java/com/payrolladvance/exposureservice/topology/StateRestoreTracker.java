@@ -0,0 +1,67 @@
+package com.payrolladvance.exposureservice.topology;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.streams.processor.StateRestoreListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks state stores being rebuilt from their changelog topics, after a restart or when an instance takes
+ * over partitions from another. The records still to restore are published as a gauge, and queries report
+ * a restoring store as unavailable rather than serving partial totals.
+ */
+@Slf4j
+public class StateRestoreTracker implements StateRestoreListener {
+    
+    private final ConcurrentMap<TopicPartition, Long> remaining = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructs a new StateRestoreTracker.
+     *
+     * @param meterRegistry the registry the restore gauge is registered with
+     */
+    public StateRestoreTracker(MeterRegistry meterRegistry) {
+        Gauge.builder("payroll.exposure.restore.remaining", this, StateRestoreTracker::getRemainingRecords)
+                .description("Changelog records still to restore into the exposure state stores")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRestoreStart(TopicPartition topicPartition, String storeName, long startingOffset, long endingOffset) {
+        remaining.put(topicPartition, endingOffset - startingOffset);
+        log.info("Restoring store {} from {}: {} records", storeName, topicPartition, endingOffset - startingOffset);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onBatchRestored(TopicPartition topicPartition, String storeName, long batchEndOffset, long numRestored) {
+        remaining.computeIfPresent(topicPartition, (partition, left) -> Math.max(0, left - numRestored));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onRestoreEnd(TopicPartition topicPartition, String storeName, long totalRestored) {
+        remaining.remove(topicPartition);
+        log.info("Restored store {} from {}: {} records", storeName, topicPartition, totalRestored);
+    }
+    
+    /**
+     * Gets the number of changelog records still to restore across all stores.
+     *
+     * @return the number of records
+     */
+    public long getRemainingRecords() {
+        return remaining.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
\ No newline at end of file
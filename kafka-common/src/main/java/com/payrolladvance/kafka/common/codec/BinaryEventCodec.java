@@ -0,0 +1,669 @@
+package com.payrolladvance.kafka.common.codec;
+
+import com.payrolladvance.kafka.common.codec.FieldType.WireType;
+import com.payrolladvance.kafka.common.events.BaseEvent;
+import com.payrolladvance.kafka.common.events.EventType;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compact binary codec for events with a record payload.
+ * <p>
+ * An encoded event is a magic byte, the varint schema ID, then tagged fields: the envelope under tags 1 to 4
+ * and the payload under the tags of its schema. Every field key packs the tag with a wire type, so a reader
+ * skips fields its schema does not know (written by a newer producer) and leaves out fields the message does
+ * not carry (written by an older one). Null values are not written. Payload components the schema does not
+ * declare travel under tag 15 with their name and type, so nothing is lost before the schema catches up.
+ * <p>
+ * Payload components are read through their accessors and decoded values go straight into the record's
+ * canonical constructor, so no intermediate map is built on either side. The component layout of each
+ * event class is checked against its schema once and cached.
+ * <p>
+ * Encoding writes into pooled buffers rather than thread locals, because events are also sent from virtual
+ * threads. Decoding reads straight from the record's buffer, and strings and decimals are built from its
+ * backing array without an intermediate copy.
+ */
+public class BinaryEventCodec {
+    
+    /**
+     * First byte of every binary event. JSON events start with '{', so the two formats can share a topic.
+     */
+    public static final byte MAGIC_BYTE = (byte) 0xB1;
+    
+    private static final int EVENT_ID_TAG = 1;
+    private static final int ENTITY_ID_TAG = 2;
+    private static final int EVENT_TYPE_TAG = 3;
+    private static final int TIMESTAMP_TAG = 4;
+    private static final int EXTRA_FIELD_TAG = 15;
+    
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 64;
+    
+    private static final FieldType[] FIELD_TYPES = FieldType.values();
+    
+    private final FileSchemaRegistry registry;
+    private final BlockingQueue<Output> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+    private final ConcurrentMap<Class<?>, PayloadLayout> layouts = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructs a new BinaryEventCodec.
+     *
+     * @param registry the registry the schemas are looked up in
+     */
+    public BinaryEventCodec(FileSchemaRegistry registry) {
+        this.registry = registry;
+    }
+    
+    /**
+     * Checks whether events of a class can be encoded, i.e. whether the class has a schema.
+     *
+     * @param eventClass the event class
+     * @return true if the class has a schema
+     */
+    public boolean supports(Class<?> eventClass) {
+        return registry.findSchema(eventClass) != null;
+    }
+    
+    /**
+     * Encodes an event.
+     *
+     * @param event the event
+     * @return the encoded event
+     * @throws IllegalArgumentException if the event class has no schema
+     */
+    public byte[] encode(BaseEvent<?> event) {
+        EventSchema schema = registry.findSchema(event.getClass());
+        if (schema == null) {
+            throw new IllegalArgumentException("No schema for " + event.getClass().getName());
+        }
+        
+        Output out = borrow();
+        try {
+            out.writeByte(MAGIC_BYTE);
+            out.writeVarint(schema.id());
+            writeField(out, EVENT_ID_TAG, FieldType.STRING, event.getEventId());
+            writeField(out, ENTITY_ID_TAG, FieldType.LONG, event.getEntityId());
+            writeField(out, EVENT_TYPE_TAG, FieldType.STRING, event.getEventType());
+            writeField(out, TIMESTAMP_TAG, FieldType.TIMESTAMP, event.getTimestamp());
+            
+            Object payload = event.getPayload();
+            if (payload != null) {
+                PayloadLayout layout = layout(schema);
+                for (int i = 0; i < layout.components.length; i++) {
+                    Object value = layout.get(payload, i);
+                    if (value == null) {
+                        continue;
+                    }
+                    EventSchema.Field field = layout.fields[i];
+                    if (field != null) {
+                        writeField(out, field.tag(), field.type(), value);
+                    } else {
+                        writeExtraField(out, layout.components[i].getName(), value);
+                    }
+                }
+            }
+            return Arrays.copyOf(out.bytes, out.size);
+        } finally {
+            release(out);
+        }
+    }
+    
+    /**
+     * Decodes an event from a buffer, consuming it.
+     *
+     * @param buffer the encoded event
+     * @return the event
+     * @throws IllegalArgumentException if the data is not a binary event or its schema is unknown
+     */
+    public BaseEvent<?> decode(ByteBuffer buffer) {
+        if (buffer.get() != MAGIC_BYTE) {
+            throw new IllegalArgumentException("Not a binary event");
+        }
+        EventSchema schema = registry.getSchema((int) readVarint(buffer));
+        PayloadLayout layout = layout(schema);
+        BaseEvent<Object> event = layout.newEvent();
+        Object[] values = new Object[layout.components.length];
+        boolean hasPayload = false;
+        
+        while (buffer.hasRemaining()) {
+            int key = (int) readVarint(buffer);
+            int tag = key >>> 3;
+            int wireType = key & 0x7;
+            switch (tag) {
+                case EVENT_ID_TAG -> {
+                    if (wireType == FieldType.STRING.getWireType()) {
+                        event.setEventId(readString(buffer));
+                    } else {
+                        skip(buffer, wireType);
+                    }
+                }
+                case ENTITY_ID_TAG -> {
+                    if (wireType == FieldType.LONG.getWireType()) {
+                        event.setEntityId(decodeZigZag(readVarint(buffer)));
+                    } else {
+                        skip(buffer, wireType);
+                    }
+                }
+                case EVENT_TYPE_TAG -> {
+                    if (wireType == FieldType.STRING.getWireType()) {
+                        event.setEventType(eventType(readString(buffer)));
+                    } else {
+                        skip(buffer, wireType);
+                    }
+                }
+                case TIMESTAMP_TAG -> {
+                    if (wireType == FieldType.TIMESTAMP.getWireType()) {
+                        event.setTimestamp(((LocalDateTime) readValue(buffer, FieldType.TIMESTAMP)).toInstant(ZoneOffset.UTC));
+                    } else {
+                        skip(buffer, wireType);
+                    }
+                }
+                case EXTRA_FIELD_TAG -> {
+                    if (wireType == WireType.LENGTH_DELIMITED) {
+                        hasPayload |= readExtraField(buffer, layout, values);
+                    } else {
+                        skip(buffer, wireType);
+                    }
+                }
+                default -> {
+                    EventSchema.Field field = schema.fieldsByTag().get(tag);
+                    int index = layout.indexOf(tag);
+                    if (field != null && index >= 0 && field.type().getWireType() == wireType) {
+                        values[index] = layout.coerce(index, readValue(buffer, field.type()));
+                        hasPayload = true;
+                    } else {
+                        // Written under a newer schema, under a type this schema has since changed,
+                        // or for a field the payload record no longer has
+                        skip(buffer, wireType);
+                    }
+                }
+            }
+        }
+        
+        if (hasPayload) {
+            event.setPayload(layout.newPayload(values));
+        }
+        return event;
+    }
+    
+    private static void writeField(Output out, int tag, FieldType type, Object value) {
+        if (value == null) {
+            return;
+        }
+        out.writeVarint((tag << 3) | type.getWireType());
+        writeValue(out, type, value);
+    }
+    
+    /**
+     * Writes a payload entry the schema does not declare, as its name, type and value.
+     */
+    private static void writeExtraField(Output out, String name, Object value) {
+        FieldType type = FieldType.of(value);
+        Output body = out.scratch();
+        body.writeString(name);
+        body.writeByte(type.ordinal());
+        writeValue(body, type, value);
+        
+        out.writeVarint((EXTRA_FIELD_TAG << 3) | WireType.LENGTH_DELIMITED);
+        out.writeVarint(body.size);
+        out.writeBytes(body.bytes, body.size);
+    }
+    
+    private static void writeValue(Output out, FieldType type, Object value) {
+        switch (type) {
+            case STRING -> out.writeString(value instanceof Enum<?> constant ? constant.name() : value.toString());
+            case LONG, INT -> out.writeVarint(encodeZigZag(toLong(value)));
+            case BOOLEAN -> out.writeVarint(toBoolean(value) ? 1 : 0);
+            case DOUBLE -> out.writeFixed64(Double.doubleToRawLongBits(toDouble(value)));
+            case DECIMAL -> {
+                BigDecimal decimal = value instanceof BigDecimal bigDecimal ? bigDecimal : new BigDecimal(value.toString());
+                long scale = encodeZigZag(decimal.scale());
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                out.writeVarint(varintSize(scale) + unscaled.length);
+                out.writeVarint(scale);
+                out.writeBytes(unscaled, unscaled.length);
+            }
+            case TIMESTAMP -> {
+                Instant timestamp = toInstant(value);
+                long seconds = encodeZigZag(timestamp.getEpochSecond());
+                int nanos = timestamp.getNano();
+                out.writeVarint(varintSize(seconds) + varintSize(nanos));
+                out.writeVarint(seconds);
+                out.writeVarint(nanos);
+            }
+        }
+    }
+    
+    /**
+     * Reads a payload component the writer's schema did not declare into its slot, if the record has it.
+     *
+     * @return true if a value was read
+     */
+    private static boolean readExtraField(ByteBuffer buffer, PayloadLayout layout, Object[] values) {
+        int end = readLength(buffer);
+        int index = layout.indexOf(readString(buffer));
+        int type = buffer.get();
+        boolean read = index >= 0 && type >= 0 && type < FIELD_TYPES.length;
+        if (read) {
+            values[index] = layout.coerce(index, readValue(buffer, FIELD_TYPES[type]));
+        }
+        buffer.position(end);
+        return read;
+    }
+    
+    private static Object readValue(ByteBuffer buffer, FieldType type) {
+        return switch (type) {
+            case STRING -> readString(buffer);
+            case LONG -> decodeZigZag(readVarint(buffer));
+            case INT -> (int) decodeZigZag(readVarint(buffer));
+            case BOOLEAN -> readVarint(buffer) != 0;
+            case DOUBLE -> Double.longBitsToDouble(readFixed64(buffer));
+            case DECIMAL -> {
+                int end = readLength(buffer);
+                int scale = (int) decodeZigZag(readVarint(buffer));
+                int length = end - buffer.position();
+                BigInteger unscaled;
+                if (buffer.hasArray()) {
+                    unscaled = new BigInteger(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+                } else {
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes, 0, length);
+                    unscaled = new BigInteger(bytes);
+                }
+                buffer.position(end);
+                yield new BigDecimal(unscaled, scale);
+            }
+            case TIMESTAMP -> {
+                int end = readLength(buffer);
+                long seconds = decodeZigZag(readVarint(buffer));
+                int nanos = (int) readVarint(buffer);
+                buffer.position(end);
+                yield LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+            }
+        };
+    }
+    
+    private static void skip(ByteBuffer buffer, int wireType) {
+        switch (wireType) {
+            case WireType.VARINT -> readVarint(buffer);
+            case WireType.FIXED64 -> buffer.position(buffer.position() + Long.BYTES);
+            case WireType.LENGTH_DELIMITED -> buffer.position(readLength(buffer));
+            default -> throw new IllegalArgumentException("Unsupported wire type " + wireType);
+        }
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int end = readLength(buffer);
+        int length = end - buffer.position();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes, 0, length);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(end);
+        return value;
+    }
+    
+    /**
+     * Reads a length prefix and returns the position the value ends at.
+     */
+    private static int readLength(ByteBuffer buffer) {
+        long length = readVarint(buffer);
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Truncated event: field of " + length + " bytes, "
+                    + buffer.remaining() + " remaining");
+        }
+        return buffer.position() + (int) length;
+    }
+    
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+    
+    private static long readFixed64(ByteBuffer buffer) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (buffer.get() & 0xFF);
+        }
+        return value;
+    }
+    
+    private static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+    
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+    
+    private static double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+    }
+    
+    private static boolean toBoolean(Object value) {
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+    }
+    
+    /**
+     * Envelope timestamps are instants and payload timestamps UTC date-times; both go on the wire as
+     * epoch seconds and nanos.
+     */
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        LocalDateTime dateTime = value instanceof LocalDateTime localDateTime
+                ? localDateTime : LocalDateTime.parse(value.toString());
+        return dateTime.toInstant(ZoneOffset.UTC);
+    }
+    
+    /**
+     * Maps an event type name to the enum, or null for a type added by a newer producer.
+     */
+    private static EventType eventType(String name) {
+        try {
+            return EventType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private PayloadLayout layout(EventSchema schema) {
+        return layouts.computeIfAbsent(schema.eventClass(), eventClass -> new PayloadLayout(schema));
+    }
+    
+    private Output borrow() {
+        Output out = buffers.poll();
+        if (out == null) {
+            return new Output();
+        }
+        out.size = 0;
+        return out;
+    }
+    
+    private void release(Output out) {
+        // Oversized buffers are left to the garbage collector so one large event does not pin memory
+        if (out.bytes.length <= MAX_POOLED_BUFFER_SIZE) {
+            buffers.offer(out);
+        }
+    }
+    
+    /**
+     * How the payload record of one event class maps onto its schema: the record's components with the
+     * schema field of each, the accessors to read them and the constructors to build the event and payload.
+     */
+    private static final class PayloadLayout {
+        
+        private final Class<?> eventClass;
+        private final Constructor<?> eventConstructor;
+        private final RecordComponent[] components;
+        private final Method[] accessors;
+        private final EventSchema.Field[] fields;
+        private final Constructor<?> payloadConstructor;
+        private final Map<Integer, Integer> indexByTag = new HashMap<>();
+        private final Map<String, Integer> indexByName = new HashMap<>();
+        
+        private PayloadLayout(EventSchema schema) {
+            this.eventClass = schema.eventClass();
+            if (!BaseEvent.class.isAssignableFrom(eventClass)) {
+                throw new IllegalStateException(eventClass.getName() + " is not an event");
+            }
+            Class<?> payloadClass = payloadClass(eventClass);
+            try {
+                this.eventConstructor = eventClass.getDeclaredConstructor();
+                this.components = payloadClass.getRecordComponents();
+                this.payloadConstructor = payloadClass.getDeclaredConstructor(
+                        Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(eventClass.getName() + " has no no-args constructor", e);
+            }
+            
+            this.accessors = new Method[components.length];
+            this.fields = new EventSchema.Field[components.length];
+            for (int i = 0; i < components.length; i++) {
+                RecordComponent component = components[i];
+                accessors[i] = component.getAccessor();
+                fields[i] = schema.fieldsByName().get(component.getName());
+                if (fields[i] != null) {
+                    if (!fields[i].type().accepts(component.getType())) {
+                        throw new IllegalStateException(payloadClass.getName() + "." + component.getName()
+                                + " is " + component.getType().getSimpleName() + " but schema " + schema.id()
+                                + " declares " + fields[i].type());
+                    }
+                    indexByTag.put(fields[i].tag(), i);
+                }
+                indexByName.put(component.getName(), i);
+            }
+        }
+        
+        /**
+         * Finds the record payload type an event class binds for {@link BaseEvent}.
+         */
+        private static Class<?> payloadClass(Class<?> eventClass) {
+            for (Class<?> type = eventClass; type != BaseEvent.class; type = type.getSuperclass()) {
+                if (type.getGenericSuperclass() instanceof ParameterizedType parameterized
+                        && parameterized.getRawType() == BaseEvent.class
+                        && parameterized.getActualTypeArguments()[0] instanceof Class<?> payloadClass
+                        && payloadClass.isRecord()) {
+                    return payloadClass;
+                }
+            }
+            throw new IllegalStateException(eventClass.getName() + " has no record payload");
+        }
+        
+        private int indexOf(int tag) {
+            Integer index = indexByTag.get(tag);
+            return index != null ? index : -1;
+        }
+        
+        private int indexOf(String name) {
+            Integer index = indexByName.get(name);
+            return index != null ? index : -1;
+        }
+        
+        private Object get(Object payload, int index) {
+            try {
+                return accessors[index].invoke(payload);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Failed to read " + components[index].getName()
+                        + " of " + eventClass.getName(), e);
+            }
+        }
+        
+        /**
+         * Converts a decoded value to the type of a component: enum names to constants, and numbers read
+         * from an undeclared component to the component's width.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object coerce(int index, Object value) {
+            Class<?> type = components[index].getType();
+            if (type.isInstance(value)) {
+                return value;
+            } else if (type.isEnum()) {
+                try {
+                    return Enum.valueOf((Class<? extends Enum>) type, value.toString());
+                } catch (IllegalArgumentException e) {
+                    // A constant added by a newer producer
+                    return null;
+                }
+            } else if (type == Integer.class && value instanceof Number number) {
+                return number.intValue();
+            } else if (type == Long.class && value instanceof Number number) {
+                return number.longValue();
+            } else if (type == Instant.class && value instanceof LocalDateTime localDateTime) {
+                return localDateTime.toInstant(ZoneOffset.UTC);
+            } else if (type == String.class) {
+                return value.toString();
+            }
+            // Written as a type the component has since changed from
+            return null;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private BaseEvent<Object> newEvent() {
+            try {
+                return (BaseEvent<Object>) eventConstructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Failed to create " + eventClass.getName(), e);
+            }
+        }
+        
+        private Object newPayload(Object[] values) {
+            try {
+                return payloadConstructor.newInstance(values);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Failed to create the payload of " + eventClass.getName(), e);
+            }
+        }
+    }
+    
+    /**
+     * A growable byte array that is reused across encodes.
+     */
+    private static final class Output {
+        
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int size;
+        private Output scratch;
+        
+        /**
+         * Gets an empty buffer for writing a nested value before its length is known.
+         */
+        private Output scratch() {
+            if (scratch == null) {
+                scratch = new Output();
+            }
+            scratch.size = 0;
+            return scratch;
+        }
+        
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+        
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+        
+        private void writeBytes(byte[] source, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, 0, bytes, size, length);
+            size += length;
+        }
+        
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+        
+        private void writeFixed64(long value) {
+            ensureCapacity(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+        
+        /**
+         * Writes a length-prefixed UTF-8 string straight into the buffer, without an intermediate byte array.
+         */
+        private void writeString(String value) {
+            int length = utf8Length(value);
+            writeVarint(length);
+            ensureCapacity(length);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[size++] = (byte) (0xC0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate, replaced the same way String.getBytes does
+                    bytes[size++] = (byte) '?';
+                } else {
+                    bytes[size++] = (byte) (0xE0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+        
+        private static int utf8Length(String value) {
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    length++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.payrolladvance.kafka.common.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for events written by {@link BinaryEventSerializer}.
+ * Binary events are recognised by their magic byte and decoded straight from the record's buffer;
+ * anything else is handed to a {@link JsonDeserializer} configured from the same consumer properties,
+ * so topics still carrying JSON events keep working.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+    
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+    private BinaryEventCodec codec;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object location = configs.get(BinaryEventSerializer.SCHEMA_LOCATION_CONFIG);
+        codec = new BinaryEventCodec(FileSchemaRegistry.load(
+                location != null ? location.toString() : FileSchemaRegistry.DEFAULT_LOCATION));
+        jsonDeserializer.configure(configs, isKey);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length > 0 && data[0] == BinaryEventCodec.MAGIC_BYTE) {
+            return decode(topic, ByteBuffer.wrap(data));
+        }
+        return headers != null ? jsonDeserializer.deserialize(topic, headers, data) : jsonDeserializer.deserialize(topic, data);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.hasRemaining() && data.get(data.position()) == BinaryEventCodec.MAGIC_BYTE) {
+            return decode(topic, data);
+        }
+        return Deserializer.super.deserialize(topic, headers, data);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+    
+    private Object decode(String topic, ByteBuffer data) {
+        try {
+            return codec.decode(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to decode binary event from topic " + topic, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.payrolladvance.kafka.common.codec;
+
+import com.payrolladvance.kafka.common.events.BaseEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka serializer that writes events in the binary format of {@link BinaryEventCodec}.
+ * Events without a schema, and any other value such as a record republished to a retry topic, are written
+ * as JSON, so event classes can move to the binary format one at a time.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+    
+    /**
+     * Producer property holding the schema location, a directory or {@code classpath:<path>}.
+     */
+    public static final String SCHEMA_LOCATION_CONFIG = "payroll.event.schema.location";
+    
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private BinaryEventCodec codec;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object location = configs.get(SCHEMA_LOCATION_CONFIG);
+        codec = new BinaryEventCodec(FileSchemaRegistry.load(
+                location != null ? location.toString() : FileSchemaRegistry.DEFAULT_LOCATION));
+        jsonSerializer.configure(configs, isKey);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (!(data instanceof BaseEvent<?> event) || codec == null || !codec.supports(event.getClass())) {
+            return headers != null ? jsonSerializer.serialize(topic, headers, data) : jsonSerializer.serialize(topic, data);
+        }
+        
+        try {
+            return codec.encode(event);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Failed to encode " + data.getClass().getSimpleName()
+                    + " for topic " + topic, e);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.payrolladvance.kafka.common.codec;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The payload schema of one event class: a registry-wide schema ID and the tagged fields of its payload.
+ * Tags identify fields on the wire instead of names, so a tag must never be reused for a different field.
+ *
+ * @param id         the schema ID written in every encoded event
+ * @param eventClass the event class
+ * @param fieldsByTag  the payload fields keyed by tag
+ * @param fieldsByName the payload fields keyed by name
+ */
+public record EventSchema(int id, Class<?> eventClass, Map<Integer, Field> fieldsByTag, Map<String, Field> fieldsByName) {
+    
+    /**
+     * The lowest tag a payload field may use; lower tags belong to the event envelope.
+     */
+    public static final int FIRST_PAYLOAD_TAG = 16;
+    
+    /**
+     * Gets the payload fields.
+     *
+     * @return the fields
+     */
+    public Collection<Field> fields() {
+        return fieldsByTag.values();
+    }
+    
+    /**
+     * A payload field.
+     *
+     * @param tag  the tag the field is encoded under
+     * @param name the payload record component
+     * @param type the value type
+     */
+    public record Field(int tag, String name, FieldType type) {
+    }
+}
\ No newline at end of file
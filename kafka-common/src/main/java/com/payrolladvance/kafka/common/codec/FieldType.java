@@ -0,0 +1,83 @@
+package com.payrolladvance.kafka.common.codec;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Value types a schema field can declare, each with the wire type it is encoded with.
+ * The wire type alone is enough to skip a value, so readers can step over fields they do not know.
+ * Undeclared payload components are written with the ordinal of their type, so new types go at the end.
+ */
+public enum FieldType {
+    
+    STRING(WireType.LENGTH_DELIMITED, String.class),
+    LONG(WireType.VARINT, Long.class),
+    INT(WireType.VARINT, Integer.class),
+    BOOLEAN(WireType.VARINT, Boolean.class),
+    DOUBLE(WireType.FIXED64, Double.class),
+    DECIMAL(WireType.LENGTH_DELIMITED, BigDecimal.class),
+    TIMESTAMP(WireType.LENGTH_DELIMITED, LocalDateTime.class);
+    
+    private final int wireType;
+    private final Class<?> javaType;
+    
+    FieldType(int wireType, Class<?> javaType) {
+        this.wireType = wireType;
+        this.javaType = javaType;
+    }
+    
+    public int getWireType() {
+        return wireType;
+    }
+    
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+    
+    /**
+     * Checks whether a payload component of the given type can hold values of this type.
+     * Components must use the wrapper type, since absent fields decode as null. Enums are carried as
+     * their name, so any enum is accepted for strings.
+     *
+     * @param componentType the component type
+     * @return true if the component type matches
+     */
+    public boolean accepts(Class<?> componentType) {
+        return componentType == javaType || (this == STRING && componentType.isEnum());
+    }
+    
+    /**
+     * Infers the type of a value that has no schema field, such as a payload component added before its schema.
+     *
+     * @param value the value
+     * @return the type the value is encoded as
+     */
+    public static FieldType of(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return LONG;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Double || value instanceof Float) {
+            return DOUBLE;
+        } else if (value instanceof BigDecimal) {
+            return DECIMAL;
+        } else if (value instanceof LocalDateTime || value instanceof Instant) {
+            return TIMESTAMP;
+        }
+        return STRING;
+    }
+    
+    /**
+     * Wire types, stored in the low three bits of every field key.
+     */
+    static final class WireType {
+        
+        static final int VARINT = 0;
+        static final int FIXED64 = 1;
+        static final int LENGTH_DELIMITED = 2;
+        
+        private WireType() {
+        }
+    }
+}
\ No newline at end of file
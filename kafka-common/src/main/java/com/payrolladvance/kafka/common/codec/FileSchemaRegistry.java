@@ -0,0 +1,185 @@
+package com.payrolladvance.kafka.common.codec;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * File-based schema registry, standing in for a schema registry service.
+ * <p>
+ * Every {@code *.schema} file is a properties file holding a schema ID, an event class and one
+ * {@code <tag>=<name>:<type>} entry per payload field. Schemas are read from a directory, or from the
+ * classpath when the location starts with {@code classpath:}, in which case the directory's {@code index}
+ * file lists the schema files because classpath directories cannot be listed.
+ */
+@Slf4j
+public final class FileSchemaRegistry {
+    
+    /**
+     * The default schema location, the schemas shipped with kafka-common.
+     */
+    public static final String DEFAULT_LOCATION = "classpath:schemas";
+    
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    
+    private static final String SCHEMA_SUFFIX = ".schema";
+    
+    private final Map<Integer, EventSchema> schemasById;
+    private final Map<Class<?>, EventSchema> schemasByClass;
+    
+    private FileSchemaRegistry(List<EventSchema> schemas) {
+        Map<Integer, EventSchema> byId = new HashMap<>();
+        Map<Class<?>, EventSchema> byClass = new HashMap<>();
+        for (EventSchema schema : schemas) {
+            if (byId.putIfAbsent(schema.id(), schema) != null) {
+                throw new IllegalStateException("Duplicate schema ID " + schema.id());
+            }
+            if (byClass.putIfAbsent(schema.eventClass(), schema) != null) {
+                throw new IllegalStateException("Duplicate schema for " + schema.eventClass().getName());
+            }
+        }
+        this.schemasById = Map.copyOf(byId);
+        this.schemasByClass = Map.copyOf(byClass);
+    }
+    
+    /**
+     * Loads every schema at a location.
+     *
+     * @param location a directory, or {@code classpath:<path>} for a classpath directory with an index file
+     * @return the registry
+     */
+    public static FileSchemaRegistry load(String location) {
+        List<EventSchema> schemas = location.startsWith(CLASSPATH_PREFIX)
+                ? loadFromClasspath(location.substring(CLASSPATH_PREFIX.length()))
+                : loadFromDirectory(Path.of(location));
+        log.info("Loaded {} event schemas from {}", schemas.size(), location);
+        return new FileSchemaRegistry(schemas);
+    }
+    
+    /**
+     * Gets a schema by ID.
+     *
+     * @param id the schema ID
+     * @return the schema
+     * @throws IllegalArgumentException if no schema has the ID
+     */
+    public EventSchema getSchema(int id) {
+        EventSchema schema = schemasById.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown schema ID " + id);
+        }
+        return schema;
+    }
+    
+    /**
+     * Finds the schema of an event class.
+     *
+     * @param eventClass the event class
+     * @return the schema, or null if the class has none
+     */
+    public EventSchema findSchema(Class<?> eventClass) {
+        return schemasByClass.get(eventClass);
+    }
+    
+    private static List<EventSchema> loadFromDirectory(Path directory) {
+        List<EventSchema> schemas = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SCHEMA_SUFFIX)) {
+            for (Path file : files) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    schemas.add(parse(file.toString(), in));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schemas from " + directory, e);
+        }
+        return schemas;
+    }
+    
+    private static List<EventSchema> loadFromClasspath(String path) {
+        String directory = path.startsWith("/") ? path.substring(1) : path;
+        ClassLoader classLoader = FileSchemaRegistry.class.getClassLoader();
+        List<EventSchema> schemas = new ArrayList<>();
+        try (InputStream index = classLoader.getResourceAsStream(directory + "/index")) {
+            if (index == null) {
+                throw new IllegalStateException("No schema index at classpath:" + directory + "/index");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String name = line.strip();
+                if (name.isEmpty() || name.startsWith("#")) {
+                    continue;
+                }
+                String resource = directory + "/" + name;
+                try (InputStream in = classLoader.getResourceAsStream(resource)) {
+                    if (in == null) {
+                        throw new IllegalStateException("Schema listed in index not found: classpath:" + resource);
+                    }
+                    schemas.add(parse(resource, in));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schemas from classpath:" + directory, e);
+        }
+        return schemas;
+    }
+    
+    /**
+     * Parses one schema file.
+     */
+    private static EventSchema parse(String source, InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        
+        String id = properties.getProperty("schema.id");
+        String eventClass = properties.getProperty("event.class");
+        if (id == null || eventClass == null) {
+            throw new IllegalStateException(source + " must declare schema.id and event.class");
+        }
+        
+        Map<Integer, EventSchema.Field> fieldsByTag = new TreeMap<>();
+        Map<String, EventSchema.Field> fieldsByName = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!Character.isDigit(key.charAt(0))) {
+                continue;
+            }
+            int tag = Integer.parseInt(key);
+            if (tag < EventSchema.FIRST_PAYLOAD_TAG) {
+                throw new IllegalStateException(source + ": payload tags start at " + EventSchema.FIRST_PAYLOAD_TAG + ", got " + tag);
+            }
+            String[] definition = properties.getProperty(key).split(":", 2);
+            if (definition.length != 2) {
+                throw new IllegalStateException(source + ": field " + tag + " must be <name>:<type>");
+            }
+            EventSchema.Field field = new EventSchema.Field(tag, definition[0].strip(),
+                    FieldType.valueOf(definition[1].strip()));
+            fieldsByTag.put(tag, field);
+            if (fieldsByName.putIfAbsent(field.name(), field) != null) {
+                throw new IllegalStateException(source + ": duplicate field " + field.name());
+            }
+        }
+        
+        try {
+            return new EventSchema(Integer.parseInt(id.strip()), Class.forName(eventClass.strip()),
+                    Collections.unmodifiableMap(fieldsByTag), Collections.unmodifiableMap(fieldsByName));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(source + ": unknown event class " + eventClass, e);
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.payrolladvance.kafka.common.config;
 
+import com.payrolladvance.kafka.common.codec.BinaryEventDeserializer;
+import com.payrolladvance.kafka.common.codec.BinaryEventSerializer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -8,13 +10,13 @@ import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,16 +28,16 @@ import java.util.Map;
 @Slf4j
 @Configuration
 public class KafkaConfig {
-
+    
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
-
+    
     @Value("${spring.kafka.consumer.group-id:payroll-advance-app}")
     private String groupId;
-
+    
     @Value("${spring.kafka.producer.client-id:payroll-advance-producer}")
     private String clientId;
-
+    
     /**
      * Producer configuration for sending messages to Kafka.
      * @return Producer factory configuration
@@ -45,17 +47,27 @@ public class KafkaConfig {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class);
         configProps.put(ProducerConfig.CLIENT_ID_CONFIG, clientId);
         
-        // Additional recommended settings
-        configProps.put(ProducerConfig.ACKS_CONFIG, "all");  // Strongest durability guarantee
-        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);  // Avoid duplicates
+        // Durability, batching and compression from the default producer profile
+        ProducerProfileProperties profiles = producerProfileProperties();
+        configProps.putAll(profiles.producerProps(profiles.getDefaultProfile()));
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);  // Retry on temporary failures
         
         return new DefaultKafkaProducerFactory<>(configProps);
     }
-
+    
+    /**
+     * Producer profile selection and overrides from config-repo.
+     * @return Producer profile properties
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "app.kafka.producer")
+    public ProducerProfileProperties producerProfileProperties() {
+        return new ProducerProfileProperties();
+    }
+    
     /**
      * Kafka template for sending messages.
      * @return Kafka template
@@ -64,7 +76,7 @@ public class KafkaConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-
+    
     /**
      * Consumer configuration for receiving messages from Kafka.
      * @return Consumer factory configuration
@@ -75,7 +87,7 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BinaryEventDeserializer.class);
         
         // Configure JsonDeserializer to trust all packages
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.payrolladvance.*");
@@ -86,7 +98,7 @@ public class KafkaConfig {
         
         return new DefaultKafkaConsumerFactory<>(props);
     }
-
+    
     /**
      * Kafka listener container factory.
      * @return Kafka listener container factory
@@ -99,7 +111,7 @@ public class KafkaConfig {
         // factory.setBatchListener(true);
         return factory;
     }
-
+    
     /**
      * Kafka admin client configuration.
      * @return Kafka admin client configuration
@@ -110,7 +122,7 @@ public class KafkaConfig {
         configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         return new KafkaAdmin(configs);
     }
-
+    
     /**
      * Creates Kafka topics if they don't exist.
      * Add all required topics here.
@@ -0,0 +1,61 @@
+package com.payrolladvance.kafka.common.config;
+
+/**
+ * Named producer tunings, trading latency for throughput through batching and compression.
+ * A larger batch compresses better and costs fewer requests, but a record may wait up to the linger time
+ * for its batch to fill.
+ */
+public enum ProducerProfile {
+    
+    /**
+     * Sends as soon as possible; for events a user or another service is waiting on.
+     */
+    LOW_LATENCY(0, 16 * 1024, "lz4"),
+    
+    /**
+     * Waits briefly to fill larger batches; for steady event streams.
+     */
+    HIGH_THROUGHPUT(20, 128 * 1024, "lz4"),
+    
+    /**
+     * Fills the largest batches with the strongest compression; for bulk runs such as month-end repayments.
+     */
+    BULK(100, 1024 * 1024, "zstd");
+    
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+    
+    ProducerProfile(int lingerMs, int batchSize, String compressionType) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+    }
+    
+    /**
+     * Gets the longest a record waits for its batch to fill.
+     *
+     * @return the linger time in milliseconds
+     */
+    public int getLingerMs() {
+        return lingerMs;
+    }
+    
+    /**
+     * Gets the maximum size of a batch per partition.
+     *
+     * @return the batch size in bytes
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Gets the compression codec applied to each batch.
+     *
+     * @return the compression type
+     */
+    public String getCompressionType() {
+        return compressionType;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.payrolladvance.kafka.common.config;
+
+import lombok.Data;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer profile selection from config-repo: the default profile, the profile of each topic,
+ * and overrides of a profile's built-in settings. Bound by each service under {@code app.kafka.producer}.
+ */
+@Data
+public class ProducerProfileProperties {
+    
+    private ProducerProfile defaultProfile = ProducerProfile.LOW_LATENCY;
+    
+    private Map<String, ProducerProfile> topics = new HashMap<>(); // Topics published with a non-default profile
+    
+    private Map<ProducerProfile, Settings> profiles = new HashMap<>(); // Overrides of the built-in settings
+    
+    private String transactionIdPrefix; // Set to publish event batches in Kafka transactions; unique per instance
+    
+    /**
+     * Gets the profile a topic is published with.
+     *
+     * @param topic the topic
+     * @return the topic's profile, or the default profile
+     */
+    public ProducerProfile profileFor(String topic) {
+        return topics.getOrDefault(topic, defaultProfile);
+    }
+    
+    /**
+     * Builds the producer properties of a profile, applying any overrides.
+     * Every profile keeps acks=all and idempotence, so batching never weakens delivery guarantees.
+     *
+     * @param profile the profile
+     * @return the producer properties
+     */
+    public Map<String, Object> producerProps(ProducerProfile profile) {
+        Settings overrides = profiles.getOrDefault(profile, new Settings());
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG,
+                overrides.getLingerMs() != null ? overrides.getLingerMs() : profile.getLingerMs());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG,
+                overrides.getBatchSize() != null ? overrides.getBatchSize() : profile.getBatchSize());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                overrides.getCompressionType() != null ? overrides.getCompressionType() : profile.getCompressionType());
+        if (overrides.getBufferMemory() != null) {
+            props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, overrides.getBufferMemory());
+        }
+        return props;
+    }
+    
+    /**
+     * Overrides of one profile's settings; unset fields keep the built-in value.
+     */
+    @Data
+    public static class Settings {
+        
+        private Integer lingerMs;
+        
+        private Integer batchSize;
+        
+        private String compressionType; // none, gzip, snappy, lz4 or zstd
+        
+        private Long bufferMemory;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.payrolladvance.kafka.common.config;
+
+import com.payrolladvance.kafka.common.events.BaseEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One Kafka producer per producer profile, with the template each topic is published through.
+ * Each producer's client ID carries its profile name, so the Kafka producer meters report send rate,
+ * bytes on the wire and compression ratio per profile. When a transaction ID prefix is configured, every
+ * profile also gets a transactional producer for publishing event batches atomically.
+ */
+public class ProducerProfiles implements AutoCloseable {
+    
+    private final ProducerProfileProperties properties;
+    private final List<DefaultKafkaProducerFactory<String, BaseEvent<?>>> factories = new ArrayList<>();
+    private final Map<ProducerProfile, KafkaTemplate<String, BaseEvent<?>>> templates =
+            new EnumMap<>(ProducerProfile.class);
+    private final Map<ProducerProfile, KafkaTemplate<String, BaseEvent<?>>> transactionalTemplates =
+            new EnumMap<>(ProducerProfile.class);
+    
+    /**
+     * Creates a producer for every profile.
+     *
+     * @param baseProps     the connection and serializer properties shared by all profiles
+     * @param properties    the profile selection and overrides
+     * @param meterRegistry the registry for producer meters, or null to leave them unregistered
+     */
+    public ProducerProfiles(Map<String, Object> baseProps, ProducerProfileProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (ProducerProfile profile : ProducerProfile.values()) {
+            Map<String, Object> props = new HashMap<>(baseProps);
+            props.putAll(properties.producerProps(profile));
+            String clientId = (String) baseProps.getOrDefault(ProducerConfig.CLIENT_ID_CONFIG, "producer");
+            String profileName = profile.name().toLowerCase(Locale.ROOT).replace('_', '-');
+            props.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-" + profileName);
+            templates.put(profile, new KafkaTemplate<>(factory(props, null, meterRegistry)));
+            
+            if (properties.getTransactionIdPrefix() != null) {
+                props.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-" + profileName + "-tx");
+                String transactionIdPrefix = properties.getTransactionIdPrefix() + profileName + "-";
+                transactionalTemplates.put(profile, new KafkaTemplate<>(factory(props, transactionIdPrefix, meterRegistry)));
+            }
+        }
+    }
+    
+    /**
+     * Gets the template of a profile, for a publisher pinned to one profile.
+     *
+     * @param profile the profile
+     * @return the template
+     */
+    public KafkaTemplate<String, BaseEvent<?>> template(ProducerProfile profile) {
+        return templates.get(profile);
+    }
+    
+    /**
+     * Gets the template a topic is published through.
+     *
+     * @param topic the topic
+     * @return the template of the topic's profile
+     */
+    public KafkaTemplate<String, BaseEvent<?>> templateFor(String topic) {
+        return templates.get(properties.profileFor(topic));
+    }
+    
+    /**
+     * Gets the transactional template a topic is published through.
+     *
+     * @param topic the topic
+     * @return the transactional template of the topic's profile, or null if transactions are not configured
+     */
+    public KafkaTemplate<String, BaseEvent<?>> transactionalTemplateFor(String topic) {
+        return transactionalTemplates.get(properties.profileFor(topic));
+    }
+    
+    /**
+     * Gets the templates of all profiles.
+     *
+     * @return the templates
+     */
+    public Collection<KafkaTemplate<String, BaseEvent<?>>> templates() {
+        return templates.values();
+    }
+    
+    /**
+     * Closes every producer, sending any records still buffered.
+     */
+    @Override
+    public void close() {
+        factories.forEach(DefaultKafkaProducerFactory::destroy);
+    }
+    
+    /**
+     * Creates a producer factory, transactional if a prefix is given, and tracks it for closing.
+     */
+    private DefaultKafkaProducerFactory<String, BaseEvent<?>> factory(Map<String, Object> props, String transactionIdPrefix,
+                                                                     MeterRegistry meterRegistry) {
+        DefaultKafkaProducerFactory<String, BaseEvent<?>> factory = new DefaultKafkaProducerFactory<>(props);
+        if (transactionIdPrefix != null) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        if (meterRegistry != null) {
+            factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        }
+        factories.add(factory);
+        return factory;
+    }
+}
\ No newline at end of file
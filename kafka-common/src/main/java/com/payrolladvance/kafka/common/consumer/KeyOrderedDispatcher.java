@@ -0,0 +1,245 @@
+package com.payrolladvance.kafka.common.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Hands Kafka records to virtual-thread workers while keeping records with the same key in order.
+ * <p>
+ * Records sharing a key run one after another on a lane that exists only while it has work; records with
+ * different keys run in parallel, so throughput follows the number of records in flight rather than the
+ * partition count. Each record is acknowledged once it has been handled. The listener container must use
+ * {@link ContainerProperties.AckMode#MANUAL} with async acks, which makes it defer out-of-order
+ * acknowledgments and commit only the contiguous range of completed offsets of each partition. A record that
+ * is still in flight when the consumer stops or loses the partition is therefore redelivered, so handlers
+ * must be idempotent.
+ * <p>
+ * A failing record is retried on its lane with exponential backoff, holding back later records with the
+ * same key. Once the attempts are used up it is passed to the recoverer and acknowledged.
+ * <p>
+ * The listener container only sees a record being queued, so once bound to a registry the dispatcher times
+ * every attempt itself as {@code payroll.kafka.dispatch.processing}, tagged with topic and outcome.
+ */
+@Slf4j
+public class KeyOrderedDispatcher implements AutoCloseable {
+    
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentMap<LaneKey, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final BiConsumer<ConsumerRecord<?, ?>, Exception> recoverer;
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+    private volatile String name;
+    private volatile boolean running = true;
+    
+    /**
+     * Constructs a new KeyOrderedDispatcher.
+     *
+     * @param maxInFlight   the maximum number of records queued or being handled; the listener thread
+     *                      blocks when it is reached
+     * @param maxAttempts   the number of times a record is tried before it is passed to the recoverer
+     * @param backoffMillis the wait before the first retry, doubled for every further retry
+     * @param recoverer     receives records whose attempts are used up, e.g. to dead-letter them
+     */
+    public KeyOrderedDispatcher(int maxInFlight, int maxAttempts, long backoffMillis,
+                                BiConsumer<ConsumerRecord<?, ?>, Exception> recoverer) {
+        if (maxInFlight < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("maxInFlight and maxAttempts must be positive");
+        }
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.recoverer = recoverer;
+    }
+    
+    /**
+     * Constructs a new KeyOrderedDispatcher that logs records whose attempts are used up.
+     *
+     * @param maxInFlight   the maximum number of records queued or being handled
+     * @param maxAttempts   the number of times a record is tried
+     * @param backoffMillis the wait before the first retry, doubled for every further retry
+     */
+    public KeyOrderedDispatcher(int maxInFlight, int maxAttempts, long backoffMillis) {
+        this(maxInFlight, maxAttempts, backoffMillis, (record, e) ->
+                log.error("Giving up on record {}-{}@{} with key {}", record.topic(), record.partition(),
+                        record.offset(), record.key(), e));
+    }
+    
+    /**
+     * Registers gauges for the records in flight and the number of active key lanes, and starts timing
+     * every attempt to handle a record.
+     *
+     * @param meterRegistry the registry
+     * @param name          the dispatcher name, used as the meter tag
+     * @return this dispatcher
+     */
+    public KeyOrderedDispatcher bindTo(MeterRegistry meterRegistry, String name) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("payroll.kafka.dispatch.in-flight", this, KeyOrderedDispatcher::getInFlight)
+                .tag("dispatcher", name)
+                .register(meterRegistry);
+        Gauge.builder("payroll.kafka.dispatch.lanes", lanes, ConcurrentMap::size)
+                .tag("dispatcher", name)
+                .register(meterRegistry);
+        return this;
+    }
+    
+    /**
+     * Queues a record on its key's lane, waiting for a free slot if too many records are in flight.
+     * Records without a key have no order to keep and start right away.
+     *
+     * @param record         the record
+     * @param acknowledgment the record's acknowledgment, called once it has been handled
+     * @param handler        handles the record's value
+     * @param <V>            the value type
+     * @throws KafkaException if the listener thread is interrupted while waiting; the record was not queued
+     */
+    public <V> void dispatch(ConsumerRecord<?, V> record, Acknowledgment acknowledgment, Consumer<V> handler) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            // Returning would leave a gap in the acknowledged offsets that holds back every later commit;
+            // failing the listener makes the container seek back to this record and redeliver it
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting to dispatch record " + record.topic() + "-"
+                    + record.partition() + "@" + record.offset(), e);
+        }
+        
+        Runnable task = () -> {
+            try {
+                if (handle(record, handler)) {
+                    acknowledgment.acknowledge();
+                }
+            } finally {
+                inFlight.release();
+            }
+        };
+        
+        if (record.key() == null) {
+            executor.execute(task);
+            return;
+        }
+        
+        LaneKey key = new LaneKey(record.topic(), record.key());
+        CompletableFuture<Void> lane = lanes.compute(key, (laneKey, tail) -> tail == null
+                ? CompletableFuture.runAsync(task, executor)
+                : tail.exceptionally(e -> null).thenRunAsync(task, executor));
+        // Drop the lane once its last record is done, unless another record has joined it since
+        lane.whenComplete((ignored, e) -> lanes.remove(key, lane));
+    }
+    
+    /**
+     * Gets the number of records queued or being handled.
+     *
+     * @return the number of records in flight
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+    
+    /**
+     * Stops the workers. Records still in flight stay unacknowledged and are redelivered.
+     */
+    @Override
+    public void close() {
+        running = false;
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Key-ordered dispatcher workers did not stop within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Handles a record with retries.
+     *
+     * @return true if the record was handled or recovered and can be acknowledged
+     */
+    private <V> boolean handle(ConsumerRecord<?, V> record, Consumer<V> handler) {
+        for (int attempt = 1; running; attempt++) {
+            long start = System.nanoTime();
+            try {
+                handler.accept(record.value());
+                recordProcessing(record, "success", start);
+                return true;
+            } catch (RuntimeException e) {
+                recordProcessing(record, "failure", start);
+                if (attempt >= maxAttempts) {
+                    try {
+                        recoverer.accept(record, e);
+                    } catch (RuntimeException recoveryFailure) {
+                        // Acknowledged anyway: an unacknowledged gap would hold back every later commit
+                        log.error("Failed to recover record {}-{}@{}", record.topic(), record.partition(),
+                                record.offset(), recoveryFailure);
+                    }
+                    return true;
+                }
+                
+                long backoff = backoffMillis << Math.min(attempt - 1, 20);
+                log.warn("Attempt {} of {} failed for record {}-{}@{}, retrying in {} ms", attempt, maxAttempts,
+                        record.topic(), record.partition(), record.offset(), backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Records how long one attempt took, if the dispatcher is bound to a registry.
+     */
+    private void recordProcessing(ConsumerRecord<?, ?> record, String outcome, long startNanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        Timer timer = timers.computeIfAbsent(new TimerKey(record.topic(), outcome), key ->
+                Timer.builder("payroll.kafka.dispatch.processing")
+                        .tag("dispatcher", name)
+                        .tag("topic", key.topic())
+                        .tag("outcome", key.outcome())
+                        .publishPercentileHistogram()
+                        .register(registry));
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Identifies a processing timer.
+     */
+    private record TimerKey(String topic, String outcome) {
+    }
+    
+    /**
+     * Identifies a lane: records with the same key on the same topic.
+     */
+    private record LaneKey(String topic, Object key) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.payrolladvance.kafka.common.events;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of advance request events: the advance request as it was when the event was published.
+ * Components match the fields of the advance request event schema, so the binary codec writes and
+ * reads them directly.
+ */
+@Builder
+public record AdvanceRequestPayload(
+        Long id,
+        Long employeeId,
+        Long employerId,
+        BigDecimal amount,
+        LocalDateTime requestedDate,
+        String status,
+        String reason,
+        Long approvedBy,
+        LocalDateTime approvalDate,
+        String rejectionReason,
+        LocalDateTime expectedRepaymentDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) implements EmployeePayload {
+}
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.payrolladvance.kafka.common.events;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.payrolladvance.kafka.common.util.EventIds;
+import com.payrolladvance.kafka.common.util.LenientInstantDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
+import java.time.Instant;
 
 /**
  * Base class for all Kafka events.
@@ -18,7 +20,7 @@ import java.util.UUID;
 public abstract class BaseEvent<T> {
     
     /**
-     * Unique ID for the event.
+     * Unique, time-ordered ID for the event, which consumers deduplicate redeliveries on.
      */
     private String eventId;
     
@@ -33,9 +35,10 @@ public abstract class BaseEvent<T> {
     private EventType eventType;
     
     /**
-     * Timestamp when the event was created.
+     * Instant the event was created, which consumers measure end-to-end latency from.
      */
-    private LocalDateTime timestamp;
+    @JsonDeserialize(using = LenientInstantDeserializer.class)
+    private Instant timestamp;
     
     /**
      * Payload of the event.
@@ -50,10 +53,10 @@ public abstract class BaseEvent<T> {
      * @param payload   the payload
      */
     public BaseEvent(Long entityId, EventType eventType, T payload) {
-        this.eventId = UUID.randomUUID().toString();
+        this.eventId = EventIds.next();
         this.entityId = entityId;
         this.eventType = eventType;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = Instant.now();
         this.payload = payload;
     }
 }
\ No newline at end of file
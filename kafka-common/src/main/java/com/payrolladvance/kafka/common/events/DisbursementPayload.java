@@ -0,0 +1,33 @@
+package com.payrolladvance.kafka.common.events;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of disbursement events: the disbursement as it was when the event was published.
+ * Components match the fields of the disbursement event schema, so the binary codec writes and
+ * reads them directly.
+ */
+@Builder
+public record DisbursementPayload(
+        Long id,
+        Long advanceRequestId,
+        Long employeeId,
+        Long employerId,
+        BigDecimal amount,
+        String transactionReference,
+        String status,
+        String paymentMethod,
+        String bankCode,
+        Long settlementBatchId,
+        LocalDateTime expectedRepaymentDate,
+        BigDecimal feeAmount,
+        BigDecimal totalRepaymentAmount,
+        Integer retryCount,
+        LocalDateTime nextAttemptAt,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) implements EmployeePayload {
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.payrolladvance.kafka.common.events;
+
+/**
+ * Payload of an event that belongs to one employee.
+ */
+public interface EmployeePayload {
+    
+    /**
+     * Gets the ID of the employee the event belongs to.
+     *
+     * @return the employee ID, or null if unknown
+     */
+    Long employeeId();
+}
\ No newline at end of file
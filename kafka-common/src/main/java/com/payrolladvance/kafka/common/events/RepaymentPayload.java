@@ -0,0 +1,26 @@
+package com.payrolladvance.kafka.common.events;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of repayment events: the repayment as it was when the event was published.
+ * Components match the fields of the repayment event schema, so the binary codec writes and
+ * reads them directly.
+ */
+@Builder
+public record RepaymentPayload(
+        Long id,
+        Long disbursementId,
+        Long employeeId,
+        BigDecimal amount,
+        String transactionReference,
+        String status,
+        String paymentMethod,
+        LocalDateTime paymentDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) implements EmployeePayload {
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.payrolladvance.kafka.common.metrics;
+
+import com.payrolladvance.kafka.common.events.BaseEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency, processing time and consumer lag meters for Kafka listeners.
+ * <p>
+ * Every record a listener receives records the time from the event's creation to its delivery as
+ * {@code payroll.kafka.event.latency}, tagged with topic and listener. The creation time is the event's
+ * {@link BaseEvent#getTimestamp() timestamp}, or the record timestamp for records that are not events. It is
+ * compared with the consumer's clock, so clock skew between hosts shows up in it; negative values count as zero.
+ * The time a listener spends on each record goes to {@code payroll.kafka.record.processing} and the time a batch
+ * listener spends on each batch to {@code payroll.kafka.batch.processing}, both tagged with the outcome.
+ * <p>
+ * Consumer lag per partition comes from the Kafka client: instrumented consumer factories register every
+ * consumer's meters, among them {@code kafka.consumer.fetch.manager.records.lag} tagged with topic and partition.
+ */
+public class ListenerMetrics {
+    
+    public static final String EVENT_LATENCY = "payroll.kafka.event.latency";
+    
+    public static final String RECORD_PROCESSING = "payroll.kafka.record.processing";
+    
+    public static final String BATCH_PROCESSING = "payroll.kafka.batch.processing";
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    
+    private static final String UNKNOWN = "unknown";
+    
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructs a new ListenerMetrics.
+     *
+     * @param meterRegistry the registry the meters are registered with
+     */
+    public ListenerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Registers the Kafka client meters, including per-partition lag, of every consumer the factory creates.
+     *
+     * @param consumerFactory the consumer factory
+     * @param <K>             the key type
+     * @param <V>             the value type
+     * @return the consumer factory
+     */
+    public <K, V> DefaultKafkaConsumerFactory<K, V> instrument(DefaultKafkaConsumerFactory<K, V> consumerFactory) {
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
+    
+    /**
+     * Times the records of every listener container the factory creates, including those of its retry topics.
+     * Record and batch listeners are both covered; the container uses whichever interceptor fits its listener.
+     *
+     * @param containerFactory the listener container factory
+     * @param <K>              the key type
+     * @param <V>              the value type
+     * @return the listener container factory
+     */
+    public <K, V> ConcurrentKafkaListenerContainerFactory<K, V> instrument(
+            ConcurrentKafkaListenerContainerFactory<K, V> containerFactory) {
+        containerFactory.setContainerCustomizer(container -> {
+            String listener = container.getListenerId() != null ? container.getListenerId() : UNKNOWN;
+            container.setRecordInterceptor(new TimingRecordInterceptor<>(listener));
+            container.setBatchInterceptor(new TimingBatchInterceptor<>(listener));
+        });
+        return containerFactory;
+    }
+    
+    /**
+     * Records how long ago the record's event was created.
+     */
+    private void recordLatency(ConsumerRecord<?, ?> record, String listener, Instant now) {
+        long latencyNanos;
+        if (record.value() instanceof BaseEvent<?> event && event.getTimestamp() != null) {
+            Instant created = event.getTimestamp();
+            latencyNanos = (now.getEpochSecond() - created.getEpochSecond()) * NANOS_PER_SECOND
+                    + now.getNano() - created.getNano();
+        } else if (record.timestamp() >= 0) {
+            latencyNanos = TimeUnit.MILLISECONDS.toNanos(now.toEpochMilli() - record.timestamp());
+        } else {
+            return;
+        }
+        timer(EVENT_LATENCY, record.topic(), listener, null)
+                .record(Math.max(0, latencyNanos), TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Gets a timer, creating it on first use. Batch timers have no topic, since a batch can span several.
+     */
+    private Timer timer(String name, String topic, String listener, String outcome) {
+        return timers.computeIfAbsent(new MeterKey(name, topic, listener, outcome), key -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .tag("listener", listener)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(10));
+            if (topic != null) {
+                builder.tag("topic", topic);
+            }
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+    
+    /**
+     * Times each record handed to a record listener. The container calls it on its consumer thread,
+     * so the start time is kept per thread.
+     */
+    private final class TimingRecordInterceptor<K, V> implements RecordInterceptor<K, V> {
+        
+        private final String listener;
+        private final ThreadLocal<long[]> startNanos = ThreadLocal.withInitial(() -> new long[1]);
+        
+        private TimingRecordInterceptor(String listener) {
+            this.listener = listener;
+        }
+        
+        @Override
+        public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+            recordLatency(record, listener, Instant.now());
+            startNanos.get()[0] = System.nanoTime();
+            return record;
+        }
+        
+        @Override
+        public void success(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+            stop(record, "success");
+        }
+        
+        @Override
+        public void failure(ConsumerRecord<K, V> record, Exception exception, Consumer<K, V> consumer) {
+            stop(record, "failure");
+        }
+        
+        private void stop(ConsumerRecord<K, V> record, String outcome) {
+            timer(RECORD_PROCESSING, record.topic(), listener, outcome)
+                    .record(System.nanoTime() - startNanos.get()[0], TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Times each batch handed to a batch listener and the latency of every record in it.
+     */
+    private final class TimingBatchInterceptor<K, V> implements BatchInterceptor<K, V> {
+        
+        private final String listener;
+        private final ThreadLocal<long[]> startNanos = ThreadLocal.withInitial(() -> new long[1]);
+        
+        private TimingBatchInterceptor(String listener) {
+            this.listener = listener;
+        }
+        
+        @Override
+        public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+            Instant now = Instant.now();
+            for (ConsumerRecord<K, V> record : records) {
+                recordLatency(record, listener, now);
+            }
+            startNanos.get()[0] = System.nanoTime();
+            return records;
+        }
+        
+        @Override
+        public void success(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+            stop("success");
+        }
+        
+        @Override
+        public void failure(ConsumerRecords<K, V> records, Exception exception, Consumer<K, V> consumer) {
+            stop("failure");
+        }
+        
+        private void stop(String outcome) {
+            timer(BATCH_PROCESSING, null, listener, outcome)
+                    .record(System.nanoTime() - startNanos.get()[0], TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    /**
+     * Identifies one timer: a meter name with its tag values.
+     */
+    private record MeterKey(String name, String topic, String listener, String outcome) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.payrolladvance.kafka.common.metrics;
+
+import java.util.List;
+
+/**
+ * A count read from the database for one combination of status and dimension values.
+ *
+ * @param status          the status
+ * @param dimensionValues the value for each dimension, in the counters' dimension order; may contain nulls
+ * @param count           the number of entities
+ */
+public record StatusCount(String status, List<?> dimensionValues, long count) {
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.payrolladvance.kafka.common.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Live entity counts per status, overall and broken down by a fixed list of dimensions such as
+ * payment method or employer.
+ * <p>
+ * Each count is a striped {@link LongAdder}, so concurrent transitions never contend on a single cell.
+ * Changes recorded inside a transaction are applied only once it commits. The counts are exposed as
+ * Micrometer gauges for the overall status and for the dimensions named at construction; high-cardinality
+ * dimensions such as employer are left out of the gauges and only read through {@link #getCounts(String)}.
+ * A transition that commits while {@link #reconcile(Collection)} runs can leave a small drift, which the
+ * next reconciliation corrects.
+ */
+@Slf4j
+public class StatusCounters {
+    
+    private static final String OVERALL = "";
+    
+    private static final String UNKNOWN = "unknown";
+    
+    private final String name;
+    private final MeterRegistry meterRegistry;
+    private final List<String> dimensions;
+    private final Set<String> gaugedDimensions;
+    private final ConcurrentMap<CounterKey, LongAdder> counters = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a set of status counters.
+     *
+     * @param name             the meter name prefix, e.g. "payroll.disbursements"
+     * @param meterRegistry    the registry the gauges are registered with
+     * @param dimensions       the dimension names, in the order their values are passed when recording
+     * @param gaugedDimensions the dimensions that also get a gauge per value
+     */
+    public StatusCounters(String name, MeterRegistry meterRegistry, List<String> dimensions, Set<String> gaugedDimensions) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.dimensions = List.copyOf(dimensions);
+        this.gaugedDimensions = Set.copyOf(gaugedDimensions);
+    }
+    
+    /**
+     * Records a new entity in the given status.
+     *
+     * @param status          the initial status
+     * @param dimensionValues the entity's value for each dimension, in constructor order
+     */
+    public void recordCreated(String status, Object... dimensionValues) {
+        afterCommit(() -> adjust(status, dimensionValues, 1));
+    }
+    
+    /**
+     * Records an entity moving from one status to another. Does nothing if the status is unchanged.
+     *
+     * @param fromStatus      the previous status
+     * @param toStatus        the new status
+     * @param dimensionValues the entity's value for each dimension, in constructor order
+     */
+    public void recordTransition(String fromStatus, String toStatus, Object... dimensionValues) {
+        if (fromStatus == null ? toStatus == null : fromStatus.equals(toStatus)) {
+            return;
+        }
+        
+        afterCommit(() -> {
+            if (fromStatus != null) {
+                adjust(fromStatus, dimensionValues, -1);
+            }
+            if (toStatus != null) {
+                adjust(toStatus, dimensionValues, 1);
+            }
+        });
+    }
+    
+    /**
+     * Gets the overall count per status.
+     *
+     * @return the counts keyed by status
+     */
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((key, adder) -> {
+            if (OVERALL.equals(key.dimension())) {
+                counts.put(key.status(), adder.sum());
+            }
+        });
+        return counts;
+    }
+    
+    /**
+     * Gets the count per status for every value of a dimension, leaving out empty entries.
+     *
+     * @param dimension the dimension name
+     * @return the counts keyed by dimension value, then by status
+     */
+    public Map<String, Map<String, Long>> getCounts(String dimension) {
+        Map<String, Map<String, Long>> counts = new TreeMap<>();
+        counters.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (key.dimension().equals(dimension) && count != 0) {
+                counts.computeIfAbsent(key.value(), value -> new TreeMap<>()).put(key.status(), count);
+            }
+        });
+        return counts;
+    }
+    
+    /**
+     * Corrects the counters to match counts read from the database.
+     *
+     * @param actualCounts the current counts, one per distinct combination of status and dimension values
+     * @return the number of counters that had drifted
+     */
+    public int reconcile(Collection<StatusCount> actualCounts) {
+        Map<CounterKey, Long> expected = new HashMap<>();
+        for (StatusCount actual : actualCounts) {
+            forEachKey(actual.status(), actual.dimensionValues().toArray(),
+                    key -> expected.merge(key, actual.count(), Long::sum));
+        }
+        
+        Set<CounterKey> keys = new HashSet<>(counters.keySet());
+        keys.addAll(expected.keySet());
+        
+        int drifted = 0;
+        for (CounterKey key : keys) {
+            LongAdder adder = counter(key);
+            long drift = expected.getOrDefault(key, 0L) - adder.sum();
+            if (drift != 0) {
+                adder.add(drift);
+                drifted++;
+            }
+        }
+        
+        if (drifted > 0) {
+            log.warn("Corrected {} drifted {} counters", drifted, name);
+        }
+        return drifted;
+    }
+    
+    /**
+     * Adds a delta to the overall counter and every dimension counter for a status.
+     */
+    private void adjust(String status, Object[] dimensionValues, long delta) {
+        forEachKey(status, dimensionValues, key -> counter(key).add(delta));
+    }
+    
+    /**
+     * Calls the action with the overall key and one key per dimension for a status.
+     */
+    private void forEachKey(String status, Object[] dimensionValues, Consumer<CounterKey> action) {
+        action.accept(new CounterKey(OVERALL, OVERALL, status));
+        for (int i = 0; i < dimensions.size(); i++) {
+            Object value = i < dimensionValues.length ? dimensionValues[i] : null;
+            action.accept(new CounterKey(dimensions.get(i), value != null ? value.toString() : UNKNOWN, status));
+        }
+    }
+    
+    /**
+     * Gets the counter for a key, creating it and its gauge on first use.
+     */
+    private LongAdder counter(CounterKey key) {
+        LongAdder adder = counters.get(key);
+        if (adder != null) {
+            return adder;
+        }
+        
+        LongAdder created = new LongAdder();
+        adder = counters.putIfAbsent(key, created);
+        if (adder != null) {
+            return adder;
+        }
+        
+        if (OVERALL.equals(key.dimension())) {
+            Gauge.builder(name, created, LongAdder::sum)
+                    .tag("status", key.status())
+                    .register(meterRegistry);
+        } else if (gaugedDimensions.contains(key.dimension())) {
+            Gauge.builder(name + ".by." + key.dimension(), created, LongAdder::sum)
+                    .tag("status", key.status())
+                    .tag(key.dimension(), key.value())
+                    .register(meterRegistry);
+        }
+        return created;
+    }
+    
+    /**
+     * Runs the update once the current transaction commits, or immediately outside a transaction.
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+    
+    /**
+     * Identifies one counter: a status, overall or for one value of one dimension.
+     */
+    private record CounterKey(String dimension, String value, String status) {
+    }
+}
\ No newline at end of file
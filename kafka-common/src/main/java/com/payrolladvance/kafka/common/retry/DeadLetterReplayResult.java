@@ -0,0 +1,12 @@
+package com.payrolladvance.kafka.common.retry;
+
+/**
+ * Outcome of replaying a dead-letter topic.
+ *
+ * @param deadLetterTopic the dead-letter topic read
+ * @param targetTopic     the topic the records were replayed to
+ * @param replayed        the number of records replayed
+ * @param remaining       the number of records left on the dead-letter topic, when the replay stopped at its limit
+ */
+public record DeadLetterReplayResult(String deadLetterTopic, String targetTopic, long replayed, long remaining) {
+}
\ No newline at end of file
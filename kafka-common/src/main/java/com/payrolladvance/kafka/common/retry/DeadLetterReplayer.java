@@ -0,0 +1,176 @@
+package com.payrolladvance.kafka.common.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Moves records from a dead-letter topic back onto the first retry topic of the same consumer group,
+ * so they are reprocessed by the listener that failed them and go through the retry schedule again.
+ * Ordered topics have no retry topics, so their records go back onto the main topic, where every consumer
+ * group of the topic sees them again.
+ * <p>
+ * Records are copied as raw bytes, without deserializing them. The exception and retry headers are
+ * dropped, while the original topic, partition and offset headers are kept. Progress is committed under
+ * a dedicated consumer group, so every record is replayed once. A replay stops at the end offsets seen
+ * when it started, so records dead-lettered again during the replay wait for the next one.
+ */
+@Slf4j
+public class DeadLetterReplayer {
+    
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    
+    private static final String EXCEPTION_HEADER_PREFIX = "kafka_dlt-exception";
+    
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+    
+    private final Map<String, Object> consumerProps = new HashMap<>();
+    private final Map<String, Object> producerProps = new HashMap<>();
+    private final RetryTopicProperties properties;
+    
+    /**
+     * Constructs a new DeadLetterReplayer.
+     *
+     * @param bootstrapServers the Kafka bootstrap servers
+     * @param groupId          the consumer group of the listeners, used to name the replay group
+     * @param properties       the retry settings naming the retry and dead-letter topics
+     */
+    public DeadLetterReplayer(String bootstrapServers, String groupId, RetryTopicProperties properties) {
+        this.properties = properties;
+        consumerProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-dlt-replay");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+    }
+    
+    /**
+     * Replays the dead-letter topic of a main topic.
+     *
+     * @param topic      the main topic
+     * @param maxRecords the maximum number of records to replay
+     * @return the number of records replayed and left
+     */
+    public synchronized DeadLetterReplayResult replay(String topic, long maxRecords) {
+        String deadLetterTopic = properties.deadLetterTopic(topic);
+        String targetTopic = properties.getOrderedTopics().contains(topic) ? topic : properties.retryTopic(topic, 0);
+        
+        try (KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProps);
+             KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(producerProps)) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(deadLetterTopic);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return new DeadLetterReplayResult(deadLetterTopic, targetTopic, 0, 0);
+            }
+            List<TopicPartition> partitions = partitionInfos.stream()
+                    .map(info -> new TopicPartition(deadLetterTopic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                if (offset != null) {
+                    consumer.seek(partition, offset.offset());
+                } else {
+                    consumer.seekToBeginning(List.of(partition));
+                }
+                nextOffsets.put(partition, consumer.position(partition));
+            }
+            
+            long replayed = 0;
+            while (replayed < maxRecords && pauseCaughtUp(consumer, partitions, nextOffsets, endOffsets)) {
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<Future<RecordMetadata>> sends = new ArrayList<>();
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (replayed >= maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    sends.add(producer.send(new ProducerRecord<>(targetTopic, null, record.key(), record.value(),
+                            replayHeaders(record.headers()))));
+                    offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    nextOffsets.put(partition, record.offset() + 1);
+                    replayed++;
+                }
+                
+                // Commit only once every copy is on the retry topic, so a failed replay is repeated rather than lost
+                producer.flush();
+                for (Future<RecordMetadata> send : sends) {
+                    send.get();
+                }
+                if (!offsets.isEmpty()) {
+                    consumer.commitSync(offsets);
+                }
+            }
+            
+            long remaining = partitions.stream()
+                    .mapToLong(partition -> Math.max(0, endOffsets.get(partition) - nextOffsets.get(partition)))
+                    .sum();
+            log.info("Replayed {} records from {} to {}, {} left", replayed, deadLetterTopic, targetTopic, remaining);
+            return new DeadLetterReplayResult(deadLetterTopic, targetTopic, replayed, remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying " + deadLetterTopic, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to replay " + deadLetterTopic + " to " + targetTopic, e.getCause());
+        }
+    }
+    
+    /**
+     * Pauses the partitions that have reached their end offset.
+     *
+     * @return true if any partition still has records to replay
+     */
+    private static boolean pauseCaughtUp(KafkaConsumer<byte[], byte[]> consumer, List<TopicPartition> partitions,
+                                         Map<TopicPartition, Long> nextOffsets, Map<TopicPartition, Long> endOffsets) {
+        List<TopicPartition> caughtUp = partitions.stream()
+                .filter(partition -> nextOffsets.get(partition) >= endOffsets.get(partition))
+                .toList();
+        consumer.pause(caughtUp);
+        return caughtUp.size() < partitions.size();
+    }
+    
+    /**
+     * Copies the headers of a dead-lettered record, leaving out the exception and retry headers.
+     */
+    private static Headers replayHeaders(Headers headers) {
+        RecordHeaders replayHeaders = new RecordHeaders();
+        for (Header header : headers) {
+            if (!header.key().startsWith(EXCEPTION_HEADER_PREFIX) && !header.key().startsWith(RETRY_HEADER_PREFIX)) {
+                replayHeaders.add(header);
+            }
+        }
+        return replayHeaders;
+    }
+}
\ No newline at end of file
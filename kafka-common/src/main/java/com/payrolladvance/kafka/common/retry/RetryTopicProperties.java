@@ -0,0 +1,94 @@
+package com.payrolladvance.kafka.common.retry;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for non-blocking retries: how often and how far apart a failed record is retried on the retry
+ * topics, and how those topics and the dead-letter topic are named and created.
+ */
+@Data
+public class RetryTopicProperties {
+    
+    /**
+     * Attempts per record including the first; every retry has its own retry topic.
+     */
+    private int maxAttempts = 4;
+    
+    /**
+     * Delay before the first retry.
+     */
+    private Duration initialInterval = Duration.ofSeconds(10);
+    
+    /**
+     * Factor each further delay grows by.
+     */
+    private double multiplier = 6.0;
+    
+    /**
+     * Upper bound on a retry delay.
+     */
+    private Duration maxInterval = Duration.ofMinutes(30);
+    
+    /**
+     * Suffix of the retry topics, followed by the retry index. Consumer groups sharing a topic need
+     * different suffixes, or they would consume each other's retries.
+     */
+    private String retryTopicSuffix = "-retry";
+    
+    /**
+     * Suffix of the dead-letter topic.
+     */
+    private String dltSuffix = "-dlt";
+    
+    /**
+     * Partitions of the retry and dead-letter topics created on startup.
+     */
+    private int partitions = 3;
+    
+    /**
+     * Replication factor of the created topics; -1 uses the broker default.
+     */
+    private short replicationFactor = -1;
+    
+    /**
+     * Topics whose listeners handle failures themselves, such as batch listeners.
+     */
+    private List<String> excludeTopics = new ArrayList<>();
+    
+    /**
+     * Topics whose records must stay in key order. They get no retry topics: a failing record is retried
+     * in place, holding up its partition, and then goes to the dead-letter topic.
+     */
+    private List<String> orderedTopics = new ArrayList<>();
+    
+    /**
+     * Upper bound on a delay between in-place retries of an ordered topic. The consumer waits out each delay,
+     * so it must stay well below {@code max.poll.interval.ms}.
+     */
+    private Duration maxBlockingInterval = Duration.ofMinutes(1);
+    
+    /**
+     * Gets the name of a retry topic.
+     *
+     * @param topic the main topic
+     * @param index the retry index, starting at 0
+     * @return the retry topic name
+     */
+    public String retryTopic(String topic, int index) {
+        return topic + retryTopicSuffix + "-" + index;
+    }
+    
+    /**
+     * Gets the name of the dead-letter topic.
+     *
+     * @param topic the main topic
+     * @return the dead-letter topic name
+     */
+    public String deadLetterTopic(String topic) {
+        return topic + dltSuffix;
+    }
+}
\ No newline at end of file
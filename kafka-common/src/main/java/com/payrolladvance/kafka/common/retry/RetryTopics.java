@@ -0,0 +1,90 @@
+package com.payrolladvance.kafka.common.retry;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the retry-topic setup shared by the services.
+ * <p>
+ * A record whose listener throws is published to the first retry topic straight away, so the main
+ * partition moves on. Each retry topic holds its records until their delay has passed and hands them back to
+ * the same listener; after the last attempt the record lands on the dead-letter topic. Both carry the
+ * exception class, message and stack trace and the original topic, partition and offset in
+ * {@code kafka_dlt-*} headers. A retried record is handled after later records with the same key.
+ * <p>
+ * Ordered topics trade that throughput for order: they get no retry topics, and a failing record is retried
+ * in place by the container's error handler, holding up the rest of its partition until it succeeds or
+ * is dead-lettered.
+ */
+public final class RetryTopics {
+    
+    private RetryTopics() {
+    }
+    
+    /**
+     * Creates the retry-topic configuration, which applies to every listener except excluded and ordered topics.
+     *
+     * @param template   the template failed records are published with
+     * @param properties the retry settings
+     * @return the retry-topic configuration
+     */
+    public static RetryTopicConfiguration configuration(KafkaOperations<?, ?> template, RetryTopicProperties properties) {
+        RetryTopicConfigurationBuilder builder = RetryTopicConfigurationBuilder.newInstance()
+                .maxAttempts(properties.getMaxAttempts())
+                .exponentialBackoff(properties.getInitialInterval().toMillis(), properties.getMultiplier(),
+                        properties.getMaxInterval().toMillis())
+                .retryTopicSuffix(properties.getRetryTopicSuffix())
+                .dltSuffix(properties.getDltSuffix())
+                .suffixTopicsWithIndexValues()
+                .autoCreateTopicsWith(properties.getPartitions(), properties.getReplicationFactor());
+        List<String> excluded = new ArrayList<>(properties.getExcludeTopics());
+        excluded.addAll(properties.getOrderedTopics());
+        if (!excluded.isEmpty()) {
+            builder.excludeTopics(excluded);
+        }
+        return builder.create(template);
+    }
+    
+    /**
+     * Creates the error handler for listeners without retry topics, which retries a failing record in place
+     * with the configured backoff and then dead-letters it. Records of later offsets wait until it is done, so
+     * per-key order holds on ordered topics.
+     *
+     * @param template   the template failed records are published with
+     * @param properties the retry settings
+     * @return the error handler
+     */
+    public static DefaultErrorHandler inPlaceErrorHandler(KafkaOperations<?, ?> template,
+                                                          RetryTopicProperties properties) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(
+                Math.max(properties.getMaxAttempts() - 1, 0));
+        backOff.setInitialInterval(properties.getInitialInterval().toMillis());
+        backOff.setMultiplier(properties.getMultiplier());
+        backOff.setMaxInterval(Math.min(properties.getMaxInterval().toMillis(),
+                properties.getMaxBlockingInterval().toMillis()));
+        return new DefaultErrorHandler(deadLetterRecoverer(template, properties), backOff);
+    }
+    
+    /**
+     * Creates a recoverer that publishes straight to the dead-letter topic, for listeners that handle
+     * failures themselves. The partition is left to the producer because the dead-letter topic may have
+     * fewer partitions than the main topic.
+     *
+     * @param template   the template failed records are published with
+     * @param properties the retry settings naming the dead-letter topic
+     * @return the recoverer
+     */
+    public static DeadLetterPublishingRecoverer deadLetterRecoverer(KafkaOperations<?, ?> template,
+                                                                    RetryTopicProperties properties) {
+        return new DeadLetterPublishingRecoverer(template,
+                (record, e) -> new TopicPartition(properties.deadLetterTopic(record.topic()), -1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.payrolladvance.kafka.common.util;
+
+/**
+ * Generates the IDs events are published and deduplicated under.
+ */
+@FunctionalInterface
+public interface EventIdGenerator {
+    
+    /**
+     * Generates a new event ID.
+     *
+     * @return the event ID
+     */
+    String nextId();
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.payrolladvance.kafka.common.util;
+
+/**
+ * Holds the generator every event takes its ID from. Time-ordered IDs are used unless a service
+ * installs another generator at startup.
+ */
+public final class EventIds {
+    
+    private static volatile EventIdGenerator generator = new TimeOrderedEventIdGenerator();
+    
+    private EventIds() {
+    }
+    
+    /**
+     * Generates a new event ID.
+     *
+     * @return the event ID
+     */
+    public static String next() {
+        return generator.nextId();
+    }
+    
+    /**
+     * Replaces the event ID generator.
+     *
+     * @param eventIdGenerator the generator
+     */
+    public static void setGenerator(EventIdGenerator eventIdGenerator) {
+        if (eventIdGenerator == null) {
+            throw new IllegalArgumentException("Event ID generator must not be null");
+        }
+        generator = eventIdGenerator;
+    }
+}
\ No newline at end of file
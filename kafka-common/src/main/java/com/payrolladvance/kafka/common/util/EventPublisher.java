@@ -1,40 +1,288 @@
 package com.payrolladvance.kafka.common.util;
 
+import com.payrolladvance.kafka.common.config.ProducerProfiles;
 import com.payrolladvance.kafka.common.events.BaseEvent;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Utility class for publishing events to Kafka topics.
+ * Every event is published under a routing key chosen by a {@link RoutingKeyStrategy}, which determines the
+ * ordering consumers get. A publisher built from {@link ProducerProfiles} sends each topic through the producer
+ * of the profile configured for it, and publishes batches in Kafka transactions when a transaction ID prefix is configured.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class EventPublisher {
     
-    private final KafkaTemplate<String, BaseEvent<?>> kafkaTemplate;
+    private static final int MAX_PUBLISH_ATTEMPTS = 3;
+    
+    private final Function<String, KafkaTemplate<String, BaseEvent<?>>> templateForTopic;
+    private final Function<String, KafkaTemplate<String, BaseEvent<?>>> transactionalTemplateForTopic;
+    private final Collection<KafkaTemplate<String, BaseEvent<?>>> templates;
+    private final RoutingKeyStrategy routingKeyStrategy;
     
     /**
-     * Publishes an event to the specified topic.
+     * Creates an event publisher that routes events by their entity ID.
+     *
+     * @param kafkaTemplate the Kafka template
+     */
+    public EventPublisher(KafkaTemplate<String, BaseEvent<?>> kafkaTemplate) {
+        this(kafkaTemplate, RoutingKeyStrategy.byEntity());
+    }
+    
+    /**
+     * Creates an event publisher with the given routing key strategy.
+     *
+     * @param kafkaTemplate      the Kafka template
+     * @param routingKeyStrategy the strategy choosing each event's routing key
+     */
+    public EventPublisher(KafkaTemplate<String, BaseEvent<?>> kafkaTemplate, RoutingKeyStrategy routingKeyStrategy) {
+        this.templateForTopic = topic -> kafkaTemplate;
+        this.transactionalTemplateForTopic = topic -> null;
+        this.templates = List.of(kafkaTemplate);
+        this.routingKeyStrategy = routingKeyStrategy;
+    }
+    
+    /**
+     * Creates an event publisher that sends each topic through the producer of its configured profile.
+     *
+     * @param producerProfiles   the producers of each profile
+     * @param routingKeyStrategy the strategy choosing each event's routing key
+     */
+    public EventPublisher(ProducerProfiles producerProfiles, RoutingKeyStrategy routingKeyStrategy) {
+        this.templateForTopic = producerProfiles::templateFor;
+        this.transactionalTemplateForTopic = producerProfiles::transactionalTemplateFor;
+        this.templates = producerProfiles.templates();
+        this.routingKeyStrategy = routingKeyStrategy;
+    }
+    
+    /**
+     * Publishes an event to the specified topic under the routing key chosen by the strategy.
      *
      * @param topic the topic to publish to
      * @param event the event to publish
      */
     public void publish(String topic, BaseEvent<?> event) {
-        log.info("Publishing event to topic {}: {}", topic, event);
+        publish(topic, routingKeyStrategy.routingKey(topic, event), event);
+    }
+    
+    /**
+     * Publishes an event to the specified topic under an explicit routing key.
+     *
+     * @param topic      the topic to publish to
+     * @param routingKey the routing key; events with the same key are kept in order
+     * @param event      the event to publish
+     */
+    public void publish(String topic, String routingKey, BaseEvent<?> event) {
+        log.info("Publishing event to topic {} with key {}: {}", topic, routingKey, event);
         
-        CompletableFuture<SendResult<String, BaseEvent<?>>> future = kafkaTemplate.send(topic, event);
+        CompletableFuture<SendResult<String, BaseEvent<?>>> future = templateForTopic.apply(topic)
+                .send(topic, routingKey, event);
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
-                log.info("Event published successfully to topic {} with offset {}", 
-                        topic, result.getRecordMetadata().offset());
+                log.info("Event published successfully to topic {} partition {} with offset {}", 
+                        topic, result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
             } else {
                 log.error("Failed to publish event to topic {}: {}", topic, ex.getMessage(), ex);
             }
         });
     }
+    
+    /**
+     * Publishes a batch of events to a topic, each under the routing key chosen by the strategy, and flushes
+     * once so they leave as full producer batches. With transactions configured the batch is published in
+     * one transaction: consumers reading committed records see all of it or none of it, and a failure fails
+     * every event. Per-event outcomes are logged as one summary rather than one line per event.
+     *
+     * @param topic  the topic to publish to
+     * @param events the events to publish
+     * @return a future completing with one result per event, in order, once every send has been acknowledged
+     *         or has failed; it does not complete exceptionally
+     */
+    public CompletableFuture<List<PublishResult>> publishAll(String topic, Collection<? extends BaseEvent<?>> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        
+        List<BaseEvent<?>> batch = List.copyOf(events);
+        List<String> routingKeys = batch.stream()
+                .map(event -> routingKeyStrategy.routingKey(topic, event))
+                .toList();
+        
+        KafkaTemplate<String, BaseEvent<?>> transactionalTemplate = transactionalTemplateForTopic.apply(topic);
+        CompletableFuture<List<PublishResult>> results = transactionalTemplate != null
+                ? publishInTransaction(transactionalTemplate, topic, batch, routingKeys)
+                : publish(templateForTopic.apply(topic), topic, batch, routingKeys);
+        
+        return results.whenComplete((published, ex) -> {
+            long failed = published.stream().filter(result -> !result.isSuccess()).count();
+            if (failed == 0) {
+                log.info("Published {} events to topic {}", published.size(), topic);
+            } else {
+                Throwable firstError = published.stream()
+                        .filter(result -> !result.isSuccess())
+                        .findFirst()
+                        .map(PublishResult::error)
+                        .orElse(null);
+                log.error("Failed to publish {} of {} events to topic {}", failed, published.size(), topic, firstError);
+            }
+        });
+    }
+    
+    /**
+     * Publishes a batch of events like {@link #publishAll} once the current database transaction commits, so
+     * consumers never see events for rows that were rolled back; outside a transaction the batch is published
+     * right away. Events that fail to publish are sent again, up to three attempts in all, and any still
+     * failing are logged by event ID so they can be re-driven. A resent event can land after later events
+     * with the same routing key that were published first time.
+     *
+     * @param topic  the topic to publish to
+     * @param events the events to publish
+     * @return a future completing with the final result per event, in order, once the batch has been
+     *         published; it completes with no results if the transaction rolls back
+     */
+    public CompletableFuture<List<PublishResult>> publishAllAfterCommit(String topic,
+                                                                        Collection<? extends BaseEvent<?>> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        
+        List<BaseEvent<?>> batch = List.copyOf(events);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return publishWithRetries(topic, batch, MAX_PUBLISH_ATTEMPTS);
+        }
+        
+        CompletableFuture<List<PublishResult>> results = new CompletableFuture<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publishWithRetries(topic, batch, MAX_PUBLISH_ATTEMPTS).whenComplete((published, ex) -> {
+                        if (ex != null) {
+                            results.completeExceptionally(ex);
+                        } else {
+                            results.complete(published);
+                        }
+                    });
+                } else {
+                    results.complete(List.of());
+                }
+            }
+        });
+        return results;
+    }
+    
+    /**
+     * Sends any buffered records immediately instead of waiting for the producer's linger time.
+     * Call after publishing a group of events so they leave as one producer batch.
+     */
+    public void flush() {
+        templates.forEach(KafkaTemplate::flush);
+    }
+    
+    /**
+     * Publishes a batch, then publishes its failed events again until they succeed or the attempts run out.
+     * The results of resent events replace their earlier failures.
+     */
+    private CompletableFuture<List<PublishResult>> publishWithRetries(String topic, List<BaseEvent<?>> batch,
+                                                                      int attemptsLeft) {
+        return publishAll(topic, batch).thenCompose(results -> {
+            List<BaseEvent<?>> failed = results.stream()
+                    .filter(result -> !result.isSuccess())
+                    .map(PublishResult::event)
+                    .toList();
+            if (failed.isEmpty()) {
+                return CompletableFuture.completedFuture(results);
+            }
+            if (attemptsLeft <= 1) {
+                log.error("Giving up on publishing events {} to topic {}",
+                        failed.stream().map(BaseEvent::getEventId).toList(), topic);
+                return CompletableFuture.completedFuture(results);
+            }
+            
+            log.warn("Publishing {} failed events to topic {} again", failed.size(), topic);
+            return publishWithRetries(topic, failed, attemptsLeft - 1).thenApply(retried -> {
+                List<PublishResult> merged = new ArrayList<>(results.size());
+                int next = 0;
+                for (PublishResult result : results) {
+                    merged.add(result.isSuccess() ? result : retried.get(next++));
+                }
+                return merged;
+            });
+        });
+    }
+    
+    /**
+     * Sends a batch without a transaction and flushes it.
+     */
+    private CompletableFuture<List<PublishResult>> publish(KafkaTemplate<String, BaseEvent<?>> template, String topic,
+                                                           List<BaseEvent<?>> batch, List<String> routingKeys) {
+        List<CompletableFuture<PublishResult>> sends = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            sends.add(send(template, topic, batch.get(i), routingKeys.get(i)));
+        }
+        template.flush();
+        
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> sends.stream().map(CompletableFuture::join).toList());
+    }
+    
+    /**
+     * Sends a batch in one transaction. Committing flushes the batch and waits for every acknowledgment,
+     * so the returned future is already complete.
+     */
+    private CompletableFuture<List<PublishResult>> publishInTransaction(KafkaTemplate<String, BaseEvent<?>> template,
+                                                                        String topic, List<BaseEvent<?>> batch,
+                                                                        List<String> routingKeys) {
+        try {
+            List<CompletableFuture<SendResult<String, BaseEvent<?>>>> sends = template.executeInTransaction(operations -> {
+                List<CompletableFuture<SendResult<String, BaseEvent<?>>>> inTransaction = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    inTransaction.add(operations.send(topic, routingKeys.get(i), batch.get(i)));
+                }
+                return inTransaction;
+            });
+            
+            List<PublishResult> results = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                RecordMetadata metadata = sends.get(i).join().getRecordMetadata();
+                results.add(new PublishResult(batch.get(i), routingKeys.get(i), metadata.partition(), metadata.offset(), null));
+            }
+            return CompletableFuture.completedFuture(results);
+        } catch (RuntimeException e) {
+            // The transaction was aborted, so none of the batch is visible to consumers reading committed records
+            List<PublishResult> results = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(new PublishResult(batch.get(i), routingKeys.get(i), -1, -1, e));
+            }
+            return CompletableFuture.completedFuture(results);
+        }
+    }
+    
+    /**
+     * Sends one event of a batch, turning its outcome into a result.
+     */
+    private static CompletableFuture<PublishResult> send(KafkaTemplate<String, BaseEvent<?>> template, String topic,
+                                                         BaseEvent<?> event, String routingKey) {
+        try {
+            return template.send(topic, routingKey, event).handle((result, ex) -> ex == null
+                    ? new PublishResult(event, routingKey, result.getRecordMetadata().partition(),
+                            result.getRecordMetadata().offset(), null)
+                    : new PublishResult(event, routingKey, -1, -1, ex));
+        } catch (RuntimeException e) {
+            // Serialization and buffer-full errors are thrown by send rather than failing its future
+            return CompletableFuture.completedFuture(new PublishResult(event, routingKey, -1, -1, e));
+        }
+    }
 }
\ No newline at end of file
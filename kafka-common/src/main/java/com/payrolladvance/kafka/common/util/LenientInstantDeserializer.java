@@ -0,0 +1,49 @@
+package com.payrolladvance.kafka.common.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.InstantDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Reads an {@link Instant} from JSON, also accepting the zone-less date-times older JSON events were written
+ * with. Those are read as UTC, the same way the binary codec has always encoded them.
+ */
+public class LenientInstantDeserializer extends StdDeserializer<Instant> {
+    
+    /**
+     * Constructs a new LenientInstantDeserializer.
+     */
+    public LenientInstantDeserializer() {
+        super(Instant.class);
+    }
+    
+    @Override
+    public Instant deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            try {
+                TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parseBest(text, OffsetDateTime::from, LocalDateTime::from);
+                return parsed instanceof OffsetDateTime offsetDateTime
+                        ? offsetDateTime.toInstant() : ((LocalDateTime) parsed).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException e) {
+                throw context.weirdStringException(text, Instant.class, e.getMessage());
+            }
+        }
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return LocalDateTimeDeserializer.INSTANCE.deserialize(parser, context).toInstant(ZoneOffset.UTC);
+        }
+        return InstantDeserializer.INSTANT.deserialize(parser, context);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.payrolladvance.kafka.common.util;
+
+import com.payrolladvance.kafka.common.events.BaseEvent;
+
+/**
+ * Outcome of publishing one event of a batch.
+ *
+ * @param event      the event
+ * @param routingKey the key the event was published under
+ * @param partition  the partition written to, or -1 if the send failed
+ * @param offset     the offset written at, or -1 if the send failed
+ * @param error      the failure, or null if the event was published
+ */
+public record PublishResult(BaseEvent<?> event, String routingKey, int partition, long offset, Throwable error) {
+    
+    /**
+     * Checks whether the event was published.
+     *
+     * @return true if the broker acknowledged the event
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
\ No newline at end of file
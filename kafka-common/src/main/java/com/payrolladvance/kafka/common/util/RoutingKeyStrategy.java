@@ -0,0 +1,53 @@
+package com.payrolladvance.kafka.common.util;
+
+import com.payrolladvance.kafka.common.events.BaseEvent;
+import com.payrolladvance.kafka.common.events.EmployeePayload;
+
+/**
+ * Chooses the record key an event is published under.
+ * Kafka hashes the key to pick the partition, so all events sharing a routing key land on the same
+ * partition. Strategies decide what must stay in order together: a single entity, or everything belonging
+ * to one employee.
+ * <p>
+ * A partition is owned by one consumer thread of a group, so listener concurrency beyond the partition
+ * count leaves threads idle. Records with the same key are handled in the order they were published as long
+ * as they succeed: a record that fails over to a retry topic is handled after later records with its key,
+ * unless its topic is configured as ordered and retries in place (see {@code RetryTopics}).
+ */
+@FunctionalInterface
+public interface RoutingKeyStrategy {
+    
+    /**
+     * Gets the routing key for an event.
+     *
+     * @param topic the topic the event is published to
+     * @param event the event
+     * @return the routing key, or null to let the producer spread the event over partitions
+     */
+    String routingKey(String topic, BaseEvent<?> event);
+    
+    /**
+     * Routes events by the entity they belong to, keeping each entity's events in order.
+     *
+     * @return the strategy
+     */
+    static RoutingKeyStrategy byEntity() {
+        return (topic, event) -> event.getEntityId() != null ? event.getEntityId().toString() : null;
+    }
+    
+    /**
+     * Routes events by the employee their payload belongs to, so every entity of one employee is co-located
+     * on one partition. Events without an {@link EmployeePayload} or an employee fall back to their entity.
+     *
+     * @return the strategy
+     */
+    static RoutingKeyStrategy byEmployee() {
+        RoutingKeyStrategy byEntity = byEntity();
+        return (topic, event) -> {
+            if (event.getPayload() instanceof EmployeePayload payload && payload.employeeId() != null) {
+                return payload.employeeId().toString();
+            }
+            return byEntity.routingKey(topic, event);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.payrolladvance.kafka.common.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates version 7 UUIDs: a 48-bit millisecond timestamp, a 12-bit sequence and 62 random bits.
+ * <p>
+ * IDs sort by creation time, so an index on them grows at its right edge instead of scattering inserts,
+ * and consecutive events deduplicated against it land on the same pages. Each thread keeps its own
+ * timestamp and sequence, so generation takes no lock and no shared counter: IDs from one thread are
+ * strictly increasing, and IDs from different threads are ordered to the millisecond. A thread that
+ * exhausts the sequence within a millisecond borrows the next one. Random bits come from
+ * {@link ThreadLocalRandom} rather than the shared {@code SecureRandom} behind {@link UUID#randomUUID()};
+ * they only keep IDs from different threads apart and are not meant to be unguessable.
+ */
+public class TimeOrderedEventIdGenerator implements EventIdGenerator {
+    
+    private static final int SEQUENCE_BITS = 12;
+    
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    
+    private static final long VERSION_7 = 0x7L << SEQUENCE_BITS;
+    
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    
+    private static final long VARIANT_IETF = 0x8000000000000000L;
+    
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+    
+    /**
+     * Generates a new ID as a UUID.
+     *
+     * @return the ID
+     */
+    public UUID nextUuid() {
+        State current = state.get();
+        long now = System.currentTimeMillis();
+        if (now > current.millis) {
+            current.millis = now;
+            current.sequence = 0;
+        } else if (current.sequence < MAX_SEQUENCE) {
+            current.sequence++;
+        } else {
+            // Sequence exhausted, or the clock went back: stay monotonic by moving on to the next millisecond
+            current.millis++;
+            current.sequence = 0;
+        }
+        
+        long mostSignificantBits = (current.millis << 16) | VERSION_7 | current.sequence;
+        long leastSignificantBits = (ThreadLocalRandom.current().nextLong() & VARIANT_MASK) | VARIANT_IETF;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+    
+    /**
+     * Gets the creation time of an ID generated by this class.
+     *
+     * @param id the ID
+     * @return the epoch milliseconds the ID was generated at, or -1 if it is not a version 7 UUID
+     */
+    public static long timestampMillis(String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.version() == 7 ? uuid.getMostSignificantBits() >>> 16 : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * The last timestamp and sequence handed out on one thread.
+     */
+    private static final class State {
+        
+        private long millis;
+        private int sequence;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.payrolladvance.kafka.common.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.payrolladvance.kafka.common.events.AdvanceRequestEvent;
+import com.payrolladvance.kafka.common.events.AdvanceRequestPayload;
+import com.payrolladvance.kafka.common.events.BaseEvent;
+import com.payrolladvance.kafka.common.events.DisbursementEvent;
+import com.payrolladvance.kafka.common.events.DisbursementPayload;
+import com.payrolladvance.kafka.common.events.EventType;
+import com.payrolladvance.kafka.common.events.RepaymentEvent;
+import com.payrolladvance.kafka.common.events.RepaymentPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round-trip, schema evolution and size tests for {@link BinaryEventCodec}, run against every event schema.
+ * The evolution tests pair the current schemas with the earlier versions under {@code schemas-v1}.
+ */
+@Slf4j
+class BinaryEventCodecTest {
+    
+    private static final BinaryEventCodec CODEC = new BinaryEventCodec(FileSchemaRegistry.load(FileSchemaRegistry.DEFAULT_LOCATION));
+    
+    private static final BinaryEventCodec V1_CODEC = new BinaryEventCodec(FileSchemaRegistry.load("classpath:schemas-v1"));
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    private static final int TIMING_ITERATIONS = 10_000;
+    
+    /**
+     * One fully populated event per schema, with the number of payload fields its {@code schemas-v1} version has.
+     */
+    static Stream<Arguments> events() {
+        return Stream.of(
+                Arguments.of(advanceRequestEvent(), 6),
+                Arguments.of(disbursementEvent(), 4),
+                Arguments.of(repaymentEvent(), 6));
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void roundTripsEveryField(BaseEvent<?> event, int v1Fields) {
+        assertThat(CODEC.decode(ByteBuffer.wrap(CODEC.encode(event)))).isEqualTo(event);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void roundTripsEventWithoutPayload(BaseEvent<?> event, int v1Fields) {
+        event.setPayload(null);
+        
+        assertThat(CODEC.decode(ByteBuffer.wrap(CODEC.encode(event)))).isEqualTo(event);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void roundTripsSparsePayload(BaseEvent<?> event, int v1Fields) {
+        withPayload(event, payload -> keepFirst(payload, 1));
+        
+        assertThat(CODEC.decode(ByteBuffer.wrap(CODEC.encode(event)))).isEqualTo(event);
+    }
+    
+    @Test
+    void roundTripsEdgeValues() {
+        DisbursementEvent event = new DisbursementEvent(Long.MIN_VALUE, EventType.DISBURSEMENT_FAILED, new DisbursementPayload(
+                Long.MAX_VALUE, 0L, -1L, Long.MIN_VALUE, new BigDecimal("-0.000000000000000000001"), "",
+                "FAILED", "MOBILE_MONEY", "Zürich 銀行 🏦", 0L, LocalDateTime.of(1900, 1, 1, 0, 0),
+                new BigDecimal("123456789012345678901234567890.5"), BigDecimal.ZERO, Integer.MAX_VALUE,
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1),
+                LocalDateTime.of(1970, 1, 1, 0, 0)));
+        event.setTimestamp(Instant.ofEpochSecond(-1, 1));
+        
+        assertThat(CODEC.decode(ByteBuffer.wrap(CODEC.encode(event)))).isEqualTo(event);
+    }
+    
+    @Test
+    void rejectsBytesWithoutMagicByte() {
+        assertThatThrownBy(() -> CODEC.decode(ByteBuffer.wrap("{\"eventId\":\"1\"}".getBytes())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void olderReaderSkipsFieldsItDoesNotKnow(BaseEvent<?> event, int v1Fields) {
+        BaseEvent<?> decoded = V1_CODEC.decode(ByteBuffer.wrap(CODEC.encode(event)));
+        
+        withPayload(event, payload -> keepFirst(payload, v1Fields));
+        assertThat(decoded).isEqualTo(event);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void newerReaderLeavesFieldsOlderWriterLackedNull(BaseEvent<?> event, int v1Fields) {
+        withPayload(event, payload -> keepFirst(payload, v1Fields));
+        
+        assertThat(CODEC.decode(ByteBuffer.wrap(V1_CODEC.encode(event)))).isEqualTo(event);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void writerCarriesFieldsItsSchemaLacksByName(BaseEvent<?> event, int v1Fields) {
+        assertThat(CODEC.decode(ByteBuffer.wrap(V1_CODEC.encode(event)))).isEqualTo(event);
+        assertThat(V1_CODEC.decode(ByteBuffer.wrap(V1_CODEC.encode(event)))).isEqualTo(event);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void encodesSmallerThanJson(BaseEvent<?> event, int v1Fields) throws Exception {
+        byte[] binary = CODEC.encode(event);
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(event);
+        
+        log.info("{}: {} bytes binary, {} bytes JSON", event.getClass().getSimpleName(), binary.length, json.length);
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+    
+    @ParameterizedTest
+    @MethodSource("events")
+    void comparesCostWithJson(BaseEvent<?> event, int v1Fields) throws Exception {
+        Class<?> eventClass = event.getClass();
+        byte[] binary = CODEC.encode(event);
+        byte[] json = OBJECT_MAPPER.writeValueAsBytes(event);
+        
+        // Run once untimed so both paths are warmed up before being measured
+        for (int pass = 0; pass < 2; pass++) {
+            long binaryStart = System.nanoTime();
+            for (int i = 0; i < TIMING_ITERATIONS; i++) {
+                CODEC.decode(ByteBuffer.wrap(CODEC.encode(event)));
+            }
+            long binaryNanos = System.nanoTime() - binaryStart;
+            
+            long jsonStart = System.nanoTime();
+            for (int i = 0; i < TIMING_ITERATIONS; i++) {
+                OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsBytes(event), eventClass);
+            }
+            long jsonNanos = System.nanoTime() - jsonStart;
+            
+            if (pass == 1) {
+                log.info("{}: {} ns binary, {} ns JSON per round trip", eventClass.getSimpleName(),
+                        binaryNanos / TIMING_ITERATIONS, jsonNanos / TIMING_ITERATIONS);
+            }
+        }
+        
+        assertThat(OBJECT_MAPPER.readValue(json, eventClass)).isEqualTo(CODEC.decode(ByteBuffer.wrap(binary)));
+    }
+    
+    private static AdvanceRequestEvent advanceRequestEvent() {
+        return new AdvanceRequestEvent(101L, EventType.ADVANCE_REQUEST_APPROVED, new AdvanceRequestPayload(
+                101L, 2001L, 31L, new BigDecimal("2500.00"), LocalDateTime.of(2024, 3, 1, 9, 15, 30, 123_000_000),
+                "APPROVED", "Car repair – garage in Łódź", 7L, LocalDateTime.of(2024, 3, 1, 10, 0),
+                null, LocalDateTime.of(2024, 3, 31, 0, 0), LocalDateTime.of(2024, 3, 1, 9, 15, 30, 123_456_789),
+                LocalDateTime.of(2024, 3, 1, 10, 0, 0, 1)));
+    }
+    
+    private static DisbursementEvent disbursementEvent() {
+        return new DisbursementEvent(501L, EventType.DISBURSEMENT_COMPLETED, new DisbursementPayload(
+                501L, 101L, 2001L, 31L, new BigDecimal("2500.00"), "TXN-20240301-000501", "COMPLETED",
+                "BANK_TRANSFER", "044", 12L, LocalDateTime.of(2024, 3, 31, 0, 0), new BigDecimal("37.50"),
+                new BigDecimal("2537.50"), 2, LocalDateTime.of(2024, 3, 1, 11, 0),
+                LocalDateTime.of(2024, 3, 1, 10, 0, 5), LocalDateTime.of(2024, 3, 1, 11, 0, 2, 500_000_000)));
+    }
+    
+    private static RepaymentEvent repaymentEvent() {
+        return new RepaymentEvent(901L, EventType.REPAYMENT_COMPLETED, new RepaymentPayload(
+                901L, 501L, 2001L, new BigDecimal("-2537.50"), "RPY-20240331-000901", "COMPLETED",
+                "PAYROLL_DEDUCTION", LocalDateTime.of(2024, 3, 31, 8, 0), LocalDateTime.of(2024, 3, 31, 7, 59, 58),
+                LocalDateTime.of(2024, 3, 31, 8, 0, 1)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> void withPayload(BaseEvent<T> event, Function<Record, Record> change) {
+        event.setPayload((T) change.apply((Record) event.getPayload()));
+    }
+    
+    /**
+     * Copies a payload record, keeping its first components and leaving the rest null.
+     */
+    private static Record keepFirst(Record payload, int count) {
+        RecordComponent[] components = payload.getClass().getRecordComponents();
+        Object[] values = new Object[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                values[i] = i < count ? components[i].getAccessor().invoke(payload) : null;
+            }
+            Constructor<?> constructor = payload.getClass().getDeclaredConstructor(types);
+            return (Record) constructor.newInstance(values);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot copy " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
\ No newline at end of file
@@ -1,20 +1,30 @@
 package com.payrolladvance.userservice.config;
 
+import com.payrolladvance.kafka.common.codec.BinaryEventDeserializer;
+import com.payrolladvance.kafka.common.codec.BinaryEventSerializer;
+import com.payrolladvance.kafka.common.config.ProducerProfileProperties;
+import com.payrolladvance.kafka.common.config.ProducerProfiles;
 import com.payrolladvance.kafka.common.events.BaseEvent;
+import com.payrolladvance.kafka.common.metrics.ListenerMetrics;
+import com.payrolladvance.kafka.common.retry.RetryTopicProperties;
+import com.payrolladvance.kafka.common.retry.RetryTopics;
 import com.payrolladvance.kafka.common.util.EventPublisher;
+import com.payrolladvance.kafka.common.util.RoutingKeyStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +44,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
     
+    @Value("${app.kafka.schema-location:classpath:schemas}")
+    private String schemaLocation;
+    
+    @Value("${app.kafka.listener.concurrency:3}")
+    private int listenerConcurrency;
+    
     /**
      * Creates the Kafka producer factory.
      *
@@ -41,13 +57,34 @@ public class KafkaConfig {
      */
     @Bean
     public ProducerFactory<String, BaseEvent<?>> producerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        Map<String, Object> props = producerProps();
+        ProducerProfileProperties profiles = producerProfileProperties();
+        props.putAll(profiles.producerProps(profiles.getDefaultProfile()));
         return new DefaultKafkaProducerFactory<>(props);
     }
     
+    /**
+     * Creates the producer profile selection and overrides bound from config-repo.
+     *
+     * @return the producer profile properties
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "app.kafka.producer")
+    public ProducerProfileProperties producerProfileProperties() {
+        return new ProducerProfileProperties();
+    }
+    
+    /**
+     * Creates one producer per producer profile.
+     *
+     * @param meterRegistry the registry for the producers' meters
+     * @return the producer profiles
+     */
+    @Bean
+    public ProducerProfiles producerProfiles(MeterRegistry meterRegistry) {
+        return new ProducerProfiles(producerProps(), producerProfileProperties(), meterRegistry);
+    }
+    
     /**
      * Creates the Kafka template.
      *
@@ -59,41 +96,101 @@ public class KafkaConfig {
     }
     
     /**
-     * Creates the event publisher.
+     * Creates the retry settings bound from config-repo.
      *
+     * @return the retry topic properties
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "app.kafka.retry")
+    public RetryTopicProperties retryTopicProperties() {
+        return new RetryTopicProperties();
+    }
+    
+    /**
+     * Creates the retry-topic configuration for every listener. A failing record moves to a retry topic at
+     * once instead of holding up its partition, and ends on the dead-letter topic once its attempts are used up.
+     * This gives up per-key order for the failed record, so ordered topics are left out and retried in place.
+     *
+     * @return the retry topic configuration
+     */
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration() {
+        return RetryTopics.configuration(kafkaTemplate(), retryTopicProperties());
+    }
+    
+    /**
+     * Creates the event publisher. Each topic is sent through the producer of its configured profile.
+     *
+     * @param producerProfiles the producers of each profile
      * @return the event publisher
      */
     @Bean
-    public EventPublisher eventPublisher() {
-        return new EventPublisher(kafkaTemplate());
+    public EventPublisher eventPublisher(ProducerProfiles producerProfiles) {
+        return new EventPublisher(producerProfiles, RoutingKeyStrategy.byEntity());
+    }
+    
+    /**
+     * Creates the listener meters: end-to-end event latency and processing time per topic and listener,
+     * and the Kafka client meters of every consumer, including lag per partition.
+     *
+     * @param meterRegistry the registry for the listener meters
+     * @return the listener metrics
+     */
+    @Bean
+    public ListenerMetrics listenerMetrics(MeterRegistry meterRegistry) {
+        return new ListenerMetrics(meterRegistry);
     }
     
     /**
      * Creates the Kafka consumer factory.
      *
+     * @param listenerMetrics registers the meters of every consumer
      * @return the consumer factory
      */
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, Object> consumerFactory(ListenerMetrics listenerMetrics) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        // Skip records of aborted event batches; without transactions this reads the same records as read_uncommitted
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BinaryEventDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.payrolladvance.*");
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(BinaryEventSerializer.SCHEMA_LOCATION_CONFIG, schemaLocation);
+        return listenerMetrics.instrument(new DefaultKafkaConsumerFactory<>(props));
     }
     
     /**
      * Creates the Kafka listener container factory.
+     * Listeners on topics without retry topics, such as ordered topics, retry a failing record in place.
      *
+     * @param consumerFactory the consumer factory
+     * @param listenerMetrics times the records of every listener
      * @return the listener container factory
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, ListenerMetrics listenerMetrics) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        return factory;
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        factory.setCommonErrorHandler(RetryTopics.inPlaceErrorHandler(kafkaTemplate(), retryTopicProperties()));
+        return listenerMetrics.instrument(factory);
+    }
+    
+    /**
+     * Builds the connection and serializer properties shared by all producers.
+     *
+     * @return the producer properties
+     */
+    private Map<String, Object> producerProps() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BinaryEventSerializer.class);
+        props.put(BinaryEventSerializer.SCHEMA_LOCATION_CONFIG, schemaLocation);
+        return props;
     }
 }
\ No newline at end of file
@@ -1,11 +1,17 @@
 package com.payrolladvance.userservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
@@ -15,6 +21,8 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
     
+    private static final String SERVICE_ROLE = "SERVICE";
+    
     /**
      * Configures the security filter chain.
      *
@@ -28,9 +36,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/users/register").permitAll()
+                        // Looked up by other services when they attribute an employee's advances to an employer
+                        .requestMatchers(HttpMethod.GET, "/api/users/*/employee-profile").hasRole(SERVICE_ROLE)
                         .requestMatchers("/actuator/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                .httpBasic(Customizer.withDefaults())
                 .build();
     }
     
@@ -43,4 +54,23 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+    
+    /**
+     * Creates the account other services authenticate their calls with, using HTTP Basic.
+     *
+     * @param username        the service account's username
+     * @param password        the service account's password
+     * @param passwordEncoder the password encoder
+     * @return the user details service
+     */
+    @Bean
+    public UserDetailsService serviceClientDetailsService(
+            @Value("${app.service-client.username}") String username,
+            @Value("${app.service-client.password}") String password,
+            PasswordEncoder passwordEncoder) {
+        return new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(passwordEncoder.encode(password))
+                .roles(SERVICE_ROLE)
+                .build());
+    }
 }
\ No newline at end of file
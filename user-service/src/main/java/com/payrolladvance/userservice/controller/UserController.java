@@ -1,6 +1,8 @@
 package com.payrolladvance.userservice.controller;
 
 import com.payrolladvance.userservice.dto.UserRegistrationDto;
+import com.payrolladvance.userservice.dto.response.EmployeeProfileResponse;
+import com.payrolladvance.userservice.model.EmployeeProfile;
 import com.payrolladvance.userservice.model.User;
 import com.payrolladvance.userservice.service.UserService;
 import jakarta.validation.Valid;
@@ -60,4 +62,22 @@ public class UserController {
         User updatedUser = userService.updateKycStatus(id, kycStatus);
         return ResponseEntity.ok(updatedUser);
     }
+    
+    /**
+     * Gets the employment details of a user, such as the employer other services attribute the user's
+     * advances and disbursements to.
+     *
+     * @param id the user ID
+     * @return the employee profile if found
+     */
+    @GetMapping("/{id}/employee-profile")
+    public ResponseEntity<EmployeeProfileResponse> getEmployeeProfile(@PathVariable Long id) {
+        log.info("Fetching employee profile for user ID {}", id);
+        EmployeeProfile profile = userService.getEmployeeProfile(id);
+        return ResponseEntity.ok(EmployeeProfileResponse.builder()
+                .userId(id)
+                .employeeProfileId(profile.getId())
+                .employerId(profile.getEmployerId())
+                .build());
+    }
 }
\ No newline at end of file
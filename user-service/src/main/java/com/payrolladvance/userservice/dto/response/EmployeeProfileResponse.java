@@ -0,0 +1,20 @@
+package com.payrolladvance.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the employment details other services look up for an employee.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeProfileResponse {
+    
+    private Long userId;
+    private Long employeeProfileId;
+    private Long employerId;
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.payrolladvance.userservice.service;
 
 import com.payrolladvance.userservice.dto.UserRegistrationDto;
+import com.payrolladvance.userservice.model.EmployeeProfile;
 import com.payrolladvance.userservice.model.User;
 
 /**
@@ -39,4 +40,12 @@ public interface UserService {
      * @return the updated user
      */
     User updateKycStatus(Long id, String kycStatus);
+    
+    /**
+     * Gets the employee profile of a user.
+     *
+     * @param userId the user ID
+     * @return the employee profile if found
+     */
+    EmployeeProfile getEmployeeProfile(Long userId);
 }
\ No newline at end of file
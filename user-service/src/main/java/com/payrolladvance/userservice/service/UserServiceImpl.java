@@ -3,7 +3,9 @@ package com.payrolladvance.userservice.service;
 import com.payrolladvance.userservice.dto.UserRegistrationDto;
 import com.payrolladvance.userservice.event.UserEventListener;
 import com.payrolladvance.userservice.exception.UserNotFoundException;
+import com.payrolladvance.userservice.model.EmployeeProfile;
 import com.payrolladvance.userservice.model.User;
+import com.payrolladvance.userservice.repository.EmployeeProfileRepository;
 import com.payrolladvance.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
+    private final EmployeeProfileRepository employeeProfileRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserEventListener userEventListener;
     
@@ -79,4 +82,10 @@ public class UserServiceImpl implements UserService {
         user.setKycStatus(kycStatus);
         return userRepository.save(user);
     }
+    
+    @Override
+    public EmployeeProfile getEmployeeProfile(Long userId) {
+        return employeeProfileRepository.findByUserId(userId)
+                .orElseThrow(() -> new UserNotFoundException("Employee profile not found for user ID: " + userId));
+    }
 }
\ No newline at end of file